@@ -0,0 +1,97 @@
+package com.issuingbank.authorizer.application.authorizer;
+
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Entry point for ingress adapters. Applies per-account admission before
+ * {@link TransactionAuthorizerService#execute} opens its transaction and, in
+ * {@link ConcurrencyMode#OPTIMISTIC} mode, retries authorizations that lost a version check.
+ * With group commit enabled the authorization is handed to {@link GroupCommitAuthorizer} instead.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class AuthorizationDispatcher {
+    private final TransactionAuthorizerService authorizerService;
+    private final GroupCommitAuthorizer groupCommitAuthorizer;
+    private final AccountAdmissionQueue accountAdmissionQueue;
+    private final AuthorizerProperties properties;
+    private final AuthorizationMetrics metrics;
+
+    public AuthorizationResponse dispatch(UUID idempotencyKey, AuthorizationRequest request) {
+        long start = System.nanoTime();
+
+        try {
+            AuthorizationResponse response = admit(idempotencyKey, request);
+            metrics.recordResponse(response.code());
+            return response;
+        } catch (RuntimeException e) {
+            // ingress adapters answer exceptions with UNEXPECTED_ERROR
+            metrics.recordResponse(AuthorizationResponseType.UNEXPECTED_ERROR);
+            throw e;
+        } finally {
+            metrics.recordAuthorization(start);
+        }
+    }
+
+    private AuthorizationResponse admit(UUID idempotencyKey, AuthorizationRequest request) {
+        if (!properties.getAdmission().isEnabled()) {
+            return execute(idempotencyKey, request);
+        }
+
+        return accountAdmissionQueue.admit(request.account(), () -> execute(idempotencyKey, request))
+                .orElseGet(() -> {
+                    log.warn("Authorization {} timed out waiting for account admission", idempotencyKey);
+                    return AuthorizationResponse.from(AuthorizationResponseType.UNEXPECTED_ERROR.getCode());
+                });
+    }
+
+    private AuthorizationResponse execute(UUID idempotencyKey, AuthorizationRequest request) {
+        if (properties.getConcurrency().getMode() != ConcurrencyMode.OPTIMISTIC) {
+            return authorize(idempotencyKey, request);
+        }
+
+        int maxAttempts = properties.getConcurrency().getMaxAttempts();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return authorize(idempotencyKey, request);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Authorization {} declined after {} optimistic lock conflicts", idempotencyKey, attempt);
+                    return AuthorizationResponse.from(AuthorizationResponseType.UNEXPECTED_ERROR.getCode());
+                }
+
+                backoff(attempt);
+            }
+        }
+    }
+
+    private AuthorizationResponse authorize(UUID idempotencyKey, AuthorizationRequest request) {
+        if (properties.getGroupCommit().isEnabled()) {
+            return groupCommitAuthorizer.submit(idempotencyKey, request);
+        }
+
+        return authorizerService.execute(idempotencyKey, request);
+    }
+
+    private void backoff(int attempt) {
+        Duration initialBackoff = properties.getConcurrency().getInitialBackoff();
+        Duration maxBackoff = properties.getConcurrency().getMaxBackoff();
+        long ceilingNanos = Math.min(maxBackoff.toNanos(), initialBackoff.toNanos() << Math.min(attempt - 1, 20));
+
+        try {
+            Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceilingNanos + 1)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.issuingbank.authorizer.application.authorizer;
+
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the authorization pipeline. Every timer and counter is registered up front, so recording on
+ * the hot path is an array or EnumMap lookup plus {@link System#nanoTime()}, with no tag resolution.
+ * Connection pool waits are published by Hikari itself as hikaricp.connections.acquire.
+ */
+@Component
+public class AuthorizationMetrics {
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    public enum Stage {
+        IDEMPOTENCY_LOOKUP,
+        MCC_RESOLUTION,
+        /**
+         * Balance read, including the wait for the row lock in PESSIMISTIC mode.
+         */
+        BALANCE_LOCK,
+        DEBIT_DECISION,
+        /**
+         * Entity writes handed to Hibernate (or the journal) inside execute; the SQL itself mostly runs on commit.
+         */
+        PERSISTENCE,
+        SINGLE_STATEMENT,
+        /**
+         * Flush and COMMIT of the authorization transaction.
+         */
+        COMMIT
+    }
+
+    private final Timer authorizationTimer;
+    private final Timer[] stageTimers;
+    private final Map<AuthorizationResponseType, Counter> responseCounters = new EnumMap<>(AuthorizationResponseType.class);
+    private final Counter[][] debitCounters;
+    private final Object transactionResourceKey = new Object();
+
+    public AuthorizationMetrics(MeterRegistry meterRegistry) {
+        this.authorizationTimer = Timer.builder("authorizer.authorization")
+                .description("Authorization latency from dispatch to response, including admission and retries")
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        Stage[] stages = Stage.values();
+        this.stageTimers = new Timer[stages.length];
+        for (Stage stage : stages) {
+            stageTimers[stage.ordinal()] = Timer.builder("authorizer.authorization.stage")
+                    .description("Latency of each stage of TransactionAuthorizerService.execute")
+                    .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        for (AuthorizationResponseType responseType : AuthorizationResponseType.values()) {
+            responseCounters.put(responseType, Counter.builder("authorizer.authorization.responses")
+                    .description("Authorization responses by type")
+                    .tag("response", responseType.name())
+                    .tag("code", responseType.getCode())
+                    .register(meterRegistry));
+        }
+
+        BalanceType[] balanceTypes = BalanceType.values();
+        this.debitCounters = new Counter[balanceTypes.length][2];
+        for (BalanceType balanceType : balanceTypes) {
+            for (boolean fallback : new boolean[]{false, true}) {
+                debitCounters[balanceType.ordinal()][fallback ? 1 : 0] = Counter.builder("authorizer.authorization.debits")
+                        .description("Approved debits by wallet; fallback=true when the primary wallet did not cover the amount and a fallback wallet did")
+                        .tag("balance_type", balanceType.name())
+                        .tag("fallback", String.valueOf(fallback))
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    public void recordAuthorization(long startNanos) {
+        authorizationTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordStage(Stage stage, long startNanos) {
+        stageTimers[stage.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordResponse(AuthorizationResponseType responseType) {
+        responseCounters.get(responseType).increment();
+    }
+
+    public void recordResponse(String code) {
+        for (AuthorizationResponseType responseType : AuthorizationResponseType.values()) {
+            if (responseType.getCode().equals(code)) {
+                recordResponse(responseType);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Counts an approved debit once its transaction commits, or right away outside a transaction.
+     */
+    public void recordDebit(BalanceType debitedBalanceType, BalanceType primaryBalanceType) {
+        Counter counter = debitCounters[debitedBalanceType.ordinal()][debitedBalanceType == primaryBalanceType ? 0 : 1];
+        CommitSynchronization synchronization = commitSynchronization();
+
+        if (synchronization == null) {
+            counter.increment();
+        } else {
+            synchronization.debits.add(counter);
+        }
+    }
+
+    /**
+     * @return mark to pass to {@link #discardDebitsSince} when the work recorded after it is rolled back to a savepoint
+     */
+    public int debitMark() {
+        CommitSynchronization synchronization = commitSynchronization();
+        return synchronization == null ? 0 : synchronization.debits.size();
+    }
+
+    public void discardDebitsSince(int mark) {
+        CommitSynchronization synchronization = commitSynchronization();
+        if (synchronization != null && synchronization.debits.size() > mark) {
+            synchronization.debits.subList(mark, synchronization.debits.size()).clear();
+        }
+    }
+
+    /**
+     * Times the flush and COMMIT of the current transaction, which happen after execute returns.
+     * With group commit this is the commit of the whole batch, recorded once however many authorizations
+     * it holds. Nothing is recorded outside a transaction.
+     */
+    public void timeCommit() {
+        commitSynchronization();
+    }
+
+    /**
+     * One synchronization per physical transaction, bound as a transaction resource so every authorization
+     * of a group commit batch finds the same one.
+     */
+    private CommitSynchronization commitSynchronization() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+
+        CommitSynchronization synchronization = (CommitSynchronization) TransactionSynchronizationManager.getResource(transactionResourceKey);
+        if (synchronization == null) {
+            synchronization = new CommitSynchronization();
+            TransactionSynchronizationManager.bindResource(transactionResourceKey, synchronization);
+            TransactionSynchronizationManager.registerSynchronization(synchronization);
+        }
+
+        return synchronization;
+    }
+
+    private class CommitSynchronization implements TransactionSynchronization {
+        private final List<Counter> debits = new ArrayList<>();
+        private long beforeCommitNanos;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            beforeCommitNanos = System.nanoTime();
+        }
+
+        @Override
+        public void afterCommit() {
+            recordStage(Stage.COMMIT, beforeCommitNanos);
+            debits.forEach(Counter::increment);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(transactionResourceKey);
+        }
+    }
+}
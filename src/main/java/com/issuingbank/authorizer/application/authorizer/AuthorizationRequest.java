@@ -1,6 +1,7 @@
 package com.issuingbank.authorizer.application.authorizer;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.issuingbank.authorizer.domain.money.Money;
 
 import java.math.BigDecimal;
 
@@ -13,7 +14,7 @@ public record AuthorizationRequest(
     @JsonIgnore
     public boolean isValid() {
         return !account.isBlank() && !mcc.isBlank() && !merchant.isBlank()
-                && totalAmount.compareTo(BigDecimal.ZERO) > 0;
+                && totalAmount.compareTo(BigDecimal.ZERO) > 0 && Money.isRepresentable(totalAmount);
     }
 
     public static AuthorizationRequest of(String account, BigDecimal totalAmount, String mcc, String merchant) {
@@ -0,0 +1,15 @@
+package com.issuingbank.authorizer.application.authorizer;
+
+public enum BalanceHistoryMode {
+    /**
+     * balance_history is inserted inside the authorization transaction.
+     */
+    SYNCHRONOUS,
+
+    /**
+     * balance_history is appended to a local journal while the balance row is locked and moved to
+     * PostgreSQL later by BalanceHistoryJournalFlusher. Only applies to {@link PersistenceMode#JPA}:
+     * the single-statement CTE already writes the history in the same statement as the debit.
+     */
+    JOURNAL
+}
@@ -0,0 +1,27 @@
+package com.issuingbank.authorizer.application.authorizer;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One line of a batch: an {@link AuthorizationRequest} with the Idempotency-Key that goes in the header of
+ * POST /authorize.
+ */
+public record BatchAuthorizationRequest(
+        UUID idempotencyKey,
+        String account,
+        BigDecimal totalAmount,
+        String mcc,
+        String merchant
+) {
+    @JsonIgnore
+    public boolean isComplete() {
+        return idempotencyKey != null && account != null && totalAmount != null && mcc != null && merchant != null;
+    }
+
+    public AuthorizationRequest toAuthorizationRequest() {
+        return AuthorizationRequest.of(account, totalAmount, mcc, merchant);
+    }
+}
@@ -0,0 +1,9 @@
+package com.issuingbank.authorizer.application.authorizer;
+
+import java.util.UUID;
+
+public record BatchAuthorizationResponse(UUID idempotencyKey, String code) {
+    public static BatchAuthorizationResponse from(UUID idempotencyKey, String code) {
+        return new BatchAuthorizationResponse(idempotencyKey, code);
+    }
+}
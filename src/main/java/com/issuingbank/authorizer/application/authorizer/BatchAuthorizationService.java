@@ -0,0 +1,202 @@
+package com.issuingbank.authorizer.application.authorizer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Authorizes newline-delimited {@link BatchAuthorizationRequest}s (stand-in replays, acquirer batch files)
+ * and writes one {@link BatchAuthorizationResponse} line per request line, in the same order.
+ * <p>
+ * Lines are read as they arrive and up to {@code authorizer.batch.parallelism} of them are authorized at
+ * once through {@link AuthorizationDispatcher}; reading stops while the oldest one is still running, so
+ * memory is bounded by the window and not by the payload. Responses are flushed before waiting.
+ * A line that cannot be read or is missing a field is answered with UNEXPECTED_ERROR.
+ * <p>
+ * A line longer than {@code authorizer.batch.max-line-length} is skipped up to its newline and answered with
+ * UNEXPECTED_ERROR, so it is never held in memory. Once the body passes {@code authorizer.batch.max-body-length}
+ * the line being read is answered with UNEXPECTED_ERROR and the rest of the body is not read.
+ */
+@Slf4j
+@Service
+public class BatchAuthorizationService {
+    private static final byte NEWLINE = '\n';
+
+    private final AuthorizationDispatcher authorizationDispatcher;
+    private final ObjectReader requestReader;
+    private final ObjectWriter responseWriter;
+    private final int parallelism;
+    private final int maxLineLength;
+    private final long maxBodyLength;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("batch-authorization-", 0).factory());
+
+    public BatchAuthorizationService(AuthorizationDispatcher authorizationDispatcher, ObjectMapper objectMapper,
+                                     AuthorizerProperties properties) {
+        this.authorizationDispatcher = authorizationDispatcher;
+        this.requestReader = objectMapper.readerFor(BatchAuthorizationRequest.class);
+        this.responseWriter = objectMapper.writerFor(BatchAuthorizationResponse.class);
+        this.parallelism = properties.getBatch().getParallelism();
+        this.maxLineLength = properties.getBatch().getMaxLineLength();
+        this.maxBodyLength = properties.getBatch().getMaxBodyLength();
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * @return number of requests answered
+     */
+    public long authorize(BufferedReader lines, OutputStream out) throws IOException {
+        Queue<CompletableFuture<BatchAuthorizationResponse>> window = new ArrayDeque<>(parallelism);
+        LineReader reader = new LineReader(lines, maxLineLength, maxBodyLength);
+        long answered = 0;
+
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line != LineReader.OVERSIZED && line.isBlank()) {
+                continue;
+            }
+
+            if (window.size() >= parallelism) {
+                write(window.poll(), out);
+                answered++;
+            }
+
+            window.add(line == LineReader.OVERSIZED
+                    ? CompletableFuture.completedFuture(unexpectedError(null))
+                    : submit(line));
+        }
+
+        while (!window.isEmpty()) {
+            write(window.poll(), out);
+            answered++;
+        }
+
+        out.flush();
+        return answered;
+    }
+
+    private CompletableFuture<BatchAuthorizationResponse> submit(String line) {
+        BatchAuthorizationRequest request;
+
+        try {
+            request = requestReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable batch authorization line: {}", e.getOriginalMessage());
+            return CompletableFuture.completedFuture(unexpectedError(null));
+        }
+
+        if (!request.isComplete()) {
+            log.warn("Batch authorization {} is missing fields", request.idempotencyKey());
+            return CompletableFuture.completedFuture(unexpectedError(request.idempotencyKey()));
+        }
+
+        return CompletableFuture.supplyAsync(() -> dispatch(request), executor);
+    }
+
+    private BatchAuthorizationResponse dispatch(BatchAuthorizationRequest request) {
+        try {
+            AuthorizationResponse response = authorizationDispatcher.dispatch(request.idempotencyKey(), request.toAuthorizationRequest());
+            return BatchAuthorizationResponse.from(request.idempotencyKey(), response.code());
+        } catch (RuntimeException e) {
+            log.error("Batch authorization {} failed", request.idempotencyKey(), e);
+            return unexpectedError(request.idempotencyKey());
+        }
+    }
+
+    private void write(CompletableFuture<BatchAuthorizationResponse> response, OutputStream out) throws IOException {
+        if (!response.isDone()) {
+            // the client sees what is ready while the oldest authorization is still running
+            out.flush();
+        }
+
+        out.write(responseWriter.writeValueAsBytes(response.join()));
+        out.write(NEWLINE);
+    }
+
+    private static BatchAuthorizationResponse unexpectedError(UUID idempotencyKey) {
+        return BatchAuthorizationResponse.from(idempotencyKey, AuthorizationResponseType.UNEXPECTED_ERROR.getCode());
+    }
+
+    /**
+     * {@link BufferedReader#readLine()} with a cap on the line and on the whole body. Only '\n' ends a line;
+     * a trailing '\r' is left to the JSON parser, which reads it as whitespace.
+     */
+    private static final class LineReader {
+        /**
+         * Returned, compared by identity, for a line past one of the caps; a distinct instance so no real line is it.
+         */
+        static final String OVERSIZED = new String("");
+
+        private final BufferedReader reader;
+        private final int maxLineLength;
+        private final long maxBodyLength;
+        private final StringBuilder line = new StringBuilder();
+        private long bodyLength;
+        private boolean bodyTooLong;
+
+        LineReader(BufferedReader reader, int maxLineLength, long maxBodyLength) {
+            this.reader = reader;
+            this.maxLineLength = maxLineLength;
+            this.maxBodyLength = maxBodyLength;
+        }
+
+        /**
+         * @return the next line, {@link #OVERSIZED}, or null at the end of the body or once it passed its cap
+         */
+        String readLine() throws IOException {
+            if (bodyTooLong) {
+                return null;
+            }
+
+            line.setLength(0);
+            boolean lineTooLong = false;
+
+            for (int c = reader.read(); c != -1; c = reader.read()) {
+                if (++bodyLength > maxBodyLength) {
+                    log.warn("Batch authorization body longer than {} characters, the rest is not read", maxBodyLength);
+                    bodyTooLong = true;
+                    return OVERSIZED;
+                }
+
+                if (c == NEWLINE) {
+                    return lineTooLong ? OVERSIZED : line.toString();
+                }
+
+                if (lineTooLong) {
+                    continue;
+                }
+
+                if (line.length() == maxLineLength) {
+                    log.warn("Batch authorization line longer than {} characters", maxLineLength);
+                    lineTooLong = true;
+                    line.setLength(0);
+                } else {
+                    line.append((char) c);
+                }
+            }
+
+            if (lineTooLong) {
+                return OVERSIZED;
+            }
+
+            return line.isEmpty() ? null : line.toString();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.issuingbank.authorizer.application.authorizer;
+
+public enum ConcurrencyMode {
+    /**
+     * Balance row is read with SELECT ... FOR UPDATE and held until commit.
+     */
+    PESSIMISTIC,
+
+    /**
+     * Balance row is read without a lock and the UPDATE checks Balance.version;
+     * conflicting authorizations are retried by {@link AuthorizationDispatcher}.
+     */
+    OPTIMISTIC
+}
@@ -0,0 +1,345 @@
+package com.issuingbank.authorizer.application.authorizer;
+
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit: authorizations submitted within {@code authorizer.group-commit.window} of each other are
+ * run by one worker in a single database transaction, so they share one COMMIT (one WAL fsync).
+ * Each authorization runs inside its own JDBC savepoint and is flushed before the next one starts, so a
+ * failing authorization is rolled back alone and only its caller sees the failure. Callers get their
+ * response after the batch commits.
+ * <p>
+ * Authorizations run through {@link TransactionAuthorizerService#executeInCurrentTransaction}, so their own
+ * failures do not mark the batch rollback-only. A failure inside a repository call still does, and no savepoint
+ * can clear that mark on the JPA transaction: the batch is then rolled back and its other authorizations are
+ * run again, each in a transaction of its own.
+ * <p>
+ * Row locks are held until the whole batch commits. Admission keeps the same account out of two batches at
+ * once; without it batches of the same accounts in different orders deadlock on each other, so group commit
+ * refuses to start unless {@code authorizer.admission.enabled} is on.
+ */
+@Slf4j
+@Component
+public class GroupCommitAuthorizer {
+    private final TransactionAuthorizerService authorizerService;
+    private final AuthorizationMetrics metrics;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+    private final TransactionTemplate batchTransaction;
+    private final AuthorizerProperties.GroupCommit properties;
+    private final boolean admissionEnabled;
+    private final BlockingQueue<PendingAuthorization> queue;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final DistributionSummary batchSize;
+    private final Timer windowWait;
+    private final Counter commits;
+    private final Counter failedCommits;
+    private final Counter savepointRollbacks;
+
+    private volatile boolean running;
+
+    public GroupCommitAuthorizer(TransactionAuthorizerService authorizerService, AuthorizationMetrics metrics,
+                                 EntityManagerFactory entityManagerFactory, DataSource dataSource,
+                                 PlatformTransactionManager transactionManager, AuthorizerProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.authorizerService = authorizerService;
+        this.metrics = metrics;
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+        this.properties = properties.getGroupCommit();
+        this.admissionEnabled = properties.getAdmission().isEnabled();
+        this.queue = new ArrayBlockingQueue<>(this.properties.getQueueCapacity());
+
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setTimeout((int) Math.max(1, this.properties.getTransactionTimeout().toSeconds()));
+
+        this.batchSize = DistributionSummary.builder("authorizer.group-commit.batch.size")
+                .description("Authorizations committed together")
+                .register(meterRegistry);
+        this.windowWait = Timer.builder("authorizer.group-commit.window")
+                .description("Time an authorization waited in the queue for its batch to start")
+                .register(meterRegistry);
+        this.commits = Counter.builder("authorizer.group-commit.commits")
+                .description("Batch commits, one WAL fsync each")
+                .register(meterRegistry);
+        this.failedCommits = Counter.builder("authorizer.group-commit.failed-commits")
+                .description("Batches rolled back as a whole")
+                .register(meterRegistry);
+        this.savepointRollbacks = Counter.builder("authorizer.group-commit.savepoint.rollbacks")
+                .description("Authorizations rolled back to their savepoint inside a batch")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        if (!admissionEnabled) {
+            throw new IllegalStateException("authorizer.group-commit requires authorizer.admission.enabled");
+        }
+
+        running = true;
+
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            Thread worker = Thread.ofPlatform()
+                    .name("group-commit-" + i)
+                    .daemon(true)
+                    .start(this::work);
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+
+        List<PendingAuthorization> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.future.completeExceptionally(new IllegalStateException("Group commit is shutting down")));
+    }
+
+    /**
+     * Blocks until the batch holding this authorization commits or rolls back. Exceptions thrown by
+     * {@link TransactionAuthorizerService#executeInCurrentTransaction} are rethrown to the caller unchanged.
+     */
+    public AuthorizationResponse submit(UUID idempotencyKey, AuthorizationRequest request) {
+        PendingAuthorization pending = new PendingAuthorization(idempotencyKey, request, System.nanoTime());
+
+        if (!running || !queue.offer(pending)) {
+            log.warn("Authorization {} rejected, group commit queue is full", idempotencyKey);
+            return AuthorizationResponse.from(AuthorizationResponseType.UNEXPECTED_ERROR.getCode());
+        }
+
+        try {
+            return pending.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return AuthorizationResponse.from(AuthorizationResponseType.UNEXPECTED_ERROR.getCode());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void work() {
+        List<PendingAuthorization> batch = new ArrayList<>(properties.getMaxBatchSize());
+        long windowNanos = properties.getWindow().toNanos();
+
+        while (running) {
+            try {
+                PendingAuthorization first = queue.take();
+                batch.add(first);
+
+                long deadline = first.enqueuedAt + windowNanos;
+                while (batch.size() < properties.getMaxBatchSize()) {
+                    PendingAuthorization next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+                    if (next == null) {
+                        break;
+                    }
+
+                    batch.add(next);
+                }
+
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.future.completeExceptionally(e));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingAuthorization> batch) {
+        long batchStart = System.nanoTime();
+        batch.forEach(pending -> windowWait.record(batchStart - pending.enqueuedAt, TimeUnit.NANOSECONDS));
+        batchSize.record(batch.size());
+
+        boolean committed;
+        try {
+            committed = Boolean.TRUE.equals(batchTransaction.execute(status -> runBatch(batch, status)));
+        } catch (RuntimeException e) {
+            failedCommits.increment();
+            log.error("Group commit of {} authorizations rolled back", batch.size(), e);
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+            return;
+        }
+
+        if (committed) {
+            commits.increment();
+        } else {
+            failedCommits.increment();
+            log.warn("Group commit of {} authorizations rolled back by a failed authorization, running the others alone", batch.size());
+            batch.stream().filter(pending -> pending.failure == null).forEach(this::runAlone);
+        }
+
+        for (PendingAuthorization pending : batch) {
+            if (pending.failure != null) {
+                pending.future.completeExceptionally(pending.failure);
+            } else {
+                pending.future.complete(pending.response);
+            }
+        }
+    }
+
+    /**
+     * @return false when the batch was marked rollback-only and must not commit
+     */
+    private boolean runBatch(List<PendingAuthorization> batch, TransactionStatus status) {
+        for (PendingAuthorization pending : batch) {
+            if (!runInSavepoint(pending)) {
+                status.setRollbackOnly();
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return false when the failure of the authorization left the JPA transaction rollback-only
+     */
+    private boolean runInSavepoint(PendingAuthorization pending) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        Savepoint savepoint = createSavepoint(connection);
+        int debitMark = metrics.debitMark();
+
+        try {
+            pending.response = authorizerService.executeInCurrentTransaction(pending.idempotencyKey, pending.request);
+            flush(entityManager);
+            releaseSavepoint(connection, savepoint);
+            return true;
+        } catch (RuntimeException e) {
+            rollbackToSavepoint(connection, savepoint);
+            metrics.discardDebitsSince(debitMark);
+            pending.response = null;
+            pending.failure = e;
+            savepointRollbacks.increment();
+            return !entityManager.getTransaction().getRollbackOnly();
+        } finally {
+            // entities of a rolled back authorization must not be flushed with the next one
+            entityManager.clear();
+        }
+    }
+
+    private void runAlone(PendingAuthorization pending) {
+        try {
+            pending.response = authorizerService.execute(pending.idempotencyKey, pending.request);
+        } catch (RuntimeException e) {
+            pending.response = null;
+            pending.failure = e;
+        }
+    }
+
+    /**
+     * Flushing here keeps constraint and version check failures inside the authorization's savepoint.
+     */
+    private static void flush(EntityManager entityManager) {
+        try {
+            entityManager.flush();
+        } catch (PersistenceException e) {
+            DataAccessException translated = EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(e);
+            throw translated != null ? translated : e;
+        }
+    }
+
+    private static Savepoint createSavepoint(Connection connection) {
+        try {
+            return connection.setSavepoint();
+        } catch (SQLException e) {
+            throw new CannotCreateTransactionException("Could not create JDBC savepoint", e);
+        }
+    }
+
+    private static void releaseSavepoint(Connection connection, Savepoint savepoint) {
+        try {
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            throw new TransactionSystemException("Could not release JDBC savepoint", e);
+        }
+    }
+
+    /**
+     * JpaTransactionManager cannot create savepoints through HibernateJpaDialect, so they are handled on the
+     * JDBC connection bound to the batch transaction. Spring's own rollback-only marks are cleared once the
+     * savepoint is rolled back, as Spring does for its own nested transactions; the one on the Hibernate
+     * transaction cannot be, and is checked by the caller.
+     */
+    private void rollbackToSavepoint(Connection connection, Savepoint savepoint) {
+        try {
+            connection.rollback(savepoint);
+        } catch (SQLException e) {
+            throw new TransactionSystemException("Could not roll back to JDBC savepoint", e);
+        }
+
+        if (TransactionSynchronizationManager.getResource(entityManagerFactory) instanceof EntityManagerHolder entityManagerHolder) {
+            entityManagerHolder.resetRollbackOnly();
+        }
+
+        if (TransactionSynchronizationManager.getResource(dataSource) instanceof ConnectionHolder connectionHolder) {
+            connectionHolder.resetRollbackOnly();
+        }
+    }
+
+    private static final class PendingAuthorization {
+        private final UUID idempotencyKey;
+        private final AuthorizationRequest request;
+        private final long enqueuedAt;
+        private final CompletableFuture<AuthorizationResponse> future = new CompletableFuture<>();
+
+        // written by the worker inside the batch transaction, published through the future after commit
+        private AuthorizationResponse response;
+        private RuntimeException failure;
+
+        private PendingAuthorization(UUID idempotencyKey, AuthorizationRequest request, long enqueuedAt) {
+            this.idempotencyKey = idempotencyKey;
+            this.request = request;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
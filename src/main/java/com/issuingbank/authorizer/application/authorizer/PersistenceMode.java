@@ -0,0 +1,23 @@
+package com.issuingbank.authorizer.application.authorizer;
+
+public enum PersistenceMode {
+    /**
+     * Locked SELECT of the balance, then UPDATE and INSERTs flushed by Hibernate.
+     */
+    JPA,
+
+    /**
+     * Wallet selection, debit, transaction, balance_history and idempotent_response writes in one
+     * data-modifying CTE, so the balance row lock lives for a single statement. Always locks the row,
+     * regardless of {@link ConcurrencyMode}.
+     */
+    SINGLE_STATEMENT,
+
+    /**
+     * Appends each debit as an immutable ledger_posting under a per-account advisory lock, without writing the
+     * balance row; the balance row becomes a snapshot that the LedgerCompactor moves forward in the background.
+     * Nodes started in another mode, which writes the balance row directly, fold the pending postings first and
+     * refuse to start while any is left; stop the LEDGER nodes before starting them.
+     */
+    LEDGER
+}
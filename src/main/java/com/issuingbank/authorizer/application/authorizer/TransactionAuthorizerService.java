@@ -1,22 +1,38 @@
 package com.issuingbank.authorizer.application.authorizer;
 
+import com.issuingbank.authorizer.application.authorizer.AuthorizationMetrics.Stage;
+import com.issuingbank.authorizer.application.balance.BalanceSnapshotCache;
 import com.issuingbank.authorizer.application.debits.DebitProcessor;
 import com.issuingbank.authorizer.application.debits.DebitResult;
+import com.issuingbank.authorizer.application.ledger.LedgerState;
 import com.issuingbank.authorizer.application.merchant.MccResolverService;
-import com.issuingbank.authorizer.application.merchant.MccToBalanceTypeMapper;
+import com.issuingbank.authorizer.application.merchant.MccRuleTable;
+import com.issuingbank.authorizer.application.merchant.MccRules;
 import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceHistory;
 import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.domain.idempotency.IdempotentResponse;
+import com.issuingbank.authorizer.domain.ledger.LedgerPosting;
+import com.issuingbank.authorizer.domain.money.Money;
 import com.issuingbank.authorizer.domain.transaction.Transaction;
 import com.issuingbank.authorizer.domain.transaction.TransactionType;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.journal.BalanceHistoryJournal;
 import com.issuingbank.authorizer.infra.repositories.BalanceHistoryRepository;
 import com.issuingbank.authorizer.infra.repositories.BalanceRepository;
+import com.issuingbank.authorizer.infra.repositories.IdempotentResponseRepository;
+import com.issuingbank.authorizer.infra.repositories.LedgerRepository;
+import com.issuingbank.authorizer.infra.repositories.SingleStatementDebitRepository;
+import com.issuingbank.authorizer.infra.repositories.SingleStatementDebitRepository.SingleStatementDebitResult;
 import com.issuingbank.authorizer.infra.repositories.TransactionRepository;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,53 +43,232 @@ public class TransactionAuthorizerService {
     private final BalanceRepository balanceRepository;
     private final TransactionRepository transactionRepository;
     private final BalanceHistoryRepository balanceHistoryRepository;
+    private final BalanceHistoryJournal balanceHistoryJournal;
+    private final IdempotentResponseRepository idempotentResponseRepository;
+    private final SingleStatementDebitRepository singleStatementDebitRepository;
+    private final LedgerRepository ledgerRepository;
     private final DebitProcessor debitProcessor;
     private final MccResolverService mccResolverService;
+    private final MccRuleTable mccRuleTable;
+    private final AuthorizerProperties properties;
+    private final AuthorizationMetrics metrics;
+    private final BalanceSnapshotCache balanceSnapshotCache;
+    private final AccountShardRouter accountShardRouter;
 
+    /**
+     * Retries of an already answered Idempotency-Key are replayed from idempotent_response before the
+     * balance row is locked. Two in-flight requests with the same key still race: the loser fails on the
+     * idempotent_response primary key, is rolled back and answered with UNEXPECTED_ERROR.
+     * <p>
+     * The transaction borrows its connection on the first statement, so binding the account's shard before it
+     * runs every repository of the authorization on that shard.
+     */
     @Transactional(timeout = 1) // 1 second
     public AuthorizationResponse execute(UUID idempotencyKey, AuthorizationRequest request) {
+        return executeInCurrentTransaction(idempotencyKey, request);
+    }
+
+    /**
+     * Body of {@link #execute} for a caller that already runs a transaction and rolls back to its own savepoint
+     * when the authorization fails, like group commit. Not being @Transactional, a failure thrown here does not
+     * mark the caller's transaction rollback-only.
+     */
+    public AuthorizationResponse executeInCurrentTransaction(UUID idempotencyKey, AuthorizationRequest request) {
         if (!request.isValid()) {
             return AuthorizationResponse.from(AuthorizationResponseType.UNEXPECTED_ERROR.getCode());
         }
 
+        return accountShardRouter.callOnShardOf(request.account(), () -> authorize(idempotencyKey, request));
+    }
+
+    private AuthorizationResponse authorize(UUID idempotencyKey, AuthorizationRequest request) {
+        metrics.timeCommit();
+
+        long stageStart = System.nanoTime();
+        Optional<IdempotentResponse> previousResponse = idempotentResponseRepository.findById(idempotencyKey);
+        metrics.recordStage(Stage.IDEMPOTENCY_LOOKUP, stageStart);
+
+        if (previousResponse.isPresent()) {
+            return replay(previousResponse.get(), request);
+        }
+
+        stageStart = System.nanoTime();
         String resolvedMcc = mccResolverService.resolve(request.mcc(), request.merchant());
+        metrics.recordStage(Stage.MCC_RESOLUTION, stageStart);
 
-        BalanceType primaryBalanceTypeSource = MccToBalanceTypeMapper.mapMccToBalanceType(resolvedMcc);
+        MccRules mccRules = mccRuleTable.current();
+        BalanceType primaryBalanceTypeSource = mccRules.primaryWallet(resolvedMcc);
 
         var transaction = Transaction.builder()
                 .requestedMcc(request.mcc())
                 .resolvedMcc(resolvedMcc)
                 .merchant(request.merchant())
-                .amount(request.totalAmount())
+                .amount(Money.toCents(request.totalAmount()))
                 .account(request.account())
                 .type(TransactionType.DEBIT)
                 .idempotencyKey(idempotencyKey)
                 .createdAt(Instant.now())
                 .build();
 
-        var currentBalance = balanceRepository.findByAccount(request.account())
+        if (properties.getPersistence().getMode() == PersistenceMode.SINGLE_STATEMENT) {
+            return executeSingleStatement(transaction, mccRules, primaryBalanceTypeSource);
+        }
+
+        if (properties.getPersistence().getMode() == PersistenceMode.LEDGER) {
+            return executeLedger(idempotencyKey, request, transaction, mccRules, primaryBalanceTypeSource);
+        }
+
+        stageStart = System.nanoTime();
+        var currentBalance = loadBalance(request.account())
                 .orElseThrow(() -> new IllegalArgumentException("Account currentBalance not found!"));
+        metrics.recordStage(Stage.BALANCE_LOCK, stageStart);
 
-        Optional<DebitResult> debitResult = attemptDebitWithFallback(currentBalance, primaryBalanceTypeSource, transaction);
+        stageStart = System.nanoTime();
+        stampAfterLastDebit(transaction, currentBalance);
+        BalanceType[] walletChain = mccRules.chain(currentBalance.getProgram(), primaryBalanceTypeSource);
+        Optional<DebitResult> debitResult = attemptDebitWithFallback(currentBalance, walletChain, transaction);
+        metrics.recordStage(Stage.DEBIT_DECISION, stageStart);
 
-        if (debitResult.isEmpty()) {
+        stageStart = System.nanoTime();
+        try {
+            if (debitResult.isEmpty()) {
+                return respond(idempotencyKey, request, AuthorizationResponseType.INSUFFICIENT_BALANCE);
+            }
+
+            balanceRepository.save(debitResult.get().newBalance());
+            transactionRepository.save(debitResult.get().debitTransaction());
+            recordBalanceHistory(debitResult.get().balanceHistory());
+            // the version check of the UPDATE increments Balance.version on flush
+            balanceSnapshotCache.invalidate(currentBalance.getAccount(), currentBalance.getVersion() + 1);
+
+            return respond(idempotencyKey, request, AuthorizationResponseType.APPROVED);
+        } finally {
+            metrics.recordStage(Stage.PERSISTENCE, stageStart);
+        }
+    }
+
+    private AuthorizationResponse executeSingleStatement(Transaction debitTransaction, MccRules mccRules, BalanceType primaryBalanceTypeSource) {
+        long stageStart = System.nanoTime();
+        SingleStatementDebitResult result = singleStatementDebitRepository.debitWithFallback(debitTransaction, mccRules.chainsJson(primaryBalanceTypeSource),
+                        AuthorizationResponseType.APPROVED.getCode(), AuthorizationResponseType.INSUFFICIENT_BALANCE.getCode())
+                .orElseThrow(() -> new IllegalArgumentException("Account currentBalance not found!"));
+        metrics.recordStage(Stage.SINGLE_STATEMENT, stageStart);
+
+        if (!result.isApproved()) {
             return AuthorizationResponse.from(AuthorizationResponseType.INSUFFICIENT_BALANCE.getCode());
         }
 
-        balanceRepository.save(debitResult.get().newBalance());
-        transactionRepository.save(debitResult.get().debitTransaction());
-        balanceHistoryRepository.save(debitResult.get().balanceHistory());
+        metrics.recordDebit(result.debitedBalanceType(), primaryBalanceTypeSource);
+        balanceSnapshotCache.invalidate(debitTransaction.getAccount(), result.newVersion());
 
         return AuthorizationResponse.from(AuthorizationResponseType.APPROVED.getCode());
     }
 
-    private Optional<DebitResult> attemptDebitWithFallback(Balance currentBalance, BalanceType primaryBalanceTypeSource, Transaction debitTransaction) {
-        Optional<DebitResult> result = debitProcessor.doDebit(currentBalance, primaryBalanceTypeSource, debitTransaction);
+    /**
+     * The debit is decided on the snapshot plus its pending postings and appended as the next posting; the
+     * balance row is neither locked nor written, so authorizations of one account only queue on the advisory
+     * lock and never on the row the compactor updates.
+     */
+    private AuthorizationResponse executeLedger(UUID idempotencyKey, AuthorizationRequest request, Transaction transaction,
+                                                MccRules mccRules, BalanceType primaryBalanceTypeSource) {
+        long stageStart = System.nanoTime();
+        ledgerRepository.lockAccount(request.account());
+        LedgerState state = ledgerRepository.findState(request.account())
+                .orElseThrow(() -> new IllegalArgumentException("Account currentBalance not found!"));
+        metrics.recordStage(Stage.BALANCE_LOCK, stageStart);
+
+        stageStart = System.nanoTime();
+        Balance currentBalance = state.toBalance();
+        stampAfterLastDebit(transaction, currentBalance);
+        BalanceType[] walletChain = mccRules.chain(currentBalance.getProgram(), primaryBalanceTypeSource);
+        Optional<DebitResult> debitResult = attemptDebitWithFallback(currentBalance, walletChain, transaction);
+        metrics.recordStage(Stage.DEBIT_DECISION, stageStart);
+
+        stageStart = System.nanoTime();
+        try {
+            if (debitResult.isEmpty()) {
+                return respond(idempotencyKey, request, AuthorizationResponseType.INSUFFICIENT_BALANCE);
+            }
+
+            Transaction debitTransaction = transactionRepository.save(debitResult.get().debitTransaction());
+            ledgerRepository.append(LedgerPosting.debit(state.seq() + 1, currentBalance, debitResult.get().newBalance(), debitTransaction));
+            recordBalanceHistory(debitResult.get().balanceHistory());
+            balanceSnapshotCache.invalidate(state.account(), state.version() + 1);
+
+            return respond(idempotencyKey, request, AuthorizationResponseType.APPROVED);
+        } finally {
+            metrics.recordStage(Stage.PERSISTENCE, stageStart);
+        }
+    }
+
+    /**
+     * In OPTIMISTIC mode the row is not locked: the UPDATE issued for the new balance is guarded by
+     * Balance.version and a concurrent debit surfaces as an OptimisticLockingFailureException.
+     */
+    private Optional<Balance> loadBalance(String account) {
+        if (properties.getConcurrency().getMode() == ConcurrencyMode.OPTIMISTIC) {
+            return balanceRepository.findFirstByAccount(account);
+        }
+
+        return balanceRepository.findByAccount(account);
+    }
+
+    /**
+     * Statement and reconciliation read an account's balance_history in (created_at, id) order, so the debit
+     * is stamped once the account is locked and strictly after its previous debit. A clock read before the lock,
+     * or a node whose clock is behind, would otherwise put it before a debit it was serialized after.
+     * Timestamps are microseconds, like the columns, so the next debit compares against what was stored.
+     */
+    private static void stampAfterLastDebit(Transaction transaction, Balance currentBalance) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Instant lastDebitedAt = currentBalance.getUpdatedAt();
+
+        transaction.setCreatedAt(lastDebitedAt == null || now.isAfter(lastDebitedAt)
+                ? now
+                : lastDebitedAt.truncatedTo(ChronoUnit.MICROS).plus(1, ChronoUnit.MICROS));
+    }
+
+    /**
+     * Tries the wallets of the chain in order and debits the first one that covers the amount.
+     */
+    private Optional<DebitResult> attemptDebitWithFallback(Balance currentBalance, BalanceType[] walletChain, Transaction debitTransaction) {
+        for (BalanceType balanceType : walletChain) {
+            Optional<DebitResult> result = debitProcessor.doDebit(currentBalance, balanceType, debitTransaction);
 
-        if (result.isEmpty() && !primaryBalanceTypeSource.equals(BalanceType.CASH)) {
-            result = debitProcessor.doDebit(currentBalance, BalanceType.CASH, debitTransaction);
+            if (result.isPresent()) {
+                metrics.recordDebit(balanceType, walletChain[0]);
+                return result;
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * In JOURNAL mode the row is appended to the local journal instead of inserted. The flusher only
+     * inserts it once the transaction row exists, so a rollback after the append leaves no history behind.
+     */
+    private void recordBalanceHistory(BalanceHistory balanceHistory) {
+        if (properties.getBalanceHistory().getMode() == BalanceHistoryMode.JOURNAL) {
+            balanceHistoryJournal.append(balanceHistory);
+            return;
+        }
+
+        balanceHistoryRepository.save(balanceHistory);
+    }
+
+    private AuthorizationResponse respond(UUID idempotencyKey, AuthorizationRequest request, AuthorizationResponseType responseType) {
+        idempotentResponseRepository.save(IdempotentResponse.create(idempotencyKey, request.account(), responseType.getCode()));
+
+        return AuthorizationResponse.from(responseType.getCode());
+    }
+
+    private AuthorizationResponse replay(IdempotentResponse previousResponse, AuthorizationRequest request) {
+        if (!previousResponse.getAccount().equals(request.account())) {
+            log.warn("Idempotency-Key {} reused for a different account", previousResponse.getIdempotencyKey());
+            return AuthorizationResponse.from(AuthorizationResponseType.UNEXPECTED_ERROR.getCode());
         }
 
-        return result;
+        return AuthorizationResponse.from(previousResponse.getResponseCode());
     }
 }
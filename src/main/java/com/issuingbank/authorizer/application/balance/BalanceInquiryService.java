@@ -0,0 +1,31 @@
+package com.issuingbank.authorizer.application.balance;
+
+import com.issuingbank.authorizer.infra.repositories.BalanceInquiryRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Balance inquiries for apps and IVR. Answered from {@link BalanceSnapshotCache}, falling back to
+ * {@link BalanceInquiryRepository}; never locks the balance row or borrows a connection from the
+ * authorization pool.
+ */
+@Service
+@AllArgsConstructor
+public class BalanceInquiryService {
+    private final BalanceInquiryRepository balanceInquiryRepository;
+    private final BalanceSnapshotCache balanceSnapshotCache;
+
+    public Optional<BalanceSnapshot> find(String account) {
+        return balanceSnapshotCache.get(account, balanceInquiryRepository::findByAccount);
+    }
+
+    /**
+     * @return snapshots of the accounts that exist, in request order, each account once
+     */
+    public List<BalanceSnapshot> findAll(List<String> accounts) {
+        return balanceSnapshotCache.getAll(accounts, balanceInquiryRepository::findAllByAccountIn);
+    }
+}
@@ -0,0 +1,27 @@
+package com.issuingbank.authorizer.application.balance;
+
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.domain.money.Money;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+public record BalanceResponse(
+        String account,
+        String program,
+        Map<BalanceType, BigDecimal> balances,
+        int version,
+        Instant updatedAt
+) {
+    public static BalanceResponse from(BalanceSnapshot snapshot) {
+        Map<BalanceType, BigDecimal> balances = new EnumMap<>(BalanceType.class);
+
+        for (BalanceType balanceType : BalanceType.values()) {
+            balances.put(balanceType, Money.toBigDecimal(snapshot.getBalance(balanceType)));
+        }
+
+        return new BalanceResponse(snapshot.account(), snapshot.program(), balances, snapshot.version(), snapshot.updatedAt());
+    }
+}
@@ -0,0 +1,18 @@
+package com.issuingbank.authorizer.application.balance;
+
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+
+import java.time.Instant;
+
+/**
+ * Read-only copy of a balance row for inquiries. {@code version} is the row's Balance.version, which every
+ * debit increments, so of two snapshots of the same account the one with the higher version is the newer.
+ *
+ * @param wallets cents by {@link BalanceType} ordinal, never modified after creation
+ */
+public record BalanceSnapshot(String account, String program, long[] wallets, int version, Instant updatedAt) {
+
+    public long getBalance(BalanceType balanceType) {
+        return balanceType.ordinal() < wallets.length ? wallets[balanceType.ordinal()] : 0;
+    }
+}
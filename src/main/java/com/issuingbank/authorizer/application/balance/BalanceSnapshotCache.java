@@ -0,0 +1,143 @@
+package com.issuingbank.authorizer.application.balance;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Per-node cache of account -> {@link BalanceSnapshot} for balance inquiries.
+ * <p>
+ * Every debit committed on this node invalidates the account by version: the entry is replaced by a marker
+ * holding the committed version, and a snapshot loaded afterwards is only cached if it is at least that new.
+ * So a load that raced with the debit, or came from a lagging replica, is answered once but never cached.
+ * Debits committed on other nodes are only seen once the entry expires, after
+ * {@code authorizer.balance-inquiry.cache-ttl}.
+ */
+@Component
+public class BalanceSnapshotCache implements MeterBinder {
+    private final Cache<String, Entry> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public BalanceSnapshotCache(AuthorizerProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getBalanceInquiry().getCacheMaximumSize())
+                .expireAfterWrite(properties.getBalanceInquiry().getCacheTtl())
+                .build();
+    }
+
+    public Optional<BalanceSnapshot> get(String account, Function<String, Optional<BalanceSnapshot>> loader) {
+        Entry entry = cache.getIfPresent(account);
+
+        if (entry != null && entry.snapshot() != null) {
+            hits.increment();
+            return Optional.of(entry.snapshot());
+        }
+
+        misses.increment();
+        Optional<BalanceSnapshot> loaded = loader.apply(account);
+        loaded.ifPresent(this::offer);
+
+        return loaded;
+    }
+
+    /**
+     * @param loader loads the given accounts at once; accounts without a balance row are left out
+     * @return snapshots of the accounts that exist, in the order of {@code accounts}
+     */
+    public List<BalanceSnapshot> getAll(Collection<String> accounts, Function<Collection<String>, List<BalanceSnapshot>> loader) {
+        // null marks the accounts still to be loaded, keeping their place in the response
+        Map<String, BalanceSnapshot> snapshots = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+
+        for (String account : new LinkedHashSet<>(accounts)) {
+            Entry entry = cache.getIfPresent(account);
+            BalanceSnapshot cached = entry != null ? entry.snapshot() : null;
+
+            snapshots.put(account, cached);
+            if (cached == null) {
+                missing.add(account);
+            }
+        }
+
+        hits.add(snapshots.size() - missing.size());
+        misses.add(missing.size());
+
+        if (!missing.isEmpty()) {
+            for (BalanceSnapshot loaded : loader.apply(missing)) {
+                offer(loaded);
+                snapshots.replace(loaded.account(), loaded);
+            }
+        }
+
+        return snapshots.values().stream().filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Marks snapshots older than {@code committedVersion} as stale. Inside a transaction this waits for the
+     * commit, so a rolled back debit leaves the cache alone.
+     */
+    public void invalidate(String account, int committedVersion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markStale(account, committedVersion);
+                }
+            });
+            return;
+        }
+
+        markStale(account, committedVersion);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("authorizer.balance-inquiry.cache", hits, LongAdder::sum)
+                .description("Balance inquiries answered from the snapshot cache")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("authorizer.balance-inquiry.cache", misses, LongAdder::sum)
+                .description("Balance inquiries answered from the snapshot cache")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("authorizer.balance-inquiry.cache.size", cache, Cache::estimatedSize)
+                .description("Accounts with a cached snapshot or a pending invalidation")
+                .register(registry);
+    }
+
+    private void offer(BalanceSnapshot snapshot) {
+        cache.asMap().compute(snapshot.account(), (account, current) ->
+                current == null || snapshot.version() >= current.minVersion() ? new Entry(snapshot, snapshot.version()) : current);
+    }
+
+    private void markStale(String account, int committedVersion) {
+        cache.asMap().compute(account, (key, current) ->
+                current != null && current.minVersion() >= committedVersion ? current : new Entry(null, committedVersion));
+    }
+
+    /**
+     * @param snapshot   null after an invalidation, until a snapshot at least {@code minVersion} new is loaded
+     * @param minVersion oldest version that may be cached for the account
+     */
+    private record Entry(BalanceSnapshot snapshot, int minVersion) {
+    }
+}
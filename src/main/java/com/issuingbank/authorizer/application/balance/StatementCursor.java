@@ -0,0 +1,34 @@
+package com.issuingbank.authorizer.application.balance;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position of a statement entry in the (created_at, id) order of balance_history. Handed to clients as an
+ * opaque token; the next page starts right after it.
+ */
+public record StatementCursor(Instant createdAt, long id) {
+
+    public String encode() {
+        String value = ChronoUnit.MICROS.between(Instant.EPOCH, createdAt) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the token was not produced by {@link #encode()}
+     */
+    public static StatementCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int separator = value.indexOf(':');
+            long micros = Long.parseLong(value.substring(0, separator));
+            long id = Long.parseLong(value.substring(separator + 1));
+
+            return new StatementCursor(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid statement cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.issuingbank.authorizer.application.balance;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.domain.money.Money;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One balance_history row of an account statement, with the wallets before and after the transaction.
+ */
+public record StatementEntry(
+        @JsonIgnore long id,
+        long transactionId,
+        Instant createdAt,
+        Map<BalanceType, BigDecimal> previousBalances,
+        Map<BalanceType, BigDecimal> balances
+) {
+    public static StatementEntry of(long id, long transactionId, Instant createdAt, long[] previousWallets, long[] newWallets) {
+        return new StatementEntry(id, transactionId, createdAt, toBalances(previousWallets), toBalances(newWallets));
+    }
+
+    public StatementCursor cursor() {
+        return new StatementCursor(createdAt, id);
+    }
+
+    /**
+     * Wallets added after the row was written are left out.
+     */
+    private static Map<BalanceType, BigDecimal> toBalances(long[] wallets) {
+        Map<BalanceType, BigDecimal> balances = new EnumMap<>(BalanceType.class);
+
+        for (int i = 0; i < wallets.length && i < BalanceType.count(); i++) {
+            balances.put(BalanceType.ofOrdinal(i), Money.toBigDecimal(wallets[i]));
+        }
+
+        return balances;
+    }
+}
@@ -0,0 +1,86 @@
+package com.issuingbank.authorizer.application.balance;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.issuingbank.authorizer.infra.repositories.BalanceInquiryRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Account statements over balance_history, newest first, one page per call. Entries are written to the output
+ * as they come from the database cursor, so a page is never held in memory whatever its size.
+ * <p>
+ * Pages are keyed by the last entry written, not by an offset: the response ends with {@code next}, the cursor
+ * to pass as {@code after} for the following page, or null on the last page.
+ */
+@Service
+public class StatementService {
+    private final BalanceInquiryRepository balanceInquiryRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter entryWriter;
+
+    public StatementService(BalanceInquiryRepository balanceInquiryRepository, ObjectMapper objectMapper) {
+        this.balanceInquiryRepository = balanceInquiryRepository;
+        this.objectMapper = objectMapper;
+        this.entryWriter = objectMapper.writerFor(StatementEntry.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * @param after null for the first page
+     * @return number of entries written
+     */
+    public int write(String account, StatementCursor after, int limit, OutputStream out) throws IOException {
+        Page page = new Page(limit);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("account", account);
+            generator.writeArrayFieldStart("entries");
+
+            try {
+                // one row past the page tells whether there is a next page
+                balanceInquiryRepository.streamStatement(account, after, limit + 1, entry -> page.write(entry, generator));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            generator.writeEndArray();
+            generator.writeStringField("next", page.hasNext ? page.last.encode() : null);
+            generator.writeEndObject();
+        }
+
+        return page.written;
+    }
+
+    private class Page {
+        private final int limit;
+        private int written;
+        private StatementCursor last;
+        private boolean hasNext;
+
+        private Page(int limit) {
+            this.limit = limit;
+        }
+
+        private void write(StatementEntry entry, JsonGenerator generator) {
+            if (written == limit) {
+                hasNext = true;
+                return;
+            }
+
+            try {
+                entryWriter.writeValue(generator, entry);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            written++;
+            last = entry.cursor();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.issuingbank.authorizer.application.ledger;
+
+import com.issuingbank.authorizer.application.authorizer.PersistenceMode;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.repositories.LedgerRepository;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter;
+import com.issuingbank.authorizer.infra.sharding.ShardContext;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds the ledger postings of LEDGER mode into the balance rows, so reads apply only the few postings written
+ * since the last run. Each account is compacted in its own short transaction, shard by shard; nodes may run
+ * concurrently, as the snapshot only moves from the seq it was read at.
+ * <p>
+ * Runs in every persistence mode, so postings left behind when switching away from LEDGER are still folded.
+ * The other modes decide on the balance row alone, so a node started in one of them first folds every pending
+ * posting and refuses to start if any is left.
+ */
+@Slf4j
+@Component
+public class LedgerCompactor {
+    /**
+     * Postings carry the instant their authorization started, and commit up to its timeout later, on nodes
+     * whose clocks may disagree. Each run looks back this much before the start of the previous one.
+     */
+    static final Duration COMMIT_MARGIN = Duration.ofMinutes(1);
+
+    private final LedgerRepository ledgerRepository;
+    private final AccountShardRouter accountShardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthorizerProperties.Ledger properties;
+    private final PersistenceMode persistenceMode;
+    private final Clock clock;
+    private final Map<String, Instant> postedSince = new HashMap<>();
+
+    @Autowired
+    public LedgerCompactor(LedgerRepository ledgerRepository, AccountShardRouter accountShardRouter,
+                           PlatformTransactionManager transactionManager, AuthorizerProperties properties) {
+        this(ledgerRepository, accountShardRouter, transactionManager, properties, Clock.systemUTC());
+    }
+
+    public LedgerCompactor(LedgerRepository ledgerRepository, AccountShardRouter accountShardRouter,
+                           PlatformTransactionManager transactionManager, AuthorizerProperties properties, Clock clock) {
+        this.ledgerRepository = ledgerRepository;
+        this.accountShardRouter = accountShardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties.getLedger();
+        this.persistenceMode = properties.getPersistence().getMode();
+        this.clock = clock;
+
+        Instant lookback = clock.instant().minus(this.properties.getLookback());
+        accountShardRouter.shards().forEach(shard -> postedSince.put(shard, lookback));
+    }
+
+    @PostConstruct
+    public void foldPendingPostings() {
+        if (persistenceMode == PersistenceMode.LEDGER) {
+            return;
+        }
+
+        accountShardRouter.shards().forEach(shard -> postedSince.put(shard, Instant.EPOCH));
+        long postings = run();
+
+        for (String shard : accountShardRouter.shards()) {
+            if (!ShardContext.callOn(shard, () -> ledgerRepository.findAccountsToCompact(Instant.EPOCH, 1)).isEmpty()) {
+                throw new IllegalStateException("Ledger postings still pending on " + shard + ", refusing to start in " + persistenceMode + " mode");
+            }
+        }
+
+        if (postings > 0) {
+            log.info("Folded {} ledger postings before starting in {} mode", postings, persistenceMode);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${authorizer.ledger.compaction-interval:10s}")
+    public void compact() {
+        try {
+            long postings = run();
+
+            if (postings > 0) {
+                log.debug("Compacted {} ledger postings", postings);
+            }
+        } catch (RuntimeException e) {
+            log.error("Ledger compaction failed, retrying on the next run", e);
+        }
+    }
+
+    /**
+     * @return postings folded into snapshots by this node
+     */
+    public long run() {
+        Instant startedAt = clock.instant();
+        long postings = 0;
+
+        for (String shard : accountShardRouter.shards()) {
+            postings += ShardContext.callOn(shard, () -> run(shard, startedAt));
+        }
+
+        return postings;
+    }
+
+    private long run(String shard, Instant startedAt) {
+        long postings = 0;
+
+        while (true) {
+            List<String> accounts = ledgerRepository.findAccountsToCompact(postedSince.get(shard), properties.getCompactionBatchSize());
+
+            long compacted = 0;
+            for (String account : accounts) {
+                compacted += compact(account);
+            }
+            postings += compacted;
+
+            if (accounts.size() < properties.getCompactionBatchSize()) {
+                // nothing older than the start of this run is left behind
+                postedSince.put(shard, startedAt.minus(COMMIT_MARGIN));
+                return postings;
+            }
+
+            if (compacted == 0) {
+                // the next round would find the same accounts; keep looking back from the same instant next run
+                return postings;
+            }
+        }
+    }
+
+    private long compact(String account) {
+        Long compacted = transactionTemplate.execute(status -> ledgerRepository.findState(account)
+                .filter(state -> state.pendingPostings() > 0)
+                .filter(state -> ledgerRepository.updateSnapshot(state, clock.instant()))
+                .map(LedgerState::pendingPostings)
+                .orElse(0L));
+
+        return compacted != null ? compacted : 0;
+    }
+}
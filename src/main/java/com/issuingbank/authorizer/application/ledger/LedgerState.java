@@ -0,0 +1,47 @@
+package com.issuingbank.authorizer.application.ledger;
+
+import com.issuingbank.authorizer.domain.balance.Balance;
+
+import java.time.Instant;
+
+/**
+ * Current balance of an account in LEDGER mode: its balance row (the snapshot) plus the postings after it.
+ *
+ * @param wallets      snapshot wallets with the pending postings applied
+ * @param version      snapshot version plus one per pending posting, so it grows by one per debit whether or
+ *                     not the debit was compacted yet
+ * @param seq          seq of the last posting, the snapshot's when none is pending
+ * @param snapshotSeq  last posting folded into the snapshot
+ * @param updatedAt    latest of the snapshot's updated_at and the created_at of its pending postings, so the
+ *                     last debit of the account whether or not it was compacted yet
+ */
+public record LedgerState(
+        long balanceId,
+        String account,
+        String program,
+        long[] wallets,
+        int version,
+        long seq,
+        long snapshotSeq,
+        Instant createdAt,
+        Instant updatedAt
+) {
+    public long pendingPostings() {
+        return seq - snapshotSeq;
+    }
+
+    /**
+     * A detached Balance for the debit decision; it is never saved.
+     */
+    public Balance toBalance() {
+        return Balance.builder()
+                .id(balanceId)
+                .account(account)
+                .program(program)
+                .wallets(wallets)
+                .version(version)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.issuingbank.authorizer.application.merchant;
+
+/**
+ * @param pattern {@code UBER EATS*} for names starting with UBER EATS, {@code *IFOOD*} for names with the word IFOOD
+ */
+public record CreateMerchantPatternRequest(
+        String pattern,
+        String mcc
+) {
+    public static CreateMerchantPatternRequest create(String pattern, String mcc) {
+        return new CreateMerchantPatternRequest(pattern, mcc);
+    }
+}
@@ -0,0 +1,56 @@
+package com.issuingbank.authorizer.application.merchant;
+
+import com.issuingbank.authorizer.domain.merchant.MerchantPattern;
+import com.issuingbank.authorizer.domain.merchant.MerchantPatternType;
+import com.issuingbank.authorizer.infra.repositories.MerchantPatternRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+@Service
+@AllArgsConstructor
+public class CreateMerchantPatternService {
+    private static final String WILDCARD = "*";
+
+    private final MerchantPatternRepository merchantPatternRepository;
+    private final MerchantPatternIndex merchantPatternIndex;
+
+    /**
+     * Saves the pattern and asks the index to rebuild; authorizations on this node match it as soon as the
+     * rebuild finishes, other nodes on their next reload.
+     */
+    public MerchantPattern execute(CreateMerchantPatternRequest request) {
+        MerchantPatternType matchType = matchType(request.pattern());
+        String normalizedPattern = MerchantNameNormalizer.normalize(request.pattern());
+
+        if (normalizedPattern.isEmpty()) {
+            throw new IllegalArgumentException("Merchant pattern has no letters or digits: " + request.pattern());
+        }
+
+        if (merchantPatternRepository.findByNormalizedPatternAndMatchType(normalizedPattern, matchType).isPresent()) {
+            throw new RuntimeException("Merchant pattern already exists");
+        }
+
+        MerchantPattern savedPattern = merchantPatternRepository.save(MerchantPattern.builder()
+                .originalPattern(request.pattern())
+                .normalizedPattern(normalizedPattern)
+                .matchType(matchType)
+                .correctedMcc(request.mcc())
+                .createdAt(Instant.now())
+                .build());
+        merchantPatternIndex.requestRebuild();
+
+        return savedPattern;
+    }
+
+    private static MerchantPatternType matchType(String pattern) {
+        String trimmed = pattern == null ? "" : pattern.strip();
+
+        if (!trimmed.endsWith(WILDCARD)) {
+            throw new IllegalArgumentException("Merchant pattern must end with " + WILDCARD + ": " + pattern);
+        }
+
+        return trimmed.startsWith(WILDCARD) && trimmed.length() > 1 ? MerchantPatternType.KEYWORD : MerchantPatternType.PREFIX;
+    }
+}
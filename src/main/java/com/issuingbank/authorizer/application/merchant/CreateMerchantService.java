@@ -4,14 +4,21 @@ import com.issuingbank.authorizer.domain.merchant.Merchant;
 import com.issuingbank.authorizer.infra.repositories.MerchantRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 @AllArgsConstructor
 public class CreateMerchantService {
     private final MerchantRepository merchantRepository;
+    private final MerchantMccCache merchantMccCache;
 
     public Merchant execute(CreateMerchantRequest request) {
         String normalizedMerchantName = MerchantNameNormalizer.normalize(request.name());
@@ -22,13 +29,66 @@ public class CreateMerchantService {
             throw new RuntimeException("Merchant already exists");
         }
 
-        Merchant merchant = Merchant.builder()
+        Merchant savedMerchant = merchantRepository.save(buildMerchant(request, normalizedMerchantName));
+        merchantMccCache.put(normalizedMerchantName, savedMerchant.getCorrectedMcc());
+
+        return savedMerchant;
+    }
+
+    /**
+     * Imports many merchants with one lookup for existing names and batched inserts.
+     * All or nothing: a name that already exists, or repeats inside the import, rejects the whole import.
+     */
+    @Transactional
+    public List<Merchant> executeAll(List<CreateMerchantRequest> requests) {
+        Map<String, Merchant> merchants = new LinkedHashMap<>();
+
+        for (CreateMerchantRequest request : requests) {
+            String normalizedMerchantName = MerchantNameNormalizer.normalize(request.name());
+
+            if (merchants.putIfAbsent(normalizedMerchantName, buildMerchant(request, normalizedMerchantName)) != null) {
+                throw new RuntimeException("Merchant already exists");
+            }
+        }
+
+        if (!merchantRepository.findAllByNormalizedMerchantNameIn(merchants.keySet()).isEmpty()) {
+            throw new RuntimeException("Merchant already exists");
+        }
+
+        List<Merchant> savedMerchants = merchantRepository.saveAll(merchants.values());
+        cacheAfterCommit(savedMerchants);
+
+        return savedMerchants;
+    }
+
+    /**
+     * The batched inserts only reach the database at commit, so the cache waits for it: a rolled back import
+     * must not leave corrected MCCs cached for merchants that do not exist.
+     */
+    private void cacheAfterCommit(List<Merchant> merchants) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(merchants);
+                }
+            });
+            return;
+        }
+
+        cache(merchants);
+    }
+
+    private void cache(List<Merchant> merchants) {
+        merchants.forEach(merchant -> merchantMccCache.put(merchant.getNormalizedMerchantName(), merchant.getCorrectedMcc()));
+    }
+
+    private Merchant buildMerchant(CreateMerchantRequest request, String normalizedMerchantName) {
+        return Merchant.builder()
                 .originalMerchantName(request.name())
                 .normalizedMerchantName(normalizedMerchantName)
                 .correctedMcc(request.mcc())
                 .createdAt(Instant.now())
                 .build();
-
-        return merchantRepository.save(merchant);
     }
 }
@@ -7,18 +7,34 @@ import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 
+/**
+ * Corrected MCC of a merchant: an exact match on the normalized name first, then the best
+ * {@link MerchantPatternIndex} match, then the MCC sent by the acquirer.
+ */
 @Service
 @AllArgsConstructor
 public class MccResolverService {
     private final MerchantRepository merchantRepository;
+    private final MerchantMccCache merchantMccCache;
+    private final MerchantPatternIndex merchantPatternIndex;
 
     public String resolve(String mcc, String merchantName) {
         String normalizedMerchantName = MerchantNameNormalizer.normalize(merchantName);
 
-        Optional<String> correctedMcc = merchantRepository
+        Optional<String> correctedMcc = merchantMccCache.get(normalizedMerchantName, this::findCorrectedMcc);
+
+        if (correctedMcc.isPresent()) {
+            return correctedMcc.get();
+        }
+
+        String patternMcc = merchantPatternIndex.match(normalizedMerchantName);
+
+        return patternMcc != null ? patternMcc : mcc;
+    }
+
+    private Optional<String> findCorrectedMcc(String normalizedMerchantName) {
+        return merchantRepository
                 .findByNormalizedMerchantName(normalizedMerchantName)
                 .map(Merchant::getCorrectedMcc);
-
-        return correctedMcc.orElse(mcc);
     }
 }
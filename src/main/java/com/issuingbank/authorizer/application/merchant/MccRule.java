@@ -0,0 +1,9 @@
+package com.issuingbank.authorizer.application.merchant;
+
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+
+/**
+ * MCCs from mccFrom to mccTo, both inclusive, are debited from balanceType first.
+ */
+public record MccRule(int mccFrom, int mccTo, BalanceType balanceType) {
+}
@@ -0,0 +1,62 @@
+package com.issuingbank.authorizer.application.merchant;
+
+import com.issuingbank.authorizer.infra.repositories.MccRuleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the compiled {@link MccRules} and reloads them from the database every
+ * {@code authorizer.mcc-rules.reload-interval}. A reload compiles a new snapshot off the authorization
+ * path and swaps it in with a single reference write, so readers never lock and never see a half built
+ * table. Rules that fail to load or compile are logged and the previous snapshot stays in use.
+ */
+@Slf4j
+@Component
+public class MccRuleTable {
+    private final MccRuleRepository mccRuleRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(
+            new Snapshot(List.of(), List.of(), MccRules.compile(List.of(), List.of())));
+
+    public MccRuleTable(MccRuleRepository mccRuleRepository) {
+        this.mccRuleRepository = mccRuleRepository;
+    }
+
+    /**
+     * Callers should read this once per authorization so every lookup uses the same rules.
+     */
+    public MccRules current() {
+        return snapshot.get().compiled();
+    }
+
+    @PostConstruct
+    public void load() {
+        List<MccRule> rules = mccRuleRepository.findAllRules();
+        List<WalletFallback> fallbacks = mccRuleRepository.findAllFallbacks();
+        Snapshot previous = snapshot.get();
+
+        if (rules.equals(previous.rules()) && fallbacks.equals(previous.fallbacks())) {
+            return;
+        }
+
+        snapshot.set(new Snapshot(rules, fallbacks, MccRules.compile(rules, fallbacks)));
+        log.info("Loaded {} MCC rules and {} wallet fallbacks", rules.size(), fallbacks.size());
+    }
+
+    @Scheduled(fixedDelayString = "${authorizer.mcc-rules.reload-interval:30s}",
+            initialDelayString = "${authorizer.mcc-rules.reload-interval:30s}")
+    public void reload() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.error("Could not reload the MCC rules, keeping the ones loaded before", e);
+        }
+    }
+
+    private record Snapshot(List<MccRule> rules, List<WalletFallback> fallbacks, MccRules compiled) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.issuingbank.authorizer.application.merchant;
+
+import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable snapshot of the mcc_rule and wallet_fallback tables, compiled for lookups that neither hash
+ * the MCC nor allocate: the primary wallet of every MCC is an element of a 10,000 entry array indexed by
+ * the numeric MCC, and the wallet chain of every program and primary wallet is built up front.
+ * <p>
+ * Overlapping rules are resolved in favour of the narrowest range. MCCs no rule covers, and MCCs that are
+ * not four digits, go to CASH. A program without a fallback for a wallet uses the DEFAULT program's,
+ * and when DEFAULT has none either the wallet falls back to CASH.
+ */
+public final class MccRules {
+    public static final int MCC_COUNT = 10_000;
+    private static final int MCC_LENGTH = 4;
+    private static final Pattern PROGRAM = Pattern.compile("[A-Z0-9_]{1,20}");
+
+    private final BalanceType[] primaryByMcc;
+    private final Map<String, BalanceType[][]> chainsByProgram;
+    private final BalanceType[][] defaultChains;
+    private final String[] chainsJsonByPrimary;
+
+    private MccRules(BalanceType[] primaryByMcc, Map<String, BalanceType[][]> chainsByProgram) {
+        this.primaryByMcc = primaryByMcc;
+        this.chainsByProgram = chainsByProgram;
+        this.defaultChains = chainsByProgram.get(Balance.DEFAULT_PROGRAM);
+        this.chainsJsonByPrimary = new String[BalanceType.count()];
+
+        for (int i = 0; i < chainsJsonByPrimary.length; i++) {
+            chainsJsonByPrimary[i] = chainsJson(chainsByProgram, i);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException when a rule is out of 0..9999 or a program name is not [A-Z0-9_]{1,20}
+     */
+    public static MccRules compile(List<MccRule> rules, List<WalletFallback> fallbacks) {
+        BalanceType[] primaryByMcc = new BalanceType[MCC_COUNT];
+        Arrays.fill(primaryByMcc, BalanceType.CASH);
+
+        List<MccRule> widestFirst = new ArrayList<>(rules);
+        widestFirst.sort(Comparator.comparingInt((MccRule rule) -> rule.mccTo() - rule.mccFrom()).reversed());
+
+        for (MccRule rule : widestFirst) {
+            if (rule.mccFrom() < 0 || rule.mccTo() >= MCC_COUNT || rule.mccFrom() > rule.mccTo()) {
+                throw new IllegalArgumentException("Invalid MCC range " + rule.mccFrom() + "-" + rule.mccTo());
+            }
+
+            Arrays.fill(primaryByMcc, rule.mccFrom(), rule.mccTo() + 1, rule.balanceType());
+        }
+
+        Map<String, Map<BalanceType, List<BalanceType>>> fallbacksByProgram = new HashMap<>();
+        for (WalletFallback fallback : fallbacks) {
+            if (!PROGRAM.matcher(fallback.program()).matches()) {
+                throw new IllegalArgumentException("Invalid program name " + fallback.program());
+            }
+
+            fallbacksByProgram.computeIfAbsent(fallback.program(), program -> new HashMap<>())
+                    .put(fallback.balanceType(), fallback.fallbacks());
+        }
+
+        Map<String, BalanceType[][]> chainsByProgram = new HashMap<>();
+        Set<String> programs = new TreeSet<>(fallbacksByProgram.keySet());
+        programs.add(Balance.DEFAULT_PROGRAM);
+
+        for (String program : programs) {
+            BalanceType[][] chains = new BalanceType[BalanceType.count()][];
+
+            for (int i = 0; i < chains.length; i++) {
+                BalanceType primary = BalanceType.ofOrdinal(i);
+                chains[i] = chain(primary, fallbacksByProgram.getOrDefault(program, Map.of()).get(primary),
+                        fallbacksByProgram.getOrDefault(Balance.DEFAULT_PROGRAM, Map.of()).get(primary));
+            }
+
+            chainsByProgram.put(program, chains);
+        }
+
+        return new MccRules(primaryByMcc, Map.copyOf(chainsByProgram));
+    }
+
+    /**
+     * Wallet the MCC is debited from first. Reads the digits in place, without parsing into a new object.
+     */
+    public BalanceType primaryWallet(String mcc) {
+        if (mcc == null || mcc.length() != MCC_LENGTH) {
+            return BalanceType.CASH;
+        }
+
+        int index = 0;
+        for (int i = 0; i < MCC_LENGTH; i++) {
+            int digit = mcc.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return BalanceType.CASH;
+            }
+
+            index = index * 10 + digit;
+        }
+
+        return primaryByMcc[index];
+    }
+
+    /**
+     * Wallets to try in order, primary first. The array is shared by every caller and must not be modified.
+     */
+    public BalanceType[] chain(String program, BalanceType primary) {
+        BalanceType[][] chains = program != null ? chainsByProgram.getOrDefault(program, defaultChains) : defaultChains;
+        return chains[primary.ordinal()];
+    }
+
+    /**
+     * The chains of every program for this primary wallet as a JSON object of 1-based wallet positions,
+     * e.g. {@code {"DEFAULT":[1,3]}}, for SQL that picks the chain of the locked balance row.
+     */
+    public String chainsJson(BalanceType primary) {
+        return chainsJsonByPrimary[primary.ordinal()];
+    }
+
+    private static BalanceType[] chain(BalanceType primary, List<BalanceType> programFallbacks, List<BalanceType> defaultFallbacks) {
+        Set<BalanceType> chain = new LinkedHashSet<>();
+        chain.add(primary);
+
+        if (programFallbacks != null) {
+            chain.addAll(programFallbacks);
+        } else if (defaultFallbacks != null) {
+            chain.addAll(defaultFallbacks);
+        } else {
+            chain.add(BalanceType.CASH);
+        }
+
+        return chain.toArray(BalanceType[]::new);
+    }
+
+    private static String chainsJson(Map<String, BalanceType[][]> chainsByProgram, int primary) {
+        StringBuilder json = new StringBuilder("{");
+
+        for (String program : new TreeSet<>(chainsByProgram.keySet())) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+
+            json.append('"').append(program).append("\":[");
+            BalanceType[] chain = chainsByProgram.get(program)[primary];
+
+            for (int i = 0; i < chain.length; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+
+                json.append(chain[i].ordinal() + 1);
+            }
+
+            json.append(']');
+        }
+
+        return json.append('}').toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.issuingbank.authorizer.application.merchant;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Per-node cache of normalized merchant name -> corrected MCC.
+ * Merchants without an override are cached as {@link Optional#empty()} so unknown merchants
+ * do not hit the database on every authorization either.
+ * <p>
+ * With sharding a miss may come from a shard the merchant has not been copied to yet, so misses expire after
+ * {@code authorizer.sharding.merchant-sync-interval} when that is shorter than the ttl.
+ */
+@Component
+public class MerchantMccCache implements MeterBinder {
+    private static final String CACHE_NAME = "merchant-mcc";
+
+    private final Cache<String, Optional<String>> cache;
+
+    public MerchantMccCache(AuthorizerProperties properties) {
+        Duration ttl = properties.getMerchantCache().getTtl();
+        Duration missTtl = properties.getSharding().isEnabled() && properties.getSharding().getMerchantSyncInterval().compareTo(ttl) < 0
+                ? properties.getSharding().getMerchantSyncInterval()
+                : ttl;
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMerchantCache().getMaximumSize())
+                .expireAfter(new Expiry<String, Optional<String>>() {
+                    @Override
+                    public long expireAfterCreate(String normalizedMerchantName, Optional<String> correctedMcc, long currentTime) {
+                        return (correctedMcc.isPresent() ? ttl : missTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String normalizedMerchantName, Optional<String> correctedMcc, long currentTime, long currentDuration) {
+                        return expireAfterCreate(normalizedMerchantName, correctedMcc, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String normalizedMerchantName, Optional<String> correctedMcc, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public Optional<String> get(String normalizedMerchantName, Function<String, Optional<String>> loader) {
+        return cache.get(normalizedMerchantName, loader);
+    }
+
+    public void put(String normalizedMerchantName, String correctedMcc) {
+        cache.put(normalizedMerchantName, Optional.of(correctedMcc));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+}
@@ -1,10 +1,29 @@
 package com.issuingbank.authorizer.application.merchant;
 
 
+import java.text.Normalizer;
+
 public class MerchantNameNormalizer {
+    private static final char DROP = 0;
+    private static final char SPACE = ' ';
+
+    /**
+     * Covers Basic Latin, Latin-1 Supplement and Latin Extended-A, which is where acquirers
+     * put accented merchant names. Anything above is dropped.
+     */
+    private static final int TABLE_SIZE = 0x0180;
+
+    private static final char[] FOLDED = new char[TABLE_SIZE];
+    private static final char[] FOLDED_SUFFIX = new char[TABLE_SIZE];
+
+    static {
+        for (char c = 0; c < TABLE_SIZE; c++) {
+            fold(c);
+        }
+    }
 
     /**
-     *  Convert to uppercase for consistency
+     *  Convert to uppercase for consistency, folding accented letters to ASCII (Ã -> A, Ç -> C)
      *  Remove non-alphanumeric characters except spaces
      *  Replace multiple spaces with a single space
      *  Trim leading and trailing whitespace
@@ -16,10 +35,81 @@ public class MerchantNameNormalizer {
             return "";
         }
 
-        return merchantName
-                .toUpperCase()
-                .replaceAll("[^A-Z0-9\\s]", "")
-                .replaceAll("\\s+", " ")
-                .trim();
+        int length = merchantName.length();
+        char[] buffer = new char[length * 2]; // ligatures such as ß and Æ fold into two letters
+        int size = 0;
+        boolean pendingSpace = false;
+
+        for (int i = 0; i < length; i++) {
+            char c = merchantName.charAt(i);
+            char folded = c < TABLE_SIZE ? FOLDED[c] : DROP;
+
+            if (folded == DROP) {
+                continue;
+            }
+
+            if (folded == SPACE) {
+                pendingSpace = size > 0;
+                continue;
+            }
+
+            if (pendingSpace) {
+                buffer[size++] = SPACE;
+                pendingSpace = false;
+            }
+
+            buffer[size++] = folded;
+
+            char suffix = FOLDED_SUFFIX[c];
+            if (suffix != DROP) {
+                buffer[size++] = suffix;
+            }
+        }
+
+        return new String(buffer, 0, size);
+    }
+
+    private static void fold(char c) {
+        if (c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r' || c == 0xA0) {
+            FOLDED[c] = SPACE;
+            return;
+        }
+
+        String expanded = switch (c) {
+            case 'ß' -> "SS";
+            case 'Æ', 'æ' -> "AE";
+            case 'Œ', 'œ' -> "OE";
+            case 'Ĳ', 'ĳ' -> "IJ";
+            case 'Þ', 'þ' -> "TH";
+            case 'Ø', 'ø' -> "O";
+            case 'Đ', 'đ', 'Ð', 'ð' -> "D";
+            case 'Ħ', 'ħ' -> "H";
+            case 'ı' -> "I";
+            case 'ĸ' -> "K";
+            case 'Ŀ', 'ŀ', 'Ł', 'ł' -> "L";
+            case 'ŉ', 'Ŋ', 'ŋ' -> "N";
+            case 'Ŧ', 'ŧ' -> "T";
+            case 'ſ' -> "S";
+            default -> Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        };
+
+        char first = asciiAlphanumeric(expanded.charAt(0));
+        FOLDED[c] = first;
+
+        if (first != DROP && expanded.length() > 1) {
+            FOLDED_SUFFIX[c] = asciiAlphanumeric(expanded.charAt(1));
+        }
+    }
+
+    private static char asciiAlphanumeric(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return (char) (c - ('a' - 'A'));
+        }
+
+        if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+            return c;
+        }
+
+        return DROP;
     }
 }
@@ -0,0 +1,117 @@
+package com.issuingbank.authorizer.application.merchant;
+
+import com.issuingbank.authorizer.domain.merchant.MerchantPattern;
+import com.issuingbank.authorizer.infra.repositories.MerchantPatternRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the compiled {@link MerchantPatternMatcher}. It is rebuilt in the background right after a pattern is
+ * created on this node and every {@code authorizer.merchant-patterns.reload-interval}, for patterns created
+ * through other nodes. The new automaton replaces the old one with a single reference write, so matching
+ * never locks. Patterns that fail to load or compile are logged and the previous automaton stays in use.
+ */
+@Slf4j
+@Component
+public class MerchantPatternIndex {
+    private final MerchantPatternRepository merchantPatternRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(List.of(), MerchantPatternMatcher.EMPTY));
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("merchant-pattern-rebuild").daemon(true).factory());
+
+    public MerchantPatternIndex(MerchantPatternRepository merchantPatternRepository) {
+        this.merchantPatternRepository = merchantPatternRepository;
+    }
+
+    /**
+     * @return the corrected MCC of the best pattern matching the normalized name, or null when none matches
+     */
+    public String match(String normalizedMerchantName) {
+        return snapshot.get().matcher().match(normalizedMerchantName);
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        List<MerchantPatternMatcher.Rule> rules = merchantPatternRepository.findAll().stream()
+                .map(MerchantPatternIndex::toRule)
+                .toList();
+
+        if (rules.equals(snapshot.get().rules())) {
+            return;
+        }
+
+        snapshot.set(new Snapshot(rules, MerchantPatternMatcher.compile(rules)));
+        log.info("Loaded {} merchant patterns", rules.size());
+    }
+
+    /**
+     * Schedules a rebuild and returns. Requests arriving while one is pending are merged into it, so an import
+     * of many patterns compiles the automaton a few times, not once per pattern. Inside a transaction the
+     * rebuild waits for the commit, otherwise it would not see the new pattern.
+     */
+    public void requestRebuild() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submitRebuild();
+                }
+            });
+            return;
+        }
+
+        submitRebuild();
+    }
+
+    private void submitRebuild() {
+        if (!rebuildRequested.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            rebuilder.execute(() -> {
+                rebuildRequested.set(false);
+                reload();
+            });
+        } catch (RejectedExecutionException e) {
+            rebuildRequested.set(false);
+            log.warn("Merchant pattern rebuild rejected, the scheduled reload will pick the change up");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${authorizer.merchant-patterns.reload-interval:30s}",
+            initialDelayString = "${authorizer.merchant-patterns.reload-interval:30s}")
+    public void reload() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.error("Could not reload the merchant patterns, keeping the ones loaded before", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuilder.shutdownNow();
+    }
+
+    private static MerchantPatternMatcher.Rule toRule(MerchantPattern pattern) {
+        return new MerchantPatternMatcher.Rule(pattern.getId(), pattern.getNormalizedPattern(), pattern.getMatchType(),
+                pattern.getCorrectedMcc());
+    }
+
+    private record Snapshot(List<MerchantPatternMatcher.Rule> rules, MerchantPatternMatcher matcher) {
+    }
+}
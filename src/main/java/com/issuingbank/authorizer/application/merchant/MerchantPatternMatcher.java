@@ -0,0 +1,214 @@
+package com.issuingbank.authorizer.application.merchant;
+
+import com.issuingbank.authorizer.domain.merchant.MerchantPatternType;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Immutable Aho-Corasick automaton over every merchant pattern, built as a full DFA on the alphabet of
+ * {@link MerchantNameNormalizer} output (A-Z, 0-9 and space). A normalized name is matched in one pass,
+ * one table lookup per character, whatever the number of patterns.
+ * <p>
+ * Patterns match whole words: a PREFIX pattern must start the name, a KEYWORD pattern may start at any word,
+ * and both must end at a word end. The longest match wins; on a tie PREFIX beats KEYWORD, then the oldest
+ * pattern wins.
+ */
+public final class MerchantPatternMatcher {
+    private static final int ALPHABET = 37;
+    private static final int SPACE_SYMBOL = 36;
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    public static final MerchantPatternMatcher EMPTY = compile(List.of());
+
+    private final int[] transitions;
+    private final int[] depth;
+    private final int[] prefixRule;
+    private final int[] keywordRule;
+    private final int[] keywordLink;
+    private final String[] mccs;
+
+    private MerchantPatternMatcher(int[] transitions, int[] depth, int[] prefixRule, int[] keywordRule,
+                                   int[] keywordLink, String[] mccs) {
+        this.transitions = transitions;
+        this.depth = depth;
+        this.prefixRule = prefixRule;
+        this.keywordRule = keywordRule;
+        this.keywordLink = keywordLink;
+        this.mccs = mccs;
+    }
+
+    public record Rule(long id, String normalizedPattern, MerchantPatternType matchType, String correctedMcc) {
+    }
+
+    /**
+     * @throws IllegalArgumentException when a pattern is empty or has characters the normalizer never outputs
+     */
+    public static MerchantPatternMatcher compile(List<Rule> rules) {
+        List<Rule> ordered = rules.stream().sorted(Comparator.comparingLong(Rule::id)).toList();
+        Builder builder = new Builder(ordered.stream().mapToInt(rule -> rule.normalizedPattern().length()).sum() + 1);
+        String[] mccs = new String[ordered.size()];
+
+        for (int i = 0; i < ordered.size(); i++) {
+            Rule rule = ordered.get(i);
+            mccs[i] = rule.correctedMcc();
+            builder.add(rule, i);
+        }
+
+        return builder.build(mccs);
+    }
+
+    /**
+     * @return the corrected MCC of the best matching pattern, or null when none matches
+     */
+    public String match(String normalizedMerchantName) {
+        int length = normalizedMerchantName.length();
+        int state = ROOT;
+        int bestRule = NONE;
+        int bestLength = 0;
+        boolean bestIsPrefix = false;
+
+        for (int i = 0; i < length; i++) {
+            int symbol = symbol(normalizedMerchantName.charAt(i));
+            state = symbol == NONE ? ROOT : transitions[state * ALPHABET + symbol];
+            int end = i + 1;
+
+            if (end < length && normalizedMerchantName.charAt(end) != ' ') {
+                continue;
+            }
+
+            // only the current state can be as deep as the whole name read so far
+            if (prefixRule[state] != NONE && depth[state] == end
+                    && (end > bestLength || (end == bestLength && (!bestIsPrefix || prefixRule[state] < bestRule)))) {
+                bestRule = prefixRule[state];
+                bestLength = end;
+                bestIsPrefix = true;
+            }
+
+            // dictionary links go from the longest keyword ending here to the shortest
+            for (int node = keywordRule[state] != NONE ? state : keywordLink[state]; node != NONE; node = keywordLink[node]) {
+                int start = end - depth[node];
+
+                if (start > 0 && normalizedMerchantName.charAt(start - 1) != ' ') {
+                    continue;
+                }
+
+                if (depth[node] > bestLength || (depth[node] == bestLength && !bestIsPrefix && keywordRule[node] < bestRule)) {
+                    bestRule = keywordRule[node];
+                    bestLength = depth[node];
+                    bestIsPrefix = false;
+                }
+
+                break;
+            }
+        }
+
+        return bestRule == NONE ? null : mccs[bestRule];
+    }
+
+    public int size() {
+        return mccs.length;
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+
+        if (c >= '0' && c <= '9') {
+            return 26 + c - '0';
+        }
+
+        return c == ' ' ? SPACE_SYMBOL : NONE;
+    }
+
+    private static final class Builder {
+        private final int[] transitions;
+        private final int[] depth;
+        private final int[] prefixRule;
+        private final int[] keywordRule;
+        private int nodes = 1;
+
+        private Builder(int maxNodes) {
+            this.transitions = new int[maxNodes * ALPHABET];
+            this.depth = new int[maxNodes];
+            this.prefixRule = new int[maxNodes];
+            this.keywordRule = new int[maxNodes];
+            Arrays.fill(transitions, NONE);
+            Arrays.fill(prefixRule, NONE);
+            Arrays.fill(keywordRule, NONE);
+        }
+
+        private void add(Rule rule, int index) {
+            String pattern = rule.normalizedPattern();
+
+            if (pattern.isEmpty() || !pattern.equals(MerchantNameNormalizer.normalize(pattern))) {
+                throw new IllegalArgumentException("Invalid merchant pattern: '" + pattern + "'");
+            }
+
+            int node = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                int slot = node * ALPHABET + symbol(pattern.charAt(i));
+
+                if (transitions[slot] == NONE) {
+                    transitions[slot] = nodes;
+                    depth[nodes] = depth[node] + 1;
+                    nodes++;
+                }
+
+                node = transitions[slot];
+            }
+
+            int[] terminal = rule.matchType() == MerchantPatternType.PREFIX ? prefixRule : keywordRule;
+            if (terminal[node] == NONE) {
+                terminal[node] = index;
+            }
+        }
+
+        private MerchantPatternMatcher build(String[] mccs) {
+            int[] fail = new int[nodes];
+            int[] keywordLink = new int[nodes];
+            keywordLink[ROOT] = NONE;
+            Queue<Integer> queue = new ArrayDeque<>();
+
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = transitions[symbol];
+
+                if (child == NONE) {
+                    transitions[symbol] = ROOT;
+                } else {
+                    fail[child] = ROOT;
+                    keywordLink[child] = NONE;
+                    queue.add(child);
+                }
+            }
+
+            // breadth first, so the fail state of a node is complete before the node's children need it
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+
+                for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                    int slot = node * ALPHABET + symbol;
+                    int child = transitions[slot];
+                    int fallback = transitions[fail[node] * ALPHABET + symbol];
+
+                    if (child == NONE) {
+                        transitions[slot] = fallback;
+                        continue;
+                    }
+
+                    fail[child] = fallback;
+                    keywordLink[child] = keywordRule[fallback] != NONE ? fallback : keywordLink[fallback];
+                    queue.add(child);
+                }
+            }
+
+            return new MerchantPatternMatcher(Arrays.copyOf(transitions, nodes * ALPHABET), Arrays.copyOf(depth, nodes),
+                    Arrays.copyOf(prefixRule, nodes), Arrays.copyOf(keywordRule, nodes), keywordLink, mccs);
+        }
+    }
+}
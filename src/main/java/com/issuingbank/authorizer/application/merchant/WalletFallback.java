@@ -0,0 +1,11 @@
+package com.issuingbank.authorizer.application.merchant;
+
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+
+import java.util.List;
+
+/**
+ * Wallets tried, in order, when balanceType does not cover the amount for accounts of the program.
+ */
+public record WalletFallback(String program, BalanceType balanceType, List<BalanceType> fallbacks) {
+}
@@ -0,0 +1,27 @@
+package com.issuingbank.authorizer.application.reconciliation;
+
+/**
+ * @param transactionId null for {@link Kind#BALANCE_MISMATCH}
+ */
+public record BalanceDrift(String account, Kind kind, Long transactionId, String detail) {
+
+    public enum Kind {
+        /**
+         * The wallets before a transaction differ from the wallets after the previous one: a debit is missing
+         * from the history or was applied twice.
+         */
+        CHAIN_BREAK,
+        /**
+         * The wallets moved by a different amount than the transaction's.
+         */
+        AMOUNT_MISMATCH,
+        /**
+         * The history row has no transaction.
+         */
+        MISSING_TRANSACTION,
+        /**
+         * The balance differs from the wallets after the last transaction in the history.
+         */
+        BALANCE_MISMATCH
+    }
+}
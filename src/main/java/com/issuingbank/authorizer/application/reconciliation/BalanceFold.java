@@ -0,0 +1,127 @@
+package com.issuingbank.authorizer.application.reconciliation;
+
+import com.issuingbank.authorizer.domain.transaction.TransactionType;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Rebuilds balances from an ordered stream of {@link ReconciliationRow}s, one account after the other. Starting
+ * from the wallets before the oldest history row it replays every transaction, checking that each one moved the
+ * wallets by its amount and picked up where the previous one left off, and compares the result with the balance.
+ * Only the account being folded is held, so memory does not grow with the stream.
+ * <p>
+ * Not thread safe: each worker folds its own range. Wallets added after a row was written count as zero in it.
+ */
+public class BalanceFold {
+    private final Instant settledBefore;
+    private final Consumer<BalanceDrift> drifts;
+
+    private String account;
+    private long[] balanceWallets;
+    private long[] expectedWallets;
+    private boolean skipped;
+
+    @Getter
+    private long accounts;
+    @Getter
+    private long skippedAccounts;
+    @Getter
+    private long historyRows;
+
+    /**
+     * @param settledBefore accounts whose balance changed after this are skipped
+     */
+    public BalanceFold(Instant settledBefore, Consumer<BalanceDrift> drifts) {
+        this.settledBefore = settledBefore;
+        this.drifts = drifts;
+    }
+
+    public void accept(ReconciliationRow row) {
+        if (!row.account().equals(account)) {
+            finish();
+            start(row);
+        }
+
+        if (skipped || row.historyId() == null) {
+            return;
+        }
+
+        historyRows++;
+
+        if (expectedWallets != null && !sameWallets(expectedWallets, row.previousWallets())) {
+            report(BalanceDrift.Kind.CHAIN_BREAK, row.transactionId(),
+                    "wallets before were " + Arrays.toString(row.previousWallets()) + ", expected " + Arrays.toString(expectedWallets));
+        }
+
+        if (row.transactionAmount() == null) {
+            report(BalanceDrift.Kind.MISSING_TRANSACTION, row.transactionId(), "no transaction " + row.transactionId());
+        } else {
+            long expectedDelta = row.transactionType() == TransactionType.CREDIT ? row.transactionAmount() : -row.transactionAmount();
+            long delta = sum(row.newWallets()) - sum(row.previousWallets());
+
+            if (delta != expectedDelta) {
+                report(BalanceDrift.Kind.AMOUNT_MISMATCH, row.transactionId(),
+                        "wallets moved " + delta + " cents, transaction " + row.transactionType() + " of " + row.transactionAmount());
+            }
+        }
+
+        expectedWallets = row.newWallets();
+    }
+
+    /**
+     * Compares the last account with its balance. Call once the stream ends.
+     */
+    public void finish() {
+        if (account == null) {
+            return;
+        }
+
+        if (!skipped && expectedWallets != null && !sameWallets(expectedWallets, balanceWallets)) {
+            report(BalanceDrift.Kind.BALANCE_MISMATCH, null,
+                    "balance is " + Arrays.toString(balanceWallets) + ", history ends at " + Arrays.toString(expectedWallets));
+        }
+
+        account = null;
+    }
+
+    private void start(ReconciliationRow row) {
+        account = row.account();
+        balanceWallets = row.balanceWallets();
+        expectedWallets = null;
+        skipped = row.balanceUpdatedAt() != null && row.balanceUpdatedAt().isAfter(settledBefore);
+
+        accounts++;
+        if (skipped) {
+            skippedAccounts++;
+        }
+    }
+
+    private void report(BalanceDrift.Kind kind, Long transactionId, String detail) {
+        drifts.accept(new BalanceDrift(account, kind, transactionId, detail));
+    }
+
+    private static boolean sameWallets(long[] a, long[] b) {
+        for (int i = 0; i < Math.max(a.length, b.length); i++) {
+            if (wallet(a, i) != wallet(b, i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static long wallet(long[] wallets, int ordinal) {
+        return ordinal < wallets.length ? wallets[ordinal] : 0;
+    }
+
+    private static long sum(long[] wallets) {
+        long sum = 0;
+        for (long wallet : wallets) {
+            sum += wallet;
+        }
+        return sum;
+    }
+}
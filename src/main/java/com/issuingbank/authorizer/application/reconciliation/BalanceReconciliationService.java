@@ -0,0 +1,162 @@
+package com.issuingbank.authorizer.application.reconciliation;
+
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.repositories.ReconciliationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Nightly check that every balance matches the history that produced it. The accounts of each shard are split into
+ * ranges of about the same size, and a fixed pool of workers streams one range at a time from the reconciliation
+ * pool (usually a replica) through a {@link BalanceFold}. Memory is bounded by the workers and the fetch size, not
+ * by the number of rows, and no connection of the authorization pool is used.
+ * <p>
+ * Every drift is logged as a warning; the last run's totals are published as authorizer.reconciliation.* gauges.
+ */
+@Slf4j
+@Service
+public class BalanceReconciliationService {
+    private final ReconciliationRepository reconciliationRepository;
+    private final AuthorizerProperties.Reconciliation properties;
+    private final Clock clock;
+    private final AtomicReference<ReconciliationReport> lastReport = new AtomicReference<>();
+
+    @Autowired
+    public BalanceReconciliationService(ReconciliationRepository reconciliationRepository, AuthorizerProperties properties,
+                                        MeterRegistry meterRegistry) {
+        this(reconciliationRepository, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    public BalanceReconciliationService(ReconciliationRepository reconciliationRepository, AuthorizerProperties properties,
+                                        MeterRegistry meterRegistry, Clock clock) {
+        this.reconciliationRepository = reconciliationRepository;
+        this.properties = properties.getReconciliation();
+        this.clock = clock;
+
+        Gauge.builder("authorizer.reconciliation.drifts", lastReport, report -> report.get() != null ? report.get().drifts() : 0)
+                .description("Drifts found by the last reconciliation run")
+                .register(meterRegistry);
+        Gauge.builder("authorizer.reconciliation.accounts", lastReport, report -> report.get() != null ? report.get().accounts() : 0)
+                .description("Accounts checked by the last reconciliation run, skipped ones included")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${authorizer.reconciliation.cron:0 0 3 * * *}", zone = "UTC")
+    public void reconcile() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        try {
+            reconciliationRepository.withRunLock(this::run)
+                    .ifPresentOrElse(report -> log.info("Reconciled {} accounts ({} skipped) and {} history rows in {}: {} drifts",
+                                    report.accounts(), report.skippedAccounts(), report.historyRows(), report.duration(), report.drifts()),
+                            () -> log.info("Reconciliation is running on another node"));
+        } catch (RuntimeException e) {
+            log.error("Reconciliation failed", e);
+        }
+    }
+
+    public ReconciliationReport run() {
+        Instant startedAt = clock.instant();
+        Instant settledBefore = startedAt.minus(properties.getSettleDelay());
+        Drifts drifts = new Drifts(properties.getMaxReportedDrifts());
+        List<Callable<BalanceFold>> ranges = new ArrayList<>();
+        for (String shard : reconciliationRepository.shards()) {
+            List<String> boundaries = reconciliationRepository.accountBoundaries(shard, properties.getParallelism() * properties.getRangesPerWorker());
+
+            for (int i = 0; i < boundaries.size(); i++) {
+                // the first range also takes whatever sorts before its boundary, in case accounts were created since
+                String from = i == 0 ? null : boundaries.get(i);
+                String to = i + 1 < boundaries.size() ? boundaries.get(i + 1) : null;
+
+                ranges.add(() -> {
+                    BalanceFold fold = new BalanceFold(settledBefore, drifts::add);
+                    reconciliationRepository.streamRange(shard, from, to, properties.getFetchSize(), fold::accept);
+                    fold.finish();
+                    return fold;
+                });
+            }
+        }
+
+        long accounts = 0;
+        long skippedAccounts = 0;
+        long historyRows = 0;
+        for (BalanceFold fold : runAll(ranges)) {
+            accounts += fold.getAccounts();
+            skippedAccounts += fold.getSkippedAccounts();
+            historyRows += fold.getHistoryRows();
+        }
+
+        ReconciliationReport report = new ReconciliationReport(startedAt, Duration.between(startedAt, clock.instant()),
+                accounts, skippedAccounts, historyRows, drifts.count.get(), drifts.reported());
+        lastReport.set(report);
+        return report;
+    }
+
+    public ReconciliationReport getLastReport() {
+        return lastReport.get();
+    }
+
+    private List<BalanceFold> runAll(List<Callable<BalanceFold>> ranges) {
+        ExecutorService workers = Executors.newFixedThreadPool(properties.getParallelism(),
+                Thread.ofPlatform().name("reconciliation-", 0).daemon(true).factory());
+
+        try {
+            List<BalanceFold> folds = new ArrayList<>();
+            for (Future<BalanceFold> range : workers.invokeAll(ranges)) {
+                folds.add(range.get());
+            }
+            return folds;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not reconcile an account range", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static final class Drifts {
+        private final int maxReported;
+        private final AtomicLong count = new AtomicLong();
+        private final List<BalanceDrift> reported = Collections.synchronizedList(new ArrayList<>());
+
+        private Drifts(int maxReported) {
+            this.maxReported = maxReported;
+        }
+
+        private void add(BalanceDrift drift) {
+            log.warn("Balance drift on account {} ({}), transaction {}: {}", drift.account(), drift.kind(), drift.transactionId(), drift.detail());
+
+            if (count.incrementAndGet() <= maxReported) {
+                reported.add(drift);
+            }
+        }
+
+        private List<BalanceDrift> reported() {
+            synchronized (reported) {
+                return List.copyOf(reported);
+            }
+        }
+    }
+}
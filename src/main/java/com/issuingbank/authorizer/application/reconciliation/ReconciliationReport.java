@@ -0,0 +1,20 @@
+package com.issuingbank.authorizer.application.reconciliation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * @param skippedAccounts accounts debited within the settle delay, left for the next run
+ * @param reportedDrifts  the first {@code max-reported-drifts} of them
+ */
+public record ReconciliationReport(
+        Instant startedAt,
+        Duration duration,
+        long accounts,
+        long skippedAccounts,
+        long historyRows,
+        long drifts,
+        List<BalanceDrift> reportedDrifts
+) {
+}
@@ -0,0 +1,25 @@
+package com.issuingbank.authorizer.application.reconciliation;
+
+import com.issuingbank.authorizer.domain.transaction.TransactionType;
+
+import java.time.Instant;
+
+/**
+ * One balance_history row joined with its account's balance and its transaction, in (account, created_at, id)
+ * order. An account without history comes as a single row whose history columns are null; a history row whose
+ * transaction does not exist has null transaction columns.
+ *
+ * @param transactionAmount in cents
+ */
+public record ReconciliationRow(
+        String account,
+        long[] balanceWallets,
+        Instant balanceUpdatedAt,
+        Long historyId,
+        Long transactionId,
+        long[] previousWallets,
+        long[] newWallets,
+        TransactionType transactionType,
+        Long transactionAmount
+) {
+}
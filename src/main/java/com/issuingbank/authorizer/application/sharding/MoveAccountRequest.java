@@ -0,0 +1,7 @@
+package com.issuingbank.authorizer.application.sharding;
+
+public record MoveAccountRequest(
+        String account,
+        String shard
+) {
+}
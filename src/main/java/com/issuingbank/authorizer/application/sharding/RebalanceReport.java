@@ -0,0 +1,9 @@
+package com.issuingbank.authorizer.application.sharding;
+
+/**
+ * @param scanned  accounts checked against the new ring
+ * @param moved    accounts moved to another shard
+ * @param complete false when the limit was reached and there may be more accounts to move
+ */
+public record RebalanceReport(long scanned, int moved, boolean complete) {
+}
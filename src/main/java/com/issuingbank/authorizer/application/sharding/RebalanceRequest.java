@@ -0,0 +1,13 @@
+package com.issuingbank.authorizer.application.sharding;
+
+import java.util.Map;
+
+/**
+ * @param virtualNodes target weight of each shard
+ * @param limit        maximum accounts moved by this request
+ */
+public record RebalanceRequest(
+        Map<String, Integer> virtualNodes,
+        int limit
+) {
+}
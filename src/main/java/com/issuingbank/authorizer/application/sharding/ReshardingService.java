@@ -0,0 +1,148 @@
+package com.issuingbank.authorizer.application.sharding;
+
+import com.issuingbank.authorizer.infra.repositories.AccountShardRepository;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter;
+import com.issuingbank.authorizer.infra.sharding.ShardRing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves accounts between shards while the application runs. Each account is copied to its new shard and routed
+ * there through account_shard; its authorizations are only held, or fail, for the last step of its move (see
+ * {@link AccountShardRepository#moveAccount}).
+ * <p>
+ * Adding a shard, or changing the weights: append the shard with virtual-nodes 0, {@link #rebalance} to the new
+ * weights until nothing is left to move, roll out the new weights, then {@link #pruneOverrides}.
+ */
+@Slf4j
+@Service
+public class ReshardingService {
+    private static final int PAGE_SIZE = 500;
+
+    private final AccountShardRouter accountShardRouter;
+    private final AccountShardRepository accountShardRepository;
+    private final Clock clock;
+
+    @Autowired
+    public ReshardingService(AccountShardRouter accountShardRouter, AccountShardRepository accountShardRepository) {
+        this(accountShardRouter, accountShardRepository, Clock.systemUTC());
+    }
+
+    public ReshardingService(AccountShardRouter accountShardRouter, AccountShardRepository accountShardRepository, Clock clock) {
+        this.accountShardRouter = accountShardRouter;
+        this.accountShardRepository = accountShardRepository;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return accountShardRouter.isEnabled();
+    }
+
+    /**
+     * @return the shard the account was on
+     * @throws IllegalArgumentException when the shard is not configured or the account does not exist
+     */
+    public String move(String account, String target) {
+        checkEnabled();
+
+        if (!accountShardRouter.shards().contains(target)) {
+            throw new IllegalArgumentException("Unknown shard " + target);
+        }
+
+        String source = accountShardRouter.shardFor(account);
+        if (!source.equals(target)) {
+            move(account, source, target);
+        }
+
+        return source;
+    }
+
+    /**
+     * Moves the accounts that are not on their shard in a ring of the given weights, at most {@code limit} per
+     * call. Run again until it reports nothing left to move.
+     *
+     * @param virtualNodes weight of every configured shard
+     */
+    public RebalanceReport rebalance(Map<String, Integer> virtualNodes, int limit) {
+        checkEnabled();
+
+        if (!accountShardRouter.shards().containsAll(virtualNodes.keySet()) || !virtualNodes.keySet().containsAll(accountShardRouter.shards())) {
+            throw new IllegalArgumentException("Weights must be given for exactly the shards " + accountShardRouter.shards());
+        }
+
+        ShardRing ring = new ShardRing(virtualNodes);
+        long scanned = 0;
+        int moved = 0;
+
+        for (String source : accountShardRouter.shards()) {
+            String after = null;
+            List<String> accounts;
+
+            do {
+                accounts = accountShardRepository.findAccounts(source, after, PAGE_SIZE);
+
+                for (String account : accounts) {
+                    String target = ring.shardFor(account);
+
+                    if (!target.equals(source)) {
+                        if (moved == limit) {
+                            return new RebalanceReport(scanned, moved, false);
+                        }
+
+                        move(account, source, target);
+                        moved++;
+                    }
+                    scanned++;
+                }
+
+                after = accounts.isEmpty() ? after : accounts.get(accounts.size() - 1);
+            } while (accounts.size() == PAGE_SIZE);
+        }
+
+        return new RebalanceReport(scanned, moved, true);
+    }
+
+    /**
+     * Deletes the account_shard rows the ring of the running configuration already agrees with. Only once every
+     * node runs it: a node on the previous weights would route those accounts back to their old shard.
+     *
+     * @return rows deleted
+     */
+    public int pruneOverrides() {
+        checkEnabled();
+
+        ShardRing ring = accountShardRouter.ring();
+        List<String> redundant = new ArrayList<>();
+        accountShardRepository.findOverrides().forEach((account, override) -> {
+            if (override.shard().equals(ring.shardFor(account))) {
+                redundant.add(account);
+            }
+        });
+
+        return redundant.isEmpty() ? 0 : accountShardRepository.deleteOverrides(redundant);
+    }
+
+    private void move(String account, String source, String target) {
+        Instant startedAt = clock.instant();
+
+        accountShardRepository.moveAccount(account, source, target, startedAt, () -> {
+            accountShardRepository.saveOverride(account, target, startedAt);
+            accountShardRouter.moved(account, target, startedAt);
+        });
+
+        log.info("Moved account {} from shard {} to shard {}", account, source, target);
+    }
+
+    private void checkEnabled() {
+        if (!accountShardRouter.isEnabled()) {
+            throw new IllegalStateException("authorizer.sharding is disabled");
+        }
+    }
+}
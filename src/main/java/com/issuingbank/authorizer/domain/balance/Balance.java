@@ -1,65 +1,57 @@
 package com.issuingbank.authorizer.domain.balance;
 
+import com.issuingbank.authorizer.domain.money.Money;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
-import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.Objects;
-import java.util.function.BiConsumer;
-import java.util.function.Function;
-
-import static java.util.Map.entry;
 
+/**
+ * Balances are in cents, see {@link Money}. Each wallet is the element of {@code wallets} at its
+ * {@link BalanceType} ordinal, so adding a wallet needs no new column. Rows written before a wallet
+ * existed have a shorter array and read it as zero.
+ * <p>
+ * The program decides which wallets are tried after the one the MCC points to.
+ */
 @Getter
 @Setter
 @Entity
 @Builder
-@NoArgsConstructor
 @Table(name = "balance")
-@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class Balance {
-
-    private static final Map<BalanceType, Function<Balance, BigDecimal>> balanceGetterMap = Map.ofEntries(
-            entry(BalanceType.FOOD, Balance::getFoodBalance),
-            entry(BalanceType.MEAL, Balance::getMealBalance),
-            entry(BalanceType.CASH, Balance::getCashBalance)
-    );
-
-    private static final Map<BalanceType, BiConsumer<Balance, BigDecimal>> balanceSetterMap = Map.ofEntries(
-            entry(BalanceType.FOOD, Balance::setFoodBalance),
-            entry(BalanceType.MEAL, Balance::setMealBalance),
-            entry(BalanceType.CASH, Balance::setCashBalance)
-    );
+    public static final String DEFAULT_PROGRAM = "DEFAULT";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_seq")
+    @SequenceGenerator(name = "balance_seq", sequenceName = "balance_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "account")
     private String account;
 
-    @Column(name = "food_balance")
-    private BigDecimal foodBalance;
+    @Column(name = "program")
+    private String program;
 
-    @Column(name = "meal_balance")
-    private BigDecimal mealBalance;
-
-    @Column(name = "cash_balance")
-    private BigDecimal cashBalance;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "wallets")
+    private long[] wallets;
 
     @Version
     private int version;
@@ -71,37 +63,70 @@ public class Balance {
     @Column(name = "updated_at")
     private Instant updatedAt;
 
-    public BigDecimal getBalance(BalanceType balanceType) {
-        return balanceGetterMap.get(balanceType).apply(this);
+    public Balance() {
+        this(null, null, null, null, 0, null, null);
+    }
+
+    private Balance(Long id, String account, String program, long[] wallets, int version, Instant createdAt, Instant updatedAt) {
+        this.id = id;
+        this.account = account;
+        this.program = program != null ? program : DEFAULT_PROGRAM;
+        this.wallets = wallets != null ? wallets : new long[BalanceType.count()];
+        this.version = version;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public long getBalance(BalanceType balanceType) {
+        int index = balanceType.ordinal();
+        return index < wallets.length ? wallets[index] : 0;
     }
 
-    public void setBalance(BalanceType type, BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) < 0) {
+    public void setBalance(BalanceType type, long amount) {
+        if (amount < 0) {
             throw new IllegalArgumentException("Invalid amount!");
         }
 
-        balanceSetterMap.get(type).accept(this, amount);
+        this.wallets = withWallet(type, amount);
     }
 
-    public boolean hasSufficientBalance(BalanceType balanceType, BigDecimal amount) {
-        if (amount == null) {
-            return false;
-        }
+    /**
+     * @return a copy, indexed by {@link BalanceType} ordinal
+     */
+    public long[] getWallets() {
+        return Arrays.copyOf(wallets, BalanceType.count());
+    }
 
-        return this.getBalance(balanceType).compareTo(amount) >= 0;
+    /**
+     * The array itself, for {@link BalanceHistory} to keep without copying. Never written after it is
+     * assigned: every change replaces it.
+     */
+    long[] sharedWallets() {
+        return wallets;
     }
 
-    public Balance debit(BalanceType balanceType, BigDecimal amount) {
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) < 0) {
+    public boolean hasSufficientBalance(BalanceType balanceType, long amount) {
+        return this.getBalance(balanceType) >= amount;
+    }
+
+    public Balance debit(BalanceType balanceType, long amount) {
+        if (amount < 0) {
             throw new IllegalArgumentException("Invalid amount");
         }
 
-        Balance newBalance = new Balance(this.id, this.account, this.foodBalance, this.mealBalance,
-                this.cashBalance, this.version, this.createdAt, this.updatedAt);
+        long newAmount = Money.subtract(getBalance(balanceType), amount);
+
+        if (newAmount < 0) {
+            throw new IllegalArgumentException("Invalid amount!");
+        }
 
-        newBalance.setBalance(balanceType, getBalance(balanceType).subtract(amount));
+        return new Balance(this.id, this.account, this.program, withWallet(balanceType, newAmount), this.version, this.createdAt, this.updatedAt);
+    }
 
-        return newBalance;
+    private long[] withWallet(BalanceType type, long amount) {
+        long[] updated = Arrays.copyOf(wallets, Math.max(wallets.length, BalanceType.count()));
+        updated[type.ordinal()] = amount;
+        return updated;
     }
 
     @Override
@@ -116,4 +141,15 @@ public class Balance {
     public int hashCode() {
         return Objects.hashCode(getId());
     }
+
+    public static class BalanceBuilder {
+        public BalanceBuilder balance(BalanceType balanceType, long amount) {
+            if (wallets == null) {
+                wallets = new long[BalanceType.count()];
+            }
+
+            wallets[balanceType.ordinal()] = amount;
+            return this;
+        }
+    }
 }
@@ -8,16 +8,22 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 
+/**
+ * Balances are in cents, see {@link com.issuingbank.authorizer.domain.money.Money}. Wallets are indexed by
+ * {@link BalanceType} ordinal, like {@link Balance}.
+ */
 @Getter
 @Setter
 @Entity
@@ -28,7 +34,8 @@ import java.time.Instant;
 public class BalanceHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_history_seq")
+    @SequenceGenerator(name = "balance_history_seq", sequenceName = "balance_history_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "account")
@@ -38,38 +45,61 @@ public class BalanceHistory {
     @JoinColumn(name = "transaction_id")
     private Transaction transaction;
 
-    @Column(name = "previous_food_balance")
-    private BigDecimal previousFoodBalance;
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "previous_wallets")
+    private long[] previousWallets;
 
-    @Column(name = "previous_meal_balance")
-    private BigDecimal previousMealBalance;
-
-    @Column(name = "previous_cash_balance")
-    private BigDecimal previousCashBalance;
-
-    @Column(name = "new_food_balance")
-    private BigDecimal newFoodBalance;
-
-    @Column(name = "new_meal_balance")
-    private BigDecimal newMealBalance;
-
-    @Column(name = "new_cash_balance")
-    private BigDecimal newCashBalance;
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "new_wallets")
+    private long[] newWallets;
 
     @Column(name = "created_at")
     private Instant createdAt;
 
+    /**
+     * The history row takes the transaction's created_at, so both land in the same monthly partition and
+     * expire together. That created_at is stamped once the account is locked, after its previous debit, so an
+     * account's rows are in (created_at, id) order.
+     */
     public static BalanceHistory create(Balance previousBalance, Balance newBalance, Transaction transaction) {
         return BalanceHistory.builder()
                 .transaction(transaction)
                 .account(transaction.getAccount())
-                .previousMealBalance(previousBalance.getMealBalance())
-                .previousFoodBalance(previousBalance.getFoodBalance())
-                .previousCashBalance(previousBalance.getCashBalance())
-                .newMealBalance(newBalance.getMealBalance())
-                .newFoodBalance(newBalance.getFoodBalance())
-                .newCashBalance(newBalance.getCashBalance())
-                .createdAt(Instant.now())
+                .previousWallets(previousBalance.sharedWallets())
+                .newWallets(newBalance.sharedWallets())
+                .createdAt(transaction.getCreatedAt() != null ? transaction.getCreatedAt() : Instant.now())
                 .build();
     }
+
+    public long getPreviousBalance(BalanceType balanceType) {
+        return walletOf(previousWallets, balanceType);
+    }
+
+    public long getNewBalance(BalanceType balanceType) {
+        return walletOf(newWallets, balanceType);
+    }
+
+    private static long walletOf(long[] wallets, BalanceType balanceType) {
+        return wallets != null && balanceType.ordinal() < wallets.length ? wallets[balanceType.ordinal()] : 0;
+    }
+
+    public static class BalanceHistoryBuilder {
+        public BalanceHistoryBuilder previousBalance(BalanceType balanceType, long amount) {
+            if (previousWallets == null) {
+                previousWallets = new long[BalanceType.count()];
+            }
+
+            previousWallets[balanceType.ordinal()] = amount;
+            return this;
+        }
+
+        public BalanceHistoryBuilder newBalance(BalanceType balanceType, long amount) {
+            if (newWallets == null) {
+                newWallets = new long[BalanceType.count()];
+            }
+
+            newWallets[balanceType.ordinal()] = amount;
+            return this;
+        }
+    }
 }
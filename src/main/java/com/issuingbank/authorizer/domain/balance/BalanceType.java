@@ -1,7 +1,27 @@
 package com.issuingbank.authorizer.domain.balance;
 
+/**
+ * Wallets of an account. The ordinal is the wallet's position in {@code balance.wallets} and in the
+ * balance_history arrays, so new wallets are only ever appended to the end.
+ */
 public enum BalanceType {
     FOOD,
     MEAL,
-    CASH;
+    CASH,
+    MOBILITY,
+    HEALTH,
+    CULTURE;
+
+    private static final BalanceType[] VALUES = values();
+
+    public static int count() {
+        return VALUES.length;
+    }
+
+    /**
+     * @throws ArrayIndexOutOfBoundsException when no wallet has this position
+     */
+    public static BalanceType ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
 }
@@ -0,0 +1,61 @@
+package com.issuingbank.authorizer.domain.idempotency;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Response code returned for an Idempotency-Key, replayed when the same key is retried.
+ * Rows are insert-only, so {@link #isNew()} is always true and saving never issues a merge SELECT.
+ */
+@Getter
+@Setter
+@Entity
+@Builder
+@NoArgsConstructor
+@Table(name = "idempotent_response")
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class IdempotentResponse implements Persistable<UUID> {
+    @Id
+    @Column(name = "idempotency_key")
+    private UUID idempotencyKey;
+
+    @Column(name = "account", nullable = false)
+    private String account;
+
+    @Column(name = "response_code", nullable = false, length = 2)
+    private String responseCode;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public static IdempotentResponse create(UUID idempotencyKey, String account, String responseCode) {
+        return IdempotentResponse.builder()
+                .idempotencyKey(idempotencyKey)
+                .account(account)
+                .responseCode(responseCode)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    @Override
+    public UUID getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,52 @@
+package com.issuingbank.authorizer.domain.ledger;
+
+import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.domain.transaction.Transaction;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Immutable movement of one wallet of an account, the n-th ({@code seq}) of the account's ledger.
+ *
+ * @param amount in cents, negative for debits
+ */
+public record LedgerPosting(String account, long seq, BalanceType wallet, long amount, long transactionId, Instant createdAt) {
+
+    /**
+     * @param seq position of the posting, right after the last one the debit was decided on
+     * @throws IllegalArgumentException when the balances differ by anything but one wallet
+     */
+    public static LedgerPosting debit(long seq, Balance previousBalance, Balance newBalance, Transaction transaction) {
+        for (BalanceType wallet : BalanceType.values()) {
+            long amount = newBalance.getBalance(wallet) - previousBalance.getBalance(wallet);
+
+            if (amount != 0) {
+                return new LedgerPosting(transaction.getAccount(), seq, wallet, amount, transaction.getId(), transaction.getCreatedAt());
+            }
+        }
+
+        throw new IllegalArgumentException("No wallet was debited");
+    }
+
+    /**
+     * Applies postings, in seq order, to the wallets of a snapshot.
+     *
+     * @param wallets  indexed by {@link BalanceType} ordinal; not modified
+     * @param ordinals wallet of each posting
+     * @param amounts  amount of each posting
+     */
+    public static long[] apply(long[] wallets, int[] ordinals, long[] amounts) {
+        if (ordinals.length == 0) {
+            return wallets;
+        }
+
+        long[] applied = Arrays.copyOf(wallets, Math.max(wallets.length, BalanceType.count()));
+        for (int i = 0; i < ordinals.length; i++) {
+            applied[ordinals[i]] += amounts[i];
+        }
+
+        return applied;
+    }
+}
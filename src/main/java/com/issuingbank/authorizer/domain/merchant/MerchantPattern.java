@@ -0,0 +1,55 @@
+package com.issuingbank.authorizer.domain.merchant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Corrected MCC for every merchant whose normalized name matches the pattern, so one row covers all the
+ * city and country suffixes an acquirer appends to the same merchant.
+ */
+@Getter
+@Setter
+@Entity
+@Builder
+@NoArgsConstructor
+@Table(name = "merchant_pattern")
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class MerchantPattern {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "merchant_pattern_seq")
+    @SequenceGenerator(name = "merchant_pattern_seq", sequenceName = "merchant_pattern_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "original_pattern", nullable = false)
+    private String originalPattern;
+
+    @Column(name = "normalized_pattern", nullable = false)
+    private String normalizedPattern;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "match_type", nullable = false)
+    private MerchantPatternType matchType;
+
+    @Column(name = "corrected_mcc", nullable = false, length = 4)
+    private String correctedMcc;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,12 @@
+package com.issuingbank.authorizer.domain.merchant;
+
+public enum MerchantPatternType {
+    /**
+     * {@code UBER EATS*}: the normalized merchant name starts with the pattern.
+     */
+    PREFIX,
+    /**
+     * {@code *IFOOD*}: the pattern appears in the normalized merchant name as whole words.
+     */
+    KEYWORD
+}
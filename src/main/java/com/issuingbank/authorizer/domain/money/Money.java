@@ -0,0 +1,53 @@
+package com.issuingbank.authorizer.domain.money;
+
+import java.math.BigDecimal;
+
+/**
+ * Amounts are carried through the domain as a long number of cents, so balance checks and debits are
+ * primitive compares and subtractions with no allocation. BigDecimal only exists at the edges: the JSON
+ * request and the NUMERIC(12,2) columns. Conversions are exact and arithmetic is overflow checked; a value
+ * that does not fit the columns fails with ArithmeticException instead of being rounded or truncated.
+ */
+public final class Money {
+    public static final int SCALE = 2;
+
+    /**
+     * 9,999,999,999.99, the largest value of a NUMERIC(12,2) column.
+     */
+    public static final long MAX_CENTS = 999_999_999_999L;
+    private static final BigDecimal MAX_AMOUNT = BigDecimal.valueOf(MAX_CENTS, SCALE);
+
+    private Money() {
+    }
+
+    /**
+     * @throws ArithmeticException when the amount has fractions of a cent or does not fit NUMERIC(12,2)
+     */
+    public static long toCents(BigDecimal amount) {
+        return checkRange(amount.movePointRight(SCALE).longValueExact());
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * Whether {@link #toCents} accepts the amount.
+     */
+    public static boolean isRepresentable(BigDecimal amount) {
+        return (amount.scale() <= SCALE || amount.stripTrailingZeros().scale() <= SCALE)
+                && amount.abs().compareTo(MAX_AMOUNT) <= 0;
+    }
+
+    public static long subtract(long cents, long subtrahend) {
+        return checkRange(Math.subtractExact(cents, subtrahend));
+    }
+
+    private static long checkRange(long cents) {
+        if (cents > MAX_CENTS || cents < -MAX_CENTS) {
+            throw new ArithmeticException(cents + " cents does not fit NUMERIC(12,2)");
+        }
+
+        return cents;
+    }
+}
@@ -1,10 +1,13 @@
 package com.issuingbank.authorizer.domain.transaction;
 
+import com.issuingbank.authorizer.infra.converters.CentsConverter;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -13,7 +16,6 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -26,7 +28,8 @@ import java.util.UUID;
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "requested_mcc")
@@ -41,8 +44,12 @@ public class Transaction {
     @Column(name = "account")
     private String account;
 
+    /**
+     * In cents, see {@link com.issuingbank.authorizer.domain.money.Money}.
+     */
     @Column(name = "amount")
-    private BigDecimal amount;
+    @Convert(converter = CentsConverter.class)
+    private long amount;
 
     @Column(name = "type")
     private TransactionType type;
@@ -55,7 +62,7 @@ public class Transaction {
 
 
     public boolean isValid() {
-        return !requestedMcc.isBlank() && !merchant.isBlank() && amount.compareTo(BigDecimal.ZERO) > 0;
+        return !requestedMcc.isBlank() && !merchant.isBlank() && amount > 0;
     }
 
 }
@@ -1,34 +1,48 @@
 package com.issuingbank.authorizer.infra;
 
+import com.issuingbank.authorizer.application.merchant.CreateMerchantPatternRequest;
+import com.issuingbank.authorizer.application.merchant.CreateMerchantPatternService;
 import com.issuingbank.authorizer.application.merchant.CreateMerchantRequest;
 import com.issuingbank.authorizer.application.merchant.CreateMerchantService;
 import com.issuingbank.authorizer.domain.balance.Balance;
 import com.issuingbank.authorizer.domain.balance.BalanceHistory;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.domain.money.Money;
 import com.issuingbank.authorizer.domain.transaction.Transaction;
 import com.issuingbank.authorizer.domain.transaction.TransactionType;
 import com.issuingbank.authorizer.infra.repositories.BalanceHistoryRepository;
 import com.issuingbank.authorizer.infra.repositories.BalanceRepository;
+import com.issuingbank.authorizer.infra.repositories.MerchantPatternRepository;
 import com.issuingbank.authorizer.infra.repositories.MerchantRepository;
 import com.issuingbank.authorizer.infra.repositories.TransactionRepository;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter;
 import jakarta.annotation.PostConstruct;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Component
 @AllArgsConstructor
 public class DatabaseSeeder {
     private final CreateMerchantService createMerchantService;
     private final MerchantRepository merchantRepository;
+    private final CreateMerchantPatternService createMerchantPatternService;
+    private final MerchantPatternRepository merchantPatternRepository;
     private final BalanceRepository balanceRepository;
+    private final AccountShardRouter accountShardRouter;
 
     @PostConstruct
     @Transactional
     public void initDatabase() {
         populateMerchants();
-        createAccounts();
+        populateMerchantPatterns();
+        accountShardRouter.callOnShardOf("1", () -> {
+            createAccounts();
+            return null;
+        });
     }
 
     private void createAccounts() {
@@ -43,9 +57,9 @@ public class DatabaseSeeder {
 
             Balance balance = Balance.builder()
                     .account("1")
-                    .foodBalance(BigDecimal.valueOf(200))
-                    .mealBalance(BigDecimal.valueOf(200))
-                    .cashBalance(BigDecimal.valueOf(200))
+                    .balance(BalanceType.FOOD, Money.toCents(BigDecimal.valueOf(200)))
+                    .balance(BalanceType.MEAL, Money.toCents(BigDecimal.valueOf(200)))
+                    .balance(BalanceType.CASH, Money.toCents(BigDecimal.valueOf(200)))
                     .build();
 
             balanceRepository.save(balance);
@@ -54,8 +68,17 @@ public class DatabaseSeeder {
 
     private void populateMerchants() {
         if (merchantRepository.findAll().isEmpty()) {
-            createMerchantService.execute(CreateMerchantRequest.create("UBER TRIP                   SAO PAULO BR", "1520"));
-            createMerchantService.execute(CreateMerchantRequest.create("UBER EATS                   SAO PAULO BR", "5811"));
+            createMerchantService.executeAll(List.of(
+                    CreateMerchantRequest.create("UBER TRIP                   SAO PAULO BR", "1520"),
+                    CreateMerchantRequest.create("UBER EATS                   SAO PAULO BR", "5811")
+            ));
+        }
+    }
+
+    private void populateMerchantPatterns() {
+        if (merchantPatternRepository.findAll().isEmpty()) {
+            createMerchantPatternService.execute(CreateMerchantPatternRequest.create("UBER TRIP*", "1520"));
+            createMerchantPatternService.execute(CreateMerchantPatternRequest.create("UBER EATS*", "5811"));
         }
     }
 
@@ -0,0 +1,424 @@
+package com.issuingbank.authorizer.infra.config;
+
+import com.issuingbank.authorizer.application.authorizer.BalanceHistoryMode;
+import com.issuingbank.authorizer.application.authorizer.ConcurrencyMode;
+import com.issuingbank.authorizer.application.authorizer.PersistenceMode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "authorizer")
+public class AuthorizerProperties {
+
+    private MerchantCache merchantCache = new MerchantCache();
+    private MccRules mccRules = new MccRules();
+    private MerchantPatterns merchantPatterns = new MerchantPatterns();
+    private Admission admission = new Admission();
+    private Concurrency concurrency = new Concurrency();
+    private Persistence persistence = new Persistence();
+    private History balanceHistory = new History();
+    private GroupCommit groupCommit = new GroupCommit();
+    private VirtualThreads virtualThreads = new VirtualThreads();
+    private Iso8583 iso8583 = new Iso8583();
+    private Batch batch = new Batch();
+    private BalanceInquiry balanceInquiry = new BalanceInquiry();
+    private Statement statement = new Statement();
+    private Partitions partitions = new Partitions();
+    private Reconciliation reconciliation = new Reconciliation();
+    private Ledger ledger = new Ledger();
+    private Sharding sharding = new Sharding();
+
+    @Getter
+    @Setter
+    public static class MerchantCache {
+        /**
+         * Maximum number of normalized merchant names (hits and misses) kept per node.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * How long an entry lives after being written. Bounds how stale a node can be
+         * about merchants created through another node.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class MccRules {
+        /**
+         * How often mcc_rule and wallet_fallback are read again. Bounds how long a rule change takes to
+         * reach every node.
+         */
+        private Duration reloadInterval = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class MerchantPatterns {
+        /**
+         * How often merchant_pattern is read again. Bounds how long a pattern created through another node
+         * takes to be matched here; patterns created through this node are matched right after the rebuild.
+         */
+        private Duration reloadInterval = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Admission {
+        /**
+         * Serializes authorizations of the same account inside the node before they borrow a connection. When on,
+         * a request that waits longer than max-wait for its account is answered with UNEXPECTED_ERROR instead of
+         * queueing on the balance row lock.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of account stripes. Rounded up to a power of two.
+         */
+        private int stripes = 64;
+
+        /**
+         * How long a request waits for its stripe before being answered with UNEXPECTED_ERROR.
+         */
+        private Duration maxWait = Duration.ofMillis(500);
+    }
+
+    @Getter
+    @Setter
+    public static class Concurrency {
+        private ConcurrencyMode mode = ConcurrencyMode.PESSIMISTIC;
+
+        /**
+         * Attempts per authorization in OPTIMISTIC mode before declining with UNEXPECTED_ERROR.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Backoff before the n-th retry is a random value in [0, min(max-backoff, initial-backoff * 2^(n-1))].
+         */
+        private Duration initialBackoff = Duration.ofMillis(2);
+        private Duration maxBackoff = Duration.ofMillis(20);
+    }
+
+    @Getter
+    @Setter
+    public static class Persistence {
+        private PersistenceMode mode = PersistenceMode.JPA;
+    }
+
+    @Getter
+    @Setter
+    public static class History {
+        private BalanceHistoryMode mode = BalanceHistoryMode.SYNCHRONOUS;
+        private Journal journal = new Journal();
+    }
+
+    @Getter
+    @Setter
+    public static class Journal {
+        private String directory = "journal/balance-history";
+
+        /**
+         * Forces every append to disk before the authorization commits. Turning it off trades the
+         * history of the last appends on a crash for a shorter critical section.
+         */
+        private boolean fsync = true;
+
+        /**
+         * The open segment is sealed after this many records or this age, whichever comes first.
+         */
+        private int segmentMaxRecords = 10_000;
+        private Duration segmentMaxAge = Duration.ofSeconds(5);
+
+        /**
+         * Sealed segments are only flushed after this long without writes, so every authorization
+         * they contain has committed or rolled back. Must be longer than the authorization timeout.
+         */
+        private Duration gracePeriod = Duration.ofSeconds(10);
+
+        private Duration flushInterval = Duration.ofSeconds(1);
+        private int batchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class GroupCommit {
+        /**
+         * Runs authorizations arriving within the window in one database transaction, one savepoint each.
+         * Requires admission, which keeps an account out of two batches at once.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How long the first authorization of a batch waits for others to join it.
+         */
+        private Duration window = Duration.ofMillis(2);
+        private int maxBatchSize = 32;
+
+        /**
+         * Threads building and committing batches. Each one holds a connection while committing.
+         */
+        private int workers = 4;
+        private int queueCapacity = 1024;
+        private Duration transactionTimeout = Duration.ofSeconds(2);
+    }
+
+    @Getter
+    @Setter
+    public static class VirtualThreads {
+        /**
+         * Pinned virtual threads blocking their carrier for less than this are not reported.
+         */
+        private Duration pinningThreshold = Duration.ofMillis(20);
+    }
+
+    @Getter
+    @Setter
+    public static class Iso8583 {
+        /**
+         * Accepts the card network's ISO-8583 connections directly, without the HTTP gateway.
+         */
+        private boolean enabled = false;
+        private int port = 8583;
+        private int backlog = 64;
+
+        /**
+         * Longer messages close the connection. Bounds the read buffer of each connection.
+         */
+        private int maxMessageLength = 4096;
+
+        /**
+         * Pipelined requests processed at once per connection; past this the connection is not read.
+         */
+        private int maxInFlightPerConnection = 256;
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+        /**
+         * Lines of one POST /authorize/batch authorized at once. Responses keep the request order, so this
+         * is also how many lines are held while the oldest one is still running.
+         */
+        private int parallelism = 16;
+
+        /**
+         * Longest request line, in characters. Longer lines are answered with UNEXPECTED_ERROR without being read
+         * into memory.
+         */
+        private int maxLineLength = 4_096;
+
+        /**
+         * Longest POST /authorize/batch body, in characters. The line that passes it is answered with
+         * UNEXPECTED_ERROR and the rest of the body is not read.
+         */
+        private long maxBodyLength = 64L * 1024 * 1024;
+    }
+
+    @Getter
+    @Setter
+    public static class BalanceInquiry {
+        /**
+         * JDBC url of the inquiry pool, for example a read replica. Defaults to spring.datasource.url.
+         */
+        private String url;
+
+        /**
+         * Connections of the inquiry pool, which is separate from the authorization pool.
+         */
+        private int maximumPoolSize = 4;
+        private Duration connectionTimeout = Duration.ofMillis(250);
+        private Duration queryTimeout = Duration.ofSeconds(1);
+
+        private long cacheMaximumSize = 100_000;
+
+        /**
+         * Debits of this node invalidate the cached snapshot right away; this bounds how stale a snapshot
+         * can be about debits committed through other nodes.
+         */
+        private Duration cacheTtl = Duration.ofSeconds(2);
+
+        /**
+         * Maximum accounts of one multi-get.
+         */
+        private int maxAccounts = 50;
+    }
+
+    @Getter
+    @Setter
+    public static class Statement {
+        private int defaultPageSize = 50;
+
+        /**
+         * Largest page of GET /accounts/{account}/statement. Bounds how long a page holds a connection of the
+         * inquiry pool, since rows are written to the response while the cursor is open.
+         */
+        private int maxPageSize = 500;
+
+        /**
+         * Rows fetched from the database cursor at a time.
+         */
+        private int fetchSize = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Partitions {
+        /**
+         * Creates the monthly partitions of transaction and balance_history ahead of time and detaches the expired ones.
+         */
+        private boolean enabled = true;
+        private Duration maintenanceInterval = Duration.ofHours(1);
+
+        /**
+         * Months after the current one that must already have a partition.
+         */
+        private int premakeMonths = 3;
+
+        /**
+         * Partitions whose whole range is older than this many months before the current one are detached, and
+         * idempotent responses older than that are deleted.
+         */
+        private int retentionMonths = 13;
+
+        /**
+         * Drops the detached partitions instead of leaving them as standalone tables for archiving.
+         */
+        private boolean dropExpired = false;
+
+        /**
+         * How long a partition DDL waits for its locks before giving up until the next run, so it never queues
+         * authorizations behind it.
+         */
+        private Duration lockTimeout = Duration.ofSeconds(1);
+
+        /**
+         * Idempotency keys of expired transactions, and expired idempotent responses, deleted per transaction.
+         */
+        private int releaseBatchSize = 5000;
+    }
+
+    @Getter
+    @Setter
+    public static class Reconciliation {
+        private boolean enabled = true;
+
+        /**
+         * When the nightly run starts, in UTC.
+         */
+        private String cron = "0 0 3 * * *";
+
+        /**
+         * JDBC url of the reconciliation pool, for example a read replica. Defaults to
+         * authorizer.balance-inquiry.url, then to spring.datasource.url. Nodes pointing to the same database
+         * take turns; only one of them runs each night.
+         */
+        private String url;
+
+        /**
+         * Workers, each streaming one account range at a time over its own connection.
+         */
+        private int parallelism = 4;
+
+        /**
+         * Account ranges per worker. More ranges than workers keeps every worker busy when ranges are uneven.
+         */
+        private int rangesPerWorker = 4;
+
+        /**
+         * Rows fetched from the database cursor at a time, per worker.
+         */
+        private int fetchSize = 1_000;
+
+        /**
+         * Accounts debited within this window before the run are skipped, since their history may still be in
+         * the journal. Must be longer than the journal grace period plus its flush interval.
+         */
+        private Duration settleDelay = Duration.ofMinutes(1);
+
+        /**
+         * Drifts kept in the run's report; every drift is logged and counted either way.
+         */
+        private int maxReportedDrifts = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Ledger {
+        /**
+         * How often postings are folded into the balance snapshots. Bounds how many postings every read of a
+         * busy account applies on top of its snapshot.
+         */
+        private Duration compactionInterval = Duration.ofSeconds(10);
+
+        /**
+         * Accounts looked up per round; a full round is followed by the next one right away.
+         */
+        private int compactionBatchSize = 500;
+
+        /**
+         * How far back the first run after startup looks for postings not in their snapshot yet. Later runs
+         * resume from where the previous one was.
+         */
+        private Duration lookback = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Sharding {
+        /**
+         * Spreads the accounts over the shards below by consistent hashing. Off, everything runs on
+         * spring.datasource.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Shards are only ever appended: the position of a shard fixes the range of the ids it generates. The
+         * first one holds account_shard and is the source of the reference data.
+         */
+        private List<Shard> shards = new ArrayList<>();
+
+        /**
+         * How often each node reads account_shard again. Bounds how long a node keeps routing a moved account
+         * to its previous shard.
+         */
+        private Duration overrideReloadInterval = Duration.ofSeconds(5);
+
+        /**
+         * How often merchants created on the first shard are copied to the others. Also how long a merchant miss
+         * stays in MerchantMccCache, when shorter than merchant-cache.ttl.
+         */
+        private Duration merchantSyncInterval = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String name;
+
+        /**
+         * Defaults to spring.datasource.url, as do the credentials.
+         */
+        private String url;
+        private String username;
+        private String password;
+
+        /**
+         * Read by balance inquiries, statements and reconciliation of the shard's accounts instead of url.
+         */
+        private String replicaUrl;
+
+        /**
+         * Points of the shard in the ring, its weight. A new shard starts at 0 and is raised once the accounts
+         * it will own were moved to it.
+         */
+        private int virtualNodes = 128;
+    }
+}
@@ -0,0 +1,9 @@
+package com.issuingbank.authorizer.infra.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AuthorizerProperties.class)
+public class PropertiesConfig {
+}
@@ -0,0 +1,118 @@
+package com.issuingbank.authorizer.infra.config;
+
+import com.issuingbank.authorizer.application.authorizer.BalanceHistoryMode;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter.ShardEndpoint;
+import com.issuingbank.authorizer.infra.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * With authorizer.sharding.enabled the application DataSource routes to one pool per shard, each with the
+ * spring.datasource.hikari settings, and Flyway migrates every shard.
+ * <p>
+ * Ids are generated by each shard's sequences, so that rows keep their ids when an account moves: the n-th shard
+ * (from 0) generates the ids from n * 2^48, the first shard keeping the ids it already has.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "authorizer.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+    private static final int ID_RANGE_BITS = 48;
+    private static final List<String> ID_SEQUENCES = List.of("balance_seq", "transaction_seq", "balance_history_seq");
+    private static final String RESERVE_ID_RANGE = """
+            SELECT setval(CAST(? AS regclass), ?, false)
+             WHERE COALESCE(pg_sequence_last_value(CAST(? AS regclass)), 0) < ?
+            """;
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(DataSourceProperties dataSourceProperties, AuthorizerProperties properties,
+                                             Environment environment, MeterRegistry meterRegistry) {
+        validate(properties);
+
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        for (AuthorizerProperties.Shard shard : properties.getSharding().getShards()) {
+            ShardEndpoint endpoint = AccountShardRouter.endpoint(shard, shard.getUrl(), dataSourceProperties);
+
+            HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(endpoint.url())
+                    .username(endpoint.username())
+                    .password(endpoint.password())
+                    .build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName("shard-" + shard.getName());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+            pools.put(shard.getName(), pool);
+        }
+
+        return new ShardRoutingDataSource(pools);
+    }
+
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(ShardRoutingDataSource dataSource, AuthorizerProperties properties) {
+        return flyway -> {
+            List<AuthorizerProperties.Shard> shards = properties.getSharding().getShards();
+
+            for (int index = 0; index < shards.size(); index++) {
+                DataSource shard = dataSource.shard(shards.get(index).getName());
+
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate();
+                reserveIdRange(shard, index);
+            }
+        };
+    }
+
+    private static void reserveIdRange(DataSource shard, int index) {
+        long firstId = (long) index << ID_RANGE_BITS;
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(shard);
+
+        new TransactionTemplate(new DataSourceTransactionManager(shard)).executeWithoutResult(status -> {
+            for (String sequence : ID_SEQUENCES) {
+                jdbcTemplate.query(RESERVE_ID_RANGE, rs -> null, sequence, firstId, sequence, firstId);
+            }
+        });
+    }
+
+    /**
+     * Group commit runs authorizations of many accounts in one transaction, and the journal flushes history
+     * without knowing the shards; neither can span shards.
+     */
+    private static void validate(AuthorizerProperties properties) {
+        if (properties.getSharding().getShards().isEmpty()) {
+            throw new IllegalStateException("authorizer.sharding.shards is empty");
+        }
+
+        if (properties.getGroupCommit().isEnabled()) {
+            throw new IllegalStateException("authorizer.group-commit cannot be enabled with sharding");
+        }
+
+        if (properties.getBalanceHistory().getMode() == BalanceHistoryMode.JOURNAL) {
+            throw new IllegalStateException("authorizer.balance-history.mode=journal cannot be used with sharding");
+        }
+
+        AccountShardRouter.ring(properties.getSharding().getShards());
+    }
+}
@@ -0,0 +1,31 @@
+package com.issuingbank.authorizer.infra.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * spring.threads.virtual.enabled only moves Tomcat and Jetty request handling to virtual threads.
+ * For Undertow the servlet requests are dispatched to a thread-per-task virtual executor instead of the
+ * XNIO worker pool, so controllers, transactional services and repositories all run on virtual threads
+ * and a request blocked on JDBC or on the balance row lock no longer holds a worker.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> undertowVirtualThreadsCustomizer() {
+        return factory -> factory.addDeploymentInfoCustomizers(deploymentInfo -> {
+            ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("undertow-virtual-", 0).factory());
+            deploymentInfo.setExecutor(executor);
+            deploymentInfo.setAsyncExecutor(executor);
+        });
+    }
+}
@@ -1,10 +1,14 @@
 package com.issuingbank.authorizer.infra.controllers;
 
+import com.issuingbank.authorizer.application.authorizer.AuthorizationDispatcher;
 import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
 import com.issuingbank.authorizer.application.authorizer.AuthorizationResponse;
 import com.issuingbank.authorizer.application.authorizer.AuthorizationResponseType;
-import com.issuingbank.authorizer.application.authorizer.TransactionAuthorizerService;
+import com.issuingbank.authorizer.application.authorizer.BatchAuthorizationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -12,22 +16,40 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 @RestController
 @RequestMapping
 @AllArgsConstructor
 public class AuthorizerController {
-    private TransactionAuthorizerService authorizerService;
+    private AuthorizationDispatcher authorizationDispatcher;
+    private BatchAuthorizationService batchAuthorizationService;
 
     @PostMapping("/authorize")
     public ResponseEntity<AuthorizationResponse> authorize(@RequestHeader(value = "Idempotency-Key") final UUID idempotencyKey,
                                                            @RequestBody final AuthorizationRequest authorizationRequest) {
         try {
-            return ResponseEntity.ok(authorizerService.execute(idempotencyKey, authorizationRequest));
+            return ResponseEntity.ok(authorizationDispatcher.dispatch(idempotencyKey, authorizationRequest));
         } catch (Exception e) {
             return ResponseEntity.ok(AuthorizationResponse.from(AuthorizationResponseType.UNEXPECTED_ERROR.getCode()));
         }
     }
 
+    /**
+     * Newline-delimited requests in, one response line per request out, in the same order.
+     * Responses are streamed while the request body is still being read.
+     */
+    @PostMapping(value = "/authorize/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void authorizeBatch(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            batchAuthorizationService.authorize(lines, response.getOutputStream());
+        }
+    }
+
 }
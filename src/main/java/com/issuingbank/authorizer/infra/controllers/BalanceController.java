@@ -0,0 +1,44 @@
+package com.issuingbank.authorizer.infra.controllers;
+
+import com.issuingbank.authorizer.application.balance.BalanceInquiryService;
+import com.issuingbank.authorizer.application.balance.BalanceResponse;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping
+@AllArgsConstructor
+public class BalanceController {
+    private final BalanceInquiryService balanceInquiryService;
+    private final AuthorizerProperties properties;
+
+    @GetMapping("/balances/{account}")
+    public ResponseEntity<BalanceResponse> find(@PathVariable final String account) {
+        return balanceInquiryService.find(account)
+                .map(BalanceResponse::from)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * {@code GET /balances?accounts=1,2,3}. Accounts without a balance are left out of the response.
+     */
+    @GetMapping("/balances")
+    public ResponseEntity<List<BalanceResponse>> findAll(@RequestParam final List<String> accounts) {
+        if (accounts.size() > properties.getBalanceInquiry().getMaxAccounts()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(balanceInquiryService.findAll(accounts).stream()
+                .map(BalanceResponse::from)
+                .toList());
+    }
+}
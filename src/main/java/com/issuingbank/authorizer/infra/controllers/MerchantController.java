@@ -1,23 +1,40 @@
 package com.issuingbank.authorizer.infra.controllers;
 
+import com.issuingbank.authorizer.application.merchant.CreateMerchantPatternRequest;
+import com.issuingbank.authorizer.application.merchant.CreateMerchantPatternService;
 import com.issuingbank.authorizer.application.merchant.CreateMerchantRequest;
 import com.issuingbank.authorizer.application.merchant.CreateMerchantService;
 import com.issuingbank.authorizer.domain.merchant.Merchant;
+import com.issuingbank.authorizer.domain.merchant.MerchantPattern;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping
 @AllArgsConstructor
 public class MerchantController {
     private final CreateMerchantService createMerchantService;
+    private final CreateMerchantPatternService createMerchantPatternService;
 
     @PostMapping("/merchant")
     public ResponseEntity<Merchant> create(CreateMerchantRequest request) {
         return ResponseEntity.ok(createMerchantService.execute(request));
     }
 
+    @PostMapping("/merchant/batch")
+    public ResponseEntity<List<Merchant>> createAll(@RequestBody List<CreateMerchantRequest> requests) {
+        return ResponseEntity.ok(createMerchantService.executeAll(requests));
+    }
+
+    @PostMapping("/merchant/pattern")
+    public ResponseEntity<MerchantPattern> createPattern(@RequestBody CreateMerchantPatternRequest request) {
+        return ResponseEntity.ok(createMerchantPatternService.execute(request));
+    }
+
 }
@@ -0,0 +1,63 @@
+package com.issuingbank.authorizer.infra.controllers;
+
+import com.issuingbank.authorizer.application.sharding.MoveAccountRequest;
+import com.issuingbank.authorizer.application.sharding.RebalanceReport;
+import com.issuingbank.authorizer.application.sharding.RebalanceRequest;
+import com.issuingbank.authorizer.application.sharding.ReshardingService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Resharding operations; 404 with sharding disabled.
+ */
+@RestController
+@RequestMapping("/admin/shards")
+@AllArgsConstructor
+public class ShardingController {
+    private final ReshardingService reshardingService;
+
+    @PostMapping("/moves")
+    public ResponseEntity<Map<String, String>> move(@RequestBody final MoveAccountRequest request) {
+        if (request.account() == null || request.shard() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return run(() -> Map.of(
+                "account", request.account(),
+                "from", reshardingService.move(request.account(), request.shard()),
+                "to", request.shard()));
+    }
+
+    @PostMapping("/rebalance")
+    public ResponseEntity<RebalanceReport> rebalance(@RequestBody final RebalanceRequest request) {
+        if (request.virtualNodes() == null || request.limit() < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return run(() -> reshardingService.rebalance(request.virtualNodes(), request.limit()));
+    }
+
+    @PostMapping("/prune")
+    public ResponseEntity<Map<String, Integer>> prune() {
+        return run(() -> Map.of("deleted", reshardingService.pruneOverrides()));
+    }
+
+    private <T> ResponseEntity<T> run(Supplier<T> operation) {
+        if (!reshardingService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            return ResponseEntity.ok(operation.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
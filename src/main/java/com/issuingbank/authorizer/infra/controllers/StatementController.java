@@ -0,0 +1,53 @@
+package com.issuingbank.authorizer.infra.controllers;
+
+import com.issuingbank.authorizer.application.balance.StatementCursor;
+import com.issuingbank.authorizer.application.balance.StatementService;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping
+@AllArgsConstructor
+public class StatementController {
+    private final StatementService statementService;
+    private final AuthorizerProperties properties;
+
+    /**
+     * {@code GET /accounts/1001/statement?limit=50}, then {@code &after=<next>} for the following pages.
+     * Entries are streamed to the response as they are read.
+     */
+    @GetMapping(value = "/accounts/{account}/statement", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void statement(@PathVariable final String account,
+                          @RequestParam(required = false) final String after,
+                          @RequestParam(required = false) final Integer limit,
+                          final HttpServletResponse response) throws IOException {
+        AuthorizerProperties.Statement statement = properties.getStatement();
+        int pageSize = limit != null ? limit : statement.getDefaultPageSize();
+
+        if (pageSize < 1 || pageSize > statement.getMaxPageSize()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+
+        StatementCursor cursor;
+        try {
+            cursor = after != null ? StatementCursor.decode(after) : null;
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        statementService.write(account, cursor, pageSize, response.getOutputStream());
+    }
+}
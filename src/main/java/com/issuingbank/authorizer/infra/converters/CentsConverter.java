@@ -0,0 +1,23 @@
+package com.issuingbank.authorizer.infra.converters;
+
+import com.issuingbank.authorizer.domain.money.Money;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * long cents in the entity, NUMERIC(12,2) in the column. Not auto applied: it is only for amount columns.
+ */
+@Converter
+public class CentsConverter implements AttributeConverter<Long, BigDecimal> {
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long attribute) {
+        return attribute != null ? Money.toBigDecimal(attribute) : null;
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal dbData) {
+        return dbData != null ? Money.toCents(dbData) : null;
+    }
+}
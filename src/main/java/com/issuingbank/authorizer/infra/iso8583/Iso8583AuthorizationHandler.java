@@ -0,0 +1,121 @@
+package com.issuingbank.authorizer.infra.iso8583;
+
+import com.issuingbank.authorizer.application.authorizer.AuthorizationDispatcher;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponseType;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Maps ISO-8583 authorization requests (0100, and repeats 0101) onto {@link AuthorizationRequest} and answers
+ * 0110 with the authorizer response code in element 39. Network management requests (0800, echo/sign-on)
+ * are answered 0810 with 00 so the network can keep the connection alive.
+ * <p>
+ * Request elements used: 4 amount in minor units, 11 STAN, 18 MCC, 37 RRN, 43 card acceptor name/location
+ * and 102 account. The Idempotency-Key is derived from acquirer (32), RRN (37), STAN (11) and transmission
+ * date and time (7), which the network keeps on retransmissions, so a repeat is replayed instead of debited twice.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class Iso8583AuthorizationHandler {
+    static final String AUTHORIZATION_REQUEST = "0100";
+    static final String AUTHORIZATION_REQUEST_REPEAT = "0101";
+    static final String AUTHORIZATION_RESPONSE = "0110";
+    static final String NETWORK_MANAGEMENT_REQUEST = "0800";
+    static final String NETWORK_MANAGEMENT_RESPONSE = "0810";
+
+    static final int PAN = 2;
+    static final int AMOUNT = 4;
+    static final int TRANSMISSION_DATE_TIME = 7;
+    static final int STAN = 11;
+    static final int EXPIRATION_DATE = 14;
+    static final int MCC = 18;
+    static final int ACQUIRER = 32;
+    static final int TRACK_2 = 35;
+    static final int RRN = 37;
+    static final int RESPONSE_CODE = 39;
+    static final int CARD_ACCEPTOR_NAME_LOCATION = 43;
+    static final int PIN_DATA = 52;
+    static final int ICC_DATA = 55;
+    static final int ACCOUNT = 102;
+
+    /**
+     * Card data is never echoed back.
+     */
+    private static final int[] NOT_ECHOED = {PAN, EXPIRATION_DATE, TRACK_2, PIN_DATA, ICC_DATA};
+
+    private final AuthorizationDispatcher authorizationDispatcher;
+
+    /**
+     * @return the response message body
+     * @throws Iso8583FormatException when the message cannot be parsed or its MTI is not supported; there is
+     *                                nothing meaningful to answer and the connection should be dropped
+     */
+    public byte[] handle(byte[] frame) {
+        Iso8583Message message = Iso8583Message.parse(frame);
+
+        return switch (message.mti()) {
+            case AUTHORIZATION_REQUEST, AUTHORIZATION_REQUEST_REPEAT -> authorize(message);
+            case NETWORK_MANAGEMENT_REQUEST -> respond(message, NETWORK_MANAGEMENT_RESPONSE, AuthorizationResponseType.APPROVED.getCode());
+            default -> throw new Iso8583FormatException("Unsupported MTI " + message.mti());
+        };
+    }
+
+    private byte[] authorize(Iso8583Message message) {
+        String responseCode;
+
+        try {
+            responseCode = authorizationDispatcher.dispatch(idempotencyKey(message), toAuthorizationRequest(message)).code();
+        } catch (Iso8583FormatException e) {
+            log.warn("Invalid ISO-8583 authorization RRN {} STAN {}: {}", message.get(RRN), message.get(STAN), e.getMessage());
+            responseCode = AuthorizationResponseType.UNEXPECTED_ERROR.getCode();
+        } catch (RuntimeException e) {
+            log.error("ISO-8583 authorization RRN {} STAN {} failed", message.get(RRN), message.get(STAN), e);
+            responseCode = AuthorizationResponseType.UNEXPECTED_ERROR.getCode();
+        }
+
+        return respond(message, AUTHORIZATION_RESPONSE, responseCode);
+    }
+
+    private static byte[] respond(Iso8583Message message, String mti, String responseCode) {
+        String[] values = new String[RESPONSE_CODE + 1];
+        values[RESPONSE_CODE] = responseCode;
+
+        return message.respond(mti, values, NOT_ECHOED);
+    }
+
+    private static AuthorizationRequest toAuthorizationRequest(Iso8583Message message) {
+        for (int field : new int[]{AMOUNT, STAN, MCC, RRN, CARD_ACCEPTOR_NAME_LOCATION, ACCOUNT}) {
+            if (!message.has(field)) {
+                throw new Iso8583FormatException("Data element " + field + " is missing");
+            }
+        }
+
+        return AuthorizationRequest.of(
+                message.get(ACCOUNT).trim(),
+                BigDecimal.valueOf(message.getLong(AMOUNT), 2),
+                message.get(MCC),
+                message.get(CARD_ACCEPTOR_NAME_LOCATION).stripTrailing());
+    }
+
+    static UUID idempotencyKey(Iso8583Message message) {
+        String name = String.join("|", "iso8583",
+                valueOrEmpty(message, ACQUIRER),
+                valueOrEmpty(message, RRN),
+                valueOrEmpty(message, STAN),
+                valueOrEmpty(message, TRANSMISSION_DATE_TIME));
+
+        return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String valueOrEmpty(Iso8583Message message, int field) {
+        String value = message.get(field);
+        return value == null ? "" : value;
+    }
+}
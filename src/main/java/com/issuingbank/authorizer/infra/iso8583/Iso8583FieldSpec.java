@@ -0,0 +1,75 @@
+package com.issuingbank.authorizer.infra.iso8583;
+
+/**
+ * Data element formats of the ISO-8583:1987 ASCII dialect spoken with the card network: every element is
+ * ASCII and variable elements carry a 2 (LLVAR) or 3 (LLLVAR) digit length prefix. Bitmaps are binary.
+ * Only elements the network can send need an entry; a message with an unknown element cannot be parsed.
+ */
+final class Iso8583FieldSpec {
+    static final int MAX_FIELD = 128;
+
+    static final int FIXED = 0;
+    static final int LLVAR = 2;
+    static final int LLLVAR = 3;
+
+    private static final int[] FORMAT = new int[MAX_FIELD + 1];
+    private static final int[] LENGTH = new int[MAX_FIELD + 1];
+
+    static {
+        define(2, LLVAR, 19);    // primary account number
+        define(3, FIXED, 6);     // processing code
+        define(4, FIXED, 12);    // amount, transaction (minor units)
+        define(7, FIXED, 10);    // transmission date and time MMDDhhmmss
+        define(11, FIXED, 6);    // systems trace audit number (STAN)
+        define(12, FIXED, 6);    // local transaction time
+        define(13, FIXED, 4);    // local transaction date
+        define(14, FIXED, 4);    // expiration date
+        define(18, FIXED, 4);    // merchant type (MCC)
+        define(19, FIXED, 3);    // acquiring institution country code
+        define(22, FIXED, 3);    // POS entry mode
+        define(23, FIXED, 3);    // card sequence number
+        define(25, FIXED, 2);    // POS condition code
+        define(32, LLVAR, 11);   // acquiring institution identification code
+        define(35, LLVAR, 37);   // track 2 data
+        define(37, FIXED, 12);   // retrieval reference number (RRN)
+        define(38, FIXED, 6);    // authorization identification response
+        define(39, FIXED, 2);    // response code
+        define(41, FIXED, 8);    // card acceptor terminal identification
+        define(42, FIXED, 15);   // card acceptor identification code
+        define(43, FIXED, 40);   // card acceptor name/location
+        define(48, LLLVAR, 999); // additional data, private
+        define(49, FIXED, 3);    // currency code, transaction
+        define(52, FIXED, 16);   // PIN data
+        define(54, LLLVAR, 120); // additional amounts
+        define(55, LLLVAR, 999); // ICC data
+        define(60, LLLVAR, 999); // reserved, private
+        define(70, FIXED, 3);    // network management information code
+        define(90, FIXED, 42);   // original data elements
+        define(102, LLVAR, 28);  // account identification 1
+        define(103, LLVAR, 28);  // account identification 2
+        define(128, FIXED, 16);  // message authentication code
+    }
+
+    private Iso8583FieldSpec() {
+    }
+
+    private static void define(int field, int format, int length) {
+        FORMAT[field] = format;
+        LENGTH[field] = length;
+    }
+
+    static boolean isDefined(int field) {
+        return field >= 2 && field <= MAX_FIELD && LENGTH[field] > 0;
+    }
+
+    static int format(int field) {
+        return FORMAT[field];
+    }
+
+    /**
+     * Exact length of a FIXED element, maximum length of a variable one.
+     */
+    static int length(int field) {
+        return LENGTH[field];
+    }
+}
@@ -0,0 +1,7 @@
+package com.issuingbank.authorizer.infra.iso8583;
+
+public class Iso8583FormatException extends RuntimeException {
+    public Iso8583FormatException(String message) {
+        super(message);
+    }
+}
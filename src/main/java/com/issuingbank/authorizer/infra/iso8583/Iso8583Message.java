@@ -0,0 +1,214 @@
+package com.issuingbank.authorizer.infra.iso8583;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * An ISO-8583 message body (without the length prefix): 4 byte MTI, binary primary bitmap, optional binary
+ * secondary bitmap and the data elements.
+ * <p>
+ * Parsing does not copy the frame: it only records where each element's value starts and how long it is,
+ * and strings are only created for the elements that are read.
+ */
+public final class Iso8583Message {
+    private static final int MTI_LENGTH = 4;
+    private static final int BITMAP_LENGTH = 8;
+
+    private final byte[] frame;
+    private final int[] offsets;
+    private final int[] lengths;
+
+    private Iso8583Message(byte[] frame, int[] offsets, int[] lengths) {
+        this.frame = frame;
+        this.offsets = offsets;
+        this.lengths = lengths;
+    }
+
+    /**
+     * @throws Iso8583FormatException when the frame is truncated, has an element missing from the field
+     *                                spec or a variable element longer than its maximum
+     */
+    public static Iso8583Message parse(byte[] frame) {
+        if (frame.length < MTI_LENGTH + BITMAP_LENGTH) {
+            throw new Iso8583FormatException("Message shorter than MTI and primary bitmap: " + frame.length + " bytes");
+        }
+
+        boolean secondaryBitmap = (frame[MTI_LENGTH] & 0x80) != 0;
+        int bitmapBytes = secondaryBitmap ? BITMAP_LENGTH * 2 : BITMAP_LENGTH;
+        int position = MTI_LENGTH + bitmapBytes;
+
+        if (frame.length < position) {
+            throw new Iso8583FormatException("Message shorter than its secondary bitmap");
+        }
+
+        int[] offsets = new int[Iso8583FieldSpec.MAX_FIELD + 1];
+        int[] lengths = new int[Iso8583FieldSpec.MAX_FIELD + 1];
+        int lastField = secondaryBitmap ? Iso8583FieldSpec.MAX_FIELD : Iso8583FieldSpec.MAX_FIELD / 2;
+
+        for (int field = 2; field <= lastField; field++) {
+            if (!isSet(frame, field)) {
+                continue;
+            }
+
+            if (!Iso8583FieldSpec.isDefined(field)) {
+                throw new Iso8583FormatException("Data element " + field + " is not in the field spec");
+            }
+
+            int length = Iso8583FieldSpec.length(field);
+            int prefix = Iso8583FieldSpec.format(field);
+
+            if (prefix != Iso8583FieldSpec.FIXED) {
+                requireAvailable(frame, position, prefix, field);
+                int declared = parseDigits(frame, position, prefix, field);
+
+                if (declared > length) {
+                    throw new Iso8583FormatException("Data element " + field + " has length " + declared + ", maximum is " + length);
+                }
+
+                position += prefix;
+                length = declared;
+            }
+
+            requireAvailable(frame, position, length, field);
+            offsets[field] = position;
+            lengths[field] = length;
+            position += length;
+        }
+
+        if (position != frame.length) {
+            throw new Iso8583FormatException((frame.length - position) + " unexpected bytes after the last data element");
+        }
+
+        return new Iso8583Message(frame, offsets, lengths);
+    }
+
+    public String mti() {
+        return new String(frame, 0, MTI_LENGTH, StandardCharsets.US_ASCII);
+    }
+
+    public boolean has(int field) {
+        return field >= 2 && field <= Iso8583FieldSpec.MAX_FIELD && offsets[field] != 0;
+    }
+
+    /**
+     * @return the element value, or null when absent
+     */
+    public String get(int field) {
+        if (!has(field)) {
+            return null;
+        }
+
+        return new String(frame, offsets[field], lengths[field], StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Parses a numeric element without creating a string.
+     */
+    public long getLong(int field) {
+        if (!has(field)) {
+            throw new Iso8583FormatException("Data element " + field + " is missing");
+        }
+
+        long value = 0;
+        for (int i = offsets[field]; i < offsets[field] + lengths[field]; i++) {
+            int digit = frame[i] - '0';
+
+            if (digit < 0 || digit > 9) {
+                throw new Iso8583FormatException("Data element " + field + " is not numeric");
+            }
+
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    /**
+     * Response to this message: the same elements copied byte for byte, except the ones in {@code values}
+     * (index = element number, null = keep the request value) and the ones in {@code dropped}.
+     */
+    public byte[] respond(String mti, String[] values, int... dropped) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(frame.length + 16);
+        byte[] bitmap = new byte[BITMAP_LENGTH * 2];
+        boolean secondaryBitmap = false;
+
+        for (int field = 2; field <= Iso8583FieldSpec.MAX_FIELD; field++) {
+            if (isIncluded(field, values, dropped)) {
+                bitmap[(field - 1) / 8] |= (byte) (0x80 >>> ((field - 1) % 8));
+                secondaryBitmap |= field > Iso8583FieldSpec.MAX_FIELD / 2;
+            }
+        }
+
+        if (secondaryBitmap) {
+            bitmap[0] |= (byte) 0x80;
+        }
+
+        out.writeBytes(mti.getBytes(StandardCharsets.US_ASCII));
+        out.write(bitmap, 0, secondaryBitmap ? BITMAP_LENGTH * 2 : BITMAP_LENGTH);
+
+        for (int field = 2; field <= Iso8583FieldSpec.MAX_FIELD; field++) {
+            if (!isIncluded(field, values, dropped)) {
+                continue;
+            }
+
+            if (field < values.length && values[field] != null) {
+                writeElement(out, field, values[field].getBytes(StandardCharsets.US_ASCII));
+            } else {
+                writeElement(out, field, Arrays.copyOfRange(frame, offsets[field], offsets[field] + lengths[field]));
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    private boolean isIncluded(int field, String[] values, int[] dropped) {
+        for (int droppedField : dropped) {
+            if (droppedField == field) {
+                return false;
+            }
+        }
+
+        return (field < values.length && values[field] != null) || has(field);
+    }
+
+    private static void writeElement(ByteArrayOutputStream out, int field, byte[] value) {
+        int prefix = Iso8583FieldSpec.format(field);
+
+        if (prefix == Iso8583FieldSpec.FIXED && value.length != Iso8583FieldSpec.length(field)) {
+            throw new Iso8583FormatException("Data element " + field + " must have " + Iso8583FieldSpec.length(field) + " characters");
+        }
+
+        if (prefix != Iso8583FieldSpec.FIXED) {
+            String length = String.format("%0" + prefix + "d", value.length);
+            out.writeBytes(length.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        out.writeBytes(value);
+    }
+
+    private static boolean isSet(byte[] frame, int field) {
+        return (frame[MTI_LENGTH + (field - 1) / 8] & (0x80 >>> ((field - 1) % 8))) != 0;
+    }
+
+    private static int parseDigits(byte[] frame, int position, int count, int field) {
+        int value = 0;
+        for (int i = position; i < position + count; i++) {
+            int digit = frame[i] - '0';
+
+            if (digit < 0 || digit > 9) {
+                throw new Iso8583FormatException("Data element " + field + " has a non numeric length prefix");
+            }
+
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    private static void requireAvailable(byte[] frame, int position, int length, int field) {
+        if (position + length > frame.length) {
+            throw new Iso8583FormatException("Message truncated inside data element " + field);
+        }
+    }
+}
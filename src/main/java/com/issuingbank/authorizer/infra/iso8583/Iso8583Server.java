@@ -0,0 +1,345 @@
+package com.issuingbank.authorizer.infra.iso8583;
+
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ISO-8583 listener for the card network, replacing the HTTP/JSON hop through the gateway.
+ * <p>
+ * Every message is preceded by a 2 byte big-endian length. Connections are persistent and the network
+ * pipelines requests on them: each request is handed to a virtual thread as soon as it is framed, and
+ * responses are written back in request order, so a slow authorization delays the responses behind it on
+ * the same connection but not their processing. One selector thread does all the socket I/O. When a
+ * connection has max-in-flight-per-connection requests being processed it is no longer read, and TCP flow
+ * control pushes back on the network.
+ * <p>
+ * A frame that cannot be parsed is answered by closing the connection once the responses before it are written.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "authorizer.iso8583", name = "enabled", havingValue = "true")
+public class Iso8583Server {
+    private static final int LENGTH_PREFIX = 2;
+    private static final int MAX_FRAME_LENGTH = 0xFFFF;
+
+    private final Iso8583AuthorizationHandler handler;
+    private final AuthorizerProperties.Iso8583 properties;
+    private final Queue<Connection> completed = new ConcurrentLinkedQueue<>();
+
+    private ExecutorService executor;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    public Iso8583Server(Iso8583AuthorizationHandler handler, AuthorizerProperties properties) {
+        this.handler = handler;
+        this.properties = properties.getIso8583();
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(properties.getPort()), properties.getBacklog());
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the ISO-8583 listener on port " + properties.getPort(), e);
+        }
+
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("iso8583-", 0).factory());
+        running = true;
+        selectorThread = Thread.ofPlatform()
+                .name("iso8583-selector")
+                .daemon(true)
+                .start(this::loop);
+
+        log.info("ISO-8583 listener started on port {}", localPort());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+
+        if (selector == null) {
+            return;
+        }
+
+        selector.wakeup();
+
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        executor.shutdownNow();
+    }
+
+    public int localPort() {
+        try {
+            return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void loop() {
+        try {
+            while (running) {
+                selector.select();
+
+                for (Connection connection = completed.poll(); connection != null; connection = completed.poll()) {
+                    write(connection);
+                }
+
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+
+                    Connection connection = (Connection) key.attachment();
+
+                    if (key.isReadable()) {
+                        read(connection);
+                    }
+
+                    if (key.isValid() && key.isWritable()) {
+                        write(connection);
+                    }
+                }
+
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("ISO-8583 listener stopped", e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+
+        if (channel == null) {
+            return;
+        }
+
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+
+        Connection connection = new Connection(channel, LENGTH_PREFIX + properties.getMaxMessageLength());
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        log.info("ISO-8583 connection from {}", channel.getRemoteAddress());
+    }
+
+    private void read(Connection connection) {
+        try {
+            if (connection.channel.read(connection.readBuffer) < 0) {
+                close(connection);
+                return;
+            }
+
+            dispatchFrames(connection);
+        } catch (IOException e) {
+            log.warn("ISO-8583 connection {} failed while reading", connection, e);
+            close(connection);
+        }
+    }
+
+    /**
+     * Hands every complete frame in the read buffer to a virtual thread, up to max-in-flight-per-connection.
+     */
+    private void dispatchFrames(Connection connection) {
+        ByteBuffer buffer = connection.readBuffer;
+        buffer.flip();
+
+        while (connection.pending.size() < properties.getMaxInFlightPerConnection() && buffer.remaining() >= LENGTH_PREFIX) {
+            int length = buffer.getShort(buffer.position()) & MAX_FRAME_LENGTH;
+
+            if (length > properties.getMaxMessageLength()) {
+                log.warn("ISO-8583 connection {} sent a {} byte message, maximum is {}", connection, length, properties.getMaxMessageLength());
+                close(connection);
+                return;
+            }
+
+            if (buffer.remaining() < LENGTH_PREFIX + length) {
+                break;
+            }
+
+            byte[] frame = new byte[length];
+            buffer.position(buffer.position() + LENGTH_PREFIX);
+            buffer.get(frame);
+
+            PendingResponse pendingResponse = new PendingResponse();
+            connection.pending.add(pendingResponse);
+            executor.execute(() -> process(connection, frame, pendingResponse));
+        }
+
+        buffer.compact();
+        updateInterest(connection);
+    }
+
+    private void process(Connection connection, byte[] frame, PendingResponse pendingResponse) {
+        try {
+            byte[] body = handler.handle(frame);
+            byte[] response = new byte[LENGTH_PREFIX + body.length];
+            response[0] = (byte) (body.length >>> 8);
+            response[1] = (byte) body.length;
+            System.arraycopy(body, 0, response, LENGTH_PREFIX, body.length);
+            pendingResponse.response = response;
+        } catch (RuntimeException e) {
+            log.warn("Closing ISO-8583 connection {}, message could not be handled: {}", connection, e.getMessage());
+            pendingResponse.failed = true;
+        }
+
+        completed.add(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * Writes the responses at the head of the connection, stopping at the first one still being processed.
+     */
+    private void write(Connection connection) {
+        if (!connection.key.isValid()) {
+            return;
+        }
+
+        try {
+            while (true) {
+                if (connection.writeBuffer != null) {
+                    connection.channel.write(connection.writeBuffer);
+
+                    if (connection.writeBuffer.hasRemaining()) {
+                        break;
+                    }
+
+                    connection.writeBuffer = null;
+                }
+
+                PendingResponse head = connection.pending.peek();
+
+                if (head == null || !head.isDone()) {
+                    break;
+                }
+
+                if (head.failed) {
+                    close(connection);
+                    return;
+                }
+
+                connection.pending.poll();
+                connection.writeBuffer = ByteBuffer.wrap(head.response);
+            }
+        } catch (IOException e) {
+            log.warn("ISO-8583 connection {} failed while writing", connection, e);
+            close(connection);
+            return;
+        }
+
+        // frames left in the read buffer while the connection was at its in-flight limit
+        dispatchFrames(connection);
+    }
+
+    private void updateInterest(Connection connection) {
+        if (!connection.key.isValid()) {
+            return;
+        }
+
+        int interest = 0;
+
+        if (connection.pending.size() < properties.getMaxInFlightPerConnection()) {
+            interest |= SelectionKey.OP_READ;
+        }
+
+        if (connection.writeBuffer != null) {
+            interest |= SelectionKey.OP_WRITE;
+        }
+
+        connection.key.interestOps(interest);
+    }
+
+    private void close(Connection connection) {
+        connection.key.cancel();
+
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            log.debug("Could not close ISO-8583 connection {}", connection, e);
+        }
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                log.debug("Could not close ISO-8583 channel", e);
+            }
+        }
+
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.debug("Could not close the ISO-8583 selector", e);
+        }
+    }
+
+    /**
+     * State of one network connection; only touched by the selector thread.
+     */
+    private static final class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer readBuffer;
+        private final Queue<PendingResponse> pending = new ArrayDeque<>();
+        private SelectionKey key;
+        private ByteBuffer writeBuffer;
+
+        private Connection(SocketChannel channel, int readBufferSize) {
+            this.channel = channel;
+            this.readBuffer = ByteBuffer.allocate(readBufferSize);
+        }
+
+        @Override
+        public String toString() {
+            return channel.socket().getRemoteSocketAddress() == null ? "closed" : channel.socket().getRemoteSocketAddress().toString();
+        }
+    }
+
+    /**
+     * Written by the virtual thread processing the request, read by the selector thread.
+     */
+    private static final class PendingResponse {
+        private volatile byte[] response;
+        private volatile boolean failed;
+
+        private boolean isDone() {
+            return response != null || failed;
+        }
+    }
+}
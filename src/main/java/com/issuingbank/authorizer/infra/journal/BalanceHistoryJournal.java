@@ -0,0 +1,339 @@
+package com.issuingbank.authorizer.infra.journal;
+
+import com.issuingbank.authorizer.domain.balance.BalanceHistory;
+import com.issuingbank.authorizer.domain.transaction.Transaction;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only local journal of balance_history rows, split in segments.
+ * Records are appended to a single {@code .open} segment, which is renamed to {@code .log} (sealed) when it
+ * gets too big or too old. Only sealed segments are read by {@link BalanceHistoryJournalFlusher}.
+ * <p>
+ * One record per line: {@code transactionId;account;previousWallets;newWallets;createdAt}, wallets as comma
+ * separated cents in {@link com.issuingbank.authorizer.domain.balance.BalanceType} order.
+ * <p>
+ * With fsync, appends are forced to disk in groups: records are written under the journal lock, and each caller
+ * then waits, outside it, until a force covers its record. The first waiter forces everything written so far and
+ * releases the others with it, so concurrent authorizations share one disk flush instead of queueing one each.
+ */
+@Slf4j
+@Component
+public class BalanceHistoryJournal implements MeterBinder {
+    static final String OPEN_SUFFIX = ".open";
+    static final String SEALED_SUFFIX = ".log";
+    private static final String SEGMENT_PREFIX = "balance-history-";
+    private static final String SEPARATOR = ";";
+    private static final String WALLET_SEPARATOR = ",";
+    private static final int FIELDS = 5;
+
+    private final AuthorizerProperties.Journal properties;
+    private final Path directory;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private final AtomicLong durableRecords = new AtomicLong();
+
+    private long appendedRecords;
+
+    private FileChannel channel;
+    private Path openSegment;
+    private int openSegmentRecords;
+    private Instant openSegmentCreatedAt;
+    private long segmentSequence;
+    private boolean recovered;
+
+    @Autowired
+    public BalanceHistoryJournal(AuthorizerProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    public BalanceHistoryJournal(AuthorizerProperties properties, Clock clock) {
+        this.properties = properties.getBalanceHistory().getJournal();
+        this.directory = Path.of(this.properties.getDirectory());
+        this.clock = clock;
+    }
+
+    /**
+     * Appends the row and, when fsync is enabled, waits until it is forced to disk before returning.
+     * Must be called after the transaction has an id.
+     */
+    public void append(BalanceHistory balanceHistory) {
+        ByteBuffer record = ByteBuffer.wrap(encode(balanceHistory).getBytes(StandardCharsets.UTF_8));
+        long sequence;
+
+        lock.lock();
+        try {
+            if (channel == null) {
+                openSegment();
+            }
+
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            sequence = ++appendedRecords;
+
+            if (++openSegmentRecords >= properties.getSegmentMaxRecords()) {
+                seal();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to the balance history journal", e);
+        } finally {
+            lock.unlock();
+        }
+
+        if (properties.isFsync()) {
+            awaitDurable(sequence);
+        }
+    }
+
+    /**
+     * Seals the open segment once it is older than segment-max-age, so a quiet node still gets its
+     * last records flushed.
+     */
+    public void sealIfExpired() {
+        lock.lock();
+        try {
+            if (channel != null && openSegmentCreatedAt.plus(properties.getSegmentMaxAge()).isBefore(clock.instant())) {
+                seal();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not seal the balance history journal segment", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return sealed segments, oldest first
+     */
+    public List<Path> sealedSegments() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEALED_SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list the balance history journal", e);
+        }
+    }
+
+    /**
+     * Reads a sealed segment. A torn last line, left by a crash in the middle of an append, is skipped.
+     */
+    public List<BalanceHistory> read(Path segment) {
+        try (Stream<String> lines = Files.lines(segment, StandardCharsets.UTF_8)) {
+            List<BalanceHistory> records = new ArrayList<>();
+            lines.forEach(line -> decode(line).ifPresentOrElse(records::add,
+                    () -> log.warn("Skipping unreadable balance history journal record in {}: {}", segment, line)));
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read balance history journal segment " + segment, e);
+        }
+    }
+
+    public void delete(Path segment) {
+        try {
+            Files.deleteIfExists(segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete balance history journal segment " + segment, e);
+        }
+    }
+
+    /**
+     * Segments left open by a previous run are sealed so the flusher picks them up.
+     */
+    public void recover() {
+        lock.lock();
+        try {
+            if (recovered) {
+                return;
+            }
+
+            recovered = true;
+
+            if (!Files.isDirectory(directory)) {
+                return;
+            }
+
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(f -> f.getFileName().toString().endsWith(OPEN_SUFFIX)).toList()) {
+                    if (!file.equals(openSegment)) {
+                        Files.move(file, sealedName(file), StandardCopyOption.ATOMIC_MOVE);
+                        log.info("Sealed balance history journal segment {} left open by a previous run", file);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover the balance history journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            if (channel != null) {
+                seal();
+            }
+        } catch (IOException e) {
+            log.error("Could not seal the balance history journal segment {}", openSegment, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("authorizer.balance-history.journal.sealed-segments", () -> sealedSegments().size())
+                .description("Sealed balance_history journal segments waiting to be flushed to PostgreSQL")
+                .register(registry);
+    }
+
+    /**
+     * Returns once the first {@code sequence} records appended are on disk. Whoever takes the force lock first
+     * forces every record written until then; the waiters behind it find their record covered and return.
+     */
+    private void awaitDurable(long sequence) {
+        while (durableRecords.get() < sequence) {
+            forceLock.lock();
+            try {
+                if (durableRecords.get() >= sequence) {
+                    return;
+                }
+
+                long written;
+                FileChannel writtenTo;
+                lock.lock();
+                try {
+                    written = appendedRecords;
+                    writtenTo = channel;
+                } finally {
+                    lock.unlock();
+                }
+
+                // a null or closed channel was sealed, and seal forces the segment and marks its records durable
+                if (writtenTo != null) {
+                    writtenTo.force(false);
+                    durableRecords.accumulateAndGet(written, Math::max);
+                }
+            } catch (ClosedChannelException e) {
+                log.debug("Balance history journal segment sealed while being forced");
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not force the balance history journal", e);
+            } finally {
+                forceLock.unlock();
+            }
+        }
+    }
+
+    private void openSegment() throws IOException {
+        recover();
+        Files.createDirectories(directory);
+
+        openSegmentCreatedAt = clock.instant();
+        openSegment = directory.resolve(String.format("%s%019d-%06d%s",
+                SEGMENT_PREFIX, openSegmentCreatedAt.toEpochMilli(), segmentSequence++ % 1_000_000, OPEN_SUFFIX));
+        openSegmentRecords = 0;
+        channel = FileChannel.open(openSegment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void seal() throws IOException {
+        channel.force(true);
+        durableRecords.accumulateAndGet(appendedRecords, Math::max);
+        channel.close();
+        channel = null;
+
+        Files.move(openSegment, sealedName(openSegment), StandardCopyOption.ATOMIC_MOVE);
+        openSegment = null;
+    }
+
+    private static Path sealedName(Path openSegment) {
+        String name = openSegment.getFileName().toString();
+        return openSegment.resolveSibling(name.substring(0, name.length() - OPEN_SUFFIX.length()) + SEALED_SUFFIX);
+    }
+
+    static String encode(BalanceHistory balanceHistory) {
+        return String.join(SEPARATOR,
+                String.valueOf(balanceHistory.getTransaction().getId()),
+                balanceHistory.getAccount(),
+                encodeWallets(balanceHistory.getPreviousWallets()),
+                encodeWallets(balanceHistory.getNewWallets()),
+                balanceHistory.getCreatedAt().toString()) + "\n";
+    }
+
+    static Optional<BalanceHistory> decode(String line) {
+        String[] fields = line.split(SEPARATOR, -1);
+
+        if (fields.length != FIELDS) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(BalanceHistory.builder()
+                    .transaction(Transaction.builder().id(Long.parseLong(fields[0])).build())
+                    .account(fields[1])
+                    .previousWallets(decodeWallets(fields[2]))
+                    .newWallets(decodeWallets(fields[3]))
+                    .createdAt(Instant.parse(fields[4]))
+                    .build());
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String encodeWallets(long[] wallets) {
+        StringBuilder encoded = new StringBuilder();
+
+        for (int i = 0; i < wallets.length; i++) {
+            if (i > 0) {
+                encoded.append(WALLET_SEPARATOR);
+            }
+
+            encoded.append(wallets[i]);
+        }
+
+        return encoded.toString();
+    }
+
+    private static long[] decodeWallets(String field) {
+        String[] values = field.split(WALLET_SEPARATOR, -1);
+        long[] wallets = new long[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            wallets[i] = Long.parseLong(values[i]);
+        }
+
+        return wallets;
+    }
+}
@@ -0,0 +1,87 @@
+package com.issuingbank.authorizer.infra.journal;
+
+import com.issuingbank.authorizer.domain.balance.BalanceHistory;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.repositories.JournaledBalanceHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves sealed journal segments into balance_history in batches and deletes each segment once all of
+ * its rows are committed. A crash between the commit and the delete replays the segment, which the
+ * repository deduplicates on transaction_id.
+ */
+@Slf4j
+@Component
+public class BalanceHistoryJournalFlusher {
+    private final BalanceHistoryJournal journal;
+    private final JournaledBalanceHistoryRepository journaledBalanceHistoryRepository;
+    private final AuthorizerProperties.Journal properties;
+    private final Clock clock;
+
+    @Autowired
+    public BalanceHistoryJournalFlusher(BalanceHistoryJournal journal, JournaledBalanceHistoryRepository journaledBalanceHistoryRepository,
+                                        AuthorizerProperties properties) {
+        this(journal, journaledBalanceHistoryRepository, properties, Clock.systemUTC());
+    }
+
+    public BalanceHistoryJournalFlusher(BalanceHistoryJournal journal, JournaledBalanceHistoryRepository journaledBalanceHistoryRepository,
+                                        AuthorizerProperties properties, Clock clock) {
+        this.journal = journal;
+        this.journaledBalanceHistoryRepository = journaledBalanceHistoryRepository;
+        this.properties = properties.getBalanceHistory().getJournal();
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${authorizer.balance-history.journal.flush-interval:1s}")
+    public void flush() {
+        journal.recover();
+        journal.sealIfExpired();
+
+        Instant sealedBefore = clock.instant().minus(properties.getGracePeriod());
+
+        for (Path segment : journal.sealedSegments()) {
+            if (!lastModified(segment).isBefore(sealedBefore)) {
+                // segments are ordered by creation, so the next ones are newer
+                return;
+            }
+
+            flush(segment);
+        }
+    }
+
+    private void flush(Path segment) {
+        List<BalanceHistory> records = journal.read(segment);
+        int inserted = 0;
+
+        for (int from = 0; from < records.size(); from += properties.getBatchSize()) {
+            List<BalanceHistory> batch = records.subList(from, Math.min(records.size(), from + properties.getBatchSize()));
+            inserted += journaledBalanceHistoryRepository.insertAll(batch);
+        }
+
+        journal.delete(segment);
+
+        if (inserted < records.size()) {
+            log.info("Flushed {} of {} balance history records from {}, the others were already flushed or rolled back",
+                    inserted, records.size(), segment.getFileName());
+        }
+    }
+
+    private static Instant lastModified(Path segment) {
+        try {
+            return Files.getLastModifiedTime(segment).toInstant();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the modification time of " + segment, e);
+        }
+    }
+}
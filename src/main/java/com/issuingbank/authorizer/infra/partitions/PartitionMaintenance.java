@@ -0,0 +1,254 @@
+package com.issuingbank.authorizer.infra.partitions;
+
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.repositories.PartitionRepository;
+import com.issuingbank.authorizer.infra.repositories.PartitionRepository.Partition;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter;
+import com.issuingbank.authorizer.infra.sharding.ShardContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Keeps the monthly partitions of transaction and balance_history (see V12): creates the partitions of the
+ * current month and of the next {@code premake-months}, and detaches, optionally dropping, the partitions whose
+ * whole range is older than {@code retention-months}. Months are UTC, like created_at.
+ * <p>
+ * The partitions of each table of each shard are created in one transaction and each expired partition is
+ * detached in another, so the ACCESS EXCLUSIVE lock of the DETACH is held only for the DETACH itself. Every one of
+ * them takes an advisory lock so only one node runs at a time, and a lock timeout so the DDL gives up instead of
+ * queueing inserts behind it. The idempotency keys of the detached transactions, and the idempotent responses older
+ * than the retention, are deleted afterwards in short batches. A failed step is retried on the next run.
+ */
+@Slf4j
+@Component
+public class PartitionMaintenance {
+    private static final List<String> TABLES = List.of("transaction", "balance_history");
+
+    private final PartitionRepository partitionRepository;
+    private final AccountShardRouter accountShardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthorizerProperties.Partitions properties;
+    private final Clock clock;
+
+    @Autowired
+    public PartitionMaintenance(PartitionRepository partitionRepository, AccountShardRouter accountShardRouter,
+                                PlatformTransactionManager transactionManager, AuthorizerProperties properties) {
+        this(partitionRepository, accountShardRouter, transactionManager, properties, Clock.systemUTC());
+    }
+
+    public PartitionMaintenance(PartitionRepository partitionRepository, AccountShardRouter accountShardRouter,
+                                PlatformTransactionManager transactionManager, AuthorizerProperties properties, Clock clock) {
+        this.partitionRepository = partitionRepository;
+        this.accountShardRouter = accountShardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties.getPartitions();
+        this.clock = clock;
+    }
+
+    public record Plan(List<YearMonth> create, List<Partition> expire) {
+    }
+
+    /**
+     * @param partitions current partitions of one table
+     */
+    public static Plan plan(List<Partition> partitions, YearMonth currentMonth, int premakeMonths, int retentionMonths) {
+        List<YearMonth> create = new ArrayList<>();
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+
+            if (partitions.stream().noneMatch(partition -> overlaps(partition, start(month), start(month.plusMonths(1))))) {
+                create.add(month);
+            }
+        }
+
+        LocalDateTime retainedFrom = start(currentMonth.minusMonths(retentionMonths));
+        List<Partition> expire = partitions.stream()
+                .filter(partition -> !partition.isDefault() && partition.to() != null && !partition.to().isAfter(retainedFrom))
+                .toList();
+
+        return new Plan(create, expire);
+    }
+
+    @Scheduled(fixedDelayString = "${authorizer.partitions.maintenance-interval:1h}", initialDelayString = "10s")
+    public void maintain() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        YearMonth currentMonth = YearMonth.now(clock.withZone(ZoneOffset.UTC));
+
+        for (String shard : accountShardRouter.shards()) {
+            for (String table : TABLES) {
+                try {
+                    ShardContext.runOn(shard, () -> maintain(table, currentMonth));
+                } catch (RuntimeException e) {
+                    log.error("Could not maintain the partitions of {} on shard {}, retrying on the next run", table, shard, e);
+                }
+            }
+
+            try {
+                ShardContext.runOn(shard, () -> purgeIdempotentResponses(start(currentMonth.minusMonths(properties.getRetentionMonths()))));
+            } catch (RuntimeException e) {
+                log.error("Could not purge idempotent responses on shard {}, retrying on the next run", shard, e);
+            }
+        }
+    }
+
+    private void maintain(String table, YearMonth currentMonth) {
+        List<Partition> partitions = transactionTemplate.execute(status -> createMissing(table, currentMonth));
+        if (partitions == null) {
+            log.debug("Partitions of {} are being maintained by another node", table);
+            return;
+        }
+
+        List<Partition> attached = new ArrayList<>(partitions);
+        for (Partition partition : plan(partitions, currentMonth, properties.getPremakeMonths(), properties.getRetentionMonths()).expire()) {
+            if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> expire(table, partition)))) {
+                return;
+            }
+
+            attached.remove(partition);
+        }
+
+        if ("transaction".equals(table)) {
+            releaseIdempotencyKeys(attached, start(currentMonth.minusMonths(properties.getRetentionMonths())));
+        }
+    }
+
+    /**
+     * @return the partitions before the creation, null when another node holds the maintenance lock
+     */
+    private List<Partition> createMissing(String table, YearMonth currentMonth) {
+        if (!partitionRepository.tryLockMaintenance()) {
+            return null;
+        }
+
+        partitionRepository.setLockTimeout(properties.getLockTimeout());
+
+        List<Partition> partitions = partitionRepository.findPartitions(table);
+        Plan plan = plan(partitions, currentMonth, properties.getPremakeMonths(), properties.getRetentionMonths());
+
+        for (YearMonth month : plan.create()) {
+            String partition = "%s_%d_%02d".formatted(table, month.getYear(), month.getMonthValue());
+            partitionRepository.create(table, partition, start(month), start(month.plusMonths(1)));
+            log.info("Created partition {}", partition);
+        }
+
+        partitions.stream()
+                .filter(Partition::isDefault)
+                .filter(partition -> partitionRepository.hasRows(partition.name()))
+                .forEach(partition -> log.warn("Default partition {} has rows: a month is missing its partition", partition.name()));
+
+        return partitions;
+    }
+
+    /**
+     * The DETACH holds ACCESS EXCLUSIVE on the table until commit, so each partition is detached in a
+     * transaction of its own with nothing after it.
+     *
+     * @return false when another node took over the maintenance
+     */
+    private boolean expire(String table, Partition partition) {
+        if (!partitionRepository.tryLockMaintenance()) {
+            return false;
+        }
+
+        partitionRepository.setLockTimeout(properties.getLockTimeout());
+
+        if (!partitionRepository.findPartitions(table).contains(partition)) {
+            return false;
+        }
+
+        partitionRepository.detach(table, partition.name());
+
+        if (properties.isDropExpired()) {
+            partitionRepository.drop(partition.name());
+            log.info("Detached and dropped expired partition {}", partition.name());
+        } else {
+            log.info("Detached expired partition {}, it is kept as a standalone table", partition.name());
+        }
+
+        return true;
+    }
+
+    /**
+     * Releases the keys older than every partition still attached, in short batches that take no lock on
+     * transaction. It runs on every pass, so a release interrupted after the DETACH resumes on the next one.
+     */
+    private void releaseIdempotencyKeys(List<Partition> attached, LocalDateTime retainedFrom) {
+        LocalDateTime releasedBefore = retainedFrom;
+        for (Partition partition : attached) {
+            if (partition.isDefault()) {
+                continue;
+            }
+
+            if (partition.from() == null) {
+                return;
+            }
+
+            if (partition.from().isBefore(releasedBefore)) {
+                releasedBefore = partition.from();
+            }
+        }
+
+        LocalDateTime createdBefore = releasedBefore;
+        int released = deleteInBatches(batchSize -> partitionRepository.deleteIdempotencyKeysBefore(createdBefore, batchSize));
+
+        if (released > 0) {
+            log.info("Released {} idempotency keys of transactions before {}", released, createdBefore);
+        }
+    }
+
+    /**
+     * idempotent_response is not partitioned: its rows older than the retention are deleted like the keys, in
+     * short batches.
+     */
+    private void purgeIdempotentResponses(LocalDateTime createdBefore) {
+        int purged = deleteInBatches(batchSize -> partitionRepository.deleteIdempotentResponsesBefore(createdBefore, batchSize));
+
+        if (purged > 0) {
+            log.info("Purged {} idempotent responses before {}", purged, createdBefore);
+        }
+    }
+
+    /**
+     * Runs {@code deleteBatch} with {@code release-batch-size}, each call in a transaction of its own, until a
+     * call deletes less than a full batch.
+     */
+    private int deleteInBatches(IntUnaryOperator deleteBatch) {
+        int batchSize = properties.getReleaseBatchSize();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> deleteBatch.applyAsInt(batchSize));
+            total += deleted;
+        } while (deleted > 0 && deleted == batchSize);
+
+        return total;
+    }
+
+    private static boolean overlaps(Partition partition, LocalDateTime from, LocalDateTime to) {
+        if (partition.isDefault()) {
+            return false;
+        }
+
+        return (partition.from() == null || partition.from().isBefore(to))
+                && (partition.to() == null || partition.to().isAfter(from));
+    }
+
+    private static LocalDateTime start(YearMonth month) {
+        return month.atDay(1).atStartOfDay();
+    }
+}
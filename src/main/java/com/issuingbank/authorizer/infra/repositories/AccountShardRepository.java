@@ -0,0 +1,267 @@
+package com.issuingbank.authorizer.infra.repositories;
+
+import com.issuingbank.authorizer.infra.sharding.ShardContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * account_shard, on the first shard, and the copy of an account's rows between shards.
+ */
+@Slf4j
+@Repository
+public class AccountShardRepository {
+    /**
+     * Every table with rows of an account. transaction_idempotency_key is filled by the trigger of transaction.
+     */
+    private static final List<String> HISTORY_TABLES = List.of("transaction", "balance_history", "idempotent_response", "ledger_posting");
+    private static final int COPY_BATCH_SIZE = 500;
+
+    /**
+     * Rows written while the unlocked copy ran carry the instant their authorization started, which may be up to
+     * its timeout, plus the clock skew between nodes, before they commit.
+     */
+    private static final Duration COMMIT_MARGIN = Duration.ofMinutes(1);
+
+    private static final String SELECT_OVERRIDES = "SELECT account, shard, moved_at FROM account_shard";
+    private static final String UPSERT_OVERRIDE = """
+            INSERT INTO account_shard (account, shard, moved_at)
+            VALUES (?, ?, ?)
+            ON CONFLICT (account) DO UPDATE SET shard = EXCLUDED.shard, moved_at = EXCLUDED.moved_at
+            """;
+    private static final String LOCK_BALANCE = "SELECT id FROM balance WHERE account = ? FOR UPDATE";
+    private static final String DELETE_IDEMPOTENCY_KEYS = """
+            DELETE FROM transaction_idempotency_key k
+             USING transaction t
+             WHERE t.account = ?
+               AND k.transaction_id = t.id
+               AND k.created_at = t.created_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    public AccountShardRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = jdbcTemplate.getDataSource();
+    }
+
+    /**
+     * An account_shard row: the shard the account was moved to and when its move started.
+     */
+    public record ShardOverride(String shard, Instant movedAt) {
+    }
+
+    public Map<String, ShardOverride> findOverrides() {
+        Map<String, ShardOverride> overrides = new HashMap<>();
+        jdbcTemplate.query(SELECT_OVERRIDES, rs -> {
+            overrides.put(rs.getString("account"), new ShardOverride(rs.getString("shard"),
+                    rs.getObject("moved_at", LocalDateTime.class).toInstant(ZoneOffset.UTC)));
+        });
+        return overrides;
+    }
+
+    /**
+     * Runs in its own transaction, committed when it returns.
+     */
+    public void saveOverride(String account, String shard, Instant movedAt) {
+        withConnection(null, connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_OVERRIDE)) {
+                statement.setString(1, account);
+                statement.setString(2, shard);
+                statement.setTimestamp(3, Timestamp.valueOf(LocalDateTime.ofInstant(movedAt, ZoneOffset.UTC)));
+                statement.executeUpdate();
+            }
+            connection.commit();
+            return null;
+        });
+    }
+
+    public int deleteOverrides(List<String> accounts) {
+        return withConnection(null, connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("DELETE FROM account_shard WHERE account = ANY(?)")) {
+                statement.setArray(1, connection.createArrayOf("varchar", accounts.toArray()));
+                int deleted = statement.executeUpdate();
+                connection.commit();
+                return deleted;
+            }
+        });
+    }
+
+    /**
+     * @return accounts of the shard after the given one, in account order
+     */
+    public List<String> findAccounts(String shard, String after, int limit) {
+        return ShardContext.callOn(shard, () -> jdbcTemplate.queryForList(
+                "SELECT account FROM balance WHERE account > ? ORDER BY account LIMIT ?", String.class, after != null ? after : "", limit));
+    }
+
+    /**
+     * Copies the account to the target shard and removes it from the source one, while its authorizations wait.
+     * <ol>
+     * <li>The history is copied without locks, since it only grows;</li>
+     * <li>the account is locked on the source, like an authorization would, and the history written since then
+     * is copied with the balance row, committed on the target;</li>
+     * <li>the balance row of the source is deleted and the lock released: authorizations that waited on it fail
+     * to find the account and are answered with an error, as are those of nodes that have not reloaded the
+     * routing yet. From here the account can only be debited on the target, even if the rest fails;</li>
+     * <li>{@code onCopied} runs to route the account to the target;</li>
+     * <li>the history of the source is deleted.</li>
+     * </ol>
+     * History rows already on the target are skipped and its balance row is replaced, so a move that failed
+     * before the source balance row was deleted can be run again. One that failed after it finds the balance row
+     * on the target only and resumes at {@code onCopied}.
+     */
+    public void moveAccount(String account, String source, String target, Instant startedAt, Runnable onCopied) {
+        withConnection(source, from -> withConnection(target, to -> {
+            for (String table : HISTORY_TABLES) {
+                copy(from, to, table, account, null);
+            }
+            to.commit();
+            from.rollback();
+
+            lock(from, account);
+            if (exists(from, account)) {
+                Timestamp since = Timestamp.valueOf(LocalDateTime.ofInstant(startedAt.minus(COMMIT_MARGIN), ZoneOffset.UTC));
+                for (String table : HISTORY_TABLES) {
+                    copy(from, to, table, account, since);
+                }
+                execute(to, "DELETE FROM balance WHERE account = ?", account);
+                copy(from, to, "balance", account, null);
+                to.commit();
+
+                execute(from, "DELETE FROM balance WHERE account = ?", account);
+                from.commit();
+            } else if (exists(to, account)) {
+                from.rollback();
+                log.info("Resuming the move of account {} to shard {}, its balance is already there", account, target);
+            } else {
+                throw new IllegalArgumentException("Account " + account + " not found on shard " + source);
+            }
+
+            onCopied.run();
+
+            execute(from, DELETE_IDEMPOTENCY_KEYS, account);
+            for (String table : HISTORY_TABLES) {
+                execute(from, "DELETE FROM " + table + " WHERE account = ?", account);
+            }
+            from.commit();
+            return null;
+        }));
+    }
+
+    private static boolean exists(Connection connection, String account) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM balance WHERE account = ?")) {
+            statement.setString(1, account);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static void lock(Connection connection, String account) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(LedgerRepository.LOCK_ACCOUNT)) {
+            statement.setInt(1, LedgerRepository.ACCOUNT_LOCK_CLASS);
+            statement.setString(2, account);
+            statement.executeQuery().close();
+        }
+        execute(connection, LOCK_BALANCE, account);
+    }
+
+    /**
+     * @param since null to copy every row of the account
+     * @return rows read from the source, copied or already on the target
+     */
+    private static int copy(Connection from, Connection to, String table, String account, Timestamp since) throws SQLException {
+        String sql = "SELECT * FROM " + table + " WHERE account = ?" + (since != null ? " AND created_at >= ?" : "");
+        int rows = 0;
+
+        try (PreparedStatement select = from.prepareStatement(sql)) {
+            select.setFetchSize(COPY_BATCH_SIZE);
+            select.setString(1, account);
+            if (since != null) {
+                select.setTimestamp(2, since);
+            }
+
+            try (ResultSet rs = select.executeQuery()) {
+                ResultSetMetaData metadata = rs.getMetaData();
+                StringJoiner columns = new StringJoiner(", ");
+                StringJoiner values = new StringJoiner(", ");
+                for (int i = 1; i <= metadata.getColumnCount(); i++) {
+                    columns.add(metadata.getColumnName(i));
+                    values.add("?");
+                }
+
+                String insert = "INSERT INTO " + table + " (" + columns + ") VALUES (" + values + ") ON CONFLICT DO NOTHING";
+                try (PreparedStatement statement = to.prepareStatement(insert)) {
+                    while (rs.next()) {
+                        for (int i = 1; i <= metadata.getColumnCount(); i++) {
+                            statement.setObject(i, rs.getObject(i));
+                        }
+                        statement.addBatch();
+
+                        if (++rows % COPY_BATCH_SIZE == 0) {
+                            statement.executeBatch();
+                        }
+                    }
+                    statement.executeBatch();
+                }
+            }
+        }
+
+        return rows;
+    }
+
+    private static void execute(Connection connection, String sql, String account) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, account);
+            statement.execute();
+        }
+    }
+
+    private interface ConnectionWork<T> {
+        T run(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Borrows a connection of the shard, null for the first one, outside any Spring transaction. Whatever the
+     * work leaves uncommitted is rolled back.
+     */
+    private <T> T withConnection(String shard, ConnectionWork<T> work) {
+        try (Connection connection = ShardContext.callOn(shard, this::borrow)) {
+            connection.setAutoCommit(false);
+
+            try {
+                return work.run(connection);
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not move account rows", e);
+        }
+    }
+
+    private Connection borrow() {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not connect to shard " + ShardContext.current(), e);
+        }
+    }
+}
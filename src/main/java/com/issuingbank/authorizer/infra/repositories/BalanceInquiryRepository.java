@@ -0,0 +1,203 @@
+package com.issuingbank.authorizer.infra.repositories;
+
+import com.issuingbank.authorizer.application.balance.BalanceSnapshot;
+import com.issuingbank.authorizer.application.balance.StatementCursor;
+import com.issuingbank.authorizer.application.balance.StatementEntry;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Reads balance rows and account statements for inquiries through a small pool of its own, so inquiries
+ * never wait for, or hold, a connection of the authorization pool. Read-only, without row locks; balances are
+ * plain autocommit reads.
+ * The pool points to the primary unless {@code authorizer.balance-inquiry.url} points it to a replica. With
+ * sharding there is one such pool per shard, on the shard's replica when it has one.
+ * <p>
+ * The pool is not a DataSource bean, which would turn off the auto-configured primary DataSource.
+ */
+@Repository
+public class BalanceInquiryRepository {
+    private static final String POOL_NAME = "balance-inquiry";
+    private static final String SELECT_BALANCE = """
+            SELECT b.account, b.program, b.wallets, b.version, b.updated_at,
+                   lp.pending_count, lp.pending_wallets, lp.pending_amounts
+              FROM balance b
+             CROSS JOIN LATERAL (%s) lp
+            """.formatted(LedgerRepository.PENDING_POSTINGS);
+    private static final String SELECT_STATEMENT = """
+            SELECT id, transaction_id, created_at, previous_wallets, new_wallets
+              FROM balance_history
+             WHERE account = ?
+            """;
+    private static final String AFTER_CURSOR = """
+               AND created_at <= ?
+               AND (created_at, id) < (?, ?)
+            """;
+    private static final String STATEMENT_ORDER = """
+             ORDER BY created_at DESC, id DESC
+             LIMIT ?
+            """;
+
+    /**
+     * In LEDGER mode the balance row is a snapshot and the postings after it are applied; the version counts them
+     * as {@link com.issuingbank.authorizer.application.ledger.LedgerState#version} does.
+     */
+    private static final RowMapper<BalanceSnapshot> SNAPSHOT_MAPPER = (rs, rowNum) -> new BalanceSnapshot(
+            rs.getString("account"),
+            rs.getString("program"),
+            LedgerRepository.applyPending(rs, wallets(rs.getArray("wallets"))),
+            rs.getInt("version") + (int) LedgerRepository.pendingCount(rs),
+            instant(rs.getObject("updated_at", LocalDateTime.class)));
+
+    private final AccountShardRouter accountShardRouter;
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final Map<String, JdbcTemplate> jdbcTemplates = new HashMap<>();
+    private final int queryTimeoutSeconds;
+    private final int statementFetchSize;
+
+    public BalanceInquiryRepository(DataSourceProperties dataSourceProperties, AuthorizerProperties properties,
+                                    AccountShardRouter accountShardRouter, MeterRegistry meterRegistry) {
+        AuthorizerProperties.BalanceInquiry inquiry = properties.getBalanceInquiry();
+        this.accountShardRouter = accountShardRouter;
+        this.queryTimeoutSeconds = (int) Math.max(1, inquiry.getQueryTimeout().toSeconds());
+        this.statementFetchSize = properties.getStatement().getFetchSize();
+
+        accountShardRouter.readEndpoints(inquiry.getUrl()).forEach((shard, endpoint) -> {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(accountShardRouter.isEnabled() ? POOL_NAME + "-" + shard : POOL_NAME);
+            dataSource.setJdbcUrl(endpoint.url());
+            dataSource.setUsername(endpoint.username());
+            dataSource.setPassword(endpoint.password());
+            dataSource.setMaximumPoolSize(inquiry.getMaximumPoolSize());
+            dataSource.setMinimumIdle(inquiry.getMaximumPoolSize());
+            dataSource.setConnectionTimeout(inquiry.getConnectionTimeout().toMillis());
+            dataSource.setAutoCommit(true);
+            dataSource.setReadOnly(true);
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(dataSource);
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.setQueryTimeout(queryTimeoutSeconds);
+            jdbcTemplates.put(shard, jdbcTemplate);
+        });
+    }
+
+    public Optional<BalanceSnapshot> findByAccount(String account) {
+        return jdbcTemplate(account).query(SELECT_BALANCE + " WHERE b.account = ?", SNAPSHOT_MAPPER, account).stream().findFirst();
+    }
+
+    /**
+     * One query per shard holding any of the accounts.
+     */
+    public List<BalanceSnapshot> findAllByAccountIn(Collection<String> accounts) {
+        Map<String, List<String>> accountsByShard = accounts.stream().collect(Collectors.groupingBy(accountShardRouter::shardFor));
+        List<BalanceSnapshot> snapshots = new ArrayList<>();
+
+        accountsByShard.forEach((shard, shardAccounts) -> snapshots.addAll(jdbcTemplates.get(shard).query(
+                SELECT_BALANCE + " WHERE b.account = ANY(?)", SNAPSHOT_MAPPER, (Object) shardAccounts.toArray(String[]::new))));
+
+        return snapshots;
+    }
+
+    /**
+     * Hands the account's balance_history rows to the consumer as they are read, newest first, starting right
+     * after the cursor. Descends idx_balance_history_statement from the cursor, so a deep page costs the same as
+     * the first one; the extra bound on created_at lets the planner skip the newer partitions.
+     * <p>
+     * The driver only fetches {@code fetch-size} rows at a time inside a transaction, so this one connection leaves
+     * autocommit while the cursor is open.
+     *
+     * @param after null for the first page
+     */
+    public void streamStatement(String account, StatementCursor after, int limit, Consumer<StatementEntry> consumer) {
+        String sql = SELECT_STATEMENT + (after != null ? AFTER_CURSOR : "") + STATEMENT_ORDER;
+
+        jdbcTemplate(account).execute((ConnectionCallback<Void>) connection -> {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(statementFetchSize);
+                statement.setQueryTimeout(queryTimeoutSeconds);
+
+                int index = 1;
+                statement.setString(index++, account);
+                if (after != null) {
+                    Timestamp createdAt = Timestamp.valueOf(LocalDateTime.ofInstant(after.createdAt(), ZoneOffset.UTC));
+                    statement.setTimestamp(index++, createdAt);
+                    statement.setTimestamp(index++, createdAt);
+                    statement.setLong(index++, after.id());
+                }
+                statement.setInt(index, limit);
+
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(StatementEntry.of(
+                                rs.getLong("id"),
+                                rs.getLong("transaction_id"),
+                                instant(rs.getObject("created_at", LocalDateTime.class)),
+                                wallets(rs.getArray("previous_wallets")),
+                                wallets(rs.getArray("new_wallets"))));
+                    }
+                }
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private JdbcTemplate jdbcTemplate(String account) {
+        return jdbcTemplates.get(accountShardRouter.shardFor(account));
+    }
+
+    static long[] wallets(Array array) throws SQLException {
+        Long[] values = (Long[]) array.getArray();
+        long[] wallets = new long[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            wallets[i] = values[i];
+        }
+
+        return wallets;
+    }
+
+    /**
+     * Timestamps are stored in UTC (hibernate.jdbc.time_zone).
+     */
+    static Instant instant(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.toInstant(ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.issuingbank.authorizer.infra.repositories;
+
+import com.issuingbank.authorizer.domain.idempotency.IdempotentResponse;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface IdempotentResponseRepository extends JpaRepository<IdempotentResponse, UUID> {
+}
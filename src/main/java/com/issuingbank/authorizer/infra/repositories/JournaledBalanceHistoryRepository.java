@@ -0,0 +1,58 @@
+package com.issuingbank.authorizer.infra.repositories;
+
+import com.issuingbank.authorizer.domain.balance.BalanceHistory;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Batched inserts of balance_history rows replayed from the journal. Delivery is at-least-once, so a row
+ * already inserted is ignored through the unique constraint on (transaction_id, created_at). A row whose
+ * transaction does not exist belongs to an authorization that rolled back and is dropped.
+ * <p>
+ * The history row is never older than its transaction and at most a few seconds newer (journals written before
+ * history took the transaction's created_at), so the lookup only probes the partitions of the day before it.
+ */
+@Repository
+@AllArgsConstructor
+public class JournaledBalanceHistoryRepository {
+    private static final String INSERT_IF_COMMITTED = """
+            INSERT INTO balance_history (account, transaction_id, previous_wallets, new_wallets, created_at)
+            SELECT ?, ?, ?, ?, ?
+             WHERE EXISTS (SELECT 1 FROM transaction WHERE id = ? AND created_at BETWEEN CAST(? AS TIMESTAMP) - INTERVAL '1 day' AND ?)
+            ON CONFLICT (transaction_id, created_at) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return number of rows actually inserted
+     */
+    @Transactional
+    public int insertAll(List<BalanceHistory> balanceHistories) {
+        int[][] updateCounts = jdbcTemplate.batchUpdate(INSERT_IF_COMMITTED, balanceHistories, balanceHistories.size(), (ps, history) -> {
+            ps.setString(1, history.getAccount());
+            ps.setLong(2, history.getTransaction().getId());
+            // the PostgreSQL driver binds long[] as bigint[] without boxing
+            ps.setObject(3, history.getPreviousWallets());
+            ps.setObject(4, history.getNewWallets());
+            Timestamp createdAt = Timestamp.valueOf(LocalDateTime.ofInstant(history.getCreatedAt(), ZoneOffset.UTC));
+            ps.setTimestamp(5, createdAt);
+            ps.setLong(6, history.getTransaction().getId());
+            ps.setTimestamp(7, createdAt);
+            ps.setTimestamp(8, createdAt);
+        });
+
+        return Arrays.stream(updateCounts)
+                .flatMapToInt(Arrays::stream)
+                .map(count -> Math.max(count, 0))
+                .sum();
+    }
+}
@@ -0,0 +1,170 @@
+package com.issuingbank.authorizer.infra.repositories;
+
+import com.issuingbank.authorizer.application.ledger.LedgerState;
+import com.issuingbank.authorizer.domain.ledger.LedgerPosting;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ledger postings and balance snapshots of the LEDGER persistence mode. Runs on the authorization pool and
+ * joins the caller's transaction.
+ */
+@Repository
+@AllArgsConstructor
+public class LedgerRepository {
+    /**
+     * Postings after the snapshot of the balance aliased {@code b}, as one row whatever their number. Joined as
+     * {@code CROSS JOIN LATERAL (PENDING_POSTINGS) lp} and read with {@link #pendingCount} and {@link #applyPending}.
+     */
+    static final String PENDING_POSTINGS = """
+            SELECT COUNT(*) AS pending_count,
+                   COALESCE(ARRAY_AGG(p.wallet), '{}') AS pending_wallets,
+                   COALESCE(ARRAY_AGG(p.amount), '{}') AS pending_amounts,
+                   MAX(p.created_at) AS last_posted_at
+              FROM ledger_posting p
+             WHERE p.account = b.account
+               AND p.seq > b.ledger_seq
+            """;
+
+    /**
+     * Both keys of the two-key advisory lock space, which does not overlap the single bigint key one.
+     */
+    static final int ACCOUNT_LOCK_CLASS = 0x4C454447;
+    static final String LOCK_ACCOUNT = "SELECT pg_advisory_xact_lock(?, hashtext(?))";
+
+    private static final String SELECT_STATE = """
+            SELECT b.id, b.account, b.program, b.wallets, b.version, b.ledger_seq, b.created_at,
+                   GREATEST(b.updated_at, lp.last_posted_at) AS updated_at,
+                   lp.pending_count, lp.pending_wallets, lp.pending_amounts
+              FROM balance b
+             CROSS JOIN LATERAL (%s) lp
+             WHERE b.account = ?
+            """.formatted(PENDING_POSTINGS);
+    private static final String INSERT_POSTING = """
+            INSERT INTO ledger_posting (account, seq, wallet, amount, transaction_id, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+    private static final String SELECT_ACCOUNTS_TO_COMPACT = """
+            SELECT DISTINCT p.account
+              FROM ledger_posting p
+              JOIN balance b ON b.account = p.account
+             WHERE p.created_at >= ?
+               AND p.seq > b.ledger_seq
+             LIMIT ?
+            """;
+    private static final String UPDATE_SNAPSHOT = """
+            UPDATE balance
+               SET wallets    = ?,
+                   ledger_seq = ?,
+                   version    = version + ?,
+                   updated_at = GREATEST(updated_at, ?)
+             WHERE account = ?
+               AND ledger_seq = ?
+               AND version = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Serializes the authorizations of the account until the transaction ends. Unlike SELECT ... FOR UPDATE,
+     * it neither writes the balance row nor waits on it.
+     */
+    public void lockAccount(String account) {
+        jdbcTemplate.query(LOCK_ACCOUNT, rs -> null, ACCOUNT_LOCK_CLASS, account);
+    }
+
+    /**
+     * Reads the snapshot and the postings after it in one statement, so they are consistent with each other
+     * even while the snapshot is being compacted.
+     */
+    public Optional<LedgerState> findState(String account) {
+        List<LedgerState> states = jdbcTemplate.query(SELECT_STATE, (rs, rowNum) -> {
+            long snapshotSeq = rs.getLong("ledger_seq");
+            long pending = pendingCount(rs);
+
+            return new LedgerState(
+                    rs.getLong("id"),
+                    rs.getString("account"),
+                    rs.getString("program"),
+                    applyPending(rs, BalanceInquiryRepository.wallets(rs.getArray("wallets"))),
+                    rs.getInt("version") + (int) pending,
+                    snapshotSeq + pending,
+                    snapshotSeq,
+                    BalanceInquiryRepository.instant(rs.getObject("created_at", LocalDateTime.class)),
+                    BalanceInquiryRepository.instant(rs.getObject("updated_at", LocalDateTime.class)));
+        }, account);
+
+        return states.stream().findFirst();
+    }
+
+    public void append(LedgerPosting posting) {
+        jdbcTemplate.update(INSERT_POSTING,
+                posting.account(),
+                posting.seq(),
+                (short) posting.wallet().ordinal(),
+                posting.amount(),
+                posting.transactionId(),
+                Timestamp.valueOf(LocalDateTime.ofInstant(posting.createdAt(), ZoneOffset.UTC)));
+    }
+
+    /**
+     * @return accounts with postings written since the given instant that are not in their snapshot yet
+     */
+    public List<String> findAccountsToCompact(Instant postedSince, int limit) {
+        return jdbcTemplate.queryForList(SELECT_ACCOUNTS_TO_COMPACT, String.class,
+                Timestamp.valueOf(LocalDateTime.ofInstant(postedSince, ZoneOffset.UTC)), limit);
+    }
+
+    /**
+     * Moves the snapshot to the state. Postings never change and seq is dense, so the state folded up to its seq
+     * is final: authorizations appending after it are not affected and need not be locked out. The snapshot's
+     * version guards against a debit written straight to the row by another persistence mode, which the
+     * absolute wallets would otherwise erase.
+     *
+     * updated_at never moves back past the postings folded in, which later debits of the account are stamped after.
+     *
+     * @return false when another node moved or wrote the snapshot since the state was read
+     */
+    public boolean updateSnapshot(LedgerState state, Instant updatedAt) {
+        Instant lastDebitedAt = state.updatedAt() != null && state.updatedAt().isAfter(updatedAt) ? state.updatedAt() : updatedAt;
+
+        return jdbcTemplate.update(UPDATE_SNAPSHOT,
+                state.wallets(),
+                state.seq(),
+                (int) state.pendingPostings(),
+                Timestamp.valueOf(LocalDateTime.ofInstant(lastDebitedAt, ZoneOffset.UTC)),
+                state.account(),
+                state.snapshotSeq(),
+                state.version() - (int) state.pendingPostings()) == 1;
+    }
+
+    static long pendingCount(ResultSet rs) throws SQLException {
+        return rs.getLong("pending_count");
+    }
+
+    static long[] applyPending(ResultSet rs, long[] snapshotWallets) throws SQLException {
+        if (pendingCount(rs) == 0) {
+            return snapshotWallets;
+        }
+
+        Number[] wallets = (Number[]) rs.getArray("pending_wallets").getArray();
+        long[] amounts = BalanceInquiryRepository.wallets(rs.getArray("pending_amounts"));
+        int[] ordinals = new int[wallets.length];
+
+        for (int i = 0; i < wallets.length; i++) {
+            ordinals[i] = wallets[i].intValue();
+        }
+
+        return LedgerPosting.apply(snapshotWallets, ordinals, amounts);
+    }
+}
@@ -0,0 +1,40 @@
+package com.issuingbank.authorizer.infra.repositories;
+
+import com.issuingbank.authorizer.application.merchant.MccRule;
+import com.issuingbank.authorizer.application.merchant.WalletFallback;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the whole mcc_rule and wallet_fallback tables. They are small and only read when the rules are
+ * reloaded, never on the authorization path.
+ */
+@Repository
+@AllArgsConstructor
+public class MccRuleRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<MccRule> findAllRules() {
+        return jdbcTemplate.query("SELECT mcc_from, mcc_to, balance_type FROM mcc_rule ORDER BY id", (rs, rowNum) ->
+                new MccRule(rs.getInt("mcc_from"), rs.getInt("mcc_to"), BalanceType.valueOf(rs.getString("balance_type"))));
+    }
+
+    public List<WalletFallback> findAllFallbacks() {
+        return jdbcTemplate.query("SELECT program, balance_type, fallback_balance_types FROM wallet_fallback ORDER BY program, balance_type",
+                (rs, rowNum) -> new WalletFallback(rs.getString("program"), BalanceType.valueOf(rs.getString("balance_type")),
+                        balanceTypes(rs.getArray("fallback_balance_types"))));
+    }
+
+    private static List<BalanceType> balanceTypes(Array array) throws SQLException {
+        return Arrays.stream((String[]) array.getArray())
+                .map(BalanceType::valueOf)
+                .toList();
+    }
+}
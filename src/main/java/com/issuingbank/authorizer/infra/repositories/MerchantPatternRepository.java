@@ -0,0 +1,11 @@
+package com.issuingbank.authorizer.infra.repositories;
+
+import com.issuingbank.authorizer.domain.merchant.MerchantPattern;
+import com.issuingbank.authorizer.domain.merchant.MerchantPatternType;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface MerchantPatternRepository extends JpaRepository<MerchantPattern, Long> {
+    Optional<MerchantPattern> findByNormalizedPatternAndMatchType(String normalizedPattern, MerchantPatternType matchType);
+}
@@ -3,8 +3,12 @@ package com.issuingbank.authorizer.infra.repositories;
 import com.issuingbank.authorizer.domain.merchant.Merchant;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface MerchantRepository extends JpaRepository<Merchant, Long> {
     Optional<Merchant> findByNormalizedMerchantName(String normalizedMerchantName);
+
+    List<Merchant> findAllByNormalizedMerchantNameIn(Collection<String> normalizedMerchantNames);
 }
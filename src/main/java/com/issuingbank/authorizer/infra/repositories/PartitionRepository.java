@@ -0,0 +1,130 @@
+package com.issuingbank.authorizer.infra.repositories;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Partition DDL of the tables range-partitioned by created_at. Every method must run inside a transaction:
+ * the advisory lock and the lock timeout are released with it. The DDL takes locks on the parent table that are
+ * held until commit, so callers keep each of those transactions short.
+ */
+@Repository
+@AllArgsConstructor
+public class PartitionRepository {
+    private static final long MAINTENANCE_LOCK_KEY = 0x61757468_70617274L;
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Pattern RANGE_BOUND = Pattern.compile("FOR VALUES FROM \\((.+)\\) TO \\((.+)\\)");
+    private static final String FIND_PARTITIONS = """
+            SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bound
+              FROM pg_inherits i
+              JOIN pg_class c ON c.oid = i.inhrelid
+              JOIN pg_class p ON p.oid = i.inhparent
+             WHERE p.relname = ?
+               AND p.relnamespace = current_schema()::regnamespace
+            """;
+
+    private static final String DELETE_IDEMPOTENCY_KEYS_BEFORE = """
+            DELETE FROM transaction_idempotency_key
+             WHERE ctid IN (SELECT ctid FROM transaction_idempotency_key WHERE created_at < ? LIMIT ?)
+            """;
+
+    private static final String DELETE_IDEMPOTENT_RESPONSES_BEFORE = """
+            DELETE FROM idempotent_response
+             WHERE ctid IN (SELECT ctid FROM idempotent_response WHERE created_at < ? LIMIT ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param from null for MINVALUE
+     * @param to   null for MAXVALUE
+     */
+    public record Partition(String name, LocalDateTime from, LocalDateTime to, boolean isDefault) {
+    }
+
+    /**
+     * @return false when another node is maintaining the partitions
+     */
+    public boolean tryLockMaintenance() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, MAINTENANCE_LOCK_KEY));
+    }
+
+    public void setLockTimeout(Duration lockTimeout) {
+        jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class, lockTimeout.toMillis() + "ms");
+    }
+
+    public List<Partition> findPartitions(String table) {
+        return jdbcTemplate.query(FIND_PARTITIONS, (rs, rowNum) -> toPartition(rs.getString("relname"), rs.getString("bound")), table);
+    }
+
+    /**
+     * Creates the partition as a standalone table and attaches it, which only takes SHARE UPDATE EXCLUSIVE on
+     * the parent; CREATE TABLE ... PARTITION OF would block every insert while it runs. The parent's indexes,
+     * primary key and row triggers are created on the partition by the ATTACH.
+     */
+    public void create(String table, String partition, LocalDateTime from, LocalDateTime to) {
+        jdbcTemplate.execute("CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS INCLUDING CONSTRAINTS)".formatted(partition, table));
+        jdbcTemplate.execute("ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')"
+                .formatted(table, partition, BOUND_FORMAT.format(from), BOUND_FORMAT.format(to)));
+    }
+
+    /**
+     * Not CONCURRENTLY: the tables have a default partition, and it has to run inside a transaction. It holds
+     * ACCESS EXCLUSIVE on the parent until commit, blocking every insert, so nothing else may run after it in
+     * the same transaction.
+     */
+    public void detach(String table, String partition) {
+        jdbcTemplate.execute("ALTER TABLE %s DETACH PARTITION %s".formatted(table, partition));
+    }
+
+    public void drop(String partition) {
+        jdbcTemplate.execute("DROP TABLE %s".formatted(partition));
+    }
+
+    public boolean hasRows(String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM %s)".formatted(partition), Boolean.class));
+    }
+
+    /**
+     * Releases up to {@code limit} idempotency keys of transactions that are no longer in the table.
+     */
+    public int deleteIdempotencyKeysBefore(LocalDateTime createdAt, int limit) {
+        return jdbcTemplate.update(DELETE_IDEMPOTENCY_KEYS_BEFORE, createdAt, limit);
+    }
+
+    /**
+     * Deletes up to {@code limit} replayable responses older than {@code createdAt}.
+     */
+    public int deleteIdempotentResponsesBefore(LocalDateTime createdAt, int limit) {
+        return jdbcTemplate.update(DELETE_IDEMPOTENT_RESPONSES_BEFORE, createdAt, limit);
+    }
+
+    private static Partition toPartition(String name, String bound) {
+        if ("DEFAULT".equals(bound)) {
+            return new Partition(name, null, null, true);
+        }
+
+        Matcher matcher = RANGE_BOUND.matcher(bound);
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Unexpected bound of partition " + name + ": " + bound);
+        }
+
+        return new Partition(name, toBound(matcher.group(1)), toBound(matcher.group(2)), false);
+    }
+
+    private static LocalDateTime toBound(String value) {
+        if ("MINVALUE".equals(value) || "MAXVALUE".equals(value)) {
+            return null;
+        }
+
+        return LocalDateTime.parse(value.substring(1, value.length() - 1), BOUND_FORMAT);
+    }
+}
@@ -0,0 +1,212 @@
+package com.issuingbank.authorizer.infra.repositories;
+
+import com.issuingbank.authorizer.application.reconciliation.ReconciliationRow;
+import com.issuingbank.authorizer.domain.money.Money;
+import com.issuingbank.authorizer.domain.transaction.TransactionType;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Reads for {@link com.issuingbank.authorizer.application.reconciliation.BalanceReconciliationService} through a
+ * pool of its own, pointed at a replica when {@code authorizer.reconciliation.url} or
+ * {@code authorizer.balance-inquiry.url} is set. The pool keeps no idle connections, so it only holds
+ * connections while a run is going.
+ * <p>
+ * Long reads on a hot standby can be cancelled by replication conflicts; the replica needs
+ * max_standby_streaming_delay (or hot_standby_feedback) to allow a range to be streamed.
+ * <p>
+ * With sharding there is one such pool per shard, on the shard's replica when it has one.
+ */
+@Repository
+public class ReconciliationRepository {
+    private static final String POOL_NAME = "reconciliation";
+    private static final long RUN_LOCK_KEY = 0x61757468_7265636fL;
+
+    private static final String SELECT_BOUNDARIES = """
+            SELECT MIN(account)
+              FROM (SELECT account, NTILE(?) OVER (ORDER BY account) AS bucket FROM balance) b
+             GROUP BY bucket
+             ORDER BY 1
+            """;
+    private static final String SELECT_RANGE = """
+            SELECT b.account, b.wallets AS balance_wallets, GREATEST(b.updated_at, lp.last_posted_at) AS updated_at,
+                   lp.pending_count, lp.pending_wallets, lp.pending_amounts,
+                   h.id AS history_id, h.transaction_id, h.previous_wallets, h.new_wallets,
+                   t.type, t.amount
+              FROM balance b
+             CROSS JOIN LATERAL (%s) lp
+              LEFT JOIN balance_history h ON h.account = b.account
+              LEFT JOIN transaction t ON t.id = h.transaction_id
+            """.formatted(LedgerRepository.PENDING_POSTINGS);
+    private static final String RANGE_ORDER = " ORDER BY b.account, h.created_at, h.id";
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final Map<String, JdbcTemplate> jdbcTemplates = new LinkedHashMap<>();
+
+    public ReconciliationRepository(DataSourceProperties dataSourceProperties, AuthorizerProperties properties,
+                                    AccountShardRouter accountShardRouter, MeterRegistry meterRegistry) {
+        AuthorizerProperties.Reconciliation reconciliation = properties.getReconciliation();
+        String url = reconciliation.getUrl() != null ? reconciliation.getUrl() : properties.getBalanceInquiry().getUrl();
+
+        accountShardRouter.readEndpoints(url).forEach((shard, endpoint) -> {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(accountShardRouter.isEnabled() ? POOL_NAME + "-" + shard : POOL_NAME);
+            dataSource.setJdbcUrl(endpoint.url());
+            dataSource.setUsername(endpoint.username());
+            dataSource.setPassword(endpoint.password());
+            // one connection per worker plus the one holding the run lock
+            dataSource.setMaximumPoolSize(reconciliation.getParallelism() + 1);
+            dataSource.setMinimumIdle(0);
+            dataSource.setIdleTimeout(Duration.ofSeconds(30).toMillis());
+            // the driver only streams through a cursor inside a transaction
+            dataSource.setAutoCommit(false);
+            dataSource.setReadOnly(true);
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+            pools.add(dataSource);
+            jdbcTemplates.put(shard, new JdbcTemplate(dataSource));
+        });
+    }
+
+    public List<String> shards() {
+        return List.copyOf(jdbcTemplates.keySet());
+    }
+
+    /**
+     * Runs the supplier while holding a session advisory lock, so nodes sharing the database take turns.
+     *
+     * @return empty when another node holds the lock
+     */
+    public <T> Optional<T> withRunLock(Supplier<T> run) {
+        // the first shard's database is the one every node shares
+        return jdbcTemplates.values().iterator().next().execute((ConnectionCallback<Optional<T>>) connection -> {
+            boolean locked = tryLock(connection);
+            // the session lock outlives the transaction, which must not stay open and pin a snapshot on the replica
+            connection.rollback();
+
+            if (!locked) {
+                return Optional.empty();
+            }
+
+            try {
+                return Optional.ofNullable(run.get());
+            } finally {
+                try (PreparedStatement unlock = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                    unlock.setLong(1, RUN_LOCK_KEY);
+                    unlock.execute();
+                }
+                connection.rollback();
+            }
+        });
+    }
+
+    /**
+     * Splits the accounts of the shard into at most {@code ranges} ranges of about the same number of accounts.
+     *
+     * @return the first account of each range, in order; each range ends where the next one starts
+     */
+    public List<String> accountBoundaries(String shard, int ranges) {
+        return jdbcTemplates.get(shard).queryForList(SELECT_BOUNDARIES, String.class, ranges);
+    }
+
+    /**
+     * Streams every balance_history row of the shard's accounts in [from, to), joined with the balance and the
+     * transaction, in (account, created_at, id) order. Rows are fetched {@code fetchSize} at a time.
+     *
+     * @param from null for the first range
+     * @param to   null for the last range
+     */
+    public void streamRange(String shard, String from, String to, int fetchSize, Consumer<ReconciliationRow> consumer) {
+        StringBuilder sql = new StringBuilder(SELECT_RANGE);
+        if (from != null) {
+            sql.append(" WHERE b.account >= ?");
+        }
+        if (to != null) {
+            sql.append(from != null ? " AND" : " WHERE").append(" b.account < ?");
+        }
+        sql.append(RANGE_ORDER);
+
+        jdbcTemplates.get(shard).execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+
+                int index = 1;
+                if (from != null) {
+                    statement.setString(index++, from);
+                }
+                if (to != null) {
+                    statement.setString(index, to);
+                }
+
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(toRow(rs));
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement lock = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            lock.setLong(1, RUN_LOCK_KEY);
+
+            try (ResultSet rs = lock.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static ReconciliationRow toRow(ResultSet rs) throws SQLException {
+        long historyId = rs.getLong("history_id");
+        boolean hasHistory = !rs.wasNull();
+        long transactionId = rs.getLong("transaction_id");
+        int type = rs.getInt("type");
+        boolean hasTransaction = !rs.wasNull();
+        BigDecimal amount = rs.getBigDecimal("amount");
+
+        return new ReconciliationRow(
+                rs.getString("account"),
+                // in LEDGER mode, the balance is the snapshot plus the postings after it
+                LedgerRepository.applyPending(rs, BalanceInquiryRepository.wallets(rs.getArray("balance_wallets"))),
+                BalanceInquiryRepository.instant(rs.getObject("updated_at", LocalDateTime.class)),
+                hasHistory ? historyId : null,
+                hasHistory ? transactionId : null,
+                hasHistory ? BalanceInquiryRepository.wallets(rs.getArray("previous_wallets")) : null,
+                hasHistory ? BalanceInquiryRepository.wallets(rs.getArray("new_wallets")) : null,
+                hasTransaction ? TransactionType.getById(type) : null,
+                hasTransaction ? Money.toCents(amount) : null);
+    }
+}
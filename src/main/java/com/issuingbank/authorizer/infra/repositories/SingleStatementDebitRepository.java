@@ -0,0 +1,117 @@
+package com.issuingbank.authorizer.infra.repositories;
+
+import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.domain.money.Money;
+import com.issuingbank.authorizer.domain.transaction.Transaction;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Debits a balance and writes transaction, balance_history and idempotent_response in one round trip.
+ * Same decision as TransactionAuthorizerService#attemptDebitWithFallback: the first wallet of the chain of
+ * the account's program that covers the amount, otherwise nothing is debited. The rows are stamped once the
+ * balance row is locked and strictly after its updated_at, as TransactionAuthorizerService#stampAfterLastDebit does.
+ */
+@Repository
+@AllArgsConstructor
+public class SingleStatementDebitRepository {
+    private static final String DEBIT_WITH_FALLBACK = """
+            WITH current_balance AS (
+                SELECT b.id, b.account, b.wallets,
+                       (SELECT CAST(c.wallet AS INTEGER)
+                          FROM jsonb_array_elements_text(COALESCE(CAST(:walletChains AS JSONB) -> b.program,
+                                                                  CAST(:walletChains AS JSONB) -> :defaultProgram))
+                               WITH ORDINALITY AS c(wallet, position)
+                         WHERE COALESCE(b.wallets[CAST(c.wallet AS INTEGER)], 0) >= :amountCents
+                         ORDER BY c.position
+                         LIMIT 1) AS debited_wallet,
+                       GREATEST(CAST(:createdAt AS TIMESTAMP), b.updated_at + INTERVAL '1 microsecond') AS debited_at
+                  FROM balance b
+                 WHERE b.account = :account
+                   FOR UPDATE
+            ), debited_balance AS (
+                UPDATE balance b
+                   SET wallets[c.debited_wallet] = b.wallets[c.debited_wallet] - :amountCents,
+                       version                   = b.version + 1,
+                       updated_at                = c.debited_at
+                  FROM current_balance c
+                 WHERE b.id = c.id
+                   AND c.debited_wallet IS NOT NULL
+             RETURNING b.account,
+                       b.version,
+                       c.debited_at,
+                       c.wallets AS previous_wallets,
+                       b.wallets AS new_wallets
+            ), inserted_transaction AS (
+                INSERT INTO transaction (requested_mcc, resolved_mcc, merchant, account, amount, type, idempotency_key, created_at)
+                SELECT :requestedMcc, :resolvedMcc, :merchant, d.account, :amount, :type, :idempotencyKey, d.debited_at
+                  FROM debited_balance d
+             RETURNING id
+            ), inserted_history AS (
+                INSERT INTO balance_history (account, transaction_id, previous_wallets, new_wallets, created_at)
+                SELECT d.account, t.id, d.previous_wallets, d.new_wallets, d.debited_at
+                  FROM debited_balance d
+                 CROSS JOIN inserted_transaction t
+            ), recorded_response AS (
+                INSERT INTO idempotent_response (idempotency_key, account, response_code, created_at)
+                SELECT :idempotencyKey, c.account,
+                       CASE WHEN c.debited_wallet IS NULL THEN :declinedCode ELSE :approvedCode END,
+                       :createdAt
+                  FROM current_balance c
+            )
+            SELECT c.debited_wallet, d.version AS new_version
+              FROM current_balance c
+              LEFT JOIN debited_balance d ON d.account = c.account
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * @param walletChains {@link com.issuingbank.authorizer.application.merchant.MccRules#chainsJson} of the primary wallet
+     * @return empty when the account has no balance row, otherwise the outcome of the debit
+     */
+    public Optional<SingleStatementDebitResult> debitWithFallback(Transaction debitTransaction, String walletChains,
+                                                                  String approvedCode, String declinedCode) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("account", debitTransaction.getAccount())
+                .addValue("amount", Money.toBigDecimal(debitTransaction.getAmount()))
+                .addValue("amountCents", debitTransaction.getAmount())
+                .addValue("walletChains", walletChains)
+                .addValue("defaultProgram", Balance.DEFAULT_PROGRAM)
+                .addValue("requestedMcc", debitTransaction.getRequestedMcc())
+                .addValue("resolvedMcc", debitTransaction.getResolvedMcc())
+                .addValue("merchant", debitTransaction.getMerchant())
+                .addValue("type", debitTransaction.getType().getId())
+                .addValue("idempotencyKey", debitTransaction.getIdempotencyKey())
+                .addValue("createdAt", LocalDateTime.ofInstant(debitTransaction.getCreatedAt(), ZoneOffset.UTC))
+                .addValue("approvedCode", approvedCode)
+                .addValue("declinedCode", declinedCode);
+
+        List<SingleStatementDebitResult> results = jdbcTemplate.query(DEBIT_WITH_FALLBACK, parameters, (rs, rowNum) -> {
+            int debitedWallet = rs.getInt("debited_wallet");
+            return rs.wasNull()
+                    ? new SingleStatementDebitResult(null, 0)
+                    : new SingleStatementDebitResult(BalanceType.ofOrdinal(debitedWallet - 1), rs.getInt("new_version"));
+        });
+
+        return results.stream().findFirst();
+    }
+
+    /**
+     * @param debitedBalanceType wallet that was debited, null when no wallet covered the amount
+     * @param newVersion         Balance.version after the debit, 0 when nothing was debited
+     */
+    public record SingleStatementDebitResult(BalanceType debitedBalanceType, int newVersion) {
+        public boolean isApproved() {
+            return debitedBalanceType != null;
+        }
+    }
+}
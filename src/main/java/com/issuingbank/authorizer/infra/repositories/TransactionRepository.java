@@ -2,13 +2,26 @@ package com.issuingbank.authorizer.infra.repositories;
 
 import com.issuingbank.authorizer.domain.transaction.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    Optional<Transaction> findByIdempotencyKey(UUID idempotencyKey);
+
+    /**
+     * transaction is partitioned by created_at and has no index on idempotency_key; transaction_idempotency_key
+     * gives the partition and the id.
+     */
+    @Query(value = """
+            SELECT t.*
+              FROM transaction_idempotency_key k
+              JOIN transaction t ON t.id = k.transaction_id AND t.created_at = k.created_at
+             WHERE k.idempotency_key = :idempotencyKey
+            """, nativeQuery = true)
+    Optional<Transaction> findByIdempotencyKey(@Param("idempotencyKey") UUID idempotencyKey);
 
     List<Transaction> findAllByAccount(String account);
 }
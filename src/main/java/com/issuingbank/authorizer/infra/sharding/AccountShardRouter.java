@@ -0,0 +1,182 @@
+package com.issuingbank.authorizer.infra.sharding;
+
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.repositories.AccountShardRepository;
+import com.issuingbank.authorizer.infra.repositories.AccountShardRepository.ShardOverride;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Shard of each account: the one it was moved to, from account_shard, or else its shard in the ring. With
+ * sharding disabled every account is on {@link #DEFAULT_SHARD}, spring.datasource.
+ * <p>
+ * Moves made through other nodes are seen on the next reload of account_shard. Moves made through this node
+ * apply at once, and survive a reload that read account_shard before they were committed.
+ */
+@Slf4j
+@Component
+public class AccountShardRouter {
+    public static final String DEFAULT_SHARD = "default";
+
+    private final AuthorizerProperties.Sharding properties;
+    private final AccountShardRepository accountShardRepository;
+    private final DataSourceProperties dataSourceProperties;
+    private final ShardRing ring;
+    private volatile Map<String, ShardOverride> overrides = new ConcurrentHashMap<>();
+
+    /**
+     * Moves made through this node, with the {@link System#nanoTime()} they were committed at, until a reload
+     * that started after that has read them.
+     */
+    private final Map<String, LocalMove> localMoves = new HashMap<>();
+
+    public AccountShardRouter(AuthorizerProperties properties, AccountShardRepository accountShardRepository,
+                              DataSourceProperties dataSourceProperties) {
+        this.properties = properties.getSharding();
+        this.accountShardRepository = accountShardRepository;
+        this.dataSourceProperties = dataSourceProperties;
+        this.ring = this.properties.isEnabled() ? ring(this.properties.getShards()) : null;
+    }
+
+    public record ShardEndpoint(String url, String username, String password) {
+    }
+
+    /**
+     * @param shards configured shards, with their current weights
+     */
+    public static ShardRing ring(List<AuthorizerProperties.Shard> shards) {
+        Map<String, Integer> virtualNodes = new LinkedHashMap<>();
+        for (AuthorizerProperties.Shard shard : shards) {
+            if (virtualNodes.put(shard.getName(), shard.getVirtualNodes()) != null) {
+                throw new IllegalStateException("Shard " + shard.getName() + " is configured twice");
+            }
+        }
+
+        return new ShardRing(virtualNodes);
+    }
+
+    /**
+     * Where the shard's primary is, spring.datasource filling what the shard leaves out.
+     */
+    public static ShardEndpoint endpoint(AuthorizerProperties.Shard shard, String url, DataSourceProperties dataSourceProperties) {
+        return new ShardEndpoint(
+                url != null ? url : dataSourceProperties.determineUrl(),
+                shard.getUsername() != null ? shard.getUsername() : dataSourceProperties.determineUsername(),
+                shard.getPassword() != null ? shard.getPassword() : dataSourceProperties.determinePassword());
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${authorizer.sharding.override-reload-interval:5s}")
+    public void reload() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long readStartedAt = System.nanoTime();
+        Map<String, ShardOverride> read;
+        try {
+            read = accountShardRepository.findOverrides();
+        } catch (RuntimeException e) {
+            log.error("Could not reload account_shard, keeping {} overrides", overrides.size(), e);
+            return;
+        }
+
+        merge(read, readStartedAt);
+    }
+
+    /**
+     * Local moves committed before the read started are in it, or superseded by a later move. The others may be
+     * missing from it and are kept unless the read has a later move of the account.
+     */
+    private synchronized void merge(Map<String, ShardOverride> read, long readStartedAt) {
+        Map<String, ShardOverride> merged = new ConcurrentHashMap<>(read);
+
+        localMoves.entrySet().removeIf(entry -> {
+            LocalMove move = entry.getValue();
+            if (move.committedAt() - readStartedAt < 0) {
+                return true;
+            }
+
+            merged.merge(entry.getKey(), move.override(),
+                    (readOverride, localOverride) -> readOverride.movedAt().isAfter(localOverride.movedAt()) ? readOverride : localOverride);
+            return false;
+        });
+
+        overrides = merged;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public String shardFor(String account) {
+        if (ring == null) {
+            return DEFAULT_SHARD;
+        }
+
+        ShardOverride override = overrides.get(account);
+        return override != null ? override.shard() : ring.shardFor(account);
+    }
+
+    /**
+     * Binds the account's shard for the supplier. Inside a transaction it must run before the first statement.
+     */
+    public <T> T callOnShardOf(String account, Supplier<T> supplier) {
+        return ShardContext.callOn(shardFor(account), supplier);
+    }
+
+    public List<String> shards() {
+        return ring != null ? ring.shards() : List.of(DEFAULT_SHARD);
+    }
+
+    public ShardRing ring() {
+        return ring;
+    }
+
+    /**
+     * Routes the account to its new shard on this node right away, instead of on the next reload. Called once
+     * the account_shard row is committed.
+     *
+     * @param movedAt moved_at of the account_shard row
+     */
+    public synchronized void moved(String account, String shard, Instant movedAt) {
+        ShardOverride override = new ShardOverride(shard, movedAt);
+        localMoves.put(account, new LocalMove(override, System.nanoTime()));
+        overrides.put(account, override);
+    }
+
+    /**
+     * Where each shard is read from by the pools outside the authorization path, replicas when configured.
+     *
+     * @param unshardedUrl read url with sharding disabled, null for spring.datasource.url
+     */
+    public Map<String, ShardEndpoint> readEndpoints(String unshardedUrl) {
+        Map<String, ShardEndpoint> endpoints = new LinkedHashMap<>();
+
+        if (ring == null) {
+            endpoints.put(DEFAULT_SHARD, endpoint(new AuthorizerProperties.Shard(), unshardedUrl, dataSourceProperties));
+            return endpoints;
+        }
+
+        for (AuthorizerProperties.Shard shard : properties.getShards()) {
+            String url = shard.getReplicaUrl() != null ? shard.getReplicaUrl() : shard.getUrl();
+            endpoints.put(shard.getName(), endpoint(shard, url, dataSourceProperties));
+        }
+
+        return endpoints;
+    }
+
+    private record LocalMove(ShardOverride override, long committedAt) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.issuingbank.authorizer.infra.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copies the merchants created on the first shard, where merchants are created, to the others, where the MCC of
+ * their accounts' authorizations is resolved. A merchant reaches the other shards within merchant-sync-interval;
+ * until then their authorizations fall back to the patterns and to the acquirer's MCC. MerchantMccCache is per
+ * node and not per shard, so a miss cached from one of those shards hides the merchant from every account of the
+ * node until it expires; with sharding, misses expire after merchant-sync-interval, so a merchant is seen
+ * everywhere within about twice that.
+ * <p>
+ * Merchants are never updated, so each shard only asks for those created since about its newest one. Merchants already on
+ * the shard are skipped by normalized name and keep their own ids.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "authorizer.sharding", name = "enabled", havingValue = "true")
+public class MerchantReplicator {
+    /**
+     * Merchants created on the first shard commit in any order, so the copy starts a little before the newest
+     * merchant of the shard; those already there are skipped.
+     */
+    private static final Duration COMMIT_MARGIN = Duration.ofMinutes(1);
+
+    private static final String SELECT_LAST_CREATED_AT = "SELECT MAX(created_at) FROM merchant";
+    private static final String SELECT_CREATED_SINCE = """
+            SELECT original_merchant_name, normalized_merchant_name, corrected_mcc, created_at
+              FROM merchant
+             WHERE created_at >= ?
+            """;
+    private static final String INSERT_MERCHANTS = """
+            INSERT INTO merchant (original_merchant_name, normalized_merchant_name, corrected_mcc, created_at)
+            SELECT * FROM unnest(CAST(? AS VARCHAR[]), CAST(? AS VARCHAR[]), CAST(? AS VARCHAR[]), CAST(? AS TIMESTAMP[]))
+            ON CONFLICT (normalized_merchant_name) DO NOTHING
+            """;
+
+    private final AccountShardRouter accountShardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public MerchantReplicator(AccountShardRouter accountShardRouter, JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager) {
+        this.accountShardRouter = accountShardRouter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${authorizer.sharding.merchant-sync-interval:30s}", initialDelayString = "10s")
+    public void replicate() {
+        List<String> shards = accountShardRouter.shards();
+
+        for (String shard : shards.subList(1, shards.size())) {
+            try {
+                int copied = copy(shards.get(0), shard);
+
+                if (copied > 0) {
+                    log.info("Copied {} merchants to shard {}", copied, shard);
+                }
+            } catch (RuntimeException e) {
+                log.error("Could not copy merchants to shard {}, retrying on the next run", shard, e);
+            }
+        }
+    }
+
+    /**
+     * Outside a transaction each statement borrows a connection of the bound shard. The new merchants are inserted
+     * in one statement, which, unlike a rewritten batch, counts the rows it inserted.
+     */
+    private int copy(String source, String target) {
+        Timestamp lastCreatedAt = ShardContext.callOn(target, () -> jdbcTemplate.queryForObject(SELECT_LAST_CREATED_AT, Timestamp.class));
+        Timestamp since = lastCreatedAt != null ? Timestamp.from(lastCreatedAt.toInstant().minus(COMMIT_MARGIN)) : new Timestamp(0);
+
+        List<String> originalNames = new ArrayList<>();
+        List<String> normalizedNames = new ArrayList<>();
+        List<String> correctedMccs = new ArrayList<>();
+        List<Timestamp> createdAts = new ArrayList<>();
+        ShardContext.runOn(source, () -> jdbcTemplate.query(SELECT_CREATED_SINCE, rs -> {
+            originalNames.add(rs.getString("original_merchant_name"));
+            normalizedNames.add(rs.getString("normalized_merchant_name"));
+            correctedMccs.add(rs.getString("corrected_mcc"));
+            createdAts.add(rs.getTimestamp("created_at"));
+        }, since));
+
+        if (normalizedNames.isEmpty()) {
+            return 0;
+        }
+
+        return ShardContext.callOn(target, () -> transactionTemplate.execute(status ->
+                jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(INSERT_MERCHANTS)) {
+                        statement.setArray(1, connection.createArrayOf("varchar", originalNames.toArray()));
+                        statement.setArray(2, connection.createArrayOf("varchar", normalizedNames.toArray()));
+                        statement.setArray(3, connection.createArrayOf("varchar", correctedMccs.toArray()));
+                        statement.setArray(4, connection.createArrayOf("timestamp", createdAts.toArray()));
+                        return statement.executeUpdate();
+                    }
+                })));
+    }
+}
@@ -0,0 +1,44 @@
+package com.issuingbank.authorizer.infra.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard the current thread works on. {@link ShardRoutingDataSource} reads it when a connection is borrowed, so
+ * it must be bound before the first statement of a transaction: the connection, and with it the shard, is kept
+ * until the transaction ends. Unbound threads get the first shard.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs the supplier on the shard and restores the previous one afterwards, so calls can nest.
+     */
+    public static <T> T callOn(String shard, Supplier<T> supplier) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+
+        try {
+            return supplier.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public static void runOn(String shard, Runnable runnable) {
+        callOn(shard, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package com.issuingbank.authorizer.infra.sharding;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring of shards. Each shard owns {@code virtualNodes} points of the ring and an account belongs to
+ * the first point at or after its hash, so adding or weighting up a shard only moves accounts to that shard, about
+ * the share of the ring it gains.
+ * <p>
+ * Points are the first 8 bytes of the MD5 of the name, the same on every node and JVM.
+ */
+public final class ShardRing {
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+    private final List<String> shards;
+
+    /**
+     * @param virtualNodes points of each shard, in shard order; a shard with 0 is in the ring but owns no account
+     */
+    public ShardRing(Map<String, Integer> virtualNodes) {
+        for (Map.Entry<String, Integer> shard : virtualNodes.entrySet()) {
+            for (int i = 0; i < shard.getValue(); i++) {
+                points.putIfAbsent(hash(shard.getKey() + "#" + i), shard.getKey());
+            }
+        }
+
+        if (points.isEmpty()) {
+            throw new IllegalArgumentException("No shard has virtual nodes");
+        }
+
+        this.shards = List.copyOf(virtualNodes.keySet());
+    }
+
+    public static ShardRing of(List<String> shards, int virtualNodes) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        shards.forEach(shard -> weights.put(shard, virtualNodes));
+        return new ShardRing(weights);
+    }
+
+    public String shardFor(String account) {
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(account));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is always available", e);
+        }
+    }
+}
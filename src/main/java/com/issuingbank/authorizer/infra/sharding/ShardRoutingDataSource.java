@@ -0,0 +1,48 @@
+package com.issuingbank.authorizer.infra.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The application DataSource when sharding is enabled: hands out connections of the pool of the shard bound to
+ * {@link ShardContext}, or of the first shard when none is. An unknown shard fails instead of falling back.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    private final Map<String, HikariDataSource> pools;
+
+    /**
+     * @param pools one pool per shard, the first one being the default
+     */
+    public ShardRoutingDataSource(Map<String, HikariDataSource> pools) {
+        this.pools = new LinkedHashMap<>(pools);
+
+        setTargetDataSources(new LinkedHashMap<>(pools));
+        setDefaultTargetDataSource(pools.values().iterator().next());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public DataSource shard(String shard) {
+        DataSource pool = pools.get(shard);
+
+        if (pool == null) {
+            throw new IllegalArgumentException("Unknown shard " + shard);
+        }
+
+        return pool;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,127 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.text.Normalizer;
+
+/**
+ * MerchantNameNormalizer now folds accented letters to ASCII instead of dropping them,
+ * so names stored by the previous normalizer ("SO JOO" for "SÃO JOÃO") are recomputed
+ * from the original merchant name. Rows whose new name is already taken are left untouched.
+ * <p>
+ * The normalization is the one MerchantNameNormalizer had when this migration was written, copied here so that
+ * later changes to the normalizer do not change what V6 does on a fresh database.
+ */
+public class V6__renormalize_merchant_names extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement();
+             ResultSet merchants = select.executeQuery(
+                     "SELECT id, original_merchant_name, normalized_merchant_name FROM merchant");
+             PreparedStatement update = context.getConnection().prepareStatement(
+                     "UPDATE merchant SET normalized_merchant_name = ? WHERE id = ? " +
+                             "AND NOT EXISTS (SELECT 1 FROM merchant m WHERE m.normalized_merchant_name = ?)")) {
+
+            while (merchants.next()) {
+                String renormalized = normalize(merchants.getString("original_merchant_name"));
+
+                if (renormalized.equals(merchants.getString("normalized_merchant_name"))) {
+                    continue;
+                }
+
+                update.setString(1, renormalized);
+                update.setLong(2, merchants.getLong("id"));
+                update.setString(3, renormalized);
+                update.addBatch();
+            }
+
+            update.executeBatch();
+        }
+    }
+
+    static String normalize(String merchantName) {
+        if (merchantName == null) {
+            return "";
+        }
+
+        StringBuilder normalized = new StringBuilder(merchantName.length());
+        boolean pendingSpace = false;
+
+        for (int i = 0; i < merchantName.length(); i++) {
+            String folded = fold(merchantName.charAt(i));
+
+            if (folded.isEmpty()) {
+                continue;
+            }
+
+            if (folded.equals(" ")) {
+                pendingSpace = !normalized.isEmpty();
+                continue;
+            }
+
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+
+            normalized.append(folded);
+        }
+
+        return normalized.toString();
+    }
+
+    /**
+     * @return " " for whitespace, otherwise up to two uppercase ASCII letters or digits; empty to drop the character
+     */
+    private static String fold(char c) {
+        if (c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r' || c == 0xA0) {
+            return " ";
+        }
+
+        if (c >= 0x0180) {
+            return "";
+        }
+
+        String expanded = switch (c) {
+            case 'ß' -> "SS";
+            case 'Æ', 'æ' -> "AE";
+            case 'Œ', 'œ' -> "OE";
+            case 'Ĳ', 'ĳ' -> "IJ";
+            case 'Þ', 'þ' -> "TH";
+            case 'Ø', 'ø' -> "O";
+            case 'Đ', 'đ', 'Ð', 'ð' -> "D";
+            case 'Ħ', 'ħ' -> "H";
+            case 'ı' -> "I";
+            case 'ĸ' -> "K";
+            case 'Ŀ', 'ŀ', 'Ł', 'ł' -> "L";
+            case 'ŉ', 'Ŋ', 'ŋ' -> "N";
+            case 'Ŧ', 'ŧ' -> "T";
+            case 'ſ' -> "S";
+            default -> Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        };
+
+        String first = asciiAlphanumeric(expanded.charAt(0));
+        if (first.isEmpty() || expanded.length() == 1) {
+            return first;
+        }
+
+        return first + asciiAlphanumeric(expanded.charAt(1));
+    }
+
+    private static String asciiAlphanumeric(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return String.valueOf((char) (c - ('a' - 'A')));
+        }
+
+        if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+            return String.valueOf(c);
+        }
+
+        return "";
+    }
+}
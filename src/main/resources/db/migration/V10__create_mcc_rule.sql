@@ -0,0 +1,47 @@
+-- Regras de MCC -> carteira e cadeias de fallback por programa, antes fixas no código.
+-- Faixas sobrepostas são resolvidas a favor da mais estreita, então a faixa 0-9999 funciona como padrão.
+
+CREATE TABLE mcc_rule
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    mcc_from     SMALLINT NOT NULL,
+    mcc_to       SMALLINT NOT NULL,
+    balance_type VARCHAR(20) NOT NULL,
+    CONSTRAINT pk_mcc_rule PRIMARY KEY (id),
+    CONSTRAINT ck_mcc_rule_range CHECK (0 <= mcc_from AND mcc_from <= mcc_to AND mcc_to <= 9999)
+);
+
+INSERT INTO mcc_rule (mcc_from, mcc_to, balance_type)
+VALUES (0, 9999, 'CASH'),
+       (5411, 5412, 'FOOD'),
+       (5811, 5812, 'MEAL'),
+       (4111, 4111, 'MOBILITY'),
+       (4121, 4121, 'MOBILITY'),
+       (4131, 4131, 'MOBILITY'),
+       (5912, 5912, 'HEALTH'),
+       (8011, 8011, 'HEALTH'),
+       (8062, 8062, 'HEALTH'),
+       (5942, 5942, 'CULTURE'),
+       (7832, 7832, 'CULTURE'),
+       (7922, 7922, 'CULTURE');
+
+-- Carteiras tentadas, em ordem, quando a carteira do MCC não cobre o valor. Um programa sem linha para
+-- uma carteira usa a do programa DEFAULT.
+CREATE TABLE wallet_fallback
+(
+    program                VARCHAR(20) NOT NULL,
+    balance_type           VARCHAR(20) NOT NULL,
+    fallback_balance_types VARCHAR(20)[] NOT NULL,
+    CONSTRAINT pk_wallet_fallback PRIMARY KEY (program, balance_type),
+    CONSTRAINT ck_wallet_fallback_program CHECK (program ~ '^[A-Z0-9_]{1,20}$')
+);
+
+INSERT INTO wallet_fallback (program, balance_type, fallback_balance_types)
+VALUES ('DEFAULT', 'FOOD', '{CASH}'),
+       ('DEFAULT', 'MEAL', '{CASH}'),
+       ('DEFAULT', 'CASH', '{}'),
+       ('DEFAULT', 'MOBILITY', '{CASH}'),
+       ('DEFAULT', 'HEALTH', '{CASH}'),
+       ('DEFAULT', 'CULTURE', '{CASH}');
+
+ALTER TABLE balance ADD COLUMN program VARCHAR(20) NOT NULL DEFAULT 'DEFAULT';
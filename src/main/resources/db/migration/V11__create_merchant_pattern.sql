@@ -0,0 +1,19 @@
+-- Padrões de nome de estabelecimento (prefixo "UBER EATS*" ou palavra-chave "*IFOOD*") com o MCC corrigido.
+-- Um padrão cobre todas as variações de cidade/país que o adquirente acrescenta ao nome, no lugar de uma
+-- linha de merchant por variação.
+
+CREATE SEQUENCE merchant_pattern_seq INCREMENT BY 50;
+
+CREATE TABLE merchant_pattern
+(
+    id                 BIGINT NOT NULL DEFAULT nextval('merchant_pattern_seq'),
+    original_pattern   VARCHAR(255) NOT NULL,
+    normalized_pattern VARCHAR(255) NOT NULL,
+    match_type         VARCHAR(10) NOT NULL,
+    corrected_mcc      VARCHAR(4) NOT NULL,
+    created_at         TIMESTAMP NOT NULL,
+    CONSTRAINT pk_merchant_pattern PRIMARY KEY (id),
+    CONSTRAINT uc_merchant_pattern UNIQUE (normalized_pattern, match_type)
+);
+
+ALTER SEQUENCE merchant_pattern_seq OWNED BY merchant_pattern.id;
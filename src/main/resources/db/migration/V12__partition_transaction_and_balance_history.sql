@@ -0,0 +1,133 @@
+-- Particiona transaction e balance_history por mês de created_at. Os índices passam a ser por partição
+-- (menores, e descartados junto com a partição expirada) e o PartitionMaintenance cria as partições futuras
+-- e desanexa/remove as expiradas.
+--
+-- As tabelas atuais não são copiadas: viram a partição "legacy" de cada tabela, de MINVALUE até o primeiro
+-- mês sem linhas. O ATTACH ainda valida as linhas e cria os índices novos na partição legacy, então em uma
+-- base grande esta migração deve rodar em janela de manutenção.
+--
+-- Como a chave primária de uma tabela particionada precisa conter a chave de partição:
+-- - transaction e balance_history passam a ter PRIMARY KEY (id, created_at); os ids continuam vindo das sequences;
+-- - a unicidade de transaction.idempotency_key entre partições passa para transaction_idempotency_key,
+--   preenchida por trigger a cada insert em transaction;
+-- - balance_history.created_at passa a ser o created_at da transaction, então UNIQUE (transaction_id, created_at)
+--   continua sendo um registro por transação (e é o alvo do ON CONFLICT do journal);
+-- - a FK de balance_history para transaction é removida: ela fixaria a ordem de manutenção das partições e faria
+--   cada DETACH de transaction varrer balance_history. Os três caminhos de escrita só gravam balance_history junto
+--   com a transaction (mesma transação ou mesmo comando) ou depois de conferir que ela existe (journal).
+
+ALTER TABLE balance_history DROP CONSTRAINT fk_balance_history_on_transaction;
+
+UPDATE transaction SET created_at = TIMESTAMP '1970-01-01' WHERE created_at IS NULL;
+UPDATE balance_history h
+   SET created_at = COALESCE((SELECT t.created_at FROM transaction t WHERE t.id = h.transaction_id), TIMESTAMP '1970-01-01')
+ WHERE h.created_at IS NULL;
+
+ALTER TABLE transaction ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE balance_history ALTER COLUMN created_at SET NOT NULL;
+
+-- Unicidade da idempotency_key entre todas as partições de transaction.
+CREATE TABLE transaction_idempotency_key
+(
+    idempotency_key UUID NOT NULL,
+    transaction_id  BIGINT NOT NULL,
+    created_at      TIMESTAMP NOT NULL,
+    CONSTRAINT pk_transaction_idempotency_key PRIMARY KEY (idempotency_key)
+);
+
+INSERT INTO transaction_idempotency_key (idempotency_key, transaction_id, created_at)
+SELECT idempotency_key, id, created_at FROM transaction;
+
+CREATE FUNCTION register_transaction_idempotency_key() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    INSERT INTO transaction_idempotency_key (idempotency_key, transaction_id, created_at)
+    VALUES (NEW.idempotency_key, NEW.id, NEW.created_at);
+    RETURN NULL;
+END;
+$$;
+
+-- As tabelas atuais viram as partições legacy. As sequences deixam de pertencer a elas para não serem
+-- removidas junto com a partição legacy quando ela expirar.
+ALTER SEQUENCE transaction_seq OWNED BY NONE;
+ALTER SEQUENCE balance_history_seq OWNED BY NONE;
+
+ALTER TABLE transaction DROP CONSTRAINT transaction_idempotency_key_key;
+ALTER TABLE transaction RENAME CONSTRAINT pk_transaction TO pk_transaction_legacy;
+ALTER INDEX idx_transaction_account RENAME TO idx_transaction_legacy_account;
+ALTER TABLE transaction RENAME TO transaction_legacy;
+
+ALTER TABLE balance_history DROP CONSTRAINT uc_balance_history_transaction;
+ALTER TABLE balance_history RENAME CONSTRAINT pk_balance_history TO pk_balance_history_legacy;
+ALTER INDEX idx_balancy_history_account RENAME TO idx_balance_history_legacy_account;
+ALTER INDEX idx_balance_history_created_at RENAME TO idx_balance_history_legacy_created_at;
+ALTER TABLE balance_history RENAME TO balance_history_legacy;
+
+CREATE TABLE transaction
+(
+    id              BIGINT NOT NULL DEFAULT nextval('transaction_seq'),
+    requested_mcc   VARCHAR(4),
+    resolved_mcc    VARCHAR(4),
+    merchant        VARCHAR(50),
+    account         VARCHAR(10) NOT NULL,
+    amount          NUMERIC(12, 2) NOT NULL,
+    type            INTEGER NOT NULL,
+    idempotency_key UUID NOT NULL,
+    created_at      TIMESTAMP NOT NULL DEFAULT current_timestamp,
+    CONSTRAINT pk_transaction PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_transaction_account ON transaction (account);
+
+CREATE TRIGGER trg_transaction_idempotency_key
+    AFTER INSERT ON transaction
+    FOR EACH ROW EXECUTE FUNCTION register_transaction_idempotency_key();
+
+CREATE TABLE balance_history
+(
+    id               BIGINT NOT NULL DEFAULT nextval('balance_history_seq'),
+    account          VARCHAR(10) NOT NULL,
+    transaction_id   BIGINT NOT NULL,
+    created_at       TIMESTAMP NOT NULL,
+    previous_wallets BIGINT[] NOT NULL,
+    new_wallets      BIGINT[] NOT NULL,
+    CONSTRAINT pk_balance_history PRIMARY KEY (id, created_at),
+    CONSTRAINT uc_balance_history_transaction UNIQUE (transaction_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_balancy_history_account ON balance_history (account);
+CREATE INDEX idx_balance_history_created_at ON balance_history (created_at);
+
+ALTER SEQUENCE transaction_seq OWNED BY transaction.id;
+ALTER SEQUENCE balance_history_seq OWNED BY balance_history.id;
+
+-- Partições: legacy até o primeiro mês sem linhas, os próximos três meses e uma DEFAULT para que um insert
+-- nunca falhe por falta de partição. O PartitionMaintenance avisa quando a DEFAULT recebe linhas.
+DO
+$$
+    DECLARE
+        legacy_end TIMESTAMP := GREATEST(
+                date_trunc('month', now() AT TIME ZONE 'UTC'),
+                COALESCE((SELECT date_trunc('month', MAX(created_at)) + INTERVAL '1 month' FROM transaction_legacy), '-infinity'),
+                COALESCE((SELECT date_trunc('month', MAX(created_at)) + INTERVAL '1 month' FROM balance_history_legacy), '-infinity'));
+        month_start TIMESTAMP;
+        table_name  TEXT;
+    BEGIN
+        EXECUTE format('ALTER TABLE transaction ATTACH PARTITION transaction_legacy FOR VALUES FROM (MINVALUE) TO (%L)', legacy_end);
+        EXECUTE format('ALTER TABLE balance_history ATTACH PARTITION balance_history_legacy FOR VALUES FROM (MINVALUE) TO (%L)', legacy_end);
+
+        FOREACH table_name IN ARRAY ARRAY ['transaction', 'balance_history']
+            LOOP
+                FOR i IN 0..3
+                    LOOP
+                        month_start := legacy_end + make_interval(months => i);
+                        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                                       table_name || '_' || to_char(month_start, 'YYYY_MM'), table_name,
+                                       month_start, month_start + INTERVAL '1 month');
+                    END LOOP;
+
+                EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', table_name || '_default', table_name);
+            END LOOP;
+    END
+$$;
@@ -0,0 +1,7 @@
+-- Índice do extrato (GET /accounts/{account}/statement): a paginação por chave (created_at, id) desce o índice
+-- a partir do último item da página anterior, então qualquer página custa o mesmo que a primeira.
+-- Cobre as consultas por account, então o índice só por account deixa de ser necessário.
+-- Criado na tabela particionada, vale para as partições atuais e para as criadas pelo PartitionMaintenance.
+CREATE INDEX idx_balance_history_statement ON balance_history (account, created_at, id);
+
+DROP INDEX idx_balancy_history_account;
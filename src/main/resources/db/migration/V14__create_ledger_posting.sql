@@ -0,0 +1,23 @@
+-- Modo ledger (authorizer.persistence.mode=ledger): cada débito aprovado vira um lançamento imutável em
+-- ledger_posting em vez de um UPDATE em balance. A linha de balance passa a ser o snapshot: wallets contém todos
+-- os lançamentos até ledger_seq, e o saldo atual é o snapshot somado aos lançamentos com seq maior.
+-- O LedgerCompactor avança o snapshot em segundo plano, com um UPDATE por conta a cada compactação.
+--
+-- seq é denso e crescente por conta; a chave primária (account, seq) impede dois lançamentos no mesmo ponto
+-- do ledger mesmo que a serialização por advisory lock falhe.
+ALTER TABLE balance ADD COLUMN ledger_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE ledger_posting
+(
+    account        VARCHAR(10) NOT NULL,
+    seq            BIGINT NOT NULL,
+    wallet         SMALLINT NOT NULL, -- ordinal de BalanceType
+    amount         BIGINT NOT NULL,   -- centavos, negativo nos débitos
+    transaction_id BIGINT NOT NULL,
+    created_at     TIMESTAMP NOT NULL,
+    CONSTRAINT pk_ledger_posting PRIMARY KEY (account, seq)
+);
+
+-- A tabela só recebe inserts em ordem de created_at, então um BRIN basta para o compactador achar os
+-- lançamentos recentes, com uma fração do tamanho de uma B-tree.
+CREATE INDEX idx_ledger_posting_created_at ON ledger_posting USING BRIN (created_at);
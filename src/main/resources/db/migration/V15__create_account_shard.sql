@@ -0,0 +1,11 @@
+-- Sharding (authorizer.sharding.enabled): a conta fica no shard indicado pelo anel de hash consistente, a não ser
+-- que tenha sido movida. As contas movidas ficam registradas aqui, e esta tabela prevalece sobre o anel.
+--
+-- Só a tabela do primeiro shard é usada; a migração cria a tabela em todos os shards para que o schema seja um só.
+CREATE TABLE account_shard
+(
+    account  VARCHAR(10) NOT NULL,
+    shard    VARCHAR(64) NOT NULL,
+    moved_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_account_shard PRIMARY KEY (account)
+);
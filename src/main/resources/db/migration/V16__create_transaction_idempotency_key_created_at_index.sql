@@ -0,0 +1,3 @@
+-- As chaves das transações de partições expiradas são liberadas em lotes pelo PartitionMaintenance, cada lote
+-- em uma transação curta; sem este índice cada lote varreria a tabela inteira atrás das chaves antigas.
+CREATE INDEX idx_transaction_idempotency_key_created_at ON transaction_idempotency_key (created_at);
@@ -0,0 +1,3 @@
+-- idempotent_response não é particionada: o PartitionMaintenance apaga em lotes as respostas anteriores a
+-- authorizer.partitions.retention-months, e este índice evita que cada lote varra a tabela inteira.
+CREATE INDEX idx_idempotent_response_created_at ON idempotent_response (created_at);
@@ -0,0 +1,8 @@
+CREATE TABLE idempotent_response
+(
+    idempotency_key UUID NOT NULL,
+    account         VARCHAR(10) NOT NULL,
+    response_code   VARCHAR(2) NOT NULL,
+    created_at      TIMESTAMP NOT NULL,
+    CONSTRAINT pk_idempotent_response PRIMARY KEY (idempotency_key)
+);
@@ -0,0 +1,27 @@
+-- Troca IDENTITY por sequences com incremento de 50 para o Hibernate reservar ids em blocos (pooled)
+-- e conseguir agrupar os inserts em batch. O default da coluna continua gerando id para inserts feitos
+-- direto em SQL (ex.: modo single-statement).
+
+CREATE SEQUENCE balance_seq INCREMENT BY 50;
+SELECT setval('balance_seq', COALESCE((SELECT MAX(id) FROM balance), 0) + 50, false);
+ALTER TABLE balance ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE balance ALTER COLUMN id SET DEFAULT nextval('balance_seq');
+ALTER SEQUENCE balance_seq OWNED BY balance.id;
+
+CREATE SEQUENCE transaction_seq INCREMENT BY 50;
+SELECT setval('transaction_seq', COALESCE((SELECT MAX(id) FROM transaction), 0) + 50, false);
+ALTER TABLE transaction ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE transaction ALTER COLUMN id SET DEFAULT nextval('transaction_seq');
+ALTER SEQUENCE transaction_seq OWNED BY transaction.id;
+
+CREATE SEQUENCE balance_history_seq INCREMENT BY 50;
+SELECT setval('balance_history_seq', COALESCE((SELECT MAX(id) FROM balance_history), 0) + 50, false);
+ALTER TABLE balance_history ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE balance_history ALTER COLUMN id SET DEFAULT nextval('balance_history_seq');
+ALTER SEQUENCE balance_history_seq OWNED BY balance_history.id;
+
+CREATE SEQUENCE merchant_seq INCREMENT BY 50;
+SELECT setval('merchant_seq', COALESCE((SELECT MAX(id) FROM merchant), 0) + 50, false);
+ALTER TABLE merchant ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE merchant ALTER COLUMN id SET DEFAULT nextval('merchant_seq');
+ALTER SEQUENCE merchant_seq OWNED BY merchant.id;
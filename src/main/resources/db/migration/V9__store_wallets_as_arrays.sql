@@ -0,0 +1,41 @@
+-- Os saldos passam a ser um array de carteiras em centavos, indexado pelo ordinal de BalanceType
+-- (FOOD, MEAL, CASH, MOBILITY, HEALTH, CULTURE). Uma nova carteira não precisa de coluna nova: basta
+-- acrescentá-la ao final do enum, e linhas com array mais curto leem a carteira ausente como zero.
+
+ALTER TABLE balance ADD COLUMN wallets BIGINT[];
+
+UPDATE balance
+   SET wallets = ARRAY[(COALESCE(food_balance, 0) * 100)::BIGINT,
+                       (COALESCE(meal_balance, 0) * 100)::BIGINT,
+                       (COALESCE(cash_balance, 0) * 100)::BIGINT,
+                       0, 0, 0];
+
+ALTER TABLE balance ALTER COLUMN wallets SET NOT NULL;
+ALTER TABLE balance ADD CONSTRAINT ck_balance_wallets_not_negative CHECK (0 <= ALL (wallets));
+
+ALTER TABLE balance
+    DROP COLUMN food_balance,
+    DROP COLUMN meal_balance,
+    DROP COLUMN cash_balance;
+
+ALTER TABLE balance_history ADD COLUMN previous_wallets BIGINT[];
+ALTER TABLE balance_history ADD COLUMN new_wallets BIGINT[];
+
+UPDATE balance_history
+   SET previous_wallets = ARRAY[(previous_food_balance * 100)::BIGINT,
+                                (previous_meal_balance * 100)::BIGINT,
+                                (previous_cash_balance * 100)::BIGINT],
+       new_wallets      = ARRAY[(new_food_balance * 100)::BIGINT,
+                                (new_meal_balance * 100)::BIGINT,
+                                (new_cash_balance * 100)::BIGINT];
+
+ALTER TABLE balance_history ALTER COLUMN previous_wallets SET NOT NULL;
+ALTER TABLE balance_history ALTER COLUMN new_wallets SET NOT NULL;
+
+ALTER TABLE balance_history
+    DROP COLUMN previous_food_balance,
+    DROP COLUMN previous_meal_balance,
+    DROP COLUMN previous_cash_balance,
+    DROP COLUMN new_food_balance,
+    DROP COLUMN new_meal_balance,
+    DROP COLUMN new_cash_balance;
@@ -0,0 +1,51 @@
+package com.issuingbank.authorizer.benchmark;
+
+import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BalanceBenchmark {
+    private Balance balance;
+    private long amount;
+
+    @Setup
+    public void setUp() {
+        balance = Balance.builder()
+                .id(1L)
+                .account("1")
+                .balance(BalanceType.FOOD, 80_000)
+                .balance(BalanceType.MEAL, 75_000)
+                .balance(BalanceType.CASH, 20_000)
+                .createdAt(Instant.now())
+                .build();
+        amount = 3_550;
+    }
+
+    @Benchmark
+    public boolean hasSufficientBalance() {
+        return balance.hasSufficientBalance(BalanceType.FOOD, amount);
+    }
+
+    @Benchmark
+    public Balance debit() {
+        return balance.debit(BalanceType.FOOD, amount);
+    }
+}
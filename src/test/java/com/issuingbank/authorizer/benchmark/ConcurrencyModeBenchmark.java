@@ -0,0 +1,75 @@
+package com.issuingbank.authorizer.benchmark;
+
+import com.issuingbank.authorizer.application.authorizer.AuthorizationDispatcher;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponse;
+import com.issuingbank.authorizer.application.authorizer.ConcurrencyMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pessimistic vs optimistic authorization against PostgreSQL with 16 concurrent callers spread over
+ * {@code accounts} accounts: 1 account is the worst case, 1000 is close to production where concurrent
+ * authorizations for the same account are rare. Admission is disabled so conflicts reach the database.
+ * Needs Docker: mvn -Pbenchmark verify -Djmh.args="ConcurrencyMode"
+ */
+@Fork(1)
+@Threads(16)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConcurrencyModeBenchmark {
+
+    @Param
+    private ConcurrencyMode mode;
+
+    @Param({"1", "1000"})
+    private int accounts;
+
+    private PostgresBenchmarkContext context;
+    private AuthorizationDispatcher dispatcher;
+    private List<String> accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new PostgresBenchmarkContext(Map.of(
+                "authorizer.concurrency.mode", mode.name(),
+                "authorizer.admission.enabled", "false"));
+        dispatcher = context.getBean(AuthorizationDispatcher.class);
+        accountNumbers = context.createAccounts(accounts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AuthorizationResponse authorize() {
+        String account = accountNumbers.get(ThreadLocalRandom.current().nextInt(accountNumbers.size()));
+
+        return dispatcher.dispatch(UUID.randomUUID(),
+                AuthorizationRequest.of(account, new BigDecimal("0.01"), "5411", "PADARIA DO ZE SAO PAULO BR"));
+    }
+}
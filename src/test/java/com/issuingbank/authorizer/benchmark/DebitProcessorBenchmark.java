@@ -0,0 +1,68 @@
+package com.issuingbank.authorizer.benchmark;
+
+import com.issuingbank.authorizer.application.debits.DebitProcessor;
+import com.issuingbank.authorizer.application.debits.DebitResult;
+import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.domain.transaction.Transaction;
+import com.issuingbank.authorizer.domain.transaction.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DebitProcessorBenchmark {
+    private final DebitProcessor debitProcessor = new DebitProcessor();
+
+    private Balance balance;
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        balance = Balance.builder()
+                .id(1L)
+                .account("1")
+                .balance(BalanceType.FOOD, 1_000)
+                .balance(BalanceType.MEAL, 75_000)
+                .balance(BalanceType.CASH, 20_000)
+                .createdAt(Instant.now())
+                .build();
+        transaction = Transaction.builder()
+                .account("1")
+                .amount(3_550)
+                .requestedMcc("5411")
+                .resolvedMcc("5411")
+                .merchant("PADARIA DO ZE SAO PAULO BR")
+                .type(TransactionType.DEBIT)
+                .idempotencyKey(UUID.randomUUID())
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    @Benchmark
+    public Optional<DebitResult> approved() {
+        return debitProcessor.doDebit(balance, BalanceType.MEAL, transaction);
+    }
+
+    @Benchmark
+    public Optional<DebitResult> insufficientBalance() {
+        return debitProcessor.doDebit(balance, BalanceType.FOOD, transaction);
+    }
+}
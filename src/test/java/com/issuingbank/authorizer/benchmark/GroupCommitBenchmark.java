@@ -0,0 +1,74 @@
+package com.issuingbank.authorizer.benchmark;
+
+import com.issuingbank.authorizer.application.authorizer.AuthorizationDispatcher;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One commit per authorization vs group commit with a {@code window} micro-window, 64 concurrent callers over
+ * 10000 accounts. Compare throughput with the sample latency (-bm sample) to see what the window costs.
+ * Needs Docker: mvn -Pbenchmark verify -Djmh.args="GroupCommit"
+ */
+@Fork(1)
+@Threads(64)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GroupCommitBenchmark {
+
+    @Param({"false", "true"})
+    private boolean groupCommit;
+
+    @Param({"1ms", "2ms"})
+    private String window;
+
+    private PostgresBenchmarkContext context;
+    private AuthorizationDispatcher dispatcher;
+    private List<String> accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new PostgresBenchmarkContext(Map.of(
+                "authorizer.group-commit.enabled", String.valueOf(groupCommit),
+                "authorizer.group-commit.window", window,
+                "authorizer.admission.enabled", "true"));
+        dispatcher = context.getBean(AuthorizationDispatcher.class);
+        accountNumbers = context.createAccounts(10_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AuthorizationResponse authorize() {
+        String account = accountNumbers.get(ThreadLocalRandom.current().nextInt(accountNumbers.size()));
+
+        return dispatcher.dispatch(UUID.randomUUID(),
+                AuthorizationRequest.of(account, new BigDecimal("0.01"), "5411", "PADARIA DO ZE SAO PAULO BR"));
+    }
+}
@@ -0,0 +1,35 @@
+package com.issuingbank.authorizer.benchmark;
+
+import com.issuingbank.authorizer.application.merchant.MccRules;
+import com.issuingbank.authorizer.commons.MccRuleFixtures;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MccRulesBenchmark {
+    private final MccRules mccRules = MccRules.compile(MccRuleFixtures.rules(), MccRuleFixtures.fallbacks());
+
+    @Param({"5411", "5812", "1520"})
+    private String mcc;
+
+    @Benchmark
+    public BalanceType primaryWallet() {
+        return mccRules.primaryWallet(mcc);
+    }
+}
@@ -0,0 +1,53 @@
+package com.issuingbank.authorizer.benchmark;
+
+import com.issuingbank.authorizer.application.merchant.MerchantNameNormalizer;
+import com.issuingbank.authorizer.commons.LegacyMerchantNameNormalizer;
+import com.issuingbank.authorizer.commons.MerchantNameCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MerchantNameNormalizerBenchmark {
+    private static final int CORPUS_SIZE = 1024;
+
+    private List<String> merchantNames;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        merchantNames = MerchantNameCorpus.asciiMerchantNames(CORPUS_SIZE, 42L);
+        merchantNames.set(0, "PADARIA SÃO JOÃO              SÃO PAULO BR");
+        merchantNames.set(1, "AÇAÍ DA ESQUINA     TERESINA BR");
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return MerchantNameNormalizer.normalize(nextMerchantName());
+    }
+
+    @Benchmark
+    public String legacyRegex() {
+        return LegacyMerchantNameNormalizer.normalize(nextMerchantName());
+    }
+
+    private String nextMerchantName() {
+        next = (next + 1) & (CORPUS_SIZE - 1);
+        return merchantNames.get(next);
+    }
+}
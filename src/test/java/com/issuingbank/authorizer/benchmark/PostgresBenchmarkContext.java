@@ -0,0 +1,81 @@
+package com.issuingbank.authorizer.benchmark;
+
+import com.issuingbank.authorizer.AuthorizerApplication;
+import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.infra.repositories.BalanceRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the whole application against a throwaway PostgreSQL container for benchmarks that need
+ * real row locks and commits. Requires a Docker environment, like the integration tests.
+ */
+public class PostgresBenchmarkContext implements AutoCloseable {
+    public static final String ACCOUNT_PREFIX = "9";
+
+    private final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+    private final ConfigurableApplicationContext context;
+
+    public PostgresBenchmarkContext(Map<String, Object> properties) {
+        postgres.start();
+
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("spring.datasource.url", postgres.getJdbcUrl());
+        defaults.put("spring.datasource.username", postgres.getUsername());
+        defaults.put("spring.datasource.password", postgres.getPassword());
+        defaults.put("spring.jpa.show-sql", "false");
+        defaults.put("spring.main.web-application-type", "none");
+        defaults.putAll(properties);
+
+        context = new SpringApplicationBuilder(AuthorizerApplication.class)
+                .properties(defaults)
+                .run();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Port of the embedded server, for contexts started with spring.main.web-application-type=servlet and server.port=0.
+     */
+    public int localPort() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    /**
+     * Creates accounts "90", "91", ... with a cash balance large enough to never decline during a run.
+     */
+    public List<String> createAccounts(int count) {
+        List<Balance> balances = new ArrayList<>(count);
+        List<String> accounts = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            String account = ACCOUNT_PREFIX + i;
+            accounts.add(account);
+            balances.add(Balance.builder()
+                    .account(account)
+                    .balance(BalanceType.FOOD, 100_000_000_000L)
+                    .balance(BalanceType.MEAL, 100_000_000_000L)
+                    .balance(BalanceType.CASH, 100_000_000_000L)
+                    .build());
+        }
+
+        getBean(BalanceRepository.class).saveAll(balances);
+
+        return accounts;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        postgres.stop();
+    }
+}
@@ -0,0 +1,111 @@
+package com.issuingbank.authorizer.benchmark;
+
+import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponse;
+import com.issuingbank.authorizer.application.authorizer.TransactionAuthorizerService;
+import com.issuingbank.authorizer.application.merchant.CreateMerchantRequest;
+import com.issuingbank.authorizer.application.merchant.CreateMerchantService;
+import com.issuingbank.authorizer.domain.merchant.Merchant;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JDBC statements prepared per authorization and per merchant import, with JDBC batching off
+ * ({@code batchSize=1}, close to the IDENTITY mapping where every insert ran on its own) and on.
+ * The {@code statements} and {@code operations} aux counters are totals per iteration; divide one by the other.
+ * Needs Docker: mvn -Pbenchmark verify -Djmh.args="StatementsPerAuthorization"
+ */
+@Fork(1)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StatementsPerAuthorizationBenchmark {
+    private static final int MERCHANTS_PER_IMPORT = 100;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private PostgresBenchmarkContext context;
+    private TransactionAuthorizerService authorizerService;
+    private CreateMerchantService createMerchantService;
+    private Statistics statistics;
+    private String account;
+    private final AtomicLong imports = new AtomicLong();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class StatementCounters {
+        public long statements;
+        public long operations;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new PostgresBenchmarkContext(Map.of(
+                "spring.jpa.properties.hibernate.jdbc.batch_size", String.valueOf(batchSize),
+                "spring.jpa.properties.hibernate.generate_statistics", "true"));
+        authorizerService = context.getBean(TransactionAuthorizerService.class);
+        createMerchantService = context.getBean(CreateMerchantService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        account = context.createAccounts(1).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AuthorizationResponse authorize(StatementCounters counters) {
+        long before = statistics.getPrepareStatementCount();
+
+        AuthorizationResponse response = authorizerService.execute(UUID.randomUUID(),
+                AuthorizationRequest.of(account, new BigDecimal("0.01"), "5411", "PADARIA DO ZE SAO PAULO BR"));
+
+        counters.statements += statistics.getPrepareStatementCount() - before;
+        counters.operations++;
+        return response;
+    }
+
+    @Benchmark
+    public List<Merchant> importMerchants(StatementCounters counters) {
+        long run = imports.incrementAndGet();
+        List<CreateMerchantRequest> requests = new ArrayList<>(MERCHANTS_PER_IMPORT);
+        for (int i = 0; i < MERCHANTS_PER_IMPORT; i++) {
+            requests.add(CreateMerchantRequest.create("MERCHANT " + run + " " + i, "5411"));
+        }
+
+        long before = statistics.getPrepareStatementCount();
+
+        List<Merchant> merchants = createMerchantService.executeAll(requests);
+
+        counters.statements += statistics.getPrepareStatementCount() - before;
+        counters.operations++;
+        return merchants;
+    }
+}
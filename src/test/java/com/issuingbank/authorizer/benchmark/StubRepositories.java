@@ -0,0 +1,34 @@
+package com.issuingbank.authorizer.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for the Spring Data repositories, so benchmarks measure the
+ * authorization code and not Mockito or the database. Only the answered methods are usable.
+ */
+public class StubRepositories {
+
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> repositoryType, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+
+            if (answer != null) {
+                return answer.apply(args);
+            }
+
+            return switch (method.getName()) {
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> "Stub" + repositoryType.getSimpleName();
+                default -> throw new UnsupportedOperationException(method.getName() + " is not stubbed");
+            };
+        });
+    }
+
+    public static Function<Object[], Object> returnFirstArgument() {
+        return args -> args[0];
+    }
+}
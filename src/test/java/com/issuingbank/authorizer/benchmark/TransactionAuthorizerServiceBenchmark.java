@@ -0,0 +1,131 @@
+package com.issuingbank.authorizer.benchmark;
+
+import com.issuingbank.authorizer.application.authorizer.AuthorizationMetrics;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponse;
+import com.issuingbank.authorizer.application.authorizer.TransactionAuthorizerService;
+import com.issuingbank.authorizer.application.balance.BalanceSnapshotCache;
+import com.issuingbank.authorizer.application.debits.DebitProcessor;
+import com.issuingbank.authorizer.application.merchant.MccResolverService;
+import com.issuingbank.authorizer.application.merchant.MerchantMccCache;
+import com.issuingbank.authorizer.application.merchant.MerchantPatternIndex;
+import com.issuingbank.authorizer.commons.MccRuleFixtures;
+import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.domain.merchant.MerchantPattern;
+import com.issuingbank.authorizer.domain.merchant.MerchantPatternType;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.repositories.BalanceHistoryRepository;
+import com.issuingbank.authorizer.infra.repositories.BalanceRepository;
+import com.issuingbank.authorizer.infra.repositories.IdempotentResponseRepository;
+import com.issuingbank.authorizer.infra.repositories.MerchantPatternRepository;
+import com.issuingbank.authorizer.infra.repositories.MerchantRepository;
+import com.issuingbank.authorizer.infra.repositories.TransactionRepository;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.issuingbank.authorizer.benchmark.StubRepositories.returnFirstArgument;
+import static com.issuingbank.authorizer.benchmark.StubRepositories.stub;
+
+/**
+ * Whole decision pipeline of TransactionAuthorizerService.execute (validation, MCC resolution through a
+ * warm merchant cache, wallet selection with CASH fallback, debit and history creation) with the
+ * repositories replaced by in-memory stubs. No transaction proxy is involved.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionAuthorizerServiceBenchmark {
+
+    public enum Scenario {
+        MEAL_APPROVED("5812", "35.50"),
+        CASH_FALLBACK("5411", "35.50"),
+        DECLINED("5411", "500.00");
+
+        private final String mcc;
+        private final BigDecimal amount;
+
+        Scenario(String mcc, String amount) {
+            this.mcc = mcc;
+            this.amount = new BigDecimal(amount);
+        }
+    }
+
+    @Param
+    private Scenario scenario;
+
+    private TransactionAuthorizerService authorizerService;
+    private AuthorizationRequest request;
+    private UUID idempotencyKey;
+
+    @Setup
+    public void setUp() {
+        Balance balance = Balance.builder()
+                .id(1L)
+                .account("1")
+                .balance(BalanceType.FOOD, 1_000)
+                .balance(BalanceType.MEAL, 75_000)
+                .balance(BalanceType.CASH, 20_000)
+                .createdAt(Instant.now())
+                .build();
+
+        BalanceRepository balanceRepository = stub(BalanceRepository.class, Map.of(
+                "findByAccount", args -> Optional.of(balance),
+                "save", returnFirstArgument()));
+        TransactionRepository transactionRepository = stub(TransactionRepository.class, Map.of(
+                "save", returnFirstArgument()));
+        BalanceHistoryRepository balanceHistoryRepository = stub(BalanceHistoryRepository.class, Map.of(
+                "save", returnFirstArgument()));
+        IdempotentResponseRepository idempotentResponseRepository = stub(IdempotentResponseRepository.class, Map.of(
+                "findById", args -> Optional.empty(),
+                "save", returnFirstArgument()));
+        MerchantRepository merchantRepository = stub(MerchantRepository.class, Map.of(
+                "findByNormalizedMerchantName", args -> Optional.empty()));
+
+        MerchantPatternRepository merchantPatternRepository = stub(MerchantPatternRepository.class, Map.of(
+                "findAll", args -> List.of(MerchantPattern.builder().id(1L).normalizedPattern("UBER EATS")
+                        .matchType(MerchantPatternType.PREFIX).correctedMcc("5811").build())));
+        MerchantPatternIndex merchantPatternIndex = new MerchantPatternIndex(merchantPatternRepository);
+        merchantPatternIndex.load();
+
+        MccResolverService mccResolverService = new MccResolverService(merchantRepository,
+                new MerchantMccCache(new AuthorizerProperties()), merchantPatternIndex);
+
+        // the journal, SingleStatementDebitRepository and LedgerRepository are only used in JOURNAL, SINGLE_STATEMENT
+        // and LEDGER modes
+        authorizerService = new TransactionAuthorizerService(balanceRepository, transactionRepository,
+                balanceHistoryRepository, null, idempotentResponseRepository, null, null, new DebitProcessor(), mccResolverService, MccRuleFixtures.table(),
+                new AuthorizerProperties(), new AuthorizationMetrics(new SimpleMeterRegistry()),
+                new BalanceSnapshotCache(new AuthorizerProperties()), new AccountShardRouter(new AuthorizerProperties(), null, null));
+
+        request = AuthorizationRequest.of("1", scenario.amount, scenario.mcc, "PADARIA DO ZE               SAO PAULO BR");
+        idempotencyKey = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public AuthorizationResponse execute() {
+        return authorizerService.execute(idempotencyKey, request);
+    }
+}
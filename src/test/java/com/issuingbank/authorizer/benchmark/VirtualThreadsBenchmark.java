@@ -0,0 +1,88 @@
+package com.issuingbank.authorizer.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POST /authorize over HTTP with 256 concurrent clients, Undertow on its worker pool vs virtual threads.
+ * Admission is disabled so requests for the same account block inside JDBC on the balance row lock, which
+ * is where platform workers run out: 1 account is full contention, 1000 accounts is mostly uncontended.
+ * Needs Docker: mvn -Pbenchmark verify -Djmh.args="VirtualThreads"
+ */
+@Fork(1)
+@Threads(256)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VirtualThreadsBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"1", "1000"})
+    private int accounts;
+
+    private PostgresBenchmarkContext context;
+    private HttpClient httpClient;
+    private URI authorizeUri;
+    private List<String> accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new PostgresBenchmarkContext(Map.of(
+                "spring.main.web-application-type", "servlet",
+                "server.port", "0",
+                "spring.threads.virtual.enabled", String.valueOf(virtualThreads),
+                "authorizer.admission.enabled", "false"));
+        accountNumbers = context.createAccounts(accounts);
+        authorizeUri = URI.create("http://localhost:" + context.localPort() + "/authorize");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close();
+        context.close();
+    }
+
+    @Benchmark
+    public String authorize() throws IOException, InterruptedException {
+        String account = accountNumbers.get(ThreadLocalRandom.current().nextInt(accountNumbers.size()));
+        String body = """
+                {"account": "%s", "totalAmount": 0.01, "mcc": "5411", "merchant": "PADARIA DO ZE SAO PAULO BR"}
+                """.formatted(account);
+
+        HttpRequest request = HttpRequest.newBuilder(authorizeUri)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
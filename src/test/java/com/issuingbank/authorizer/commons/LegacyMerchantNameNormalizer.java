@@ -0,0 +1,22 @@
+package com.issuingbank.authorizer.commons;
+
+import java.util.Locale;
+
+/**
+ * Regex based normalizer used before the single-pass MerchantNameNormalizer.
+ * Kept as the reference implementation for differential tests and benchmarks.
+ */
+public class LegacyMerchantNameNormalizer {
+
+    public static String normalize(String merchantName) {
+        if (merchantName == null) {
+            return "";
+        }
+
+        return merchantName
+                .toUpperCase(Locale.ROOT)
+                .replaceAll("[^A-Z0-9\\s]", "")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+}
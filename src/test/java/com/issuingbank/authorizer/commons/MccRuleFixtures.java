@@ -0,0 +1,57 @@
+package com.issuingbank.authorizer.commons;
+
+import com.issuingbank.authorizer.application.merchant.MccRule;
+import com.issuingbank.authorizer.application.merchant.MccRuleTable;
+import com.issuingbank.authorizer.application.merchant.WalletFallback;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.infra.repositories.MccRuleRepository;
+
+import java.util.List;
+
+/**
+ * The rules seeded by V10__create_mcc_rule.sql, for tests and benchmarks that run without a database.
+ */
+public class MccRuleFixtures {
+
+    public static List<MccRule> rules() {
+        return List.of(
+                new MccRule(0, 9999, BalanceType.CASH),
+                new MccRule(5411, 5412, BalanceType.FOOD),
+                new MccRule(5811, 5812, BalanceType.MEAL),
+                new MccRule(4111, 4111, BalanceType.MOBILITY),
+                new MccRule(4121, 4121, BalanceType.MOBILITY),
+                new MccRule(4131, 4131, BalanceType.MOBILITY),
+                new MccRule(5912, 5912, BalanceType.HEALTH),
+                new MccRule(8011, 8011, BalanceType.HEALTH),
+                new MccRule(8062, 8062, BalanceType.HEALTH),
+                new MccRule(5942, 5942, BalanceType.CULTURE),
+                new MccRule(7832, 7832, BalanceType.CULTURE),
+                new MccRule(7922, 7922, BalanceType.CULTURE));
+    }
+
+    public static List<WalletFallback> fallbacks() {
+        return List.of(
+                new WalletFallback("DEFAULT", BalanceType.FOOD, List.of(BalanceType.CASH)),
+                new WalletFallback("DEFAULT", BalanceType.MEAL, List.of(BalanceType.CASH)),
+                new WalletFallback("DEFAULT", BalanceType.CASH, List.of()),
+                new WalletFallback("DEFAULT", BalanceType.MOBILITY, List.of(BalanceType.CASH)),
+                new WalletFallback("DEFAULT", BalanceType.HEALTH, List.of(BalanceType.CASH)),
+                new WalletFallback("DEFAULT", BalanceType.CULTURE, List.of(BalanceType.CASH)));
+    }
+
+    public static MccRuleTable table() {
+        MccRuleTable table = new MccRuleTable(new MccRuleRepository(null) {
+            @Override
+            public List<MccRule> findAllRules() {
+                return rules();
+            }
+
+            @Override
+            public List<WalletFallback> findAllFallbacks() {
+                return fallbacks();
+            }
+        });
+        table.load();
+        return table;
+    }
+}
@@ -0,0 +1,57 @@
+package com.issuingbank.authorizer.commons;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic corpus of acquirer-like merchant names: a fixed name, padding spaces,
+ * a city and a country code, with random punctuation and casing mixed in.
+ */
+public class MerchantNameCorpus {
+    private static final String[] NAMES = {
+            "UBER TRIP", "UBER EATS", "PADARIA DO ZE", "TEXANO CHURRASCO", "RESTAURANTE SABOROSO",
+            "ifood *pedido", "Mercado Livre", "PAG*JoseDaSilva", "SUPERMERCADO BOM PRECO", "POSTO SHELL 24H",
+            "Farmacia Pague-Menos", "AMAZON MKTPLACE", "CINEMARK #123", "McDonald's", "Starbucks @ Paulista"
+    };
+    private static final String[] CITIES = {
+            "SAO PAULO", "TERESINA", "RIO DE JANEIRO", "belo horizonte", "Porto Alegre", "RECIFE"
+    };
+    private static final String[] COUNTRIES = {"BR", "US", "br", "PT"};
+    private static final String ASCII_NOISE = "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~\t\n\r\f\u000B";
+
+    public static List<String> asciiMerchantNames(int size, long seed) {
+        Random random = new Random(seed);
+        List<String> corpus = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            if (i % 4 == 0) {
+                corpus.add(randomAscii(random, random.nextInt(60)));
+                continue;
+            }
+
+            StringBuilder merchant = new StringBuilder()
+                    .append(NAMES[random.nextInt(NAMES.length)])
+                    .append(" ".repeat(random.nextInt(20)))
+                    .append(CITIES[random.nextInt(CITIES.length)])
+                    .append(' ')
+                    .append(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+
+            if (random.nextBoolean()) {
+                merchant.insert(random.nextInt(merchant.length()), ASCII_NOISE.charAt(random.nextInt(ASCII_NOISE.length())));
+            }
+
+            corpus.add(merchant.toString());
+        }
+
+        return corpus;
+    }
+
+    private static String randomAscii(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) random.nextInt(128);
+        }
+        return new String(chars);
+    }
+}
@@ -6,6 +6,7 @@ import com.issuingbank.authorizer.application.merchant.CreateMerchantRequest;
 import com.issuingbank.authorizer.application.merchant.CreateMerchantService;
 import com.issuingbank.authorizer.commons.JsonTransformer;
 import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
 import com.issuingbank.authorizer.domain.transaction.Transaction;
 import com.issuingbank.authorizer.infra.repositories.BalanceRepository;
 import com.issuingbank.authorizer.infra.repositories.TransactionRepository;
@@ -28,6 +29,8 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 
@@ -85,9 +88,9 @@ public class AuthorizerIntegrationTest {
 
         Balance balance = Balance.builder()
                 .account(accountNumber)
-                .cashBalance(BigDecimal.valueOf(200))
-                .mealBalance(BigDecimal.valueOf(750))
-                .foodBalance(BigDecimal.valueOf(800))
+                .balance(BalanceType.CASH, 20_000)
+                .balance(BalanceType.MEAL, 75_000)
+                .balance(BalanceType.FOOD, 80_000)
                 .build();
         balanceRepository.save(balance);
 
@@ -121,9 +124,9 @@ public class AuthorizerIntegrationTest {
 
         Balance balance = Balance.builder()
                 .account(accountNumber)
-                .cashBalance(BigDecimal.valueOf(200))
-                .mealBalance(BigDecimal.valueOf(750))
-                .foodBalance(BigDecimal.valueOf(10))
+                .balance(BalanceType.CASH, 20_000)
+                .balance(BalanceType.MEAL, 75_000)
+                .balance(BalanceType.FOOD, 1_000)
                 .build();
         balanceRepository.save(balance);
 
@@ -157,9 +160,9 @@ public class AuthorizerIntegrationTest {
 
         Balance balance = Balance.builder()
                 .account(accountNumber)
-                .cashBalance(BigDecimal.valueOf(0)) // Sem saldo de cash
-                .mealBalance(BigDecimal.valueOf(0)) // Sem saldo de meal
-                .foodBalance(BigDecimal.valueOf(10)) // Saldo insuficiente de food
+                .balance(BalanceType.CASH, 0) // Sem saldo de cash
+                .balance(BalanceType.MEAL, 0) // Sem saldo de meal
+                .balance(BalanceType.FOOD, 1_000) // Saldo insuficiente de food
                 .build();
         balanceRepository.save(balance);
 
@@ -186,7 +189,7 @@ public class AuthorizerIntegrationTest {
     }
 
     @Test
-    void test_should_not_authorize_repeated_transaction_with_same_idempotency_key() {
+    void test_should_replay_original_response_for_repeated_idempotency_key() {
         // GIVEN
         String accountNumber = "1004";
         String foodMcc = "5412";
@@ -195,9 +198,9 @@ public class AuthorizerIntegrationTest {
         // Saldo suficiente para a primeira autorização
         Balance balance = Balance.builder()
                 .account(accountNumber)
-                .cashBalance(BigDecimal.valueOf(300))
-                .mealBalance(BigDecimal.valueOf(750))
-                .foodBalance(BigDecimal.valueOf(800))
+                .balance(BalanceType.CASH, 30_000)
+                .balance(BalanceType.MEAL, 75_000)
+                .balance(BalanceType.FOOD, 80_000)
                 .build();
         balanceRepository.save(balance);
 
@@ -232,9 +235,13 @@ public class AuthorizerIntegrationTest {
                 .then()
                 .extract().response();
 
-        // THEN - Verifica se a segunda requisição não é autorizada devido à repetição da chave de idempotência
+        // THEN - Verifica se a segunda requisição devolve a resposta original sem debitar novamente
         Assertions.assertEquals(HttpStatus.OK.value(), secondResponse.getStatusCode());
-        Assertions.assertEquals(AuthorizationResponseType.UNEXPECTED_ERROR.getCode(), secondResponse.jsonPath().getString("code")); // Código específico para transação duplicada
+        Assertions.assertEquals(AuthorizationResponseType.APPROVED.getCode(), secondResponse.jsonPath().getString("code")); // Resposta original repetida
+
+        Balance newBalance = balanceRepository.findFirstByAccount(accountNumber).orElseThrow();
+        Assertions.assertEquals(1, transactionRepository.findAllByAccount(accountNumber).size());
+        Assertions.assertEquals(70_000, newBalance.getBalance(BalanceType.FOOD));
     }
 
     @Test
@@ -249,9 +256,9 @@ public class AuthorizerIntegrationTest {
         // Saldo suficiente de meal, mas insuficiente para outros tipos
         Balance balance = Balance.builder()
                 .account(accountNumber)
-                .cashBalance(BigDecimal.valueOf(0)) // Sem saldo de cash
-                .mealBalance(BigDecimal.valueOf(200)) // Saldo suficiente para meal
-                .foodBalance(BigDecimal.valueOf(0)) // Sem saldo de food
+                .balance(BalanceType.CASH, 0) // Sem saldo de cash
+                .balance(BalanceType.MEAL, 20_000) // Saldo suficiente para meal
+                .balance(BalanceType.FOOD, 0) // Sem saldo de food
                 .build();
         balanceRepository.save(balance);
 
@@ -288,5 +295,48 @@ public class AuthorizerIntegrationTest {
         Assertions.assertEquals(knownMealMcc, transaction.getResolvedMcc());
     }
 
+    @Test
+    void test_should_return_balance_with_iso_8601_updated_at() {
+        // GIVEN
+        String accountNumber = "1020";
+
+        Balance balance = Balance.builder()
+                .account(accountNumber)
+                .balance(BalanceType.FOOD, 12_345)
+                .build();
+        balanceRepository.save(balance);
+
+        // WHEN
+        Response response = RestAssured.given()
+                .when()
+                .get("/balances/" + accountNumber)
+                .then()
+                .extract().response();
+
+        // THEN
+        Assertions.assertEquals(HttpStatus.OK.value(), response.getStatusCode());
+        Assertions.assertEquals(accountNumber, response.jsonPath().getString("account"));
+        Assertions.assertEquals(0, new BigDecimal("123.45").compareTo(new BigDecimal(response.jsonPath().getString("balances.FOOD"))));
+        Assertions.assertDoesNotThrow(() -> Instant.parse(response.jsonPath().getString("updatedAt"))); // ISO-8601, não timestamp numérico
+    }
+
+    @Test
+    void test_should_return_balances_of_many_accounts() {
+        // GIVEN
+        balanceRepository.save(Balance.builder().account("1021").balance(BalanceType.MEAL, 1_000).build());
+        balanceRepository.save(Balance.builder().account("1022").balance(BalanceType.CASH, 2_000).build());
 
+        // WHEN
+        Response response = RestAssured.given()
+                .queryParam("accounts", "1021,1022,1023") // 1023 não tem saldo e fica fora da resposta
+                .when()
+                .get("/balances")
+                .then()
+                .extract().response();
+
+        // THEN
+        Assertions.assertEquals(HttpStatus.OK.value(), response.getStatusCode());
+        Assertions.assertEquals(List.of("1021", "1022"), response.jsonPath().getList("account", String.class).stream().sorted().toList());
+        response.jsonPath().getList("updatedAt", String.class).forEach(updatedAt -> Assertions.assertDoesNotThrow(() -> Instant.parse(updatedAt)));
+    }
 }
@@ -0,0 +1,105 @@
+package com.issuingbank.authorizer.integration;
+
+import com.issuingbank.authorizer.application.authorizer.AuthorizationDispatcher;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponseType;
+import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.infra.repositories.BalanceRepository;
+import com.issuingbank.authorizer.infra.repositories.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@SpringBootTest(properties = {
+        "authorizer.group-commit.enabled=true",
+        "authorizer.group-commit.window=20ms",
+        "authorizer.group-commit.workers=1",
+        "authorizer.admission.enabled=true"
+})
+public class GroupCommitIntegrationTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+    @Autowired
+    private AuthorizationDispatcher authorizationDispatcher;
+    @Autowired
+    private BalanceRepository balanceRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @Test
+    public void test_failed_authorization_does_not_roll_back_the_rest_of_the_batch() {
+        // GIVEN
+        int accounts = 10;
+        for (int i = 0; i < accounts; i++) {
+            balanceRepository.save(Balance.builder()
+                    .account("400" + i)
+                    .balance(BalanceType.FOOD, 10_000)
+                    .balance(BalanceType.MEAL, 0)
+                    .balance(BalanceType.CASH, 0)
+                    .build());
+        }
+        double commitsBefore = meterRegistry.counter("authorizer.group-commit.commits").count();
+
+        // WHEN
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(accounts + 1)) {
+            for (int i = 0; i < accounts; i++) {
+                String account = "400" + i;
+                responses.add(CompletableFuture.supplyAsync(() -> authorizationDispatcher.dispatch(UUID.randomUUID(),
+                        AuthorizationRequest.of(account, BigDecimal.TEN, "5411", "PADARIA DO ZE")).code(), executor));
+            }
+
+            // account without balance: TransactionAuthorizerService throws
+            responses.add(CompletableFuture.supplyAsync(() -> authorizationDispatcher.dispatch(UUID.randomUUID(),
+                    AuthorizationRequest.of("4999", BigDecimal.TEN, "5411", "PADARIA DO ZE")).code(), executor));
+        }
+
+        // THEN
+        for (int i = 0; i < accounts; i++) {
+            Assertions.assertEquals(AuthorizationResponseType.APPROVED.getCode(), responses.get(i).join());
+
+            Balance balance = balanceRepository.findFirstByAccount("400" + i).orElseThrow();
+            Assertions.assertEquals(9_000, balance.getBalance(BalanceType.FOOD));
+            Assertions.assertEquals(1, transactionRepository.findAllByAccount("400" + i).size());
+        }
+
+        Assertions.assertTrue(responses.get(accounts).isCompletedExceptionally());
+        Assertions.assertTrue(meterRegistry.counter("authorizer.group-commit.commits").count() - commitsBefore < accounts);
+    }
+}
@@ -0,0 +1,118 @@
+package com.issuingbank.authorizer.integration;
+
+import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponseType;
+import com.issuingbank.authorizer.application.authorizer.TransactionAuthorizerService;
+import com.issuingbank.authorizer.application.merchant.CreateMerchantRequest;
+import com.issuingbank.authorizer.application.merchant.CreateMerchantService;
+import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.infra.repositories.BalanceRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class JdbcBatchingIntegrationTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+    @Autowired
+    private CreateMerchantService createMerchantService;
+    @Autowired
+    private TransactionAuthorizerService transactionAuthorizerService;
+    @Autowired
+    private BalanceRepository balanceRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void test_merchant_import_is_written_in_batches() {
+        // GIVEN
+        int merchants = 120;
+        List<CreateMerchantRequest> requests = new ArrayList<>(merchants);
+        for (int i = 0; i < merchants; i++) {
+            requests.add(CreateMerchantRequest.create("IMPORTED MERCHANT " + i, "5411"));
+        }
+        statistics.clear();
+
+        // WHEN
+        createMerchantService.executeAll(requests);
+
+        // THEN
+        // 1 lookup of existing names + 3 sequence calls (blocks of 50) + 3 insert batches
+        Assertions.assertEquals(merchants, statistics.getEntityInsertCount());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 10,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void test_authorization_does_not_need_a_sequence_call_per_insert() {
+        // GIVEN
+        String accountNumber = "3001";
+        balanceRepository.save(Balance.builder()
+                .account(accountNumber)
+                .balance(BalanceType.FOOD, 1_000_000)
+                .balance(BalanceType.MEAL, 0)
+                .balance(BalanceType.CASH, 0)
+                .build());
+        int authorizations = 20;
+
+        // warms up the sequence blocks of transaction and balance_history
+        transactionAuthorizerService.execute(UUID.randomUUID(),
+                AuthorizationRequest.of(accountNumber, BigDecimal.ONE, "5411", "PADARIA DO ZE"));
+        statistics.clear();
+
+        // WHEN
+        for (int i = 0; i < authorizations; i++) {
+            String code = transactionAuthorizerService.execute(UUID.randomUUID(),
+                    AuthorizationRequest.of(accountNumber, BigDecimal.ONE, "5411", "PADARIA DO ZE")).code();
+            Assertions.assertEquals(AuthorizationResponseType.APPROVED.getCode(), code);
+        }
+
+        // THEN
+        // replay lookup, merchant lookup (first time only), locked balance select, balance update,
+        // transaction, balance_history and idempotent_response inserts
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= authorizations * 7L,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,126 @@
+package com.issuingbank.authorizer.integration;
+
+import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponse;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponseType;
+import com.issuingbank.authorizer.application.authorizer.TransactionAuthorizerService;
+import com.issuingbank.authorizer.application.sharding.ReshardingService;
+import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.domain.money.Money;
+import com.issuingbank.authorizer.infra.repositories.BalanceRepository;
+import com.issuingbank.authorizer.infra.repositories.TransactionRepository;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter;
+import com.issuingbank.authorizer.infra.sharding.ShardContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@SpringBootTest(properties = {
+        "authorizer.sharding.enabled=true",
+        "authorizer.sharding.shards[0].name=shard-0",
+        "authorizer.sharding.shards[1].name=shard-1"
+})
+public class ShardingIntegrationTest {
+    @Container
+    private static final PostgreSQLContainer<?> shard0 = new PostgreSQLContainer<>("postgres:15");
+    @Container
+    private static final PostgreSQLContainer<?> shard1 = new PostgreSQLContainer<>("postgres:15");
+    @Autowired
+    private BalanceRepository balanceRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TransactionAuthorizerService transactionAuthorizerService;
+    @Autowired
+    private ReshardingService reshardingService;
+    @Autowired
+    private AccountShardRouter accountShardRouter;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", shard0::getJdbcUrl);
+        registry.add("spring.datasource.username", shard0::getUsername);
+        registry.add("spring.datasource.password", shard0::getPassword);
+        registry.add("authorizer.sharding.shards[0].url", shard0::getJdbcUrl);
+        registry.add("authorizer.sharding.shards[1].url", shard1::getJdbcUrl);
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+        shard0.start();
+        shard1.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        shard0.stop();
+        shard1.stop();
+    }
+
+    @Test
+    public void test_authorizes_on_the_account_shard() {
+        // GIVEN
+        String accountNumber = "3001";
+        String shard = accountShardRouter.shardFor(accountNumber);
+        createBalance(accountNumber, 800);
+
+        // WHEN
+        AuthorizationResponse response = transactionAuthorizerService.execute(UUID.randomUUID(),
+                AuthorizationRequest.of(accountNumber, BigDecimal.valueOf(100), "5411", "PADARIA DO ZE"));
+
+        // THEN
+        Assertions.assertEquals(AuthorizationResponseType.APPROVED.getCode(), response.code());
+        Assertions.assertEquals(70_000, ShardContext.callOn(shard, () ->
+                balanceRepository.findFirstByAccount(accountNumber).orElseThrow().getBalance(BalanceType.FOOD)));
+        Assertions.assertTrue(ShardContext.callOn(otherShard(shard), () -> balanceRepository.findFirstByAccount(accountNumber)).isEmpty());
+    }
+
+    @Test
+    public void test_moved_account_keeps_its_history_and_is_authorized_on_the_new_shard() {
+        // GIVEN
+        String accountNumber = "3002";
+        createBalance(accountNumber, 800);
+        transactionAuthorizerService.execute(UUID.randomUUID(),
+                AuthorizationRequest.of(accountNumber, BigDecimal.valueOf(100), "5411", "PADARIA DO ZE"));
+        String target = otherShard(accountShardRouter.shardFor(accountNumber));
+
+        // WHEN
+        String source = reshardingService.move(accountNumber, target);
+        AuthorizationResponse response = transactionAuthorizerService.execute(UUID.randomUUID(),
+                AuthorizationRequest.of(accountNumber, BigDecimal.valueOf(100), "5411", "PADARIA DO ZE"));
+
+        // THEN
+        Assertions.assertEquals(AuthorizationResponseType.APPROVED.getCode(), response.code());
+        Assertions.assertEquals(target, accountShardRouter.shardFor(accountNumber));
+
+        Balance balance = ShardContext.callOn(target, () -> balanceRepository.findFirstByAccount(accountNumber).orElseThrow());
+        Assertions.assertEquals(60_000, balance.getBalance(BalanceType.FOOD));
+        Assertions.assertEquals(2, balance.getVersion());
+        Assertions.assertEquals(2, ShardContext.callOn(target, () -> transactionRepository.findAllByAccount(accountNumber)).size());
+        Assertions.assertTrue(ShardContext.callOn(source, () -> balanceRepository.findFirstByAccount(accountNumber)).isEmpty());
+    }
+
+    private String otherShard(String shard) {
+        return shard.equals("shard-0") ? "shard-1" : "shard-0";
+    }
+
+    private void createBalance(String accountNumber, long food) {
+        accountShardRouter.callOnShardOf(accountNumber, () -> balanceRepository.save(Balance.builder()
+                .account(accountNumber)
+                .balance(BalanceType.FOOD, Money.toCents(BigDecimal.valueOf(food)))
+                .balance(BalanceType.MEAL, 0)
+                .balance(BalanceType.CASH, 0)
+                .build()));
+    }
+}
@@ -0,0 +1,141 @@
+package com.issuingbank.authorizer.integration;
+
+import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponse;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponseType;
+import com.issuingbank.authorizer.application.authorizer.TransactionAuthorizerService;
+import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.domain.balance.BalanceHistory;
+import com.issuingbank.authorizer.domain.idempotency.IdempotentResponse;
+import com.issuingbank.authorizer.domain.money.Money;
+import com.issuingbank.authorizer.domain.transaction.Transaction;
+import com.issuingbank.authorizer.infra.repositories.BalanceHistoryRepository;
+import com.issuingbank.authorizer.infra.repositories.BalanceRepository;
+import com.issuingbank.authorizer.infra.repositories.IdempotentResponseRepository;
+import com.issuingbank.authorizer.infra.repositories.TransactionRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest(properties = "authorizer.persistence.mode=single-statement")
+public class SingleStatementDebitIntegrationTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+    @Autowired
+    private BalanceRepository balanceRepository;
+    @Autowired
+    private TransactionAuthorizerService transactionAuthorizerService;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private BalanceHistoryRepository balanceHistoryRepository;
+    @Autowired
+    private IdempotentResponseRepository idempotentResponseRepository;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @Test
+    public void test_debits_primary_balance_and_writes_transaction_and_history() {
+        // GIVEN
+        String accountNumber = "2001";
+        createBalance(accountNumber, 800, 750, 200);
+        UUID idempotencyKey = UUID.randomUUID();
+
+        // WHEN
+        AuthorizationResponse response = transactionAuthorizerService.execute(idempotencyKey,
+                AuthorizationRequest.of(accountNumber, BigDecimal.valueOf(100), "5411", "PADARIA DO ZE"));
+
+        // THEN
+        Assertions.assertEquals(AuthorizationResponseType.APPROVED.getCode(), response.code());
+
+        Balance newBalance = balanceRepository.findFirstByAccount(accountNumber).orElseThrow();
+        Assertions.assertEquals(70_000, newBalance.getBalance(BalanceType.FOOD));
+        Assertions.assertEquals(20_000, newBalance.getBalance(BalanceType.CASH));
+        Assertions.assertEquals(1, newBalance.getVersion());
+
+        Transaction transaction = transactionRepository.findByIdempotencyKey(idempotencyKey).orElseThrow();
+        Assertions.assertEquals("5411", transaction.getResolvedMcc());
+
+        BalanceHistory history = balanceHistoryRepository.findAll().stream()
+                .filter(h -> h.getTransaction().getId().equals(transaction.getId()))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertEquals(80_000, history.getPreviousBalance(BalanceType.FOOD));
+        Assertions.assertEquals(70_000, history.getNewBalance(BalanceType.FOOD));
+    }
+
+    @Test
+    public void test_falls_back_to_cash_when_primary_balance_is_insufficient() {
+        // GIVEN
+        String accountNumber = "2002";
+        createBalance(accountNumber, 10, 750, 200);
+
+        // WHEN
+        AuthorizationResponse response = transactionAuthorizerService.execute(UUID.randomUUID(),
+                AuthorizationRequest.of(accountNumber, BigDecimal.valueOf(100), "5411", "PADARIA DO ZE"));
+
+        // THEN
+        Assertions.assertEquals(AuthorizationResponseType.APPROVED.getCode(), response.code());
+
+        Balance newBalance = balanceRepository.findFirstByAccount(accountNumber).orElseThrow();
+        Assertions.assertEquals(1_000, newBalance.getBalance(BalanceType.FOOD));
+        Assertions.assertEquals(10_000, newBalance.getBalance(BalanceType.CASH));
+    }
+
+    @Test
+    public void test_declines_without_writing_transaction_and_records_response() {
+        // GIVEN
+        String accountNumber = "2003";
+        createBalance(accountNumber, 10, 0, 0);
+        UUID idempotencyKey = UUID.randomUUID();
+
+        // WHEN
+        AuthorizationResponse response = transactionAuthorizerService.execute(idempotencyKey,
+                AuthorizationRequest.of(accountNumber, BigDecimal.valueOf(100), "5411", "PADARIA DO ZE"));
+
+        // THEN
+        Assertions.assertEquals(AuthorizationResponseType.INSUFFICIENT_BALANCE.getCode(), response.code());
+
+        List<Transaction> transactions = transactionRepository.findAllByAccount(accountNumber);
+        Assertions.assertTrue(transactions.isEmpty());
+
+        IdempotentResponse recorded = idempotentResponseRepository.findById(idempotencyKey).orElseThrow();
+        Assertions.assertEquals(AuthorizationResponseType.INSUFFICIENT_BALANCE.getCode(), recorded.getResponseCode());
+    }
+
+    private void createBalance(String accountNumber, long food, long meal, long cash) {
+        balanceRepository.save(Balance.builder()
+                .account(accountNumber)
+                .balance(BalanceType.FOOD, Money.toCents(BigDecimal.valueOf(food)))
+                .balance(BalanceType.MEAL, Money.toCents(BigDecimal.valueOf(meal)))
+                .balance(BalanceType.CASH, Money.toCents(BigDecimal.valueOf(cash)))
+                .build());
+    }
+}
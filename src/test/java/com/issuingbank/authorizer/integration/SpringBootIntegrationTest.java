@@ -2,7 +2,11 @@ package com.issuingbank.authorizer.integration;
 
 import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
 import com.issuingbank.authorizer.application.authorizer.TransactionAuthorizerService;
+import com.issuingbank.authorizer.application.balance.BalanceInquiryService;
+import com.issuingbank.authorizer.application.balance.BalanceSnapshot;
 import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.domain.money.Money;
 import com.issuingbank.authorizer.domain.transaction.Transaction;
 import com.issuingbank.authorizer.infra.repositories.BalanceRepository;
 import com.issuingbank.authorizer.infra.repositories.TransactionRepository;
@@ -35,6 +39,8 @@ public class SpringBootIntegrationTest {
     private TransactionAuthorizerService transactionAuthorizerService;
     @Autowired
     private TransactionRepository transactionRepository;
+    @Autowired
+    private BalanceInquiryService balanceInquiryService;
 
     @DynamicPropertySource
     static void configureProperties(DynamicPropertyRegistry registry) {
@@ -64,13 +70,13 @@ public class SpringBootIntegrationTest {
         int expectedAuthorizedTransactions = 5; // Saldo suficiente para apenas 5 transações
 
         // Cria a conta com saldo de food suficiente para 5 transações
-        BigDecimal foodBalanceAmount = BigDecimal.valueOf(500);
+        long foodBalanceAmount = Money.toCents(BigDecimal.valueOf(500));
 
         Balance balance = Balance.builder()
                 .account(accountNumber)
-                .cashBalance(BigDecimal.ZERO)
-                .mealBalance(BigDecimal.ZERO)
-                .foodBalance(foodBalanceAmount) // Saldo suficiente para 5 transações de 100
+                .balance(BalanceType.CASH, 0)
+                .balance(BalanceType.MEAL, 0)
+                .balance(BalanceType.FOOD, foodBalanceAmount) // Saldo suficiente para 5 transações de 100
                 .build();
         balanceRepository.save(balance);
 
@@ -86,14 +92,36 @@ public class SpringBootIntegrationTest {
         // THEN
         List<Transaction> approvedTransactions = transactionRepository.findAllByAccount(accountNumber);
         Balance newBalance = balanceRepository.findFirstByAccount(accountNumber).orElseThrow();
-        BigDecimal sumOfTransactionsAmounts = approvedTransactions.stream()
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal::add)
-                .orElse(BigDecimal.ZERO);
+        long sumOfTransactionsAmounts = approvedTransactions.stream()
+                .mapToLong(Transaction::getAmount)
+                .sum();
 
         Assertions.assertEquals(expectedAuthorizedTransactions, (long) approvedTransactions.size());
-        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(newBalance.getFoodBalance()));
-        Assertions.assertEquals(0, foodBalanceAmount.compareTo(sumOfTransactionsAmounts));
+        Assertions.assertEquals(0, newBalance.getBalance(BalanceType.FOOD));
+        Assertions.assertEquals(foodBalanceAmount, sumOfTransactionsAmounts);
+    }
+
+    @Test
+    public void test_balance_inquiry_sees_debit_committed_on_this_node() {
+        // GIVEN
+        String accountNumber = "1007";
+        balanceRepository.save(Balance.builder()
+                .account(accountNumber)
+                .balance(BalanceType.FOOD, Money.toCents(BigDecimal.valueOf(500)))
+                .build());
+        BalanceSnapshot before = balanceInquiryService.find(accountNumber).orElseThrow();
+
+        // WHEN
+        transactionAuthorizerService.execute(UUID.randomUUID(),
+                AuthorizationRequest.of(accountNumber, BigDecimal.valueOf(100), "5411", "FOOD MERCHANT"));
+
+        // THEN
+        BalanceSnapshot after = balanceInquiryService.find(accountNumber).orElseThrow();
+        Assertions.assertEquals(50_000, before.getBalance(BalanceType.FOOD));
+        Assertions.assertEquals(40_000, after.getBalance(BalanceType.FOOD));
+        Assertions.assertEquals(before.version() + 1, after.version());
+        Assertions.assertEquals(List.of(accountNumber),
+                balanceInquiryService.findAll(List.of(accountNumber, "unknown")).stream().map(BalanceSnapshot::account).toList());
     }
 
     /**
@@ -0,0 +1,215 @@
+package com.issuingbank.authorizer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponseType;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for POST /authorize against a running authorizer.
+ * <p>
+ * Requests are sent at a constant arrival rate whatever the server's latency: request i is due at
+ * {@code start + i / rate}, is sent from its own virtual thread and its latency is measured from that due
+ * time. A closed loop of N clients would wait on slow answers and send less, hiding the latency the
+ * missing requests would have seen (coordinated omission).
+ * <p>
+ * Options, as {@code --name=value}:
+ * <ul>
+ *     <li>{@code target} base URL, default http://localhost:8080</li>
+ *     <li>{@code rate} requests per second, default 500; {@code duration} and {@code warmup} in seconds,
+ *     default 60 and 10. Requests due during the warmup are sent but not recorded</li>
+ *     <li>{@code max-in-flight} requests waiting for an answer, default 10000; past it requests are counted as
+ *     dropped instead of sent</li>
+ *     <li>{@code replay} JSONL file to replay; otherwise requests are synthesized from {@code accounts} (default 1),
+ *     {@code account-skew} (Zipf exponent, 0 is uniform), {@code mccs} ({@code mcc:weight,...}, default
+ *     5411:4,5811:4,1520:2), {@code merchants} (default 100), {@code min-amount}/{@code max-amount}
+ *     (default 0.01/1.00) and {@code seed}</li>
+ *     <li>{@code output} JSON report, default target/loadtest/loadtest-&lt;timestamp&gt;.json; {@code label} free
+ *     text copied to the report, e.g. the commit under test</li>
+ * </ul>
+ * Run with: mvn -Ploadtest verify -Dloadtest.args="--rate=1000 --duration=120 --label=$(git rev-parse --short HEAD)"
+ */
+public final class LoadGenerator {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Map<String, String> RESPONSE_TYPES = new HashMap<>();
+
+    static {
+        for (AuthorizationResponseType responseType : AuthorizationResponseType.values()) {
+            RESPONSE_TYPES.put(responseType.getCode(), responseType.name());
+        }
+    }
+
+    private final HttpClient httpClient;
+    private final URI authorizeUri;
+    private final LoadReport report = new LoadReport();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private LoadGenerator(HttpClient httpClient, URI authorizeUri) {
+        this.httpClient = httpClient;
+        this.authorizeUri = authorizeUri;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+
+        String target = options.getOrDefault("target", "http://localhost:8080");
+        double rate = Double.parseDouble(options.getOrDefault("rate", "500"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "10000"));
+        Path output = Path.of(options.getOrDefault("output", "target/loadtest/loadtest-" + System.currentTimeMillis() + ".json"));
+        LoadRequestSource source = source(options);
+
+        Instant startedAt = Instant.now();
+        LoadGenerator generator;
+        long sent;
+
+        try (HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(5)).build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            generator = new LoadGenerator(httpClient, URI.create(target + "/authorize"));
+            sent = generator.run(source, rate, warmup, duration, maxInFlight, executor);
+        }
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("label", options.getOrDefault("label", ""));
+        run.put("startedAt", startedAt.toString());
+        run.put("target", target);
+        run.put("rate", rate);
+        run.put("warmupSeconds", warmup.toSeconds());
+        run.put("durationSeconds", duration.toSeconds());
+        run.put("maxInFlight", maxInFlight);
+        run.put("source", source.describe());
+        run.put("sent", sent);
+
+        generator.report.write(output, run);
+        System.out.println(generator.report.describe());
+        System.out.println("Report written to " + output.toAbsolutePath());
+    }
+
+    /**
+     * @return requests sent after the warmup
+     */
+    private long run(LoadRequestSource source, double rate, Duration warmup, Duration duration, int maxInFlight,
+                     ExecutorService executor) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long sent = 0;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+
+            if (intended >= end) {
+                break;
+            }
+
+            for (long now = System.nanoTime(); now < intended; now = System.nanoTime()) {
+                LockSupport.parkNanos(intended - now);
+            }
+
+            boolean measured = intended >= measureFrom;
+            LoadRequestSource.LoadRequest request = source.next();
+
+            if (inFlight.get() >= maxInFlight) {
+                if (measured) {
+                    report.drop();
+                }
+                continue;
+            }
+
+            inFlight.incrementAndGet();
+            executor.execute(() -> send(request, intended, measured));
+            sent += measured ? 1 : 0;
+        }
+
+        return sent;
+    }
+
+    private void send(LoadRequestSource.LoadRequest request, long intended, boolean measured) {
+        String response;
+
+        try {
+            HttpResponse<byte[]> httpResponse = httpClient.send(HttpRequest.newBuilder(authorizeUri)
+                    .header("Content-Type", "application/json")
+                    .header("Idempotency-Key", request.idempotencyKey().toString())
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(request.body()))
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+            response = httpResponse.statusCode() == 200 ? responseType(httpResponse.body()) : LoadReport.HTTP_ERROR;
+        } catch (Exception e) {
+            response = LoadReport.HTTP_ERROR;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+
+        if (measured) {
+            report.record(response, System.nanoTime() - intended);
+        }
+    }
+
+    private static String responseType(byte[] body) {
+        try {
+            JsonNode code = OBJECT_MAPPER.readTree(body).get("code");
+            return code == null ? LoadReport.HTTP_ERROR : RESPONSE_TYPES.getOrDefault(code.asText(), LoadReport.HTTP_ERROR);
+        } catch (Exception e) {
+            return LoadReport.HTTP_ERROR;
+        }
+    }
+
+    private static LoadRequestSource source(Map<String, String> options) {
+        if (options.containsKey("replay")) {
+            return LoadRequestSource.replay(Path.of(options.get("replay")));
+        }
+
+        String[] mccWeights = options.getOrDefault("mccs", "5411:4,5811:4,1520:2").split(",");
+        String[] mccs = new String[mccWeights.length];
+        double[] weights = new double[mccWeights.length];
+        for (int i = 0; i < mccWeights.length; i++) {
+            String[] mccWeight = mccWeights[i].split(":");
+            mccs[i] = mccWeight[0];
+            weights[i] = mccWeight.length > 1 ? Double.parseDouble(mccWeight[1]) : 1;
+        }
+
+        return LoadRequestSource.synthetic(
+                Integer.parseInt(options.getOrDefault("accounts", "1")),
+                Double.parseDouble(options.getOrDefault("account-skew", "0")),
+                mccs, weights,
+                Integer.parseInt(options.getOrDefault("merchants", "100")),
+                new BigDecimal(options.getOrDefault("min-amount", "0.01")),
+                new BigDecimal(options.getOrDefault("max-amount", "1.00")),
+                Long.parseLong(options.getOrDefault("seed", "42")));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+
+        for (String arg : Arrays.stream(args).filter(arg -> !arg.isBlank()).toList()) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        return options;
+    }
+}
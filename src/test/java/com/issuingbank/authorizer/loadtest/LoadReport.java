@@ -0,0 +1,120 @@
+package com.issuingbank.authorizer.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponseType;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms per {@link AuthorizationResponseType}, plus HTTP_ERROR for non 200 answers and I/O
+ * failures. Latency is measured from the intended send time of each request, not from when it was actually
+ * sent, so a stalled server is charged for the requests that queued behind it.
+ * <p>
+ * The JSON report carries each histogram compressed and base64 encoded next to its percentiles, so runs
+ * against different commits can be diffed or merged later with HdrHistogram tools.
+ */
+final class LoadReport {
+    static final String HTTP_ERROR = "HTTP_ERROR";
+    static final String ALL = "ALL";
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    LoadReport() {
+        for (AuthorizationResponseType responseType : AuthorizationResponseType.values()) {
+            histograms.put(responseType.name(), newHistogram());
+        }
+        histograms.put(HTTP_ERROR, newHistogram());
+    }
+
+    void record(String response, long latencyNanos) {
+        histograms.get(response).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    /**
+     * A request not sent because max-in-flight requests were already waiting for the server.
+     */
+    void drop() {
+        dropped.increment();
+    }
+
+    void write(Path output, Map<String, Object> run) throws IOException {
+        Histogram all = newHistogram();
+        histograms.values().forEach(all::add);
+
+        Map<String, Object> responses = new LinkedHashMap<>();
+        responses.put(ALL, summary(all));
+        histograms.forEach((response, histogram) -> responses.put(response, summary(histogram)));
+
+        Map<String, Object> report = new LinkedHashMap<>(run);
+        report.put("completed", all.getTotalCount());
+        report.put("dropped", dropped.sum());
+        report.put("latencyUnit", "ms");
+        report.put("responses", responses);
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), report);
+    }
+
+    String describe() {
+        StringBuilder out = new StringBuilder();
+        histograms.forEach((response, histogram) -> {
+            if (histogram.getTotalCount() > 0) {
+                out.append(String.format("%-22s count=%-9d p50=%8.2fms p99=%8.2fms p99.9=%8.2fms max=%8.2fms%n", response,
+                        histogram.getTotalCount(), millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                        millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue())));
+            }
+        });
+        out.append("dropped=").append(dropped.sum());
+        return out.toString();
+    }
+
+    private static Map<String, Object> summary(Histogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+
+        if (histogram.getTotalCount() == 0) {
+            return summary;
+        }
+
+        summary.put("mean", millis(histogram.getMean()));
+        for (double percentile : PERCENTILES) {
+            summary.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    millis(histogram.getValueAtPercentile(percentile)));
+        }
+        summary.put("max", millis(histogram.getMaxValue()));
+
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        summary.put("histogram", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+
+        return summary;
+    }
+
+    private static double millis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    }
+}
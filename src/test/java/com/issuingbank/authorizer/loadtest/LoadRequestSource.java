@@ -0,0 +1,141 @@
+package com.issuingbank.authorizer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Bodies for POST /authorize, either replayed from a JSONL file (one request per line, same format as
+ * POST /authorize/batch) or synthesized from seeded distributions, so two runs send the same sequence.
+ * Only called from the single scheduling thread.
+ */
+abstract class LoadRequestSource {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    record LoadRequest(UUID idempotencyKey, byte[] body) {
+    }
+
+    abstract LoadRequest next();
+
+    abstract String describe();
+
+    /**
+     * Lines are sent in file order and the file is replayed from the start when it runs out. An idempotencyKey
+     * in the line is only used on the first pass; later passes get new keys so they are authorized again.
+     */
+    static LoadRequestSource replay(Path file) {
+        List<ObjectNode> lines = new ArrayList<>();
+
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    lines.add((ObjectNode) OBJECT_MAPPER.readTree(line));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+
+        if (lines.isEmpty()) {
+            throw new IllegalArgumentException(file + " has no requests");
+        }
+
+        return new LoadRequestSource() {
+            private long sent;
+
+            @Override
+            LoadRequest next() {
+                ObjectNode line = lines.get((int) (sent % lines.size())).deepCopy();
+                JsonNode key = line.remove("idempotencyKey");
+                boolean firstPass = sent++ < lines.size();
+
+                UUID idempotencyKey = firstPass && key != null && !key.isNull() ? UUID.fromString(key.asText()) : UUID.randomUUID();
+                return new LoadRequest(idempotencyKey, write(line));
+            }
+
+            @Override
+            String describe() {
+                return "replay:" + file;
+            }
+        };
+    }
+
+    /**
+     * Accounts {@code 1..accounts} drawn from a Zipf distribution (skew 0 is uniform), MCCs drawn by weight,
+     * merchants uniform among {@code merchants} names and amounts uniform in [minAmount, maxAmount].
+     */
+    static LoadRequestSource synthetic(int accounts, double accountSkew, String[] mccs, double[] mccWeights,
+                                       int merchants, BigDecimal minAmount, BigDecimal maxAmount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] accountCdf = cdf(zipfWeights(accounts, accountSkew));
+        double[] mccCdf = cdf(mccWeights);
+        long minCents = minAmount.movePointRight(2).longValueExact();
+        long maxCents = maxAmount.movePointRight(2).longValueExact();
+
+        return new LoadRequestSource() {
+            @Override
+            LoadRequest next() {
+                ObjectNode body = OBJECT_MAPPER.createObjectNode();
+                body.put("account", String.valueOf(sample(accountCdf, random) + 1));
+                body.put("totalAmount", BigDecimal.valueOf(random.nextLong(minCents, maxCents + 1), 2));
+                body.put("mcc", mccs[sample(mccCdf, random)]);
+                body.put("merchant", String.format("%-28s%s", "MERCHANT " + random.nextInt(merchants), "SAO PAULO BR"));
+
+                return new LoadRequest(new UUID(random.nextLong(), random.nextLong()), write(body));
+            }
+
+            @Override
+            String describe() {
+                return "synthetic:accounts=" + accounts + ",account-skew=" + accountSkew + ",mccs=" + Arrays.toString(mccs)
+                        + ",mcc-weights=" + Arrays.toString(mccWeights) + ",merchants=" + merchants
+                        + ",amount=" + minAmount + ".." + maxAmount + ",seed=" + seed;
+            }
+        };
+    }
+
+    private static double[] zipfWeights(int n, double skew) {
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = 1 / Math.pow(i + 1, skew);
+        }
+        return weights;
+    }
+
+    private static double[] cdf(double[] weights) {
+        double[] cdf = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cdf[i] = total;
+        }
+        for (int i = 0; i < cdf.length; i++) {
+            cdf[i] /= total;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+
+    private static byte[] write(JsonNode body) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
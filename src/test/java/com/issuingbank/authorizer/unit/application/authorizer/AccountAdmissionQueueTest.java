@@ -0,0 +1,108 @@
+package com.issuingbank.authorizer.unit.application.authorizer;
+
+import com.issuingbank.authorizer.application.authorizer.AccountAdmissionQueue;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccountAdmissionQueueTest {
+
+    private AccountAdmissionQueue admissionQueue(int stripes, Duration maxWait) {
+        AuthorizerProperties properties = new AuthorizerProperties();
+        properties.getAdmission().setStripes(stripes);
+        properties.getAdmission().setMaxWait(maxWait);
+
+        return new AccountAdmissionQueue(properties, new SimpleMeterRegistry());
+    }
+
+    // The number of stripes is rounded up to a power of two
+    @Test
+    public void test_rounds_stripe_count_up_to_power_of_two() {
+        // Given / When / Then
+        assertEquals(64, admissionQueue(50, Duration.ofMillis(100)).stripeCount());
+        assertEquals(1, admissionQueue(1, Duration.ofMillis(100)).stripeCount());
+    }
+
+    // Concurrent requests of the same account never run at the same time
+    @Test
+    public void test_serializes_concurrent_requests_of_the_same_account() throws InterruptedException {
+        // Given
+        AccountAdmissionQueue queue = admissionQueue(64, Duration.ofSeconds(5));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        int requests = 20;
+        CountDownLatch done = new CountDownLatch(requests);
+
+        // When
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                executor.submit(() -> {
+                    queue.admit("1001", () -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        sleep(2);
+                        return running.decrementAndGet();
+                    });
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+
+        // Then
+        assertEquals(1, maxRunning.get());
+    }
+
+    // A request that cannot take its stripe within max-wait is not run
+    @Test
+    public void test_returns_empty_when_stripe_is_not_acquired_in_time() throws InterruptedException {
+        // Given
+        AccountAdmissionQueue queue = admissionQueue(1, Duration.ofMillis(20));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = Thread.ofVirtual().start(() -> queue.admit("1001", () -> {
+            holding.countDown();
+            await(release);
+            return true;
+        }));
+        holding.await();
+
+        // When
+        Optional<Boolean> result = queue.admit("1002", () -> true);
+
+        // Then
+        assertFalse(result.isPresent());
+
+        release.countDown();
+        holder.join();
+        assertEquals(Optional.of(true), queue.admit("1002", () -> true));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.issuingbank.authorizer.unit.application.authorizer;
+
+import com.issuingbank.authorizer.application.authorizer.AccountAdmissionQueue;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationMetrics;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationDispatcher;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponse;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponseType;
+import com.issuingbank.authorizer.application.authorizer.ConcurrencyMode;
+import com.issuingbank.authorizer.application.authorizer.GroupCommitAuthorizer;
+import com.issuingbank.authorizer.application.authorizer.TransactionAuthorizerService;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthorizationDispatcherTest {
+    @Mock
+    private TransactionAuthorizerService authorizerService;
+
+    @Mock
+    private GroupCommitAuthorizer groupCommitAuthorizer;
+
+    private AuthorizerProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AuthorizationDispatcher dispatcher;
+
+    private final AuthorizationRequest request = AuthorizationRequest.of("1", BigDecimal.TEN, "5411", "merchant");
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuthorizerProperties();
+        properties.getConcurrency().setMode(ConcurrencyMode.OPTIMISTIC);
+        properties.getConcurrency().setMaxAttempts(3);
+        properties.getConcurrency().setInitialBackoff(Duration.ofMillis(1));
+        properties.getConcurrency().setMaxBackoff(Duration.ofMillis(2));
+
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new AuthorizationDispatcher(authorizerService, groupCommitAuthorizer,
+                new AccountAdmissionQueue(properties, meterRegistry), properties, new AuthorizationMetrics(meterRegistry));
+    }
+
+    // Optimistic conflicts are retried until an attempt succeeds
+    @Test
+    public void test_retries_optimistic_conflicts_until_success() {
+        // Given
+        when(authorizerService.execute(any(UUID.class), any(AuthorizationRequest.class)))
+                .thenThrow(new OptimisticLockingFailureException("conflict"))
+                .thenReturn(AuthorizationResponse.from(AuthorizationResponseType.APPROVED.getCode()));
+
+        // When
+        AuthorizationResponse response = dispatcher.dispatch(UUID.randomUUID(), request);
+
+        // Then
+        Assertions.assertEquals(AuthorizationResponseType.APPROVED.getCode(), response.code());
+        verify(authorizerService, times(2)).execute(any(UUID.class), any(AuthorizationRequest.class));
+    }
+
+    // Once every optimistic attempt conflicted the request is declined with 07
+    @Test
+    public void test_declines_when_optimistic_attempts_are_exhausted() {
+        // Given
+        when(authorizerService.execute(any(UUID.class), any(AuthorizationRequest.class)))
+                .thenThrow(new OptimisticLockingFailureException("conflict"));
+
+        // When
+        AuthorizationResponse response = dispatcher.dispatch(UUID.randomUUID(), request);
+
+        // Then
+        Assertions.assertEquals(AuthorizationResponseType.UNEXPECTED_ERROR.getCode(), response.code());
+        verify(authorizerService, times(3)).execute(any(UUID.class), any(AuthorizationRequest.class));
+        Assertions.assertEquals(1.0, meterRegistry.counter("authorizer.authorization.responses",
+                "response", "UNEXPECTED_ERROR", "code", "07").count());
+    }
+
+    // Pessimistic mode does not retry
+    @Test
+    public void test_does_not_retry_in_pessimistic_mode() {
+        // Given
+        properties.getConcurrency().setMode(ConcurrencyMode.PESSIMISTIC);
+        when(authorizerService.execute(any(UUID.class), any(AuthorizationRequest.class)))
+                .thenThrow(new OptimisticLockingFailureException("conflict"));
+
+        // When / Then
+        Assertions.assertThrows(OptimisticLockingFailureException.class, () -> dispatcher.dispatch(UUID.randomUUID(), request));
+        verify(authorizerService, times(1)).execute(any(UUID.class), any(AuthorizationRequest.class));
+    }
+
+    // With group commit enabled the authorization goes to the group commit worker, retried on conflicts
+    @Test
+    public void test_hands_authorization_to_group_commit_when_enabled() {
+        // Given
+        properties.getGroupCommit().setEnabled(true);
+        when(groupCommitAuthorizer.submit(any(UUID.class), any(AuthorizationRequest.class)))
+                .thenThrow(new OptimisticLockingFailureException("conflict"))
+                .thenReturn(AuthorizationResponse.from(AuthorizationResponseType.APPROVED.getCode()));
+
+        // When
+        AuthorizationResponse response = dispatcher.dispatch(UUID.randomUUID(), request);
+
+        // Then
+        Assertions.assertEquals(AuthorizationResponseType.APPROVED.getCode(), response.code());
+        verify(groupCommitAuthorizer, times(2)).submit(any(UUID.class), any(AuthorizationRequest.class));
+        verify(authorizerService, never()).execute(any(UUID.class), any(AuthorizationRequest.class));
+    }
+}
@@ -0,0 +1,119 @@
+package com.issuingbank.authorizer.unit.application.authorizer;
+
+import com.issuingbank.authorizer.application.authorizer.AuthorizationMetrics;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+public class AuthorizationMetricsTest {
+    private SimpleMeterRegistry meterRegistry;
+    private AuthorizationMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new AuthorizationMetrics(meterRegistry);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    // Debits are counted when their transaction commits, not when they are decided
+    @Test
+    public void test_debits_are_counted_after_commit() {
+        // Given
+        metrics.timeCommit();
+        metrics.recordDebit(BalanceType.FOOD, BalanceType.FOOD);
+
+        // When
+        double beforeCommit = debits(BalanceType.FOOD, false);
+        commit();
+
+        // Then
+        Assertions.assertEquals(0.0, beforeCommit);
+        Assertions.assertEquals(1.0, debits(BalanceType.FOOD, false));
+    }
+
+    // Debits of a rolled back transaction are never counted
+    @Test
+    public void test_debits_of_rolled_back_transaction_are_not_counted() {
+        // Given
+        metrics.recordDebit(BalanceType.CASH, BalanceType.FOOD);
+
+        // When
+        rollback();
+
+        // Then
+        Assertions.assertEquals(0.0, debits(BalanceType.CASH, true));
+    }
+
+    // Authorizations sharing one transaction, as in group commit, record its COMMIT once
+    @Test
+    public void test_commit_is_timed_once_per_transaction() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            metrics.timeCommit();
+            metrics.recordDebit(BalanceType.MEAL, BalanceType.MEAL);
+        }
+
+        // When
+        commit();
+
+        // Then
+        Assertions.assertEquals(1, meterRegistry.get("authorizer.authorization.stage").tag("stage", "commit").timer().count());
+        Assertions.assertEquals(3.0, debits(BalanceType.MEAL, false));
+    }
+
+    // Debits recorded after a savepoint mark are dropped when discarded
+    @Test
+    public void test_discarded_debits_are_not_counted() {
+        // Given
+        metrics.recordDebit(BalanceType.FOOD, BalanceType.FOOD);
+        int mark = metrics.debitMark();
+        metrics.recordDebit(BalanceType.FOOD, BalanceType.FOOD);
+
+        // When
+        metrics.discardDebitsSince(mark);
+        commit();
+
+        // Then
+        Assertions.assertEquals(1.0, debits(BalanceType.FOOD, false));
+    }
+
+    // Outside a transaction debits are counted right away
+    @Test
+    public void test_debits_outside_transaction_are_counted_right_away() {
+        // Given
+        TransactionSynchronizationManager.clear();
+
+        // When
+        metrics.recordDebit(BalanceType.FOOD, BalanceType.FOOD);
+
+        // Then
+        Assertions.assertEquals(1.0, debits(BalanceType.FOOD, false));
+    }
+
+    private double debits(BalanceType balanceType, boolean fallback) {
+        return meterRegistry.counter("authorizer.authorization.debits",
+                "balance_type", balanceType.name(), "fallback", String.valueOf(fallback)).count();
+    }
+
+    private static void commit() {
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private static void rollback() {
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+}
@@ -0,0 +1,177 @@
+package com.issuingbank.authorizer.unit.application.authorizer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationDispatcher;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponse;
+import com.issuingbank.authorizer.application.authorizer.BatchAuthorizationService;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchAuthorizationServiceTest {
+
+    @Mock
+    private AuthorizationDispatcher authorizationDispatcher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BatchAuthorizationService service;
+
+    @BeforeEach
+    void setUp() {
+        AuthorizerProperties properties = new AuthorizerProperties();
+        properties.getBatch().setParallelism(2);
+        service = new BatchAuthorizationService(authorizationDispatcher, objectMapper, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    // Responses keep the order of the request lines even when the first authorization is the slowest
+    @Test
+    public void test_responses_are_written_in_request_order() throws IOException {
+        // Given
+        UUID slow = UUID.randomUUID();
+        UUID declined = UUID.randomUUID();
+        UUID approved = UUID.randomUUID();
+        when(authorizationDispatcher.dispatch(any(), any())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0).equals(slow)) {
+                Thread.sleep(100);
+            }
+
+            return AuthorizationResponse.from(invocation.getArgument(0).equals(declined) ? "51" : "00");
+        });
+
+        // When
+        List<String> responses = authorize(line(slow, "1"), line(declined, "2"), "", line(approved, "3"));
+
+        // Then
+        Assertions.assertEquals(List.of(
+                "{\"idempotencyKey\":\"" + slow + "\",\"code\":\"00\"}",
+                "{\"idempotencyKey\":\"" + declined + "\",\"code\":\"51\"}",
+                "{\"idempotencyKey\":\"" + approved + "\",\"code\":\"00\"}"), responses);
+    }
+
+    // Unreadable lines and lines missing a field are answered with 07 without being dispatched
+    @Test
+    public void test_invalid_lines_are_answered_with_unexpected_error() throws IOException {
+        // Given
+        UUID withoutMerchant = UUID.randomUUID();
+
+        // When
+        List<String> responses = authorize("{not json", "{\"idempotencyKey\":\"" + withoutMerchant + "\",\"account\":\"1\",\"totalAmount\":10,\"mcc\":\"5411\"}");
+
+        // Then
+        Assertions.assertEquals(List.of(
+                "{\"idempotencyKey\":null,\"code\":\"07\"}",
+                "{\"idempotencyKey\":\"" + withoutMerchant + "\",\"code\":\"07\"}"), responses);
+        verify(authorizationDispatcher, never()).dispatch(any(), any());
+    }
+
+    // No more than authorizer.batch.parallelism lines are authorized at once
+    @Test
+    public void test_parallelism_is_bounded() throws IOException {
+        // Given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(authorizationDispatcher.dispatch(any(), any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(10);
+            running.decrementAndGet();
+            return AuthorizationResponse.from("00");
+        });
+
+        // When
+        String[] lines = new String[10];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = line(UUID.randomUUID(), String.valueOf(i));
+        }
+        List<String> responses = authorize(lines);
+
+        // Then
+        Assertions.assertEquals(10, responses.size());
+        Assertions.assertTrue(maxRunning.get() <= 2, "at most 2 authorizations at once, was " + maxRunning.get());
+        verify(authorizationDispatcher).dispatch(any(), eq(AuthorizationRequest.of("9", BigDecimal.TEN, "5411", "UBER EATS")));
+    }
+
+    // A line past authorizer.batch.max-line-length is answered with 07 and the lines after it are still authorized
+    @Test
+    public void test_oversized_line_is_answered_with_unexpected_error() throws IOException {
+        // Given
+        UUID approved = UUID.randomUUID();
+        when(authorizationDispatcher.dispatch(any(), any())).thenReturn(AuthorizationResponse.from("00"));
+        service = service(200, Long.MAX_VALUE);
+
+        // When
+        List<String> responses = authorize(line(UUID.randomUUID(), "1".repeat(200)), line(approved, "2"));
+
+        // Then
+        Assertions.assertEquals(List.of(
+                "{\"idempotencyKey\":null,\"code\":\"07\"}",
+                "{\"idempotencyKey\":\"" + approved + "\",\"code\":\"00\"}"), responses);
+        verify(authorizationDispatcher).dispatch(eq(approved), any());
+    }
+
+    // The line that passes authorizer.batch.max-body-length is answered with 07 and nothing after it is read
+    @Test
+    public void test_body_past_its_cap_is_not_read() throws IOException {
+        // Given
+        UUID approved = UUID.randomUUID();
+        String first = line(approved, "1");
+        when(authorizationDispatcher.dispatch(any(), any())).thenReturn(AuthorizationResponse.from("00"));
+        service = service(4_096, first.length() + 10);
+
+        // When
+        List<String> responses = authorize(first, line(UUID.randomUUID(), "2"), line(UUID.randomUUID(), "3"));
+
+        // Then
+        Assertions.assertEquals(List.of(
+                "{\"idempotencyKey\":\"" + approved + "\",\"code\":\"00\"}",
+                "{\"idempotencyKey\":null,\"code\":\"07\"}"), responses);
+        verify(authorizationDispatcher).dispatch(eq(approved), any());
+    }
+
+    private BatchAuthorizationService service(int maxLineLength, long maxBodyLength) {
+        service.close();
+        AuthorizerProperties properties = new AuthorizerProperties();
+        properties.getBatch().setParallelism(2);
+        properties.getBatch().setMaxLineLength(maxLineLength);
+        properties.getBatch().setMaxBodyLength(maxBodyLength);
+        return new BatchAuthorizationService(authorizationDispatcher, objectMapper, properties);
+    }
+
+    private List<String> authorize(String... lines) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.authorize(new BufferedReader(new StringReader(String.join("\n", lines))), out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private static String line(UUID idempotencyKey, String account) {
+        return "{\"idempotencyKey\":\"" + idempotencyKey + "\",\"account\":\"" + account
+                + "\",\"totalAmount\":10,\"mcc\":\"5411\",\"merchant\":\"UBER EATS\"}";
+    }
+}
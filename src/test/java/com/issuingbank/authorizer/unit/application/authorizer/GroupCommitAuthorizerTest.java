@@ -0,0 +1,47 @@
+package com.issuingbank.authorizer.unit.application.authorizer;
+
+import com.issuingbank.authorizer.application.authorizer.GroupCommitAuthorizer;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class GroupCommitAuthorizerTest {
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Without admission, batches holding the same accounts in different orders deadlock, so group commit does not start
+    @Test
+    public void test_refuses_to_start_without_admission() {
+        // Given
+        AuthorizerProperties properties = new AuthorizerProperties();
+        properties.getGroupCommit().setEnabled(true);
+        properties.getAdmission().setEnabled(false);
+
+        GroupCommitAuthorizer groupCommitAuthorizer = groupCommitAuthorizer(properties);
+
+        // When / Then
+        Assertions.assertThrows(IllegalStateException.class, groupCommitAuthorizer::start);
+    }
+
+    // With group commit disabled the admission setting does not matter
+    @Test
+    public void test_starts_nothing_when_disabled() {
+        // Given
+        AuthorizerProperties properties = new AuthorizerProperties();
+        properties.getGroupCommit().setEnabled(false);
+        properties.getAdmission().setEnabled(false);
+
+        // When / Then
+        Assertions.assertDoesNotThrow(groupCommitAuthorizer(properties)::start);
+    }
+
+    private GroupCommitAuthorizer groupCommitAuthorizer(AuthorizerProperties properties) {
+        return new GroupCommitAuthorizer(null, null, null, null, transactionManager, properties, new SimpleMeterRegistry());
+    }
+}
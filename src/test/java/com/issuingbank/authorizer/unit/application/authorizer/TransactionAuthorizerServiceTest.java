@@ -1,19 +1,40 @@
 package com.issuingbank.authorizer.unit.application.authorizer;
 
+import com.issuingbank.authorizer.application.authorizer.AuthorizationMetrics;
 import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
 import com.issuingbank.authorizer.application.authorizer.AuthorizationResponse;
 import com.issuingbank.authorizer.application.authorizer.AuthorizationResponseType;
+import com.issuingbank.authorizer.application.authorizer.BalanceHistoryMode;
+import com.issuingbank.authorizer.application.authorizer.ConcurrencyMode;
+import com.issuingbank.authorizer.application.authorizer.PersistenceMode;
 import com.issuingbank.authorizer.application.authorizer.TransactionAuthorizerService;
+import com.issuingbank.authorizer.application.balance.BalanceSnapshotCache;
 import com.issuingbank.authorizer.application.debits.DebitProcessor;
 import com.issuingbank.authorizer.application.debits.DebitResult;
+import com.issuingbank.authorizer.application.ledger.LedgerState;
 import com.issuingbank.authorizer.application.merchant.MccResolverService;
+import com.issuingbank.authorizer.application.merchant.MccRuleTable;
+import com.issuingbank.authorizer.application.merchant.MccRules;
+import com.issuingbank.authorizer.application.merchant.WalletFallback;
+import com.issuingbank.authorizer.commons.MccRuleFixtures;
 import com.issuingbank.authorizer.domain.balance.Balance;
 import com.issuingbank.authorizer.domain.balance.BalanceHistory;
 import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.domain.idempotency.IdempotentResponse;
+import com.issuingbank.authorizer.domain.ledger.LedgerPosting;
+import com.issuingbank.authorizer.domain.money.Money;
 import com.issuingbank.authorizer.domain.transaction.Transaction;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.journal.BalanceHistoryJournal;
 import com.issuingbank.authorizer.infra.repositories.BalanceHistoryRepository;
 import com.issuingbank.authorizer.infra.repositories.BalanceRepository;
+import com.issuingbank.authorizer.infra.repositories.IdempotentResponseRepository;
+import com.issuingbank.authorizer.infra.repositories.LedgerRepository;
+import com.issuingbank.authorizer.infra.repositories.SingleStatementDebitRepository;
+import com.issuingbank.authorizer.infra.repositories.SingleStatementDebitRepository.SingleStatementDebitResult;
 import com.issuingbank.authorizer.infra.repositories.TransactionRepository;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,12 +47,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -50,18 +76,50 @@ public class TransactionAuthorizerServiceTest {
     @Mock
     private BalanceHistoryRepository balanceHistoryRepository;
 
+    @Mock
+    private BalanceHistoryJournal balanceHistoryJournal;
+
+    @Mock
+    private IdempotentResponseRepository idempotentResponseRepository;
+
+    @Mock
+    private SingleStatementDebitRepository singleStatementDebitRepository;
+
+    @Mock
+    private LedgerRepository ledgerRepository;
+
     @Spy
     private DebitProcessor debitProcessor;
 
     @Mock
     private MccResolverService mccResolverService;
 
+    @Spy
+    private MccRuleTable mccRuleTable = MccRuleFixtures.table();
+
+    @Spy
+    private AuthorizerProperties properties = new AuthorizerProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private AuthorizationMetrics metrics = new AuthorizationMetrics(meterRegistry);
+
+    @Mock
+    private BalanceSnapshotCache balanceSnapshotCache;
+
+    @Spy
+    private AccountShardRouter accountShardRouter = new AccountShardRouter(new AuthorizerProperties(), null, null);
+
     @Captor
     private ArgumentCaptor<Balance> balanceCaptor;
 
     @Captor
     private ArgumentCaptor<Transaction> transactionCaptor;
 
+    @Captor
+    private ArgumentCaptor<IdempotentResponse> idempotentResponseCaptor;
+
     @Test
     void should_Return_Approved_When_Debit_Is_Successful() {
         // given
@@ -72,9 +130,9 @@ public class TransactionAuthorizerServiceTest {
 
         Balance initialBalance = Balance.builder()
                 .account(account)
-                .foodBalance(BigDecimal.ZERO)
-                .mealBalance(BigDecimal.ZERO)
-                .cashBalance(BigDecimal.valueOf(200.0))
+                .balance(BalanceType.FOOD, 0)
+                .balance(BalanceType.MEAL, 0)
+                .balance(BalanceType.CASH, 20_000)
                 .createdAt(Instant.now())
                 .build();
 
@@ -92,6 +150,7 @@ public class TransactionAuthorizerServiceTest {
         verify(balanceRepository).save(any(Balance.class));
         verify(transactionRepository).save(any(Transaction.class));
         verify(balanceHistoryRepository).save(any(BalanceHistory.class));
+        verify(balanceSnapshotCache).invalidate(account, initialBalance.getVersion() + 1);
     }
 
     @Test
@@ -104,9 +163,9 @@ public class TransactionAuthorizerServiceTest {
 
         Balance initialBalance = Balance.builder()
                 .account(account)
-                .foodBalance(BigDecimal.ZERO)
-                .mealBalance(BigDecimal.ZERO)
-                .cashBalance(BigDecimal.valueOf(50.0)) // Saldo insuficiente
+                .balance(BalanceType.FOOD, 0)
+                .balance(BalanceType.MEAL, 0)
+                .balance(BalanceType.CASH, 5_000) // Saldo insuficiente
                 .createdAt(Instant.now())
                 .build();
 
@@ -125,6 +184,7 @@ public class TransactionAuthorizerServiceTest {
         verify(balanceRepository, never()).save(any(Balance.class));
         verify(transactionRepository, never()).save(any(Transaction.class));
         verify(balanceHistoryRepository, never()).save(any(BalanceHistory.class));
+        verify(balanceSnapshotCache, never()).invalidate(anyString(), anyInt());
 
         verify(debitProcessor).doDebit(eq(initialBalance), eq(BalanceType.CASH), any(Transaction.class));
     }
@@ -139,14 +199,14 @@ public class TransactionAuthorizerServiceTest {
 
         Balance initialBalance = Balance.builder()
                 .account(account)
-                .foodBalance(BigDecimal.valueOf(50.0)) // Saldo insuficiente em FOOD
-                .mealBalance(BigDecimal.ZERO)
-                .cashBalance(BigDecimal.valueOf(200.0)) // Saldo suficiente em CASH
+                .balance(BalanceType.FOOD, 5_000) // Saldo insuficiente em FOOD
+                .balance(BalanceType.MEAL, 0)
+                .balance(BalanceType.CASH, 20_000) // Saldo suficiente em CASH
                 .createdAt(Instant.now())
                 .build();
 
-        Balance updatedBalance = initialBalance.debit(BalanceType.CASH, requestedAmount);
-        BigDecimal expectedCashBalance = initialBalance.getCashBalance().subtract(requestedAmount);
+        Balance updatedBalance = initialBalance.debit(BalanceType.CASH, Money.toCents(requestedAmount));
+        long expectedCashBalance = initialBalance.getBalance(BalanceType.CASH) - Money.toCents(requestedAmount);
 
         when(balanceRepository.findByAccount(anyString())).thenReturn(Optional.of(initialBalance));
         when(mccResolverService.resolve(anyString(), anyString())).thenReturn("5412");
@@ -171,10 +231,308 @@ public class TransactionAuthorizerServiceTest {
         Balance capturedBalance = balanceCaptor.getValue(); // Validate the captured Balance
         Assertions.assertEquals(updatedBalance, capturedBalance);
 
-        Assertions.assertEquals(initialBalance.getFoodBalance(), capturedBalance.getFoodBalance()); // Validate that food balance is the same
-        Assertions.assertEquals(expectedCashBalance, capturedBalance.getCashBalance());
+        Assertions.assertEquals(initialBalance.getBalance(BalanceType.FOOD), capturedBalance.getBalance(BalanceType.FOOD)); // Validate that food balance is the same
+        Assertions.assertEquals(expectedCashBalance, capturedBalance.getBalance(BalanceType.CASH));
 
         verify(debitProcessor).doDebit(eq(initialBalance), eq(BalanceType.FOOD), any(Transaction.class)); // Ensure that doDebit is called for FOOD and CASH
         verify(debitProcessor).doDebit(eq(initialBalance), eq(BalanceType.CASH), any(Transaction.class));
     }
+
+    @Test
+    void should_Record_Response_Code_For_Idempotency_Key() {
+        // given
+        String account = "account";
+        AuthorizationRequest validRequest = new AuthorizationRequest(account, BigDecimal.valueOf(100.0), "1234", "merchant");
+
+        Balance initialBalance = Balance.builder()
+                .account(account)
+                .balance(BalanceType.FOOD, 0)
+                .balance(BalanceType.MEAL, 0)
+                .balance(BalanceType.CASH, 5_000) // Saldo insuficiente
+                .createdAt(Instant.now())
+                .build();
+
+        when(balanceRepository.findByAccount(anyString())).thenReturn(Optional.of(initialBalance));
+        when(mccResolverService.resolve(anyString(), anyString())).thenReturn("1234");
+
+        UUID idempotencyKey = UUID.randomUUID();
+
+        // when
+        transactionAuthorizerService.execute(idempotencyKey, validRequest);
+
+        // then
+        verify(idempotentResponseRepository).save(idempotentResponseCaptor.capture());
+
+        IdempotentResponse recorded = idempotentResponseCaptor.getValue();
+        Assertions.assertEquals(idempotencyKey, recorded.getIdempotencyKey());
+        Assertions.assertEquals(account, recorded.getAccount());
+        Assertions.assertEquals(AuthorizationResponseType.INSUFFICIENT_BALANCE.getCode(), recorded.getResponseCode());
+    }
+
+    @Test
+    void should_Replay_Previous_Response_Without_Touching_Balance() {
+        // given
+        String account = "account";
+        UUID idempotencyKey = UUID.randomUUID();
+        AuthorizationRequest validRequest = new AuthorizationRequest(account, BigDecimal.valueOf(100.0), "1234", "merchant");
+
+        when(idempotentResponseRepository.findById(idempotencyKey)).thenReturn(Optional.of(
+                IdempotentResponse.create(idempotencyKey, account, AuthorizationResponseType.APPROVED.getCode())));
+
+        // when
+        AuthorizationResponse response = transactionAuthorizerService.execute(idempotencyKey, validRequest);
+
+        // then
+        Assertions.assertEquals(AuthorizationResponseType.APPROVED.getCode(), response.code());
+
+        verify(balanceRepository, never()).findByAccount(anyString());
+        verify(balanceRepository, never()).save(any(Balance.class));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(idempotentResponseRepository, never()).save(any(IdempotentResponse.class));
+    }
+
+    @Test
+    void should_Return_Unexpected_Error_When_Idempotency_Key_Is_Reused_For_Another_Account() {
+        // given
+        UUID idempotencyKey = UUID.randomUUID();
+        AuthorizationRequest validRequest = new AuthorizationRequest("other", BigDecimal.valueOf(100.0), "1234", "merchant");
+
+        when(idempotentResponseRepository.findById(idempotencyKey)).thenReturn(Optional.of(
+                IdempotentResponse.create(idempotencyKey, "account", AuthorizationResponseType.APPROVED.getCode())));
+
+        // when
+        AuthorizationResponse response = transactionAuthorizerService.execute(idempotencyKey, validRequest);
+
+        // then
+        Assertions.assertEquals(AuthorizationResponseType.UNEXPECTED_ERROR.getCode(), response.code());
+        verify(balanceRepository, never()).findByAccount(anyString());
+    }
+
+    @Test
+    void should_Read_Balance_Without_Lock_In_Optimistic_Mode() {
+        // given
+        properties.getConcurrency().setMode(ConcurrencyMode.OPTIMISTIC);
+
+        String account = "account";
+        AuthorizationRequest validRequest = new AuthorizationRequest(account, BigDecimal.valueOf(100.0), "1234", "merchant");
+
+        Balance initialBalance = Balance.builder()
+                .account(account)
+                .balance(BalanceType.FOOD, 0)
+                .balance(BalanceType.MEAL, 0)
+                .balance(BalanceType.CASH, 20_000)
+                .createdAt(Instant.now())
+                .build();
+
+        when(balanceRepository.findFirstByAccount(anyString())).thenReturn(Optional.of(initialBalance));
+        when(mccResolverService.resolve(anyString(), anyString())).thenReturn("1234");
+
+        // when
+        AuthorizationResponse response = transactionAuthorizerService.execute(UUID.randomUUID(), validRequest);
+
+        // then
+        Assertions.assertEquals(AuthorizationResponseType.APPROVED.getCode(), response.code());
+        verify(balanceRepository, never()).findByAccount(anyString());
+        verify(balanceRepository).save(any(Balance.class));
+    }
+
+    @Test
+    void should_Follow_The_Fallback_Chain_Of_The_Account_Program() {
+        // given
+        String account = "account";
+        AuthorizationRequest validRequest = new AuthorizationRequest(account, BigDecimal.valueOf(100.0), "5812", "merchant");
+
+        Balance initialBalance = Balance.builder()
+                .account(account)
+                .program("FLEX")
+                .balance(BalanceType.FOOD, 50_000)
+                .balance(BalanceType.CASH, 50_000)
+                .createdAt(Instant.now())
+                .build();
+
+        MccRules flexRules = MccRules.compile(MccRuleFixtures.rules(), List.of(
+                new WalletFallback("FLEX", BalanceType.MEAL, List.of(BalanceType.FOOD, BalanceType.CASH))));
+
+        doReturn(flexRules).when(mccRuleTable).current();
+        when(balanceRepository.findByAccount(anyString())).thenReturn(Optional.of(initialBalance));
+        when(mccResolverService.resolve(anyString(), anyString())).thenReturn("5812");
+
+        // when
+        AuthorizationResponse response = transactionAuthorizerService.execute(UUID.randomUUID(), validRequest);
+
+        // then
+        Assertions.assertEquals(AuthorizationResponseType.APPROVED.getCode(), response.code());
+        verify(balanceRepository).save(balanceCaptor.capture());
+        Assertions.assertEquals(40_000, balanceCaptor.getValue().getBalance(BalanceType.FOOD));
+        Assertions.assertEquals(50_000, balanceCaptor.getValue().getBalance(BalanceType.CASH));
+    }
+
+    @Test
+    void should_Debit_In_One_Statement_In_Single_Statement_Mode() {
+        // given
+        properties.getPersistence().setMode(PersistenceMode.SINGLE_STATEMENT);
+
+        AuthorizationRequest validRequest = new AuthorizationRequest("account", BigDecimal.valueOf(100.0), "5412", "merchant");
+
+        String foodWalletChains = mccRuleTable.current().chainsJson(BalanceType.FOOD);
+
+        when(mccResolverService.resolve(anyString(), anyString())).thenReturn("5412");
+        when(singleStatementDebitRepository.debitWithFallback(transactionCaptor.capture(), eq(foodWalletChains), anyString(), anyString()))
+                .thenReturn(Optional.of(new SingleStatementDebitResult(BalanceType.CASH, 2)));
+
+        UUID idempotencyKey = UUID.randomUUID();
+
+        // when
+        AuthorizationResponse response = transactionAuthorizerService.execute(idempotencyKey, validRequest);
+
+        // then
+        Assertions.assertEquals(AuthorizationResponseType.APPROVED.getCode(), response.code());
+        Assertions.assertEquals(idempotencyKey, transactionCaptor.getValue().getIdempotencyKey());
+
+        verify(balanceRepository, never()).findByAccount(anyString());
+        verify(balanceRepository, never()).save(any(Balance.class));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(idempotentResponseRepository, never()).save(any(IdempotentResponse.class));
+        verify(balanceSnapshotCache).invalidate("account", 2);
+    }
+
+    @Test
+    void should_Return_Insufficient_Balance_When_Single_Statement_Debits_Nothing() {
+        // given
+        properties.getPersistence().setMode(PersistenceMode.SINGLE_STATEMENT);
+
+        AuthorizationRequest validRequest = new AuthorizationRequest("account", BigDecimal.valueOf(100.0), "5412", "merchant");
+
+        String foodWalletChains = mccRuleTable.current().chainsJson(BalanceType.FOOD);
+
+        when(mccResolverService.resolve(anyString(), anyString())).thenReturn("5412");
+        when(singleStatementDebitRepository.debitWithFallback(any(Transaction.class), eq(foodWalletChains), anyString(), anyString()))
+                .thenReturn(Optional.of(new SingleStatementDebitResult(null, 0)));
+
+        // when
+        AuthorizationResponse response = transactionAuthorizerService.execute(UUID.randomUUID(), validRequest);
+
+        // then
+        Assertions.assertEquals(AuthorizationResponseType.INSUFFICIENT_BALANCE.getCode(), response.code());
+    }
+
+    @Test
+    void should_Append_Posting_Instead_Of_Updating_Balance_In_Ledger_Mode() {
+        // given
+        properties.getPersistence().setMode(PersistenceMode.LEDGER);
+
+        AuthorizationRequest validRequest = new AuthorizationRequest("account", BigDecimal.valueOf(100.0), "1234", "merchant");
+
+        // snapshot at seq 3 with CASH 20_000, plus two pending postings of -5_000
+        LedgerState state = new LedgerState(1L, "account", null, new long[]{0, 0, 10_000}, 7, 5, 3, Instant.now(), null);
+
+        when(mccResolverService.resolve(anyString(), anyString())).thenReturn("1234");
+        when(ledgerRepository.findState("account")).thenReturn(Optional.of(state));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            transaction.setId(42L);
+            return transaction;
+        });
+
+        ArgumentCaptor<LedgerPosting> postingCaptor = ArgumentCaptor.forClass(LedgerPosting.class);
+
+        // when
+        AuthorizationResponse response = transactionAuthorizerService.execute(UUID.randomUUID(), validRequest);
+
+        // then
+        Assertions.assertEquals(AuthorizationResponseType.APPROVED.getCode(), response.code());
+        verify(ledgerRepository).lockAccount("account");
+        verify(ledgerRepository).append(postingCaptor.capture());
+        Assertions.assertEquals(6, postingCaptor.getValue().seq());
+        Assertions.assertEquals(BalanceType.CASH, postingCaptor.getValue().wallet());
+        Assertions.assertEquals(-10_000, postingCaptor.getValue().amount());
+        Assertions.assertEquals(42L, postingCaptor.getValue().transactionId());
+
+        verify(balanceRepository, never()).findByAccount(anyString());
+        verify(balanceRepository, never()).save(any(Balance.class));
+        verify(balanceHistoryRepository).save(any(BalanceHistory.class));
+        verify(balanceSnapshotCache).invalidate("account", 8);
+    }
+
+    @Test
+    void should_Append_Balance_History_To_Journal_In_Journal_Mode() {
+        // given
+        properties.getBalanceHistory().setMode(BalanceHistoryMode.JOURNAL);
+
+        AuthorizationRequest validRequest = new AuthorizationRequest("account", BigDecimal.valueOf(100.0), "1234", "merchant");
+
+        Balance initialBalance = Balance.builder()
+                .account("account")
+                .balance(BalanceType.FOOD, 0)
+                .balance(BalanceType.MEAL, 0)
+                .balance(BalanceType.CASH, 20_000)
+                .createdAt(Instant.now())
+                .build();
+
+        when(balanceRepository.findByAccount(anyString())).thenReturn(Optional.of(initialBalance));
+        when(mccResolverService.resolve(anyString(), anyString())).thenReturn("1234");
+
+        // when
+        AuthorizationResponse response = transactionAuthorizerService.execute(UUID.randomUUID(), validRequest);
+
+        // then
+        Assertions.assertEquals(AuthorizationResponseType.APPROVED.getCode(), response.code());
+        verify(transactionRepository).save(any(Transaction.class));
+        verify(balanceHistoryJournal).append(any(BalanceHistory.class));
+        verify(balanceHistoryRepository, never()).save(any(BalanceHistory.class));
+    }
+
+    @Test
+    void should_Count_Fallback_To_Cash_Debits() {
+        // given
+        AuthorizationRequest validRequest = new AuthorizationRequest("account", BigDecimal.valueOf(100.0), "5412", "merchant");
+
+        Balance initialBalance = Balance.builder()
+                .account("account")
+                .balance(BalanceType.FOOD, 1_000)
+                .balance(BalanceType.MEAL, 0)
+                .balance(BalanceType.CASH, 20_000)
+                .createdAt(Instant.now())
+                .build();
+
+        when(balanceRepository.findByAccount(anyString())).thenReturn(Optional.of(initialBalance));
+        when(mccResolverService.resolve(anyString(), anyString())).thenReturn("5412");
+
+        // when
+        transactionAuthorizerService.execute(UUID.randomUUID(), validRequest);
+
+        // then
+        Assertions.assertEquals(1.0, meterRegistry.counter("authorizer.authorization.debits",
+                "balance_type", "CASH", "fallback", "true").count());
+        Assertions.assertEquals(0.0, meterRegistry.counter("authorizer.authorization.debits",
+                "balance_type", "FOOD", "fallback", "false").count());
+        Assertions.assertEquals(1, meterRegistry.get("authorizer.authorization.stage").tag("stage", "balance_lock").timer().count());
+    }
+
+    @Test
+    void should_Stamp_Debit_After_The_Previous_One() {
+        // given
+        AuthorizationRequest validRequest = new AuthorizationRequest("account", BigDecimal.valueOf(100.0), "5411", "merchant");
+        Instant lastDebitedAt = Instant.now().plusSeconds(60).truncatedTo(ChronoUnit.MICROS);
+
+        Balance initialBalance = Balance.builder()
+                .account("account")
+                .balance(BalanceType.FOOD, 20_000)
+                .balance(BalanceType.MEAL, 0)
+                .balance(BalanceType.CASH, 0)
+                .createdAt(Instant.now())
+                .updatedAt(lastDebitedAt)
+                .build();
+
+        when(balanceRepository.findByAccount(anyString())).thenReturn(Optional.of(initialBalance));
+        when(mccResolverService.resolve(anyString(), anyString())).thenReturn("5411");
+
+        // when
+        transactionAuthorizerService.execute(UUID.randomUUID(), validRequest);
+
+        // then
+        verify(transactionRepository).save(transactionCaptor.capture());
+        Assertions.assertEquals(lastDebitedAt.plus(1, ChronoUnit.MICROS), transactionCaptor.getValue().getCreatedAt());
+        verify(balanceHistoryRepository).save(argThat((BalanceHistory history) -> history.getCreatedAt().equals(transactionCaptor.getValue().getCreatedAt())));
+    }
 }
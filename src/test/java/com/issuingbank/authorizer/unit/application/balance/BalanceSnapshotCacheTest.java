@@ -0,0 +1,114 @@
+package com.issuingbank.authorizer.unit.application.balance;
+
+import com.issuingbank.authorizer.application.balance.BalanceSnapshot;
+import com.issuingbank.authorizer.application.balance.BalanceSnapshotCache;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class BalanceSnapshotCacheTest {
+
+    private final BalanceSnapshotCache cache = new BalanceSnapshotCache(new AuthorizerProperties());
+
+    private static BalanceSnapshot snapshot(String account, int version) {
+        return new BalanceSnapshot(account, "DEFAULT", new long[]{10_000, 0, 5_000}, version, Instant.now());
+    }
+
+    private static Function<String, Optional<BalanceSnapshot>> loader(AtomicInteger loads, int version) {
+        return account -> {
+            loads.incrementAndGet();
+            return Optional.of(snapshot(account, version));
+        };
+    }
+
+    // A loaded snapshot answers the next inquiries without loading again
+    @Test
+    public void test_loaded_snapshot_is_cached() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("1", loader(loads, 3));
+
+        // When
+        Optional<BalanceSnapshot> snapshot = cache.get("1", loader(loads, 3));
+
+        // Then
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(3, snapshot.orElseThrow().version());
+    }
+
+    // A committed debit makes the next inquiry load the account again
+    @Test
+    public void test_debit_invalidates_older_snapshot() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("1", loader(loads, 3));
+
+        // When
+        cache.invalidate("1", 4);
+        Optional<BalanceSnapshot> snapshot = cache.get("1", loader(loads, 4));
+
+        // Then
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(4, snapshot.orElseThrow().version());
+    }
+
+    // A snapshot older than the last committed debit is answered but not cached
+    @Test
+    public void test_stale_load_is_not_cached() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        cache.invalidate("1", 5);
+
+        // When
+        Optional<BalanceSnapshot> stale = cache.get("1", loader(loads, 4));
+        cache.get("1", loader(loads, 5));
+        cache.get("1", loader(loads, 5));
+
+        // Then
+        Assertions.assertEquals(4, stale.orElseThrow().version());
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    // Invalidating with a version the cached snapshot already has keeps it
+    @Test
+    public void test_invalidation_older_than_snapshot_is_ignored() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("1", loader(loads, 7));
+
+        // When
+        cache.invalidate("1", 6);
+        cache.get("1", loader(loads, 7));
+
+        // Then
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    // Multi-get loads only the missing accounts, in one call, and keeps the request order
+    @Test
+    public void test_get_all_loads_missing_accounts_at_once() {
+        // Given
+        cache.get("2", account -> Optional.of(snapshot(account, 1)));
+        List<Collection<String>> loaderCalls = new ArrayList<>();
+        Map<String, BalanceSnapshot> database = Map.of("1", snapshot("1", 1), "3", snapshot("3", 1));
+
+        // When
+        List<BalanceSnapshot> snapshots = cache.getAll(List.of("3", "2", "unknown", "1", "3"), accounts -> {
+            loaderCalls.add(List.copyOf(accounts));
+            return accounts.stream().filter(database::containsKey).map(database::get).toList();
+        });
+
+        // Then
+        Assertions.assertEquals(List.of("3", "2", "1"), snapshots.stream().map(BalanceSnapshot::account).toList());
+        Assertions.assertEquals(List.of(List.of("3", "unknown", "1")), loaderCalls);
+    }
+}
@@ -0,0 +1,104 @@
+package com.issuingbank.authorizer.unit.application.balance;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issuingbank.authorizer.application.balance.StatementCursor;
+import com.issuingbank.authorizer.application.balance.StatementEntry;
+import com.issuingbank.authorizer.application.balance.StatementService;
+import com.issuingbank.authorizer.infra.config.ObjectMapperConfig;
+import com.issuingbank.authorizer.infra.repositories.BalanceInquiryRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+@ExtendWith(MockitoExtension.class)
+public class StatementServiceTest {
+    private static final Instant CREATED_AT = Instant.parse("2026-10-18T12:00:00.123456Z");
+
+    @Mock
+    BalanceInquiryRepository balanceInquiryRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapperConfig().objectMapper();
+    private StatementService statementService;
+
+    @BeforeEach
+    void setUp() {
+        statementService = new StatementService(balanceInquiryRepository, objectMapper);
+    }
+
+    // A full page asks for one more row and points next at the last entry written
+    @Test
+    public void test_full_page_has_next_cursor() throws IOException {
+        // Given
+        streamRows(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        int written = statementService.write("1001", null, 2, out);
+
+        // Then
+        JsonNode page = objectMapper.readTree(out.toByteArray());
+        Mockito.verify(balanceInquiryRepository).streamStatement(ArgumentMatchers.eq("1001"), ArgumentMatchers.isNull(),
+                ArgumentMatchers.eq(3), ArgumentMatchers.any());
+        Assertions.assertEquals(2, written);
+        Assertions.assertEquals(2, page.get("entries").size());
+        Assertions.assertEquals(new StatementCursor(CREATED_AT, 2), StatementCursor.decode(page.get("next").asText()));
+    }
+
+    // The last page has no next cursor
+    @Test
+    public void test_last_page_has_no_next_cursor() throws IOException {
+        // Given
+        streamRows(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        statementService.write("1001", new StatementCursor(CREATED_AT, 10), 2, out);
+
+        // Then
+        JsonNode page = objectMapper.readTree(out.toByteArray());
+        JsonNode entry = page.get("entries").get(0);
+        Assertions.assertTrue(page.get("next").isNull());
+        Assertions.assertEquals(101, entry.get("transactionId").asLong());
+        Assertions.assertEquals("2026-10-18T12:00:00.123456Z", entry.get("createdAt").asText());
+        Assertions.assertEquals(1.0, entry.get("previousBalances").get("FOOD").asDouble());
+        Assertions.assertEquals(0.5, entry.get("balances").get("FOOD").asDouble());
+        Assertions.assertFalse(entry.has("id"));
+    }
+
+    // Cursors survive the round trip with microsecond precision and garbage is rejected
+    @Test
+    public void test_cursor_round_trip() {
+        // Given
+        StatementCursor cursor = new StatementCursor(CREATED_AT, 42);
+
+        // When
+        StatementCursor decoded = StatementCursor.decode(cursor.encode());
+
+        // Then
+        Assertions.assertEquals(cursor, decoded);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StatementCursor.decode("not-a-cursor"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streamRows(int rows) {
+        Mockito.doAnswer(invocation -> {
+            Consumer<StatementEntry> consumer = invocation.getArgument(3, Consumer.class);
+            for (long id = 1; id <= rows; id++) {
+                consumer.accept(StatementEntry.of(id, 100 + id, CREATED_AT, new long[]{100}, new long[]{50}));
+            }
+            return null;
+        }).when(balanceInquiryRepository).streamStatement(ArgumentMatchers.anyString(), ArgumentMatchers.any(),
+                ArgumentMatchers.anyInt(), ArgumentMatchers.any());
+    }
+}
@@ -8,7 +8,6 @@ import com.issuingbank.authorizer.domain.transaction.Transaction;
 import com.issuingbank.authorizer.domain.transaction.TransactionType;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -20,17 +19,17 @@ public class DebitProcessorTest {
     @Test
     public void test_debit_processed_when_sufficient_balance() {
         // Given
-        BigDecimal initialFoodBalance = BigDecimal.valueOf(100);
-        BigDecimal initialMealBalance = BigDecimal.valueOf(150);
-        BigDecimal initialCashBalance = BigDecimal.valueOf(350);
+        long initialFoodBalance = 10_000;
+        long initialMealBalance = 15_000;
+        long initialCashBalance = 35_000;
 
-        BigDecimal transactionAmount = BigDecimal.valueOf(50);
+        long transactionAmount = 5_000;
 
         Balance currentBalance = Balance.builder()
                 .account("1")
-                .foodBalance(initialFoodBalance)
-                .mealBalance(initialMealBalance)
-                .cashBalance(initialCashBalance)
+                .balance(BalanceType.FOOD, initialFoodBalance)
+                .balance(BalanceType.MEAL, initialMealBalance)
+                .balance(BalanceType.CASH, initialCashBalance)
                 .build();
 
         BalanceType sourceBalanceType = BalanceType.FOOD;
@@ -44,33 +43,33 @@ public class DebitProcessorTest {
         Optional<DebitResult> result = new DebitProcessor().doDebit(currentBalance, sourceBalanceType, requestedTransaction);
 
         // Then
-        BigDecimal expectedFoodBalance = initialFoodBalance.subtract(transactionAmount);
+        long expectedFoodBalance = initialFoodBalance - transactionAmount;
 
         assertTrue(result.isPresent());
 
         DebitResult debitResult = result.get();
 
-        assertEquals(expectedFoodBalance, debitResult.newBalance().getFoodBalance());
-        assertEquals(initialMealBalance, debitResult.newBalance().getMealBalance());
-        assertEquals(initialCashBalance, debitResult.newBalance().getCashBalance());
+        assertEquals(expectedFoodBalance, debitResult.newBalance().getBalance(BalanceType.FOOD));
+        assertEquals(initialMealBalance, debitResult.newBalance().getBalance(BalanceType.MEAL));
+        assertEquals(initialCashBalance, debitResult.newBalance().getBalance(BalanceType.CASH));
 
-        assertNotEquals(currentBalance.getFoodBalance(), debitResult.newBalance().getFoodBalance());
+        assertNotEquals(currentBalance.getBalance(BalanceType.FOOD), debitResult.newBalance().getBalance(BalanceType.FOOD));
     }
 
     @Test
     public void test_history_when_sufficient_balance() {
         // Given
-        BigDecimal initialFoodBalance = BigDecimal.valueOf(100);
-        BigDecimal initialMealBalance = BigDecimal.valueOf(150);
-        BigDecimal initialCashBalance = BigDecimal.valueOf(350);
+        long initialFoodBalance = 10_000;
+        long initialMealBalance = 15_000;
+        long initialCashBalance = 35_000;
 
-        BigDecimal transactionAmount = BigDecimal.valueOf(50);
+        long transactionAmount = 5_000;
 
         Balance currentBalance = Balance.builder()
                 .account("1")
-                .foodBalance(initialFoodBalance)
-                .mealBalance(initialMealBalance)
-                .cashBalance(initialCashBalance)
+                .balance(BalanceType.FOOD, initialFoodBalance)
+                .balance(BalanceType.MEAL, initialMealBalance)
+                .balance(BalanceType.CASH, initialCashBalance)
                 .build();
 
         BalanceType sourceBalanceType = BalanceType.FOOD;
@@ -84,34 +83,34 @@ public class DebitProcessorTest {
         Optional<DebitResult> result = new DebitProcessor().doDebit(currentBalance, sourceBalanceType, requestedTransaction);
 
         // Then
-        BigDecimal expectedFoodBalance = initialFoodBalance.subtract(transactionAmount);
+        long expectedFoodBalance = initialFoodBalance - transactionAmount;
 
         assertTrue(result.isPresent());
 
         DebitResult debitResult = result.get();
 
-        assertEquals(initialMealBalance, debitResult.balanceHistory().getPreviousMealBalance());
-        assertEquals(initialMealBalance, debitResult.balanceHistory().getNewMealBalance());
+        assertEquals(initialMealBalance, debitResult.balanceHistory().getPreviousBalance(BalanceType.MEAL));
+        assertEquals(initialMealBalance, debitResult.balanceHistory().getNewBalance(BalanceType.MEAL));
 
-        assertEquals(initialCashBalance, debitResult.balanceHistory().getPreviousCashBalance());
-        assertEquals(initialCashBalance, debitResult.balanceHistory().getNewCashBalance());
+        assertEquals(initialCashBalance, debitResult.balanceHistory().getPreviousBalance(BalanceType.CASH));
+        assertEquals(initialCashBalance, debitResult.balanceHistory().getNewBalance(BalanceType.CASH));
 
-        assertEquals(initialFoodBalance, debitResult.balanceHistory().getPreviousFoodBalance());
-        assertEquals(expectedFoodBalance, debitResult.balanceHistory().getNewFoodBalance());
+        assertEquals(initialFoodBalance, debitResult.balanceHistory().getPreviousBalance(BalanceType.FOOD));
+        assertEquals(expectedFoodBalance, debitResult.balanceHistory().getNewBalance(BalanceType.FOOD));
     }
 
     @Test
     public void test_debit_not_processed_when_insufficient_balance() {
         // Given
         Balance currentBalance = Balance.builder()
-                .cashBalance(BigDecimal.ZERO)
-                .mealBalance(BigDecimal.ZERO)
-                .foodBalance(BigDecimal.TEN)
+                .balance(BalanceType.CASH, 0)
+                .balance(BalanceType.MEAL, 0)
+                .balance(BalanceType.FOOD, 1_000)
                 .build();
 
         BalanceType sourceBalanceType = BalanceType.FOOD;
 
-        BigDecimal transactionAmount = BigDecimal.valueOf(50);
+        long transactionAmount = 5_000;
 
         Transaction requestedTransaction = Transaction.builder()
                 .amount(transactionAmount)
@@ -0,0 +1,136 @@
+package com.issuingbank.authorizer.unit.application.ledger;
+
+import com.issuingbank.authorizer.application.authorizer.PersistenceMode;
+import com.issuingbank.authorizer.application.ledger.LedgerCompactor;
+import com.issuingbank.authorizer.application.ledger.LedgerState;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.repositories.LedgerRepository;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerCompactorTest {
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    @Mock
+    LedgerRepository ledgerRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private final AuthorizerProperties properties = new AuthorizerProperties();
+
+    // Full rounds are followed by another one until a partial round, and each account's pending postings are counted
+    @Test
+    public void test_run_compacts_until_a_partial_round() {
+        // Given
+        properties.getLedger().setCompactionBatchSize(2);
+        Instant postedSince = NOW.minus(properties.getLedger().getLookback());
+        Mockito.when(ledgerRepository.findAccountsToCompact(postedSince, 2))
+                .thenReturn(List.of("1001", "1002"), List.of("1003"));
+        for (String account : List.of("1001", "1002", "1003")) {
+            Mockito.when(ledgerRepository.findState(account)).thenReturn(Optional.of(state(account, 4, 1)));
+        }
+        Mockito.when(ledgerRepository.updateSnapshot(ArgumentMatchers.any(), ArgumentMatchers.eq(NOW))).thenReturn(true);
+
+        LedgerCompactor compactor = new LedgerCompactor(ledgerRepository, new AccountShardRouter(properties, null, null), transactionManager,
+                properties, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // When
+        long postings = compactor.run();
+
+        // Then
+        Assertions.assertEquals(9, postings);
+        Mockito.verify(ledgerRepository, Mockito.times(3)).updateSnapshot(ArgumentMatchers.any(), ArgumentMatchers.eq(NOW));
+    }
+
+    // A snapshot moved by another node is not counted, and without pending postings nothing is written
+    @Test
+    public void test_run_skips_snapshots_already_moved() {
+        // Given
+        Mockito.when(ledgerRepository.findAccountsToCompact(ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .thenReturn(List.of("1001", "1002"));
+        LedgerState moved = state("1001", 4, 1);
+        Mockito.when(ledgerRepository.findState("1001")).thenReturn(Optional.of(moved));
+        Mockito.when(ledgerRepository.findState("1002")).thenReturn(Optional.of(state("1002", 4, 4)));
+        Mockito.when(ledgerRepository.updateSnapshot(moved, NOW)).thenReturn(false);
+
+        LedgerCompactor compactor = new LedgerCompactor(ledgerRepository, new AccountShardRouter(properties, null, null), transactionManager,
+                properties, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // When
+        long postings = compactor.run();
+
+        // Then
+        Assertions.assertEquals(0, postings);
+        Mockito.verify(ledgerRepository).updateSnapshot(moved, NOW);
+    }
+
+    // Outside LEDGER mode every pending posting is folded before the node starts, however old
+    @Test
+    public void test_startup_outside_ledger_mode_folds_every_pending_posting() {
+        // Given
+        Mockito.when(ledgerRepository.findAccountsToCompact(Instant.EPOCH, properties.getLedger().getCompactionBatchSize()))
+                .thenReturn(List.of("1001"));
+        Mockito.when(ledgerRepository.findState("1001")).thenReturn(Optional.of(state("1001", 4, 1)));
+        Mockito.when(ledgerRepository.updateSnapshot(ArgumentMatchers.any(), ArgumentMatchers.eq(NOW))).thenReturn(true);
+        Mockito.when(ledgerRepository.findAccountsToCompact(Instant.EPOCH, 1)).thenReturn(List.of());
+
+        LedgerCompactor compactor = new LedgerCompactor(ledgerRepository, new AccountShardRouter(properties, null, null), transactionManager,
+                properties, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // When
+        compactor.foldPendingPostings();
+
+        // Then
+        Mockito.verify(ledgerRepository).updateSnapshot(ArgumentMatchers.any(), ArgumentMatchers.eq(NOW));
+    }
+
+    // A node outside LEDGER mode does not start while postings it could not fold are pending
+    @Test
+    public void test_startup_outside_ledger_mode_fails_with_postings_left() {
+        // Given
+        properties.getLedger().setCompactionBatchSize(1);
+        Mockito.when(ledgerRepository.findAccountsToCompact(Instant.EPOCH, 1)).thenReturn(List.of("1001"));
+        Mockito.when(ledgerRepository.findState("1001")).thenReturn(Optional.of(state("1001", 4, 1)));
+        Mockito.when(ledgerRepository.updateSnapshot(ArgumentMatchers.any(), ArgumentMatchers.eq(NOW))).thenReturn(false);
+
+        LedgerCompactor compactor = new LedgerCompactor(ledgerRepository, new AccountShardRouter(properties, null, null), transactionManager,
+                properties, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // When / Then
+        Assertions.assertThrows(IllegalStateException.class, compactor::foldPendingPostings);
+    }
+
+    // In LEDGER mode startup leaves the postings to the scheduled runs
+    @Test
+    public void test_startup_in_ledger_mode_folds_nothing() {
+        // Given
+        properties.getPersistence().setMode(PersistenceMode.LEDGER);
+        LedgerCompactor compactor = new LedgerCompactor(ledgerRepository, new AccountShardRouter(properties, null, null), transactionManager,
+                properties, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // When
+        compactor.foldPendingPostings();
+
+        // Then
+        Mockito.verifyNoInteractions(ledgerRepository);
+    }
+
+    private static LedgerState state(String account, long seq, long snapshotSeq) {
+        return new LedgerState(1L, account, "FLEX", new long[]{0, 0, 1_000}, (int) seq, seq, snapshotSeq, NOW, NOW);
+    }
+}
@@ -0,0 +1,94 @@
+package com.issuingbank.authorizer.unit.application.merchant;
+
+import com.issuingbank.authorizer.application.merchant.CreateMerchantPatternRequest;
+import com.issuingbank.authorizer.application.merchant.CreateMerchantPatternService;
+import com.issuingbank.authorizer.application.merchant.MerchantPatternIndex;
+import com.issuingbank.authorizer.domain.merchant.MerchantPattern;
+import com.issuingbank.authorizer.domain.merchant.MerchantPatternType;
+import com.issuingbank.authorizer.infra.repositories.MerchantPatternRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+public class CreateMerchantPatternServiceTest {
+
+    @InjectMocks
+    private CreateMerchantPatternService createMerchantPatternService;
+
+    @Mock
+    MerchantPatternRepository merchantPatternRepository;
+
+    @Mock
+    MerchantPatternIndex merchantPatternIndex;
+
+    // Creating a pattern saves it normalized and asks the index to rebuild
+    @Test
+    public void test_creating_pattern_saves_it_and_requests_rebuild() {
+        // Given
+        Mockito.when(merchantPatternRepository.findByNormalizedPatternAndMatchType("UBER EATS", MerchantPatternType.PREFIX))
+                .thenReturn(Optional.empty());
+        Mockito.when(merchantPatternRepository.save(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        MerchantPattern pattern = createMerchantPatternService.execute(CreateMerchantPatternRequest.create("Uber  Eats*", "5811"));
+
+        // Then
+        Assertions.assertEquals("UBER EATS", pattern.getNormalizedPattern());
+        Assertions.assertEquals(MerchantPatternType.PREFIX, pattern.getMatchType());
+        Assertions.assertEquals("5811", pattern.getCorrectedMcc());
+        Mockito.verify(merchantPatternIndex).requestRebuild();
+    }
+
+    // A pattern starting and ending with the wildcard is a keyword pattern
+    @Test
+    public void test_pattern_between_wildcards_is_keyword() {
+        // Given
+        Mockito.when(merchantPatternRepository.findByNormalizedPatternAndMatchType("IFOOD", MerchantPatternType.KEYWORD))
+                .thenReturn(Optional.empty());
+        Mockito.when(merchantPatternRepository.save(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        MerchantPattern pattern = createMerchantPatternService.execute(CreateMerchantPatternRequest.create("*iFood*", "5812"));
+
+        // Then
+        Assertions.assertEquals("IFOOD", pattern.getNormalizedPattern());
+        Assertions.assertEquals(MerchantPatternType.KEYWORD, pattern.getMatchType());
+    }
+
+    // Patterns without a trailing wildcard or without letters are rejected
+    @Test
+    public void test_rejects_invalid_patterns() {
+        // When / Then
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> createMerchantPatternService.execute(CreateMerchantPatternRequest.create("UBER EATS", "5811")));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> createMerchantPatternService.execute(CreateMerchantPatternRequest.create("*", "5811")));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> createMerchantPatternService.execute(CreateMerchantPatternRequest.create("** *", "5811")));
+        Mockito.verifyNoInteractions(merchantPatternRepository, merchantPatternIndex);
+    }
+
+    // Creating a pattern that already exists fails without rebuilding
+    @Test
+    public void test_creating_existing_pattern_fails() {
+        // Given
+        Mockito.when(merchantPatternRepository.findByNormalizedPatternAndMatchType("UBER EATS", MerchantPatternType.PREFIX))
+                .thenReturn(Optional.of(MerchantPattern.builder().normalizedPattern("UBER EATS").build()));
+
+        // When / Then
+        Assertions.assertThrows(RuntimeException.class,
+                () -> createMerchantPatternService.execute(CreateMerchantPatternRequest.create("UBER EATS*", "5811")));
+        Mockito.verify(merchantPatternRepository, Mockito.never()).save(ArgumentMatchers.any());
+        Mockito.verifyNoInteractions(merchantPatternIndex);
+    }
+}
@@ -0,0 +1,124 @@
+package com.issuingbank.authorizer.unit.application.merchant;
+
+import com.issuingbank.authorizer.application.merchant.CreateMerchantRequest;
+import com.issuingbank.authorizer.application.merchant.CreateMerchantService;
+import com.issuingbank.authorizer.application.merchant.MerchantMccCache;
+import com.issuingbank.authorizer.domain.merchant.Merchant;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.repositories.MerchantRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+public class CreateMerchantServiceTest {
+
+    @InjectMocks
+    private CreateMerchantService createMerchantService;
+
+    @Mock
+    MerchantRepository merchantRepository;
+
+    @Spy
+    MerchantMccCache merchantMccCache = new MerchantMccCache(new AuthorizerProperties());
+
+    // Importing merchants saves them all at once and writes them through to the cache
+    @Test
+    public void test_importing_merchants_saves_all_in_one_call_and_caches_them() {
+        // Given
+        List<CreateMerchantRequest> requests = List.of(
+                CreateMerchantRequest.create("UBER TRIP SAO PAULO BR", "1520"),
+                CreateMerchantRequest.create("UBER EATS SAO PAULO BR", "5811"));
+
+        Mockito.when(merchantRepository.findAllByNormalizedMerchantNameIn(ArgumentMatchers.anyCollection()))
+                .thenReturn(List.of());
+        Mockito.when(merchantRepository.saveAll(ArgumentMatchers.<Iterable<Merchant>>any()))
+                .thenAnswer(invocation -> {
+                    List<Merchant> saved = new ArrayList<>();
+                    invocation.<Iterable<Merchant>>getArgument(0).forEach(saved::add);
+                    return saved;
+                });
+
+        // When
+        List<Merchant> merchants = createMerchantService.executeAll(requests);
+
+        // Then
+        Assertions.assertEquals(2, merchants.size());
+        Assertions.assertEquals("UBER TRIP SAO PAULO BR", merchants.get(0).getNormalizedMerchantName());
+        Mockito.verify(merchantRepository, Mockito.times(1)).saveAll(ArgumentMatchers.<Iterable<Merchant>>any());
+        Mockito.verify(merchantRepository, Mockito.never()).save(ArgumentMatchers.any());
+        Assertions.assertEquals(Optional.of("5811"),
+                merchantMccCache.get("UBER EATS SAO PAULO BR", name -> Optional.empty()));
+    }
+
+    // Inside a transaction the imported merchants are only cached once it commits
+    @Test
+    public void test_importing_merchants_caches_them_only_after_commit() {
+        // Given
+        List<CreateMerchantRequest> requests = List.of(CreateMerchantRequest.create("UBER EATS SAO PAULO BR", "5811"));
+
+        Mockito.when(merchantRepository.findAllByNormalizedMerchantNameIn(ArgumentMatchers.anyCollection()))
+                .thenReturn(List.of());
+        Mockito.when(merchantRepository.saveAll(ArgumentMatchers.<Iterable<Merchant>>any()))
+                .thenAnswer(invocation -> {
+                    List<Merchant> saved = new ArrayList<>();
+                    invocation.<Iterable<Merchant>>getArgument(0).forEach(saved::add);
+                    return saved;
+                });
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            createMerchantService.executeAll(requests);
+
+            // Then
+            Mockito.verify(merchantMccCache, Mockito.never()).put(ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            Mockito.verify(merchantMccCache).put("UBER EATS SAO PAULO BR", "5811");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // Importing a merchant that already exists rejects the whole import
+    @Test
+    public void test_importing_existing_merchant_rejects_import() {
+        // Given
+        List<CreateMerchantRequest> requests = List.of(
+                CreateMerchantRequest.create("UBER TRIP SAO PAULO BR", "1520"),
+                CreateMerchantRequest.create("UBER EATS SAO PAULO BR", "5811"));
+
+        Mockito.when(merchantRepository.findAllByNormalizedMerchantNameIn(ArgumentMatchers.anyCollection()))
+                .thenReturn(List.of(Merchant.builder().normalizedMerchantName("UBER EATS SAO PAULO BR").build()));
+
+        // When / Then
+        Assertions.assertThrows(RuntimeException.class, () -> createMerchantService.executeAll(requests));
+        Mockito.verify(merchantRepository, Mockito.never()).saveAll(ArgumentMatchers.any());
+    }
+
+    // Importing two names that normalize to the same value rejects the whole import
+    @Test
+    public void test_importing_names_that_normalize_to_same_value_rejects_import() {
+        // Given
+        List<CreateMerchantRequest> requests = List.of(
+                CreateMerchantRequest.create("Padaria do Zé", "5411"),
+                CreateMerchantRequest.create("PADARIA  DO ZE", "5411"));
+
+        // When / Then
+        Assertions.assertThrows(RuntimeException.class, () -> createMerchantService.executeAll(requests));
+        Mockito.verifyNoInteractions(merchantRepository);
+    }
+}
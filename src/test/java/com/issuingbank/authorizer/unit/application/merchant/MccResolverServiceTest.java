@@ -1,17 +1,26 @@
 package com.issuingbank.authorizer.unit.application.merchant;
 
+import com.issuingbank.authorizer.application.merchant.CreateMerchantRequest;
+import com.issuingbank.authorizer.application.merchant.CreateMerchantService;
 import com.issuingbank.authorizer.application.merchant.MccResolverService;
+import com.issuingbank.authorizer.application.merchant.MerchantMccCache;
 import com.issuingbank.authorizer.application.merchant.MerchantNameNormalizer;
+import com.issuingbank.authorizer.application.merchant.MerchantPatternIndex;
 import com.issuingbank.authorizer.domain.merchant.Merchant;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
 import com.issuingbank.authorizer.infra.repositories.MerchantRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +32,11 @@ public class MccResolverServiceTest {
     @Mock
     MerchantRepository merchantRepository;
 
+    @Spy
+    MerchantMccCache merchantMccCache = new MerchantMccCache(new AuthorizerProperties());
+
+    @Mock
+    MerchantPatternIndex merchantPatternIndex;
 
     // Normalizing a valid merchant name and finding a corrected MCC
     @Test
@@ -85,4 +99,147 @@ public class MccResolverServiceTest {
         Assertions.assertEquals(mcc, result);
     }
 
-}
\ No newline at end of file
+    // Resolving the same merchant twice only queries the database once
+    @Test
+    public void test_resolving_known_merchant_twice_hits_cache() {
+        // Given
+        String mcc = "1234";
+        String merchantName = "UBER EATS                   SAO PAULO BR";
+        String normalizedMerchantName = MerchantNameNormalizer.normalize(merchantName);
+
+        Mockito.when(merchantRepository.findByNormalizedMerchantName(normalizedMerchantName))
+                .thenReturn(Optional.of(Merchant.builder()
+                        .originalMerchantName(merchantName)
+                        .normalizedMerchantName(normalizedMerchantName)
+                        .correctedMcc("5811")
+                        .build()));
+
+        // When
+        String first = mccResolverService.resolve(mcc, merchantName);
+        String second = mccResolverService.resolve(mcc, merchantName);
+
+        // Then
+        Mockito.verify(merchantRepository, Mockito.times(1)).findByNormalizedMerchantName(normalizedMerchantName);
+        Assertions.assertEquals("5811", first);
+        Assertions.assertEquals("5811", second);
+        Assertions.assertEquals(1, merchantMccCache.stats().hitCount());
+        Assertions.assertEquals(1, merchantMccCache.stats().missCount());
+    }
+
+    // Unknown merchants are cached as negative entries
+    @Test
+    public void test_unknown_merchant_is_cached_as_negative_entry() {
+        // Given
+        String merchantName = "PADARIA DO ZE";
+        String normalizedMerchantName = MerchantNameNormalizer.normalize(merchantName);
+
+        Mockito.when(merchantRepository.findByNormalizedMerchantName(normalizedMerchantName))
+                .thenReturn(Optional.empty());
+
+        // When
+        String first = mccResolverService.resolve("5411", merchantName);
+        String second = mccResolverService.resolve("5412", merchantName);
+
+        // Then
+        Mockito.verify(merchantRepository, Mockito.times(1)).findByNormalizedMerchantName(normalizedMerchantName);
+        Assertions.assertEquals("5411", first);
+        Assertions.assertEquals("5412", second);
+    }
+
+    // A merchant created after a negative lookup replaces the negative entry
+    @Test
+    public void test_created_merchant_overrides_negative_entry() {
+        // Given
+        String merchantName = "RESTAURANTE SABOROSO";
+        String normalizedMerchantName = MerchantNameNormalizer.normalize(merchantName);
+
+        Mockito.when(merchantRepository.findByNormalizedMerchantName(normalizedMerchantName))
+                .thenReturn(Optional.empty());
+        Mockito.when(merchantRepository.save(ArgumentMatchers.any(Merchant.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        mccResolverService.resolve("1234", merchantName);
+        createMerchantService().execute(CreateMerchantRequest.create(merchantName, "5812"));
+        Mockito.clearInvocations(merchantRepository);
+
+        // When
+        String result = mccResolverService.resolve("1234", merchantName);
+
+        // Then
+        Mockito.verifyNoInteractions(merchantRepository);
+        Assertions.assertEquals("5812", result);
+    }
+
+    // Merchants of an import replace their negative entries
+    @Test
+    public void test_imported_merchants_override_negative_entries() {
+        // Given
+        String merchantName = "RESTAURANTE SABOROSO";
+        String otherMerchantName = "PADARIA DO ZE";
+
+        Mockito.when(merchantRepository.findByNormalizedMerchantName(ArgumentMatchers.anyString()))
+                .thenReturn(Optional.empty());
+        Mockito.when(merchantRepository.findAllByNormalizedMerchantNameIn(ArgumentMatchers.anyCollection())).thenReturn(List.of());
+        Mockito.when(merchantRepository.saveAll(ArgumentMatchers.<Merchant>anyIterable())).thenAnswer(invocation -> {
+            List<Merchant> merchants = new ArrayList<>();
+            invocation.<Iterable<Merchant>>getArgument(0).forEach(merchants::add);
+            return merchants;
+        });
+        mccResolverService.resolve("1234", merchantName);
+        mccResolverService.resolve("1234", otherMerchantName);
+        createMerchantService().executeAll(List.of(
+                CreateMerchantRequest.create(merchantName, "5812"),
+                CreateMerchantRequest.create(otherMerchantName, "5462")));
+        Mockito.clearInvocations(merchantRepository);
+
+        // When
+        String result = mccResolverService.resolve("1234", merchantName);
+        String otherResult = mccResolverService.resolve("1234", otherMerchantName);
+
+        // Then
+        Mockito.verifyNoInteractions(merchantRepository);
+        Assertions.assertEquals("5812", result);
+        Assertions.assertEquals("5462", otherResult);
+    }
+
+    private CreateMerchantService createMerchantService() {
+        return new CreateMerchantService(merchantRepository, merchantMccCache);
+    }
+
+    // A merchant without an exact match is resolved by the pattern index
+    @Test
+    public void test_merchant_without_exact_match_resolved_by_pattern() {
+        // Given
+        String merchantName = "UBER EATS                   RIO DE JANEIRO BR";
+        String normalizedMerchantName = MerchantNameNormalizer.normalize(merchantName);
+
+        Mockito.when(merchantRepository.findByNormalizedMerchantName(normalizedMerchantName))
+                .thenReturn(Optional.empty());
+        Mockito.when(merchantPatternIndex.match(normalizedMerchantName)).thenReturn("5811");
+
+        // When
+        String result = mccResolverService.resolve("1234", merchantName);
+
+        // Then
+        Assertions.assertEquals("5811", result);
+    }
+
+    // An exact merchant match wins over a matching pattern
+    @Test
+    public void test_exact_match_wins_over_pattern() {
+        // Given
+        String merchantName = "UBER EATS                   SAO PAULO BR";
+        String normalizedMerchantName = MerchantNameNormalizer.normalize(merchantName);
+
+        Mockito.when(merchantRepository.findByNormalizedMerchantName(normalizedMerchantName))
+                .thenReturn(Optional.of(Merchant.builder()
+                        .normalizedMerchantName(normalizedMerchantName)
+                        .correctedMcc("5812")
+                        .build()));
+
+        // When
+        String result = mccResolverService.resolve("1234", merchantName);
+
+        // Then
+        Assertions.assertEquals("5812", result);
+        Mockito.verifyNoInteractions(merchantPatternIndex);
+    }
+}
@@ -0,0 +1,86 @@
+package com.issuingbank.authorizer.unit.application.merchant;
+
+import com.issuingbank.authorizer.application.merchant.MccRule;
+import com.issuingbank.authorizer.application.merchant.MccRuleTable;
+import com.issuingbank.authorizer.application.merchant.MccRules;
+import com.issuingbank.authorizer.commons.MccRuleFixtures;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.infra.repositories.MccRuleRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class MccRuleTableTest {
+
+    @InjectMocks
+    private MccRuleTable mccRuleTable;
+
+    @Mock
+    private MccRuleRepository mccRuleRepository;
+
+    // A reload swaps in the rules read from the database
+    @Test
+    public void test_reload_swaps_in_changed_rules() {
+        // Given
+        Mockito.when(mccRuleRepository.findAllRules()).thenReturn(MccRuleFixtures.rules());
+        Mockito.when(mccRuleRepository.findAllFallbacks()).thenReturn(MccRuleFixtures.fallbacks());
+        mccRuleTable.load();
+        MccRules loaded = mccRuleTable.current();
+
+        List<MccRule> changedRules = new ArrayList<>(MccRuleFixtures.rules());
+        changedRules.add(new MccRule(1520, 1520, BalanceType.MOBILITY));
+        Mockito.when(mccRuleRepository.findAllRules()).thenReturn(changedRules);
+
+        // When
+        mccRuleTable.reload();
+
+        // Then
+        Assertions.assertEquals(BalanceType.CASH, loaded.primaryWallet("1520"));
+        Assertions.assertEquals(BalanceType.MOBILITY, mccRuleTable.current().primaryWallet("1520"));
+    }
+
+    // Unchanged rules are not compiled again
+    @Test
+    public void test_reload_keeps_the_snapshot_when_nothing_changed() {
+        // Given
+        Mockito.when(mccRuleRepository.findAllRules()).thenReturn(MccRuleFixtures.rules());
+        Mockito.when(mccRuleRepository.findAllFallbacks()).thenReturn(MccRuleFixtures.fallbacks());
+        mccRuleTable.load();
+        MccRules loaded = mccRuleTable.current();
+
+        // When
+        mccRuleTable.reload();
+
+        // Then
+        Assertions.assertSame(loaded, mccRuleTable.current());
+    }
+
+    // Rules that cannot be read or compiled leave the previous ones in use
+    @Test
+    public void test_failed_reload_keeps_the_previous_rules() {
+        // Given
+        Mockito.when(mccRuleRepository.findAllRules()).thenReturn(MccRuleFixtures.rules());
+        Mockito.when(mccRuleRepository.findAllFallbacks()).thenReturn(MccRuleFixtures.fallbacks());
+        mccRuleTable.load();
+        MccRules loaded = mccRuleTable.current();
+
+        // When
+        Mockito.when(mccRuleRepository.findAllRules()).thenThrow(new DataAccessResourceFailureException("connection refused"));
+        mccRuleTable.reload();
+        Mockito.doReturn(List.of(new MccRule(9000, 10_000, BalanceType.FOOD))).when(mccRuleRepository).findAllRules();
+        mccRuleTable.reload();
+
+        // Then
+        Assertions.assertSame(loaded, mccRuleTable.current());
+        Assertions.assertEquals(BalanceType.FOOD, mccRuleTable.current().primaryWallet("5411"));
+    }
+}
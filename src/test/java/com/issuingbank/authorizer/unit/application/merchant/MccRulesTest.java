@@ -0,0 +1,182 @@
+package com.issuingbank.authorizer.unit.application.merchant;
+
+import com.issuingbank.authorizer.application.merchant.MccRule;
+import com.issuingbank.authorizer.application.merchant.MccRules;
+import com.issuingbank.authorizer.application.merchant.WalletFallback;
+import com.issuingbank.authorizer.commons.MccRuleFixtures;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MccRulesTest {
+    private final MccRules mccRules = MccRules.compile(MccRuleFixtures.rules(), MccRuleFixtures.fallbacks());
+
+    @Test
+    public void maps_known_mcc_5411_to_food() {
+        // Given
+        String mcc = "5411";
+
+        // When
+        BalanceType result = mccRules.primaryWallet(mcc);
+
+        // Then
+        assertEquals(BalanceType.FOOD, result);
+    }
+
+    @Test
+    public void maps_known_mcc_5812_to_meal() {
+        // Given
+        String mcc = "5812";
+
+        // When
+        BalanceType result = mccRules.primaryWallet(mcc);
+
+        // Then
+        assertEquals(BalanceType.MEAL, result);
+    }
+
+    @Test
+    public void test_returns_cash_for_unknown_mcc() {
+        // Given
+        String unknownMcc = "9999";
+
+        // When
+        BalanceType result = mccRules.primaryWallet(unknownMcc);
+
+        // Then
+        assertEquals(BalanceType.CASH, result);
+    }
+
+    @Test
+    public void maps_known_mcc_5412_to_food() {
+        // Given
+        String mcc = "5412";
+
+        // When
+        BalanceType result = mccRules.primaryWallet(mcc);
+
+        // Then
+        assertEquals(BalanceType.FOOD, result);
+    }
+
+    @Test
+    public void test_handles_null_input_gracefully() {
+        // Given
+        String mcc = null;
+
+        // When
+        BalanceType result = mccRules.primaryWallet(mcc);
+
+        // Then
+        assertEquals(BalanceType.CASH, result);
+    }
+
+    @Test
+    public void maps_known_mcc_4121_to_mobility() {
+        // Given
+        String mcc = "4121";
+
+        // When
+        BalanceType result = mccRules.primaryWallet(mcc);
+
+        // Then
+        assertEquals(BalanceType.MOBILITY, result);
+    }
+
+    @Test
+    public void maps_known_mcc_5912_to_health() {
+        // Given
+        String mcc = "5912";
+
+        // When
+        BalanceType result = mccRules.primaryWallet(mcc);
+
+        // Then
+        assertEquals(BalanceType.HEALTH, result);
+    }
+
+    @Test
+    public void maps_known_mcc_7832_to_culture() {
+        // Given
+        String mcc = "7832";
+
+        // When
+        BalanceType result = mccRules.primaryWallet(mcc);
+
+        // Then
+        assertEquals(BalanceType.CULTURE, result);
+    }
+
+    @Test
+    public void test_returns_cash_for_mcc_that_is_not_four_digits() {
+        // Given
+        String mcc = "54a1";
+
+        // When
+        BalanceType result = mccRules.primaryWallet(mcc);
+
+        // Then
+        assertEquals(BalanceType.CASH, result);
+    }
+
+    @Test
+    public void test_narrowest_range_wins() {
+        // Given
+        List<MccRule> rules = List.of(
+                new MccRule(5800, 5899, BalanceType.MEAL),
+                new MccRule(5814, 5814, BalanceType.FOOD));
+
+        // When
+        MccRules compiled = MccRules.compile(rules, List.of());
+
+        // Then
+        assertEquals(BalanceType.MEAL, compiled.primaryWallet("5813"));
+        assertEquals(BalanceType.FOOD, compiled.primaryWallet("5814"));
+        assertEquals(BalanceType.CASH, compiled.primaryWallet("5900"));
+    }
+
+    @Test
+    public void test_program_uses_its_own_fallback_chain() {
+        // Given
+        List<WalletFallback> fallbacks = List.of(
+                new WalletFallback("DEFAULT", BalanceType.MEAL, List.of(BalanceType.CASH)),
+                new WalletFallback("FLEX", BalanceType.MEAL, List.of(BalanceType.FOOD, BalanceType.CASH)));
+
+        // When
+        MccRules compiled = MccRules.compile(MccRuleFixtures.rules(), fallbacks);
+
+        // Then
+        assertArrayEquals(new BalanceType[]{BalanceType.MEAL, BalanceType.FOOD, BalanceType.CASH}, compiled.chain("FLEX", BalanceType.MEAL));
+        assertArrayEquals(new BalanceType[]{BalanceType.MEAL, BalanceType.CASH}, compiled.chain("DEFAULT", BalanceType.MEAL));
+        assertArrayEquals(new BalanceType[]{BalanceType.FOOD, BalanceType.CASH}, compiled.chain("FLEX", BalanceType.FOOD));
+        assertArrayEquals(new BalanceType[]{BalanceType.MEAL, BalanceType.CASH}, compiled.chain("UNKNOWN", BalanceType.MEAL));
+        assertArrayEquals(new BalanceType[]{BalanceType.CASH}, compiled.chain("FLEX", BalanceType.CASH));
+    }
+
+    @Test
+    public void test_chains_json_has_one_based_wallet_positions_per_program() {
+        // Given
+        List<WalletFallback> fallbacks = List.of(
+                new WalletFallback("FLEX", BalanceType.MEAL, List.of(BalanceType.FOOD, BalanceType.CASH)));
+
+        // When
+        MccRules compiled = MccRules.compile(MccRuleFixtures.rules(), fallbacks);
+
+        // Then
+        assertEquals("{\"DEFAULT\":[2,3],\"FLEX\":[2,1,3]}", compiled.chainsJson(BalanceType.MEAL));
+    }
+
+    @Test
+    public void test_rejects_range_outside_the_mcc_table() {
+        // Given
+        List<MccRule> rules = List.of(new MccRule(9000, 10_000, BalanceType.FOOD));
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> MccRules.compile(rules, List.of()));
+    }
+}
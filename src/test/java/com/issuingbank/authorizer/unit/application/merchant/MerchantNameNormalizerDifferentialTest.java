@@ -0,0 +1,38 @@
+package com.issuingbank.authorizer.unit.application.merchant;
+
+import com.issuingbank.authorizer.application.merchant.MerchantNameNormalizer;
+import com.issuingbank.authorizer.commons.LegacyMerchantNameNormalizer;
+import com.issuingbank.authorizer.commons.MerchantNameCorpus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MerchantNameNormalizerDifferentialTest {
+
+    // ASCII merchant names normalize as they did before accented letters were folded
+    @Test
+    public void test_matches_legacy_normalizer_for_ascii_corpus() {
+        // Given
+        List<String> corpus = MerchantNameCorpus.asciiMerchantNames(200_000, 20240901L);
+
+        // When / Then
+        for (String merchantName : corpus) {
+            assertEquals(LegacyMerchantNameNormalizer.normalize(merchantName), MerchantNameNormalizer.normalize(merchantName),
+                    () -> "Diverged for input [" + merchantName + "]");
+        }
+    }
+
+    // Every ASCII character, leading, inside and after words, normalizes as before
+    @Test
+    public void test_matches_legacy_normalizer_for_every_single_ascii_character() {
+        // Given / When / Then
+        for (char c = 0; c < 128; c++) {
+            String input = "A" + c + "B " + c + " C" + c;
+
+            assertEquals(LegacyMerchantNameNormalizer.normalize(input), MerchantNameNormalizer.normalize(input),
+                    "Diverged for character code " + (int) c);
+        }
+    }
+}
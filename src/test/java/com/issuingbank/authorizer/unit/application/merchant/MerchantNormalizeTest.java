@@ -121,4 +121,43 @@ public class MerchantNormalizeTest {
         // Then
         assertEquals("EXAMPLE", result);
     }
+
+    @Test
+    public void folds_portuguese_accents_to_ascii() {
+        // Given
+        String input = "Padaria São João   Açaí  TERESINA BR";
+        String expected = "PADARIA SAO JOAO ACAI TERESINA BR";
+
+        // When
+        String result = MerchantNameNormalizer.normalize(input);
+
+        // Then
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void folds_ligatures_into_two_letters() {
+        // Given
+        String input = "straße æther";
+        String expected = "STRASSE AETHER";
+
+        // When
+        String result = MerchantNameNormalizer.normalize(input);
+
+        // Then
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void treats_non_breaking_space_as_whitespace() {
+        // Given
+        String input = "UBER\u00A0EATS";
+        String expected = "UBER EATS";
+
+        // When
+        String result = MerchantNameNormalizer.normalize(input);
+
+        // Then
+        assertEquals(expected, result);
+    }
 }
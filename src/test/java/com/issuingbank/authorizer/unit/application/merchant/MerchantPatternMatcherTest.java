@@ -0,0 +1,107 @@
+package com.issuingbank.authorizer.unit.application.merchant;
+
+import com.issuingbank.authorizer.application.merchant.MerchantPatternMatcher;
+import com.issuingbank.authorizer.application.merchant.MerchantPatternMatcher.Rule;
+import com.issuingbank.authorizer.domain.merchant.MerchantPatternType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class MerchantPatternMatcherTest {
+
+    private static final MerchantPatternMatcher MATCHER = MerchantPatternMatcher.compile(List.of(
+            new Rule(1, "UBER", MerchantPatternType.PREFIX, "4121"),
+            new Rule(2, "UBER EATS", MerchantPatternType.PREFIX, "5811"),
+            new Rule(3, "IFOOD", MerchantPatternType.KEYWORD, "5812"),
+            new Rule(4, "DROGA RAIA", MerchantPatternType.KEYWORD, "5912"),
+            new Rule(5, "RAIA", MerchantPatternType.KEYWORD, "7999")));
+
+    // A prefix pattern matches whatever city and country suffix the acquirer appends
+    @Test
+    public void test_prefix_pattern_matches_name_with_suffix() {
+        // When / Then
+        Assertions.assertEquals("5811", MATCHER.match("UBER EATS SAO PAULO BR"));
+        Assertions.assertEquals("5811", MATCHER.match("UBER EATS"));
+    }
+
+    // The longest matching pattern wins over a shorter one
+    @Test
+    public void test_longest_pattern_wins() {
+        // When / Then
+        Assertions.assertEquals("5811", MATCHER.match("UBER EATS RIO DE JANEIRO BR"));
+        Assertions.assertEquals("4121", MATCHER.match("UBER TRIP SAO PAULO BR"));
+        Assertions.assertEquals("5912", MATCHER.match("FARMACIA DROGA RAIA 123"));
+    }
+
+    // Prefix patterns only match at the start of the name
+    @Test
+    public void test_prefix_pattern_only_matches_at_start() {
+        // When / Then
+        Assertions.assertNull(MATCHER.match("PG UBER EATS SAO PAULO BR"));
+    }
+
+    // Keyword patterns match whole words anywhere in the name
+    @Test
+    public void test_keyword_pattern_matches_whole_words_anywhere() {
+        // When / Then
+        Assertions.assertEquals("5812", MATCHER.match("PAG IFOOD SAO PAULO"));
+        Assertions.assertEquals("5812", MATCHER.match("IFOOD"));
+        Assertions.assertEquals("7999", MATCHER.match("CLUBE RAIA"));
+        Assertions.assertNull(MATCHER.match("PAGIFOOD SAO PAULO"));
+        Assertions.assertNull(MATCHER.match("IFOODS SAO PAULO"));
+    }
+
+    // A prefix pattern must end at a word end, so UBER does not match UBERLANDIA
+    @Test
+    public void test_prefix_pattern_does_not_match_inside_a_word() {
+        // When / Then
+        Assertions.assertNull(MATCHER.match("UBERLANDIA FARMACIA"));
+    }
+
+    // A shorter keyword is found when the longer one it overlaps with does not start at a word
+    @Test
+    public void test_shorter_keyword_found_through_dictionary_link() {
+        // Given
+        MerchantPatternMatcher matcher = MerchantPatternMatcher.compile(List.of(
+                new Rule(1, "X POSTO", MerchantPatternType.KEYWORD, "1111"),
+                new Rule(2, "POSTO", MerchantPatternType.KEYWORD, "5541")));
+
+        // When / Then
+        Assertions.assertEquals("5541", matcher.match("AUTOX POSTO"));
+        Assertions.assertEquals("1111", matcher.match("AUTO X POSTO"));
+        Assertions.assertNull(matcher.match("AUTOXPOSTO"));
+    }
+
+    // On a tie a prefix pattern wins over a keyword pattern with the same text
+    @Test
+    public void test_prefix_wins_over_keyword_on_tie() {
+        // Given
+        MerchantPatternMatcher matcher = MerchantPatternMatcher.compile(List.of(
+                new Rule(1, "SHELL", MerchantPatternType.KEYWORD, "5541"),
+                new Rule(2, "SHELL", MerchantPatternType.PREFIX, "5542")));
+
+        // When / Then
+        Assertions.assertEquals("5542", matcher.match("SHELL SELECT"));
+        Assertions.assertEquals("5541", matcher.match("POSTO SHELL"));
+    }
+
+    // Names without a matching pattern, and an empty automaton, match nothing
+    @Test
+    public void test_no_match() {
+        // When / Then
+        Assertions.assertNull(MATCHER.match("PADARIA DO ZE"));
+        Assertions.assertNull(MATCHER.match(""));
+        Assertions.assertNull(MerchantPatternMatcher.EMPTY.match("UBER EATS"));
+    }
+
+    // Patterns that are not normalized are rejected
+    @Test
+    public void test_rejects_pattern_that_is_not_normalized() {
+        // When / Then
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MerchantPatternMatcher.compile(List.of(
+                new Rule(1, "uber eats", MerchantPatternType.PREFIX, "5811"))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MerchantPatternMatcher.compile(List.of(
+                new Rule(1, "", MerchantPatternType.KEYWORD, "5811"))));
+    }
+}
@@ -0,0 +1,92 @@
+package com.issuingbank.authorizer.unit.application.reconciliation;
+
+import com.issuingbank.authorizer.application.reconciliation.BalanceDrift;
+import com.issuingbank.authorizer.application.reconciliation.BalanceFold;
+import com.issuingbank.authorizer.application.reconciliation.ReconciliationRow;
+import com.issuingbank.authorizer.domain.transaction.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BalanceFoldTest {
+    private static final Instant SETTLED_BEFORE = Instant.parse("2026-10-18T03:00:00Z");
+    private static final Instant UPDATED_AT = SETTLED_BEFORE.minusSeconds(3600);
+
+    private final List<BalanceDrift> drifts = new ArrayList<>();
+    private final BalanceFold fold = new BalanceFold(SETTLED_BEFORE, drifts::add);
+
+    // A history that chains from debit to debit and ends at the balance has no drift
+    @Test
+    public void test_consistent_history_has_no_drift() {
+        // Given
+        long[] balance = {700, 100};
+
+        // When
+        fold.accept(debit("1001", balance, 1, new long[]{1000, 100}, new long[]{900, 100}, 100));
+        fold.accept(debit("1001", balance, 2, new long[]{900, 100}, new long[]{700, 100}, 200));
+        fold.accept(new ReconciliationRow("1002", new long[]{50}, UPDATED_AT, null, null, null, null, null, null));
+        fold.finish();
+
+        // Then
+        Assertions.assertTrue(drifts.isEmpty());
+        Assertions.assertEquals(2, fold.getAccounts());
+        Assertions.assertEquals(2, fold.getHistoryRows());
+    }
+
+    // A missing debit breaks the chain and the balance no longer matches the history
+    @Test
+    public void test_missing_debit_breaks_the_chain() {
+        // Given
+        long[] balance = {600};
+
+        // When
+        fold.accept(debit("1001", balance, 1, new long[]{1000}, new long[]{900}, 100));
+        fold.accept(debit("1001", balance, 3, new long[]{800}, new long[]{700}, 100));
+        fold.finish();
+
+        // Then
+        Assertions.assertEquals(List.of(BalanceDrift.Kind.CHAIN_BREAK, BalanceDrift.Kind.BALANCE_MISMATCH),
+                drifts.stream().map(BalanceDrift::kind).toList());
+        Assertions.assertEquals(3L, drifts.get(0).transactionId());
+    }
+
+    // Wallets moved by a different amount than the transaction, or without a transaction, are drifts
+    @Test
+    public void test_amount_mismatch_and_missing_transaction() {
+        // Given
+        long[] balance = {850};
+
+        // When
+        fold.accept(debit("1001", balance, 1, new long[]{1000}, new long[]{900}, 90));
+        fold.accept(new ReconciliationRow("1001", balance, UPDATED_AT, 2L, 2L, new long[]{900}, new long[]{850}, null, null));
+        fold.finish();
+
+        // Then
+        Assertions.assertEquals(List.of(BalanceDrift.Kind.AMOUNT_MISMATCH, BalanceDrift.Kind.MISSING_TRANSACTION),
+                drifts.stream().map(BalanceDrift::kind).toList());
+    }
+
+    // Accounts changed within the settle delay may still have history in the journal and are skipped
+    @Test
+    public void test_recently_updated_account_is_skipped() {
+        // Given
+        ReconciliationRow row = new ReconciliationRow("1001", new long[]{0}, SETTLED_BEFORE.plusSeconds(1), 1L, 1L,
+                new long[]{1000}, new long[]{900}, TransactionType.DEBIT, 100L);
+
+        // When
+        fold.accept(row);
+        fold.finish();
+
+        // Then
+        Assertions.assertTrue(drifts.isEmpty());
+        Assertions.assertEquals(1, fold.getSkippedAccounts());
+        Assertions.assertEquals(0, fold.getHistoryRows());
+    }
+
+    private static ReconciliationRow debit(String account, long[] balance, long transactionId, long[] previous, long[] next, long amount) {
+        return new ReconciliationRow(account, balance, UPDATED_AT, transactionId, transactionId, previous, next, TransactionType.DEBIT, amount);
+    }
+}
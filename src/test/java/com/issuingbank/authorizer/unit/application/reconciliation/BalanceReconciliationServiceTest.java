@@ -0,0 +1,70 @@
+package com.issuingbank.authorizer.unit.application.reconciliation;
+
+import com.issuingbank.authorizer.application.reconciliation.BalanceReconciliationService;
+import com.issuingbank.authorizer.application.reconciliation.ReconciliationReport;
+import com.issuingbank.authorizer.application.reconciliation.ReconciliationRow;
+import com.issuingbank.authorizer.domain.transaction.TransactionType;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.repositories.ReconciliationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+@ExtendWith(MockitoExtension.class)
+public class BalanceReconciliationServiceTest {
+    private static final Instant NOW = Instant.parse("2026-10-18T03:00:00Z");
+
+    @Mock
+    ReconciliationRepository reconciliationRepository;
+
+    // Each boundary starts a range streamed by the workers, and the folds of every range are summed up
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_run_reconciles_every_range() {
+        // Given
+        AuthorizerProperties properties = new AuthorizerProperties();
+        properties.getReconciliation().setParallelism(2);
+        properties.getReconciliation().setRangesPerWorker(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Mockito.when(reconciliationRepository.shards()).thenReturn(List.of("default"));
+        Mockito.when(reconciliationRepository.accountBoundaries("default", 2)).thenReturn(List.of("1001", "2001"));
+        Mockito.doAnswer(invocation -> {
+            Consumer<ReconciliationRow> consumer = invocation.getArgument(4, Consumer.class);
+            String account = invocation.getArgument(2) != null ? "1001" : "2001";
+            // 2001 ends below its history: one drift
+            long[] balance = account.equals("1001") ? new long[]{900} : new long[]{800};
+            consumer.accept(new ReconciliationRow(account, balance, NOW.minusSeconds(3600), 1L, 1L,
+                    new long[]{1000}, new long[]{900}, TransactionType.DEBIT, 100L));
+            return null;
+        }).when(reconciliationRepository).streamRange(ArgumentMatchers.eq("default"), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.anyInt(), ArgumentMatchers.any());
+
+        BalanceReconciliationService service = new BalanceReconciliationService(reconciliationRepository, properties,
+                meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // When
+        ReconciliationReport report = service.run();
+
+        // Then
+        Mockito.verify(reconciliationRepository).streamRange(ArgumentMatchers.eq("default"), ArgumentMatchers.isNull(),
+                ArgumentMatchers.eq("2001"), ArgumentMatchers.anyInt(), ArgumentMatchers.any());
+        Mockito.verify(reconciliationRepository).streamRange(ArgumentMatchers.eq("default"), ArgumentMatchers.eq("2001"),
+                ArgumentMatchers.isNull(), ArgumentMatchers.anyInt(), ArgumentMatchers.any());
+        Assertions.assertEquals(2, report.accounts());
+        Assertions.assertEquals(2, report.historyRows());
+        Assertions.assertEquals(1, report.drifts());
+        Assertions.assertEquals("2001", report.reportedDrifts().get(0).account());
+        Assertions.assertEquals(1.0, meterRegistry.get("authorizer.reconciliation.drifts").gauge().value());
+    }
+}
@@ -0,0 +1,120 @@
+package com.issuingbank.authorizer.unit.application.sharding;
+
+import com.issuingbank.authorizer.application.sharding.RebalanceReport;
+import com.issuingbank.authorizer.application.sharding.ReshardingService;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.repositories.AccountShardRepository;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+public class ReshardingServiceTest {
+    private static final Instant NOW = Instant.parse("2026-10-18T03:00:00Z");
+
+    @Mock
+    AccountShardRepository accountShardRepository;
+
+    // The account is routed to its new shard once copied, on this node and in account_shard
+    @Test
+    public void test_move_routes_the_account_to_the_target_once_copied() {
+        // Given
+        AccountShardRouter router = router(true);
+        String source = router.shardFor("1001");
+        String target = otherShard(source);
+        Mockito.doAnswer(invocation -> {
+            Assertions.assertEquals(source, router.shardFor("1001"));
+            invocation.getArgument(4, Runnable.class).run();
+            return null;
+        }).when(accountShardRepository).moveAccount(ArgumentMatchers.eq("1001"), ArgumentMatchers.eq(source),
+                ArgumentMatchers.eq(target), ArgumentMatchers.eq(NOW), ArgumentMatchers.any());
+
+        // When
+        String movedFrom = service(router).move("1001", target);
+
+        // Then
+        Assertions.assertEquals(source, movedFrom);
+        Assertions.assertEquals(target, router.shardFor("1001"));
+        Mockito.verify(accountShardRepository).saveOverride("1001", target, NOW);
+    }
+
+    // Only accounts on another shard than in the new ring are moved, up to the limit
+    @Test
+    public void test_rebalance_moves_accounts_up_to_the_limit() {
+        // Given
+        AccountShardRouter router = router(true);
+        Mockito.when(accountShardRepository.findAccounts("shard-0", null, 500)).thenReturn(List.of("1001", "1002", "1003"));
+
+        // When
+        RebalanceReport report = service(router).rebalance(Map.of("shard-0", 0, "shard-1", 128), 2);
+
+        // Then
+        Assertions.assertEquals(new RebalanceReport(2, 2, false), report);
+        Mockito.verify(accountShardRepository).moveAccount(ArgumentMatchers.eq("1001"), ArgumentMatchers.eq("shard-0"),
+                ArgumentMatchers.eq("shard-1"), ArgumentMatchers.eq(NOW), ArgumentMatchers.any());
+        Mockito.verify(accountShardRepository).moveAccount(ArgumentMatchers.eq("1002"), ArgumentMatchers.eq("shard-0"),
+                ArgumentMatchers.eq("shard-1"), ArgumentMatchers.eq(NOW), ArgumentMatchers.any());
+        Mockito.verify(accountShardRepository, Mockito.never()).moveAccount(ArgumentMatchers.eq("1003"), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    // Overrides the running ring agrees with are deleted, the others kept
+    @Test
+    public void test_prune_deletes_only_redundant_overrides() {
+        // Given
+        AccountShardRouter router = router(true);
+        Mockito.when(accountShardRepository.findOverrides()).thenReturn(Map.of(
+                "1001", new AccountShardRepository.ShardOverride(router.ring().shardFor("1001"), NOW),
+                "1002", new AccountShardRepository.ShardOverride(otherShard(router.ring().shardFor("1002")), NOW)));
+        Mockito.when(accountShardRepository.deleteOverrides(List.of("1001"))).thenReturn(1);
+
+        // When
+        int deleted = service(router).pruneOverrides();
+
+        // Then
+        Assertions.assertEquals(1, deleted);
+    }
+
+    // Resharding needs sharding enabled
+    @Test
+    public void test_fails_with_sharding_disabled() {
+        // Given
+        ReshardingService service = service(router(false));
+
+        // When / Then
+        Assertions.assertThrows(IllegalStateException.class, () -> service.move("1001", "shard-1"));
+        Mockito.verifyNoInteractions(accountShardRepository);
+    }
+
+    private AccountShardRouter router(boolean enabled) {
+        AuthorizerProperties properties = new AuthorizerProperties();
+        properties.getSharding().setEnabled(enabled);
+        properties.getSharding().setShards(List.of(shard("shard-0"), shard("shard-1")));
+        return new AccountShardRouter(properties, accountShardRepository, null);
+    }
+
+    private ReshardingService service(AccountShardRouter router) {
+        return new ReshardingService(router, accountShardRepository, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static String otherShard(String shard) {
+        return shard.equals("shard-0") ? "shard-1" : "shard-0";
+    }
+
+    private static AuthorizerProperties.Shard shard(String name) {
+        AuthorizerProperties.Shard shard = new AuthorizerProperties.Shard();
+        shard.setName(name);
+        return shard;
+    }
+}
@@ -1,13 +1,14 @@
 package com.issuingbank.authorizer.unit.domain.balance;
 
 import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
 import com.issuingbank.authorizer.domain.balance.BalanceHistory;
 import com.issuingbank.authorizer.domain.transaction.Transaction;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
+import java.time.Instant;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -30,18 +31,18 @@ public class BalanceHistoryTest {
 
             Transaction transaction = Transaction.builder()
                     .account(accountNumber)
-                    .amount(BigDecimal.valueOf(100))
+                    .amount(10_000)
                     .build();
             Balance previousBalance = Balance.builder()
-                    .cashBalance(BigDecimal.valueOf(200))
-                    .foodBalance(BigDecimal.valueOf(50))
-                    .mealBalance(BigDecimal.valueOf(30))
+                    .balance(BalanceType.CASH, 20_000)
+                    .balance(BalanceType.FOOD, 5_000)
+                    .balance(BalanceType.MEAL, 3_000)
                     .build();
 
             Balance newBalance = Balance.builder()
-                    .cashBalance(BigDecimal.valueOf(200))
-                    .foodBalance(BigDecimal.valueOf(50))
-                    .mealBalance(BigDecimal.valueOf(30))
+                    .balance(BalanceType.CASH, 20_000)
+                    .balance(BalanceType.FOOD, 5_000)
+                    .balance(BalanceType.MEAL, 3_000)
                     .build();
 
             // When
@@ -52,13 +53,33 @@ public class BalanceHistoryTest {
             assertEquals(transaction, balanceHistory.getTransaction());
             assertEquals(accountNumber, balanceHistory.getAccount());
 
-            assertEquals(previousBalance.getCashBalance(), balanceHistory.getPreviousCashBalance());
-            assertEquals(previousBalance.getFoodBalance(), balanceHistory.getPreviousFoodBalance());
-            assertEquals(previousBalance.getMealBalance(), balanceHistory.getPreviousMealBalance());
+            assertEquals(previousBalance.getBalance(BalanceType.CASH), balanceHistory.getPreviousBalance(BalanceType.CASH));
+            assertEquals(previousBalance.getBalance(BalanceType.FOOD), balanceHistory.getPreviousBalance(BalanceType.FOOD));
+            assertEquals(previousBalance.getBalance(BalanceType.MEAL), balanceHistory.getPreviousBalance(BalanceType.MEAL));
 
-            assertEquals(newBalance.getCashBalance(), balanceHistory.getNewCashBalance());
-            assertEquals(newBalance.getFoodBalance(), balanceHistory.getNewFoodBalance());
-            assertEquals(newBalance.getMealBalance(), balanceHistory.getNewMealBalance());
+            assertEquals(newBalance.getBalance(BalanceType.CASH), balanceHistory.getNewBalance(BalanceType.CASH));
+            assertEquals(newBalance.getBalance(BalanceType.FOOD), balanceHistory.getNewBalance(BalanceType.FOOD));
+            assertEquals(newBalance.getBalance(BalanceType.MEAL), balanceHistory.getNewBalance(BalanceType.MEAL));
+        }
+
+        @Test
+        public void test_balancehistory_takes_transaction_created_at() {
+            // Given
+            Instant createdAt = Instant.parse("2024-09-30T23:59:59.999Z");
+            Transaction transaction = Transaction.builder()
+                    .account("12345")
+                    .amount(10_000)
+                    .createdAt(createdAt)
+                    .build();
+            Balance balance = Balance.builder()
+                    .balance(BalanceType.CASH, 20_000)
+                    .build();
+
+            // When
+            BalanceHistory balanceHistory = BalanceHistory.create(balance, balance, transaction);
+
+            // Then
+            assertEquals(createdAt, balanceHistory.getCreatedAt());
         }
     }
     
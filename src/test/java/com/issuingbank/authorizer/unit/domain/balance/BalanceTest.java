@@ -11,8 +11,6 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import java.math.BigDecimal;
-
 public class BalanceTest {
 
     @Nested
@@ -22,48 +20,48 @@ public class BalanceTest {
         public void test_retrieve_food_balance_successfully() {
             // Giver
             Balance balance = Balance.builder()
-                    .foodBalance(BigDecimal.valueOf(50))
-                    .mealBalance(BigDecimal.valueOf(30))
-                    .cashBalance(BigDecimal.valueOf(100))
+                    .balance(BalanceType.FOOD, 5_000)
+                    .balance(BalanceType.MEAL, 3_000)
+                    .balance(BalanceType.CASH, 10_000)
                     .build();
 
             // When
-            BigDecimal retrievedFoodBalance = balance.getBalance(BalanceType.FOOD);
+            long retrievedFoodBalance = balance.getBalance(BalanceType.FOOD);
 
             // Then
-            assertEquals(BigDecimal.valueOf(50), retrievedFoodBalance);
+            assertEquals(5_000, retrievedFoodBalance);
         }
 
         @Test
         public void test_retrieve_meal_balance_successfully() {
             // Given
             Balance balance = Balance.builder()
-                    .foodBalance(BigDecimal.valueOf(50))
-                    .mealBalance(BigDecimal.valueOf(100))
-                    .cashBalance(BigDecimal.valueOf(200))
+                    .balance(BalanceType.FOOD, 5_000)
+                    .balance(BalanceType.MEAL, 10_000)
+                    .balance(BalanceType.CASH, 20_000)
                     .build();
 
             // When
-            BigDecimal retrievedMealBalance = balance.getBalance(BalanceType.MEAL);
+            long retrievedMealBalance = balance.getBalance(BalanceType.MEAL);
 
             // Then
-            assertEquals(BigDecimal.valueOf(100), retrievedMealBalance);
+            assertEquals(10_000, retrievedMealBalance);
         }
 
         @Test
         public void retrieve_cash_balance_successfully() {
             // Given
             Balance balance = Balance.builder()
-                    .foodBalance(BigDecimal.ONE)
-                    .cashBalance(BigDecimal.valueOf(100))
-                    .mealBalance(BigDecimal.ZERO)
+                    .balance(BalanceType.FOOD, 100)
+                    .balance(BalanceType.CASH, 10_000)
+                    .balance(BalanceType.MEAL, 0)
                     .build();
 
             // When
-            BigDecimal retrievedBalance = balance.getBalance(BalanceType.CASH);
+            long retrievedBalance = balance.getBalance(BalanceType.CASH);
 
             // Then
-            assertEquals(BigDecimal.valueOf(100), retrievedBalance);
+            assertEquals(10_000, retrievedBalance);
         }
     }
 
@@ -74,7 +72,7 @@ public class BalanceTest {
         public void test_setting_valid_balance() {
             // Given
             Balance balance = Balance.builder().build();
-            BigDecimal amount = BigDecimal.valueOf(100);
+            long amount = 10_000;
 
             // When
             balance.setBalance(BalanceType.FOOD, amount);
@@ -86,10 +84,10 @@ public class BalanceTest {
         @Test
         public void test_updating_existing_balance() {
             // Given
-            BigDecimal initialAmount = BigDecimal.valueOf(50);
-            BigDecimal newAmount = BigDecimal.valueOf(150);
+            long initialAmount = 5_000;
+            long newAmount = 15_000;
             Balance balance = Balance.builder()
-                    .mealBalance(initialAmount)
+                    .balance(BalanceType.MEAL, initialAmount)
                     .build();
 
             // When
@@ -103,7 +101,7 @@ public class BalanceTest {
         public void test_setting_balance_to_zero() {
             // Given
             Balance balance = Balance.builder().build();
-            BigDecimal zeroAmount = BigDecimal.ZERO;
+            long zeroAmount = 0;
 
             // When
             balance.setBalance(BalanceType.CASH, zeroAmount);
@@ -116,7 +114,7 @@ public class BalanceTest {
         public void test_setting_negative_balance_throws_exception() {
             // Given
             Balance balance = Balance.builder().build();
-            BigDecimal negativeAmount = BigDecimal.valueOf(-100);
+            long negativeAmount = -10_000;
 
             // When & Then
             assertThrows(IllegalArgumentException.class, () -> {
@@ -133,11 +131,11 @@ public class BalanceTest {
         public void returns_true_when_balance_is_greater_than_amount() {
             // Given
             Balance balance = Balance.builder()
-                    .foodBalance(BigDecimal.valueOf(100))
+                    .balance(BalanceType.FOOD, 10_000)
                     .build();
 
             // When
-            boolean result = balance.hasSufficientBalance(BalanceType.FOOD, BigDecimal.valueOf(50));
+            boolean result = balance.hasSufficientBalance(BalanceType.FOOD, 5_000);
 
             // Then
             assertTrue(result);
@@ -147,10 +145,10 @@ public class BalanceTest {
         public void test_returns_true_when_balance_is_equal_to_amount() {
             // Given
             Balance balance = Balance.builder().build();
-            balance.setFoodBalance(BigDecimal.valueOf(100));
+            balance.setBalance(BalanceType.FOOD, 10_000);
 
             // When
-            boolean result = balance.hasSufficientBalance(BalanceType.FOOD, BigDecimal.valueOf(100));
+            boolean result = balance.hasSufficientBalance(BalanceType.FOOD, 10_000);
 
             // Then
             assertTrue(result);
@@ -160,24 +158,24 @@ public class BalanceTest {
         public void test_returns_false_when_balance_is_less_than_the_amount() {
             // Given
             Balance balance = Balance.builder()
-                    .foodBalance(BigDecimal.valueOf(100)) // set food balance 100
+                    .balance(BalanceType.FOOD, 10_000) // set food balance 100
                     .build();
 
             // When
-            boolean result = balance.hasSufficientBalance(BalanceType.FOOD, BigDecimal.valueOf(150)); // Check if balance is sufficient for 150.00
+            boolean result = balance.hasSufficientBalance(BalanceType.FOOD, 15_000); // Check if balance is sufficient for 150.00
 
             // Then
             assertFalse(result); // Expecting false as 100.00 is less than 150.00
         }
 
         @Test
-        public void test_handles_null_amount_gracefully() {
+        public void test_compares_cents_exactly() {
             // Given
             Balance balance = new Balance();
-            balance.setFoodBalance(BigDecimal.TEN);
+            balance.setBalance(BalanceType.FOOD, 1_000);
 
             // When
-            boolean result = balance.hasSufficientBalance(BalanceType.FOOD, null);
+            boolean result = balance.hasSufficientBalance(BalanceType.FOOD, 1_001); // 10.01 against 10.00
 
             // Then
             assertFalse(result);
@@ -191,103 +189,153 @@ public class BalanceTest {
         public void debit_positive_amount_with_sufficient_funds() {
             // Given
             Balance balance = Balance.builder()
-                    .foodBalance(BigDecimal.valueOf(100))
-                    .mealBalance(BigDecimal.valueOf(50))
-                    .cashBalance(BigDecimal.valueOf(200))
+                    .balance(BalanceType.FOOD, 10_000)
+                    .balance(BalanceType.MEAL, 5_000)
+                    .balance(BalanceType.CASH, 20_000)
                     .build();
 
             // When
-            Balance newBalance = balance.debit(BalanceType.CASH, BigDecimal.valueOf(50));
+            Balance newBalance = balance.debit(BalanceType.CASH, 5_000);
 
             // Then
-            assertEquals(BigDecimal.valueOf(150), newBalance.getBalance(BalanceType.CASH));
+            assertEquals(15_000, newBalance.getBalance(BalanceType.CASH));
         }
 
         @Test
         public void debit_zero_amount() {
             // Given
             Balance balance = Balance.builder()
-                    .cashBalance(BigDecimal.valueOf(100))
+                    .balance(BalanceType.CASH, 10_000)
                     .build();
 
             // When
-            Balance newBalance = balance.debit(BalanceType.CASH, BigDecimal.ZERO);
+            Balance newBalance = balance.debit(BalanceType.CASH, 0);
 
             // Then
-            assertEquals(BigDecimal.valueOf(100), newBalance.getBalance(BalanceType.CASH));
+            assertEquals(10_000, newBalance.getBalance(BalanceType.CASH));
         }
 
         @Test
         public void debit_amount_equal_to_current_balance() {
             // Given
             Balance balance = Balance.builder()
-                    .foodBalance(BigDecimal.valueOf(50))
-                    .mealBalance(BigDecimal.valueOf(30))
-                    .cashBalance(BigDecimal.valueOf(100))
+                    .balance(BalanceType.FOOD, 5_000)
+                    .balance(BalanceType.MEAL, 3_000)
+                    .balance(BalanceType.CASH, 10_000)
                     .build();
 
             // When
-            Balance newBalance = balance.debit(BalanceType.CASH, BigDecimal.valueOf(100));
+            Balance newBalance = balance.debit(BalanceType.CASH, 10_000);
 
             // Then
-            assertEquals(BigDecimal.ZERO, newBalance.getBalance(BalanceType.CASH));
+            assertEquals(0, newBalance.getBalance(BalanceType.CASH));
         }
 
         @Test
-        public void debit_null_amount() {
+        public void debit_more_than_current_balance() {
             // Given
             Balance balance = Balance.builder()
-                    .foodBalance(BigDecimal.valueOf(50))
-                    .mealBalance(BigDecimal.valueOf(30))
-                    .cashBalance(BigDecimal.valueOf(100))
+                    .balance(BalanceType.FOOD, 5_000)
+                    .balance(BalanceType.MEAL, 3_000)
+                    .balance(BalanceType.CASH, 10_000)
                     .build();
 
             // When
-            try {
-                balance.debit(BalanceType.CASH, null);
-            } catch (IllegalArgumentException e) {
-                // Then
-                assertEquals("Invalid amount", e.getMessage());
-                assertEquals(BigDecimal.valueOf(100), balance.getBalance(BalanceType.CASH));
-            }
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+                balance.debit(BalanceType.CASH, 10_001);
+            });
+
+            // Then
+            assertEquals("Invalid amount!", exception.getMessage());
+            assertEquals(10_000, balance.getBalance(BalanceType.CASH));
         }
 
         @Test
         public void test_debit_negative_amount() {
             // Given
             Balance balance = Balance.builder()
-                    .foodBalance(BigDecimal.valueOf(50))
-                    .mealBalance(BigDecimal.valueOf(30))
-                    .cashBalance(BigDecimal.valueOf(100))
+                    .balance(BalanceType.FOOD, 5_000)
+                    .balance(BalanceType.MEAL, 3_000)
+                    .balance(BalanceType.CASH, 10_000)
                     .build();
 
             // When
             IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-                balance.debit(BalanceType.CASH, BigDecimal.valueOf(-10));
+                balance.debit(BalanceType.CASH, -1_000);
             });
 
             // Then
             assertEquals("Invalid amount", exception.getMessage());
-            assertEquals(BigDecimal.valueOf(100), balance.getBalance(BalanceType.CASH));
+            assertEquals(10_000, balance.getBalance(BalanceType.CASH));
         }
 
         @Test
         public void test_debit_amount_does_not_affect_other_balances() {
             // Given
             Balance balance = Balance.builder()
-                    .foodBalance(BigDecimal.valueOf(50))
-                    .mealBalance(BigDecimal.valueOf(30))
-                    .cashBalance(BigDecimal.valueOf(100))
+                    .balance(BalanceType.FOOD, 5_000)
+                    .balance(BalanceType.MEAL, 3_000)
+                    .balance(BalanceType.CASH, 10_000)
                     .build();
 
             // When
-            Balance newBalance = balance.debit(BalanceType.CASH, BigDecimal.TEN);
+            Balance newBalance = balance.debit(BalanceType.CASH, 1_000);
 
             // Then
-            assertEquals(BigDecimal.valueOf(50), newBalance.getBalance(BalanceType.FOOD));
-            assertEquals(BigDecimal.valueOf(30), newBalance.getBalance(BalanceType.MEAL));
+            assertEquals(5_000, newBalance.getBalance(BalanceType.FOOD));
+            assertEquals(3_000, newBalance.getBalance(BalanceType.MEAL));
         }
 
+        @Test
+        public void test_debit_does_not_change_the_current_balance() {
+            // Given
+            Balance balance = Balance.builder()
+                    .balance(BalanceType.HEALTH, 10_000)
+                    .build();
+
+            // When
+            Balance newBalance = balance.debit(BalanceType.HEALTH, 2_500);
+
+            // Then
+            assertEquals(10_000, balance.getBalance(BalanceType.HEALTH));
+            assertEquals(7_500, newBalance.getBalance(BalanceType.HEALTH));
+        }
+
+    }
+
+    @Nested
+    @DisplayName("wallet tests")
+    class WalletTests {
+        @Test
+        public void test_wallet_missing_from_an_older_row_reads_as_zero() {
+            // Given
+            Balance balance = Balance.builder()
+                    .wallets(new long[]{5_000, 3_000, 10_000}) // FOOD, MEAL and CASH only
+                    .build();
+
+            // When
+            long cultureBalance = balance.getBalance(BalanceType.CULTURE);
+
+            // Then
+            assertEquals(0, cultureBalance);
+            assertEquals(10_000, balance.getBalance(BalanceType.CASH));
+        }
+
+        @Test
+        public void test_setting_a_wallet_missing_from_an_older_row_grows_the_array() {
+            // Given
+            Balance balance = Balance.builder()
+                    .wallets(new long[]{5_000, 3_000, 10_000})
+                    .build();
+
+            // When
+            balance.setBalance(BalanceType.MOBILITY, 2_000);
+
+            // Then
+            assertEquals(BalanceType.count(), balance.getWallets().length);
+            assertEquals(2_000, balance.getBalance(BalanceType.MOBILITY));
+            assertEquals(5_000, balance.getBalance(BalanceType.FOOD));
+        }
     }
 
 }
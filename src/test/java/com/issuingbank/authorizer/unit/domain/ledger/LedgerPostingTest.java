@@ -0,0 +1,56 @@
+package com.issuingbank.authorizer.unit.domain.ledger;
+
+import com.issuingbank.authorizer.domain.balance.Balance;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.domain.ledger.LedgerPosting;
+import com.issuingbank.authorizer.domain.transaction.Transaction;
+import com.issuingbank.authorizer.domain.transaction.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+public class LedgerPostingTest {
+
+    // The posting of a debit moves only the debited wallet, by minus the amount
+    @Test
+    public void test_debit_posts_the_debited_wallet() {
+        // Given
+        Balance previousBalance = Balance.builder()
+                .account("1001")
+                .balance(BalanceType.FOOD, 1_000)
+                .balance(BalanceType.CASH, 5_000)
+                .createdAt(Instant.now())
+                .build();
+        Transaction transaction = Transaction.builder()
+                .id(7L)
+                .account("1001")
+                .amount(300)
+                .type(TransactionType.DEBIT)
+                .createdAt(Instant.parse("2026-10-18T12:00:00Z"))
+                .build();
+
+        // When
+        LedgerPosting posting = LedgerPosting.debit(4, previousBalance, previousBalance.debit(BalanceType.CASH, 300), transaction);
+
+        // Then
+        Assertions.assertEquals(new LedgerPosting("1001", 4, BalanceType.CASH, -300, 7L, transaction.getCreatedAt()), posting);
+    }
+
+    // Postings are added to the snapshot wallets, which are left untouched
+    @Test
+    public void test_apply_adds_postings_to_a_copy_of_the_snapshot() {
+        // Given
+        long[] snapshot = {1_000, 2_000};
+
+        // When
+        long[] wallets = LedgerPosting.apply(snapshot,
+                new int[]{BalanceType.FOOD.ordinal(), BalanceType.CASH.ordinal(), BalanceType.FOOD.ordinal()},
+                new long[]{-100, -500, -200});
+
+        // Then
+        Assertions.assertEquals(700, wallets[BalanceType.FOOD.ordinal()]);
+        Assertions.assertEquals(-500, wallets[BalanceType.CASH.ordinal()]);
+        Assertions.assertArrayEquals(new long[]{1_000, 2_000}, snapshot);
+    }
+}
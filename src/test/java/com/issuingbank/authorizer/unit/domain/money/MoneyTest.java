@@ -0,0 +1,50 @@
+package com.issuingbank.authorizer.unit.domain.money;
+
+import com.issuingbank.authorizer.domain.money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MoneyTest {
+
+    @Test
+    public void test_converts_amounts_to_cents_exactly() {
+        assertEquals(3_550, Money.toCents(new BigDecimal("35.50")));
+        assertEquals(3_550, Money.toCents(new BigDecimal("35.5")));
+        assertEquals(3_550, Money.toCents(new BigDecimal("35.5000")));
+        assertEquals(1, Money.toCents(new BigDecimal("0.01")));
+        assertEquals(Money.MAX_CENTS, Money.toCents(new BigDecimal("9999999999.99")));
+    }
+
+    @Test
+    public void test_converts_cents_back_to_numeric_12_2() {
+        assertEquals(new BigDecimal("35.50"), Money.toBigDecimal(3_550));
+        assertEquals(new BigDecimal("0.00"), Money.toBigDecimal(0));
+    }
+
+    @Test
+    public void test_rejects_fractions_of_a_cent() {
+        assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("35.501")));
+        assertFalse(Money.isRepresentable(new BigDecimal("35.501")));
+        assertTrue(Money.isRepresentable(new BigDecimal("35.5000")));
+    }
+
+    @Test
+    public void test_rejects_amounts_that_do_not_fit_the_column() {
+        assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("10000000000.00")));
+        assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("1E+30")));
+        assertFalse(Money.isRepresentable(new BigDecimal("10000000000.00")));
+    }
+
+    @Test
+    public void test_subtract_is_overflow_checked() {
+        assertEquals(6_450, Money.subtract(10_000, 3_550));
+        assertThrows(ArithmeticException.class, () -> Money.subtract(-Money.MAX_CENTS, 1));
+        assertThrows(ArithmeticException.class, () -> Money.subtract(Long.MIN_VALUE, 1));
+    }
+}
@@ -0,0 +1,106 @@
+package com.issuingbank.authorizer.unit.infra.iso8583;
+
+import com.issuingbank.authorizer.application.authorizer.AuthorizationDispatcher;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponse;
+import com.issuingbank.authorizer.infra.iso8583.Iso8583AuthorizationHandler;
+import com.issuingbank.authorizer.infra.iso8583.Iso8583Message;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class Iso8583AuthorizationHandlerTest {
+
+    @Mock
+    private AuthorizationDispatcher authorizationDispatcher;
+
+    @InjectMocks
+    private Iso8583AuthorizationHandler handler;
+
+    // A 0100 is mapped onto AuthorizationRequest and answered with 0110 and the response code in element 39
+    @Test
+    public void test_authorization_request_is_dispatched_and_answered() {
+        // Given
+        byte[] request = Iso8583Frames.message("0100", Iso8583Frames.authorization("123", "10050", "5811", "000042"));
+        when(authorizationDispatcher.dispatch(any(), any())).thenReturn(AuthorizationResponse.from("51"));
+
+        // When
+        Iso8583Message response = Iso8583Message.parse(handler.handle(request));
+
+        // Then
+        ArgumentCaptor<AuthorizationRequest> captor = ArgumentCaptor.forClass(AuthorizationRequest.class);
+        verify(authorizationDispatcher).dispatch(any(), captor.capture());
+        Assertions.assertEquals("123", captor.getValue().account());
+        Assertions.assertEquals(new BigDecimal("100.50"), captor.getValue().totalAmount());
+        Assertions.assertEquals("5811", captor.getValue().mcc());
+        Assertions.assertEquals("PADARIA DO ZE            SAO PAULO BR", captor.getValue().merchant());
+
+        Assertions.assertEquals("0110", response.mti());
+        Assertions.assertEquals("51", response.get(39));
+        Assertions.assertEquals("000042", response.get(11));
+        Assertions.assertFalse(response.has(2));
+        Assertions.assertFalse(response.has(52));
+    }
+
+    // A repeat (0101) of a request uses the same Idempotency-Key, so it is replayed and not debited again
+    @Test
+    public void test_repeat_uses_same_idempotency_key() {
+        // Given
+        Map<Integer, String> fields = Iso8583Frames.authorization("123", "10050", "5811", "000042");
+        when(authorizationDispatcher.dispatch(any(), any())).thenReturn(AuthorizationResponse.from("00"));
+
+        // When
+        handler.handle(Iso8583Frames.message("0100", fields));
+        handler.handle(Iso8583Frames.message("0101", fields));
+
+        // Then
+        ArgumentCaptor<UUID> captor = ArgumentCaptor.forClass(UUID.class);
+        verify(authorizationDispatcher, times(2)).dispatch(captor.capture(), any());
+        Assertions.assertEquals(captor.getAllValues().get(0), captor.getAllValues().get(1));
+    }
+
+    // A request without a mandatory element is answered with 07 without being dispatched
+    @Test
+    public void test_request_without_account_is_answered_with_unexpected_error() {
+        // Given
+        Map<Integer, String> fields = Iso8583Frames.authorization("123", "10050", "5811", "000042");
+        fields.remove(102);
+
+        // When
+        Iso8583Message response = Iso8583Message.parse(handler.handle(Iso8583Frames.message("0100", fields)));
+
+        // Then
+        Assertions.assertEquals("07", response.get(39));
+        verify(authorizationDispatcher, never()).dispatch(any(), any());
+    }
+
+    // Network management echoes are answered with 0810 and 00
+    @Test
+    public void test_network_management_request_is_answered() {
+        // Given
+        byte[] request = Iso8583Frames.message("0800", Map.of(7, "1018123000", 11, "000001", 70, "301"));
+
+        // When
+        Iso8583Message response = Iso8583Message.parse(handler.handle(request));
+
+        // Then
+        Assertions.assertEquals("0810", response.mti());
+        Assertions.assertEquals("00", response.get(39));
+        Assertions.assertEquals("301", response.get(70));
+    }
+}
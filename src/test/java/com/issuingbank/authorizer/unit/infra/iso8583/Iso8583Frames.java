@@ -0,0 +1,70 @@
+package com.issuingbank.authorizer.unit.infra.iso8583;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Builds ISO-8583 messages the way the card network sends them, for the simulated network client.
+ */
+final class Iso8583Frames {
+    private static final Set<Integer> LLVAR = Set.of(2, 32, 35, 102, 103);
+    private static final Set<Integer> LLLVAR = Set.of(48, 54, 55, 60);
+
+    private Iso8583Frames() {
+    }
+
+    static byte[] message(String mti, Map<Integer, String> fields) {
+        Map<Integer, String> sorted = new TreeMap<>(fields);
+        boolean secondaryBitmap = sorted.keySet().stream().anyMatch(field -> field > 64);
+        byte[] bitmap = new byte[secondaryBitmap ? 16 : 8];
+
+        if (secondaryBitmap) {
+            bitmap[0] |= (byte) 0x80;
+        }
+
+        sorted.keySet().forEach(field -> bitmap[(field - 1) / 8] |= (byte) (0x80 >>> ((field - 1) % 8)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(mti.getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(bitmap);
+
+        sorted.forEach((field, value) -> {
+            if (LLVAR.contains(field)) {
+                out.writeBytes(String.format("%02d", value.length()).getBytes(StandardCharsets.US_ASCII));
+            } else if (LLLVAR.contains(field)) {
+                out.writeBytes(String.format("%03d", value.length()).getBytes(StandardCharsets.US_ASCII));
+            }
+
+            out.writeBytes(value.getBytes(StandardCharsets.US_ASCII));
+        });
+
+        return out.toByteArray();
+    }
+
+    static Map<Integer, String> authorization(String account, String amountInCents, String mcc, String stan) {
+        Map<Integer, String> fields = new TreeMap<>();
+        fields.put(2, "5555444433332222");
+        fields.put(3, "000000");
+        fields.put(4, String.format("%012d", Long.parseLong(amountInCents)));
+        fields.put(7, "1018123000");
+        fields.put(11, stan);
+        fields.put(18, mcc);
+        fields.put(32, "12345");
+        fields.put(37, "000000" + stan);
+        fields.put(43, String.format("%-40s", "PADARIA DO ZE            SAO PAULO BR"));
+        fields.put(52, "0123456789ABCDEF");
+        fields.put(102, account);
+        return fields;
+    }
+
+    static byte[] framed(byte[] message) {
+        byte[] frame = new byte[message.length + 2];
+        frame[0] = (byte) (message.length >>> 8);
+        frame[1] = (byte) message.length;
+        System.arraycopy(message, 0, frame, 2, message.length);
+        return frame;
+    }
+}
@@ -0,0 +1,74 @@
+package com.issuingbank.authorizer.unit.infra.iso8583;
+
+import com.issuingbank.authorizer.infra.iso8583.Iso8583FormatException;
+import com.issuingbank.authorizer.infra.iso8583.Iso8583Message;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+public class Iso8583MessageTest {
+
+    // Fixed and variable elements of both bitmaps are read from the frame
+    @Test
+    public void test_parse_reads_fixed_and_variable_elements() {
+        // Given
+        byte[] frame = Iso8583Frames.message("0100", Iso8583Frames.authorization("123", "10050", "5811", "000042"));
+
+        // When
+        Iso8583Message message = Iso8583Message.parse(frame);
+
+        // Then
+        Assertions.assertEquals("0100", message.mti());
+        Assertions.assertEquals(10050L, message.getLong(4));
+        Assertions.assertEquals("5811", message.get(18));
+        Assertions.assertEquals("12345", message.get(32));
+        Assertions.assertEquals("123", message.get(102));
+        Assertions.assertFalse(message.has(39));
+        Assertions.assertNull(message.get(39));
+    }
+
+    // The response echoes the request elements, sets the new ones and leaves out the dropped ones
+    @Test
+    public void test_respond_echoes_request_elements() {
+        // Given
+        Iso8583Message request = Iso8583Message.parse(Iso8583Frames.message("0100", Iso8583Frames.authorization("123", "10050", "5811", "000042")));
+        String[] values = new String[40];
+        values[39] = "51";
+
+        // When
+        Iso8583Message response = Iso8583Message.parse(request.respond("0110", values, 2, 52));
+
+        // Then
+        Assertions.assertEquals("0110", response.mti());
+        Assertions.assertEquals("51", response.get(39));
+        Assertions.assertEquals(request.get(11), response.get(11));
+        Assertions.assertEquals(request.get(37), response.get(37));
+        Assertions.assertEquals(request.get(43), response.get(43));
+        Assertions.assertEquals("123", response.get(102));
+        Assertions.assertFalse(response.has(2));
+        Assertions.assertFalse(response.has(52));
+    }
+
+    // A frame cut inside an element is rejected
+    @Test
+    public void test_parse_rejects_truncated_frame() {
+        // Given
+        byte[] frame = Iso8583Frames.message("0100", Iso8583Frames.authorization("123", "10050", "5811", "000042"));
+        byte[] truncated = Arrays.copyOf(frame, frame.length - 2);
+
+        // When / Then
+        Assertions.assertThrows(Iso8583FormatException.class, () -> Iso8583Message.parse(truncated));
+    }
+
+    // A variable element longer than its maximum is rejected
+    @Test
+    public void test_parse_rejects_variable_element_over_maximum() {
+        // Given
+        byte[] frame = Iso8583Frames.message("0100", Map.of(102, "1".repeat(29)));
+
+        // When / Then
+        Assertions.assertThrows(Iso8583FormatException.class, () -> Iso8583Message.parse(frame));
+    }
+}
@@ -0,0 +1,116 @@
+package com.issuingbank.authorizer.unit.infra.iso8583;
+
+import com.issuingbank.authorizer.application.authorizer.AuthorizationDispatcher;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationRequest;
+import com.issuingbank.authorizer.application.authorizer.AuthorizationResponse;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.iso8583.Iso8583AuthorizationHandler;
+import com.issuingbank.authorizer.infra.iso8583.Iso8583Message;
+import com.issuingbank.authorizer.infra.iso8583.Iso8583Server;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Simulated network client against the listener on an ephemeral port.
+ */
+@ExtendWith(MockitoExtension.class)
+public class Iso8583ServerTest {
+
+    @Mock
+    private AuthorizationDispatcher authorizationDispatcher;
+
+    private Iso8583Server server;
+
+    @BeforeEach
+    void setUp() {
+        AuthorizerProperties properties = new AuthorizerProperties();
+        properties.getIso8583().setPort(0);
+        properties.getIso8583().setMaxInFlightPerConnection(2);
+
+        server = new Iso8583Server(new Iso8583AuthorizationHandler(authorizationDispatcher), properties);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    // Pipelined requests are answered in request order even when the first one is the slowest
+    @Test
+    public void test_pipelined_requests_are_answered_in_order() throws IOException {
+        // Given
+        when(authorizationDispatcher.dispatch(any(), any())).thenAnswer(invocation -> {
+            AuthorizationRequest request = invocation.getArgument(1);
+
+            if (request.account().equals("slow")) {
+                Thread.sleep(200);
+            }
+
+            return AuthorizationResponse.from(request.account().equals("broke") ? "51" : "00");
+        });
+
+        try (Socket socket = new Socket("localhost", server.localPort())) {
+            OutputStream out = socket.getOutputStream();
+
+            // When
+            out.write(Iso8583Frames.framed(Iso8583Frames.message("0100", Iso8583Frames.authorization("slow", "1000", "5811", "000001"))));
+            out.write(Iso8583Frames.framed(Iso8583Frames.message("0100", Iso8583Frames.authorization("broke", "1000", "5811", "000002"))));
+            out.write(Iso8583Frames.framed(Iso8583Frames.message("0100", Iso8583Frames.authorization("123", "1000", "5811", "000003"))));
+            out.write(Iso8583Frames.framed(Iso8583Frames.message("0800", Map.of(11, "000004", 70, "301"))));
+            out.flush();
+
+            // Then
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            List<Iso8583Message> responses = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                byte[] body = new byte[in.readUnsignedShort()];
+                in.readFully(body);
+                responses.add(Iso8583Message.parse(body));
+            }
+
+            Assertions.assertEquals(List.of("000001", "000002", "000003", "000004"), responses.stream().map(response -> response.get(11)).toList());
+            Assertions.assertEquals(List.of("00", "51", "00", "00"), responses.stream().map(response -> response.get(39)).toList());
+            Assertions.assertEquals("0810", responses.get(3).mti());
+        }
+    }
+
+    // A message that cannot be parsed closes the connection after the responses before it
+    @Test
+    public void test_unparseable_message_closes_connection() throws IOException {
+        // Given
+        when(authorizationDispatcher.dispatch(any(), any())).thenReturn(AuthorizationResponse.from("00"));
+
+        try (Socket socket = new Socket("localhost", server.localPort())) {
+            OutputStream out = socket.getOutputStream();
+
+            // When
+            out.write(Iso8583Frames.framed(Iso8583Frames.message("0100", Iso8583Frames.authorization("123", "1000", "5811", "000001"))));
+            out.write(Iso8583Frames.framed("garbage".getBytes()));
+            out.flush();
+
+            // Then
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            byte[] body = new byte[in.readUnsignedShort()];
+            in.readFully(body);
+            Assertions.assertEquals("00", Iso8583Message.parse(body).get(39));
+            Assertions.assertEquals(-1, in.read());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.issuingbank.authorizer.unit.infra.journal;
+
+import com.issuingbank.authorizer.domain.balance.BalanceHistory;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.domain.transaction.Transaction;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.journal.BalanceHistoryJournal;
+import com.issuingbank.authorizer.infra.journal.BalanceHistoryJournalFlusher;
+import com.issuingbank.authorizer.infra.repositories.JournaledBalanceHistoryRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class BalanceHistoryJournalFlusherTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    JournaledBalanceHistoryRepository journaledBalanceHistoryRepository;
+
+    private AuthorizerProperties properties;
+    private BalanceHistoryJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuthorizerProperties();
+        properties.getBalanceHistory().getJournal().setDirectory(directory.toString());
+        properties.getBalanceHistory().getJournal().setFsync(false);
+        properties.getBalanceHistory().getJournal().setBatchSize(2);
+        journal = new BalanceHistoryJournal(properties);
+    }
+
+    // Sealed segments past the grace period are inserted in batches and deleted
+    @Test
+    public void test_flushes_sealed_segment_in_batches_and_deletes_it() {
+        // Given
+        for (long transactionId = 1; transactionId <= 3; transactionId++) {
+            journal.append(balanceHistory(transactionId));
+        }
+        journal.close();
+        Mockito.when(journaledBalanceHistoryRepository.insertAll(ArgumentMatchers.anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0, List.class).size());
+
+        // When
+        flusherAt(Instant.now().plus(Duration.ofMinutes(1))).flush();
+
+        // Then
+        Mockito.verify(journaledBalanceHistoryRepository, Mockito.times(2)).insertAll(ArgumentMatchers.anyList());
+        Assertions.assertTrue(journal.sealedSegments().isEmpty());
+    }
+
+    // Segments written within the grace period may hold uncommitted authorizations and are left alone
+    @Test
+    public void test_keeps_segment_within_grace_period() {
+        // Given
+        journal.append(balanceHistory(1L));
+        journal.close();
+
+        // When
+        flusherAt(Instant.now()).flush();
+
+        // Then
+        Mockito.verifyNoInteractions(journaledBalanceHistoryRepository);
+        Assertions.assertEquals(1, journal.sealedSegments().size());
+    }
+
+    // A failed insert keeps the segment so the next run retries it
+    @Test
+    public void test_keeps_segment_when_insert_fails() {
+        // Given
+        journal.append(balanceHistory(1L));
+        journal.close();
+        Mockito.when(journaledBalanceHistoryRepository.insertAll(ArgumentMatchers.anyList()))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        // When
+        Assertions.assertThrows(IllegalStateException.class, () -> flusherAt(Instant.now().plus(Duration.ofMinutes(1))).flush());
+
+        // Then
+        Assertions.assertEquals(1, journal.sealedSegments().size());
+    }
+
+    private BalanceHistoryJournalFlusher flusherAt(Instant now) {
+        return new BalanceHistoryJournalFlusher(journal, journaledBalanceHistoryRepository, properties, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private BalanceHistory balanceHistory(long transactionId) {
+        return BalanceHistory.builder()
+                .transaction(Transaction.builder().id(transactionId).build())
+                .account("1")
+                .previousBalance(BalanceType.FOOD, 1_000)
+                .previousBalance(BalanceType.MEAL, 0)
+                .previousBalance(BalanceType.CASH, 0)
+                .newBalance(BalanceType.FOOD, 100)
+                .newBalance(BalanceType.MEAL, 0)
+                .newBalance(BalanceType.CASH, 0)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,173 @@
+package com.issuingbank.authorizer.unit.infra.journal;
+
+import com.issuingbank.authorizer.domain.balance.BalanceHistory;
+import com.issuingbank.authorizer.domain.balance.BalanceType;
+import com.issuingbank.authorizer.domain.transaction.Transaction;
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.journal.BalanceHistoryJournal;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class BalanceHistoryJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private AuthorizerProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuthorizerProperties();
+        properties.getBalanceHistory().getJournal().setDirectory(directory.toString());
+        properties.getBalanceHistory().getJournal().setFsync(false);
+    }
+
+    // Appended records can be read back once the segment is sealed
+    @Test
+    public void test_appended_records_are_read_back_from_sealed_segment() {
+        // Given
+        BalanceHistoryJournal journal = new BalanceHistoryJournal(properties);
+        BalanceHistory balanceHistory = balanceHistory(42L);
+
+        // When
+        journal.append(balanceHistory);
+        journal.close();
+
+        // Then
+        List<Path> segments = journal.sealedSegments();
+        Assertions.assertEquals(1, segments.size());
+
+        List<BalanceHistory> records = journal.read(segments.get(0));
+        Assertions.assertEquals(1, records.size());
+        Assertions.assertEquals(42L, records.get(0).getTransaction().getId());
+        Assertions.assertEquals("1", records.get(0).getAccount());
+        Assertions.assertEquals(15_025, records.get(0).getNewBalance(BalanceType.FOOD));
+        Assertions.assertEquals(balanceHistory.getCreatedAt(), records.get(0).getCreatedAt());
+    }
+
+    // Concurrent appends with fsync all return, sharing forces, and every record reaches a sealed segment
+    @Test
+    public void test_concurrent_appends_with_fsync_are_all_written() throws InterruptedException {
+        // Given
+        properties.getBalanceHistory().getJournal().setFsync(true);
+        properties.getBalanceHistory().getJournal().setSegmentMaxRecords(7);
+        BalanceHistoryJournal journal = new BalanceHistoryJournal(properties);
+        int threads = 8;
+        int appendsPerThread = 50;
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int thread = 0; thread < threads; thread++) {
+                long firstId = (long) thread * appendsPerThread;
+                executor.submit(() -> {
+                    for (long id = firstId; id < firstId + appendsPerThread; id++) {
+                        journal.append(balanceHistory(id));
+                    }
+                });
+            }
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+        journal.close();
+
+        // Then
+        Set<Long> ids = new HashSet<>();
+        journal.sealedSegments().forEach(segment -> journal.read(segment).forEach(record -> ids.add(record.getTransaction().getId())));
+        Assertions.assertEquals(threads * appendsPerThread, ids.size());
+    }
+
+    // The open segment is sealed as soon as it reaches segment-max-records
+    @Test
+    public void test_segment_is_sealed_after_max_records() {
+        // Given
+        properties.getBalanceHistory().getJournal().setSegmentMaxRecords(2);
+        BalanceHistoryJournal journal = new BalanceHistoryJournal(properties);
+
+        // When
+        journal.append(balanceHistory(1L));
+        journal.append(balanceHistory(2L));
+        journal.append(balanceHistory(3L));
+
+        // Then
+        Assertions.assertEquals(1, journal.sealedSegments().size());
+        Assertions.assertEquals(2, journal.read(journal.sealedSegments().get(0)).size());
+    }
+
+    // A torn last line left by a crash is skipped
+    @Test
+    public void test_torn_record_is_skipped() throws IOException {
+        // Given
+        BalanceHistoryJournal journal = new BalanceHistoryJournal(properties);
+        journal.append(balanceHistory(1L));
+        journal.close();
+        Path segment = journal.sealedSegments().get(0);
+        Files.writeString(segment, "2;1;200.00;0", StandardOpenOption.APPEND);
+
+        // When
+        List<BalanceHistory> records = journal.read(segment);
+
+        // Then
+        Assertions.assertEquals(1, records.size());
+    }
+
+    // Segments written before wallets were arrays are still read
+    @Test
+    public void test_record_with_one_column_per_wallet_is_read() throws IOException {
+        // Given
+        BalanceHistoryJournal journal = new BalanceHistoryJournal(properties);
+        Path segment = directory.resolve("balance-history-0000000000000000001-000000.log");
+        Files.writeString(segment, "7;1;200.00;0.00;50.00;150.25;0.00;50.00;2024-09-01T10:15:30Z\n");
+
+        // When
+        List<BalanceHistory> records = journal.read(segment);
+
+        // Then
+        Assertions.assertEquals(1, records.size());
+        Assertions.assertEquals(20_000, records.get(0).getPreviousBalance(BalanceType.FOOD));
+        Assertions.assertEquals(15_025, records.get(0).getNewBalance(BalanceType.FOOD));
+        Assertions.assertEquals(5_000, records.get(0).getNewBalance(BalanceType.CASH));
+        Assertions.assertEquals(0, records.get(0).getNewBalance(BalanceType.CULTURE));
+    }
+
+    // Segments left open by a previous run are sealed on recovery
+    @Test
+    public void test_recover_seals_segments_left_open() throws IOException {
+        // Given
+        Files.writeString(directory.resolve("balance-history-0000000000000000001-000000.open"), "");
+        BalanceHistoryJournal journal = new BalanceHistoryJournal(properties);
+
+        // When
+        journal.recover();
+
+        // Then
+        Assertions.assertEquals(1, journal.sealedSegments().size());
+    }
+
+    private BalanceHistory balanceHistory(long transactionId) {
+        return BalanceHistory.builder()
+                .transaction(Transaction.builder().id(transactionId).build())
+                .account("1")
+                .previousBalance(BalanceType.FOOD, 20_000)
+                .previousBalance(BalanceType.MEAL, 0)
+                .previousBalance(BalanceType.CASH, 0)
+                .newBalance(BalanceType.FOOD, 15_025)
+                .newBalance(BalanceType.MEAL, 0)
+                .newBalance(BalanceType.CASH, 0)
+                .createdAt(Instant.parse("2024-09-01T10:15:30.123Z"))
+                .build();
+    }
+}
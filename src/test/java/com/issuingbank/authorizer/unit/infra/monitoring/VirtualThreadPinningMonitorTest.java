@@ -0,0 +1,55 @@
+package com.issuingbank.authorizer.unit.infra.monitoring;
+
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.monitoring.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class VirtualThreadPinningMonitorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        AuthorizerProperties properties = new AuthorizerProperties();
+        properties.getVirtualThreads().setPinningThreshold(Duration.ofMillis(10));
+        monitor = new VirtualThreadPinningMonitor(properties, meterRegistry);
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    // A virtual thread sleeping inside synchronized pins its carrier and is counted
+    @Test
+    public void test_counts_virtual_thread_blocked_inside_synchronized() throws InterruptedException {
+        // Given
+        Object monitorLock = new Object();
+
+        // When
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitorLock) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        // Then
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (meterRegistry.counter("authorizer.virtual-threads.pinned").count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+
+        Assertions.assertTrue(meterRegistry.counter("authorizer.virtual-threads.pinned").count() >= 1);
+    }
+}
@@ -0,0 +1,178 @@
+package com.issuingbank.authorizer.unit.infra.partitions;
+
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.partitions.PartitionMaintenance;
+import com.issuingbank.authorizer.infra.repositories.PartitionRepository;
+import com.issuingbank.authorizer.infra.repositories.PartitionRepository.Partition;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class PartitionMaintenanceTest {
+    private static final YearMonth CURRENT_MONTH = YearMonth.of(2026, 10);
+
+    @Mock
+    PartitionRepository partitionRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    // Months from the current one to current + premake that have no partition are planned for creation
+    @Test
+    public void test_plans_missing_months() {
+        // Given
+        List<Partition> partitions = List.of(
+                month("transaction_2026_10", CURRENT_MONTH),
+                month("transaction_2026_11", CURRENT_MONTH.plusMonths(1)),
+                new Partition("transaction_default", null, null, true));
+
+        // When
+        PartitionMaintenance.Plan plan = PartitionMaintenance.plan(partitions, CURRENT_MONTH, 3, 13);
+
+        // Then
+        Assertions.assertEquals(List.of(YearMonth.of(2026, 12), YearMonth.of(2027, 1)), plan.create());
+        Assertions.assertTrue(plan.expire().isEmpty());
+    }
+
+    // The legacy partition, from MINVALUE, covers every month before its upper bound
+    @Test
+    public void test_legacy_partition_covers_months_up_to_its_bound() {
+        // Given
+        List<Partition> partitions = List.of(new Partition("transaction_legacy", null, start(CURRENT_MONTH.plusMonths(2)), false));
+
+        // When
+        PartitionMaintenance.Plan plan = PartitionMaintenance.plan(partitions, CURRENT_MONTH, 3, 13);
+
+        // Then
+        Assertions.assertEquals(List.of(YearMonth.of(2026, 12), YearMonth.of(2027, 1)), plan.create());
+    }
+
+    // Only partitions whose whole range is older than the retention expire; the default partition never does
+    @Test
+    public void test_expires_partitions_older_than_retention() {
+        // Given
+        Partition legacy = new Partition("transaction_legacy", null, start(YearMonth.of(2025, 9)), false);
+        Partition expired = month("transaction_2025_09", YearMonth.of(2025, 9));
+        Partition retained = month("transaction_2025_10", YearMonth.of(2025, 10));
+        Partition defaultPartition = new Partition("transaction_default", null, null, true);
+
+        // When
+        PartitionMaintenance.Plan plan = PartitionMaintenance.plan(List.of(legacy, expired, retained, defaultPartition), CURRENT_MONTH, 0, 12);
+
+        // Then
+        Assertions.assertEquals(List.of(legacy, expired), plan.expire());
+    }
+
+    // A run creates the missing partitions, detaches the expired ones and releases their idempotency keys
+    @Test
+    public void test_maintain_applies_the_plan() {
+        // Given
+        AuthorizerProperties properties = new AuthorizerProperties();
+        properties.getPartitions().setPremakeMonths(0);
+        properties.getPartitions().setRetentionMonths(12);
+        properties.getPartitions().setDropExpired(true);
+        Mockito.when(partitionRepository.tryLockMaintenance()).thenReturn(true);
+        Mockito.when(partitionRepository.findPartitions("transaction"))
+                .thenReturn(List.of(month("transaction_2025_09", YearMonth.of(2025, 9))));
+        Mockito.when(partitionRepository.findPartitions("balance_history"))
+                .thenReturn(List.of(month("balance_history_2026_10", CURRENT_MONTH)));
+
+        // When
+        maintenanceAt(properties).maintain();
+
+        // Then
+        Mockito.verify(partitionRepository).create("transaction", "transaction_2026_10", start(CURRENT_MONTH), start(CURRENT_MONTH.plusMonths(1)));
+        Mockito.verify(partitionRepository).detach("transaction", "transaction_2025_09");
+        Mockito.verify(partitionRepository).drop("transaction_2025_09");
+        Mockito.verify(partitionRepository).deleteIdempotencyKeysBefore(start(YearMonth.of(2025, 10)), 5000);
+        Mockito.verify(partitionRepository).deleteIdempotentResponsesBefore(start(YearMonth.of(2025, 10)), 5000);
+        Mockito.verify(partitionRepository, Mockito.never()).create(ArgumentMatchers.eq("balance_history"), ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    // The DETACH commits on its own, and the keys are then released in batches, each in a transaction of its own
+    @Test
+    public void test_maintain_releases_keys_in_batches_after_the_detach_commits() {
+        // Given
+        AuthorizerProperties properties = new AuthorizerProperties();
+        properties.getPartitions().setPremakeMonths(0);
+        properties.getPartitions().setRetentionMonths(12);
+        properties.getPartitions().setReleaseBatchSize(2);
+        Mockito.when(partitionRepository.tryLockMaintenance()).thenReturn(true);
+        Mockito.when(partitionRepository.findPartitions("transaction"))
+                .thenReturn(List.of(month("transaction_2025_09", YearMonth.of(2025, 9)), month("transaction_2026_10", CURRENT_MONTH)));
+        Mockito.when(partitionRepository.deleteIdempotencyKeysBefore(start(YearMonth.of(2025, 10)), 2)).thenReturn(2, 2, 1);
+
+        // When
+        maintenanceAt(properties).maintain();
+
+        // Then
+        InOrder inOrder = Mockito.inOrder(partitionRepository, transactionManager);
+        inOrder.verify(partitionRepository).detach("transaction", "transaction_2025_09");
+        inOrder.verify(transactionManager).commit(ArgumentMatchers.any());
+        for (int batch = 0; batch < 3; batch++) {
+            inOrder.verify(partitionRepository).deleteIdempotencyKeysBefore(start(YearMonth.of(2025, 10)), 2);
+            inOrder.verify(transactionManager).commit(ArgumentMatchers.any());
+        }
+    }
+
+    // Keys are never released while a partition from MINVALUE, which may still hold their transactions, is attached
+    @Test
+    public void test_maintain_keeps_keys_while_the_legacy_partition_is_attached() {
+        // Given
+        AuthorizerProperties properties = new AuthorizerProperties();
+        properties.getPartitions().setPremakeMonths(0);
+        Mockito.when(partitionRepository.tryLockMaintenance()).thenReturn(true);
+        Mockito.when(partitionRepository.findPartitions(ArgumentMatchers.anyString()))
+                .thenReturn(List.of(new Partition("transaction_legacy", null, start(CURRENT_MONTH), false)));
+
+        // When
+        maintenanceAt(properties).maintain();
+
+        // Then
+        Mockito.verify(partitionRepository, Mockito.never()).detach(ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+        Mockito.verify(partitionRepository, Mockito.never()).deleteIdempotencyKeysBefore(ArgumentMatchers.any(), ArgumentMatchers.anyInt());
+    }
+
+    // Nothing is changed while another node holds the maintenance lock
+    @Test
+    public void test_maintain_skips_when_another_node_holds_the_lock() {
+        // Given
+        Mockito.when(partitionRepository.tryLockMaintenance()).thenReturn(false);
+
+        // When
+        maintenanceAt(new AuthorizerProperties()).maintain();
+
+        // Then
+        Mockito.verify(partitionRepository, Mockito.never()).findPartitions(ArgumentMatchers.anyString());
+    }
+
+    private PartitionMaintenance maintenanceAt(AuthorizerProperties properties) {
+        Clock clock = Clock.fixed(Instant.parse("2026-10-18T12:00:00Z"), ZoneOffset.UTC);
+        return new PartitionMaintenance(partitionRepository, new AccountShardRouter(properties, null, null), transactionManager,
+                properties, clock);
+    }
+
+    private static Partition month(String name, YearMonth month) {
+        return new Partition(name, start(month), start(month.plusMonths(1)), false);
+    }
+
+    private static LocalDateTime start(YearMonth month) {
+        return month.atDay(1).atStartOfDay();
+    }
+}
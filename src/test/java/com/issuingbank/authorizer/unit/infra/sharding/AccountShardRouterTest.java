@@ -0,0 +1,88 @@
+package com.issuingbank.authorizer.unit.infra.sharding;
+
+import com.issuingbank.authorizer.infra.config.AuthorizerProperties;
+import com.issuingbank.authorizer.infra.repositories.AccountShardRepository;
+import com.issuingbank.authorizer.infra.repositories.AccountShardRepository.ShardOverride;
+import com.issuingbank.authorizer.infra.sharding.AccountShardRouter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+public class AccountShardRouterTest {
+    private static final Instant MOVED_AT = Instant.parse("2026-10-18T12:00:00Z");
+
+    @Mock
+    AccountShardRepository accountShardRepository;
+
+    // A move committed while a reload was reading account_shard is kept, then left to account_shard on the next reload
+    @Test
+    public void test_reload_keeps_a_move_committed_during_the_read() {
+        // Given
+        AccountShardRouter router = router();
+        String source = router.shardFor("1001");
+        String target = otherShard(source);
+        Mockito.when(accountShardRepository.findOverrides())
+                .thenAnswer(invocation -> {
+                    router.moved("1001", target, MOVED_AT);
+                    return Map.of();
+                })
+                .thenReturn(Map.of());
+
+        // When
+        router.reload();
+
+        // Then
+        Assertions.assertEquals(target, router.shardFor("1001"));
+
+        // When
+        router.reload();
+
+        // Then
+        Assertions.assertEquals(source, router.shardFor("1001"));
+    }
+
+    // A later move of the account read from account_shard wins over an earlier local move
+    @Test
+    public void test_reload_prefers_a_later_move_from_account_shard() {
+        // Given
+        AccountShardRouter router = router();
+        String source = router.shardFor("1001");
+        String target = otherShard(source);
+        Mockito.when(accountShardRepository.findOverrides())
+                .thenAnswer(invocation -> {
+                    router.moved("1001", target, MOVED_AT);
+                    return Map.of("1001", new ShardOverride(source, MOVED_AT.plusSeconds(1)));
+                });
+
+        // When
+        router.reload();
+
+        // Then
+        Assertions.assertEquals(source, router.shardFor("1001"));
+    }
+
+    private AccountShardRouter router() {
+        AuthorizerProperties properties = new AuthorizerProperties();
+        properties.getSharding().setEnabled(true);
+        properties.getSharding().setShards(List.of(shard("shard-0"), shard("shard-1")));
+        return new AccountShardRouter(properties, accountShardRepository, null);
+    }
+
+    private static AuthorizerProperties.Shard shard(String name) {
+        AuthorizerProperties.Shard shard = new AuthorizerProperties.Shard();
+        shard.setName(name);
+        return shard;
+    }
+
+    private static String otherShard(String shard) {
+        return "shard-0".equals(shard) ? "shard-1" : "shard-0";
+    }
+}
@@ -0,0 +1,93 @@
+package com.issuingbank.authorizer.unit.infra.sharding;
+
+import com.issuingbank.authorizer.infra.sharding.ShardRing;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ShardRingTest {
+    private static final int ACCOUNTS = 100_000;
+
+    // Accounts spread over equally weighted shards in about equal parts
+    @Test
+    public void test_accounts_are_spread_evenly() {
+        // Given
+        ShardRing ring = ShardRing.of(List.of("shard-0", "shard-1", "shard-2", "shard-3"), 128);
+
+        // When
+        Map<String, Integer> accounts = new HashMap<>();
+        for (int account = 0; account < ACCOUNTS; account++) {
+            accounts.merge(ring.shardFor(String.valueOf(account)), 1, Integer::sum);
+        }
+
+        // Then
+        Assertions.assertEquals(4, accounts.size());
+        accounts.values().forEach(count -> Assertions.assertEquals(ACCOUNTS / 4.0, count, ACCOUNTS * 0.05));
+    }
+
+    // Rings built from the same weights agree on every account, whatever the order the shards are given in
+    @Test
+    public void test_same_weights_route_the_same_way() {
+        // Given
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("shard-0", 128);
+        weights.put("shard-1", 64);
+        Map<String, Integer> reversed = new LinkedHashMap<>();
+        reversed.put("shard-1", 64);
+        reversed.put("shard-0", 128);
+
+        // When
+        ShardRing ring = new ShardRing(weights);
+        ShardRing other = new ShardRing(reversed);
+
+        // Then
+        for (int account = 0; account < 10_000; account++) {
+            Assertions.assertEquals(ring.shardFor(String.valueOf(account)), other.shardFor(String.valueOf(account)));
+        }
+    }
+
+    // A new shard only takes accounts, about its share of the ring, and no account moves between the old ones
+    @Test
+    public void test_adding_a_shard_only_moves_accounts_to_it() {
+        // Given
+        ShardRing before = ShardRing.of(List.of("shard-0", "shard-1", "shard-2"), 128);
+        ShardRing after = ShardRing.of(List.of("shard-0", "shard-1", "shard-2", "shard-3"), 128);
+
+        // When
+        int moved = 0;
+        for (int account = 0; account < ACCOUNTS; account++) {
+            String from = before.shardFor(String.valueOf(account));
+            String to = after.shardFor(String.valueOf(account));
+
+            if (!from.equals(to)) {
+                Assertions.assertEquals("shard-3", to);
+                moved++;
+            }
+        }
+
+        // Then
+        Assertions.assertEquals(ACCOUNTS / 4.0, moved, ACCOUNTS * 0.05);
+    }
+
+    // A shard with no virtual nodes is in the ring without accounts
+    @Test
+    public void test_shard_without_virtual_nodes_owns_no_account() {
+        // Given
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("shard-0", 128);
+        weights.put("shard-1", 0);
+
+        // When
+        ShardRing ring = new ShardRing(weights);
+
+        // Then
+        Assertions.assertEquals(List.of("shard-0", "shard-1"), ring.shards());
+        for (int account = 0; account < 10_000; account++) {
+            Assertions.assertEquals("shard-0", ring.shardFor(String.valueOf(account)));
+        }
+    }
+}